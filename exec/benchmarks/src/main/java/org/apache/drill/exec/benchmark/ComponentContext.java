@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import org.apache.drill.common.DeferredException;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.proto.BitControl.PlanFragment;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.server.DrillbitContext;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.test.ClusterFixture;
+
+/**
+ * A fragment context on an embedded Drillbit, for the benchmarks of the
+ * components of the operators. These generate and compile their code through
+ * the context, as they do in a query, but are driven directly, so that the
+ * scores do not include planning or the other operators of a query.
+ */
+class ComponentContext implements AutoCloseable {
+
+  private final ClusterFixture cluster;
+  private final FragmentContext context;
+
+  ComponentContext() throws Exception {
+    cluster = ClusterFixture.builder()
+        .maxParallelization(1)
+        .build();
+    final DrillbitContext drillbitContext = cluster.drillbit().getContext();
+    context = new FragmentContext(drillbitContext, PlanFragment.getDefaultInstance(),
+        drillbitContext.getFunctionImplementationRegistry());
+    context.setExecutorState(new FragmentContext.ExecutorState() {
+      private final DeferredException ex = new DeferredException();
+
+      @Override
+      public boolean shouldContinue() {
+        return !isFailed();
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        ex.addThrowable(t);
+      }
+
+      @Override
+      public boolean isFailed() {
+        return ex.getException() != null;
+      }
+
+      @Override
+      public Throwable getFailureCause() {
+        return ex.getException();
+      }
+    });
+  }
+
+  FragmentContext getContext() {
+    return context;
+  }
+
+  BufferAllocator getAllocator() {
+    return context.getAllocator();
+  }
+
+  /**
+   * @return a batch of a single required INT column with the given values
+   */
+  VectorContainer createIntBatch(String name, int[] values) {
+    final IntVector vector = new IntVector(MaterializedField.create(name, Types.required(MinorType.INT)),
+        getAllocator());
+    vector.allocateNew(values.length);
+    final IntVector.Mutator mutator = vector.getMutator();
+    for (int i = 0; i < values.length; i++) {
+      mutator.set(i, values[i]);
+    }
+    mutator.setValueCount(values.length);
+
+    final VectorContainer container = new VectorContainer();
+    container.add(vector);
+    container.buildSchema(SelectionVectorMode.NONE);
+    container.setRecordCount(values.length);
+    return container;
+  }
+
+  @Override
+  public void close() throws Exception {
+    context.close();
+    cluster.close();
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.impl.common.ChainedHashTable;
+import org.apache.drill.exec.physical.impl.common.Comparator;
+import org.apache.drill.exec.physical.impl.common.HashTable;
+import org.apache.drill.exec.physical.impl.common.HashTableConfig;
+import org.apache.drill.exec.physical.impl.common.IndexPointer;
+import org.apache.drill.exec.record.SimpleRecordBatch;
+import org.apache.drill.exec.record.VectorContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Put and probe of the hash table shared by the hash aggregate and the hash
+ * join, on a single INT key, with the generated code of a query. Each
+ * invocation puts, or probes, {@link #BATCHES} batches of {@link #RECORDS}
+ * rows; scores are in rows per microsecond.
+ * <p>
+ * The {@code keys} parameter is the number of distinct keys put: few keys
+ * stand for a grouping key, one key per row or so for a join key. Half the
+ * probed keys are in the table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HashTableBenchmark {
+  public static final int BATCHES = 16;
+  public static final int RECORDS = 32 * 1024;
+
+  @Param({"1000", "500000"})
+  public int keys;
+
+  private ComponentContext context;
+  private VectorContainer[] containers;
+  private SimpleRecordBatch[] buildBatches;
+  private SimpleRecordBatch[] probeBatches;
+  private HashTable putTable;
+  private HashTable probeTable;
+  private final int[] hashCodes = new int[RECORDS];
+  private final IndexPointer index = new IndexPointer();
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    context = new ComponentContext();
+    final Random random = new Random(42);
+    containers = new VectorContainer[2 * BATCHES];
+    buildBatches = new SimpleRecordBatch[BATCHES];
+    probeBatches = new SimpleRecordBatch[BATCHES];
+    for (int b = 0; b < BATCHES; b++) {
+      final int[] buildKeys = new int[RECORDS];
+      final int[] probeKeys = new int[RECORDS];
+      for (int i = 0; i < RECORDS; i++) {
+        buildKeys[i] = random.nextInt(keys);
+        probeKeys[i] = random.nextInt(2 * keys);
+      }
+      containers[2 * b] = context.createIntBatch("key", buildKeys);
+      containers[2 * b + 1] = context.createIntBatch("key", probeKeys);
+      buildBatches[b] = new SimpleRecordBatch(containers[2 * b], null, context.getContext());
+      probeBatches[b] = new SimpleRecordBatch(containers[2 * b + 1], null, context.getContext());
+    }
+
+    putTable = createTable();
+    probeTable = createTable();
+    put(probeTable);
+  }
+
+  private HashTable createTable() throws Exception {
+    final SchemaPath key = SchemaPath.getSimplePath("key");
+    final HashTableConfig config = new HashTableConfig(
+        (int) context.getContext().getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE),
+        HashTable.DEFAULT_LOAD_FACTOR,
+        Collections.singletonList(new NamedExpression(key, new FieldReference("build_side_0"))),
+        Collections.singletonList(new NamedExpression(key, new FieldReference("probe_side_0"))),
+        Collections.singletonList(Comparator.EQUALS));
+    return new ChainedHashTable(config, context.getContext(), context.getAllocator(), buildBatches[0],
+        probeBatches[0], null).createAndSetupHashTable(null);
+  }
+
+  private void put(HashTable table) {
+    for (SimpleRecordBatch batch : buildBatches) {
+      table.updateIncoming(batch, probeBatches[0]);
+      table.getHashCodes(RECORDS, hashCodes, false);
+      for (int i = 0; i < RECORDS; i++) {
+        table.put(i, index, hashCodes[i]);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    putTable.clear();
+    probeTable.clear();
+    for (VectorContainer container : containers) {
+      container.clear();
+    }
+    context.close();
+  }
+
+  /**
+   * Builds the table from empty, growing it as the keys are added.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCHES * RECORDS)
+  public int put() {
+    putTable.reset();
+    put(putTable);
+    return putTable.size();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCHES * RECORDS)
+  public int probe() {
+    int found = 0;
+    for (SimpleRecordBatch batch : probeBatches) {
+      probeTable.updateIncoming(buildBatches[0], batch);
+      probeTable.getHashCodes(RECORDS, hashCodes, true);
+      for (int i = 0; i < RECORDS; i++) {
+        if (probeTable.containsKey(i, hashCodes[i], true) != -1) {
+          found++;
+        }
+      }
+    }
+    return found;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-fragment queries over generated (mock) data, each of which is
+ * dominated by one operator: the hash aggregate and hash join (hash table
+ * put and probe), the external sort, and the generated filter and project
+ * code. Runs on an embedded Drillbit, so the score includes planning and
+ * code generation; the code cache is warm after the first warmup iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OperatorBenchmark {
+
+  @Param({"hashAgg", "hashJoin", "sort", "filterProject"})
+  public String operator;
+
+  private ClusterFixture cluster;
+  private ClientFixture client;
+  private String sql;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cluster = ClusterFixture.builder()
+        .maxParallelization(1)
+        .build();
+    client = cluster.clientFixture();
+    switch (operator) {
+    case "hashAgg":
+      sql = "SELECT mod(id_i, 100000) AS k, count(*), sum(price_d) FROM mock.`t_4M` GROUP BY mod(id_i, 100000)";
+      break;
+    case "hashJoin":
+      sql = "SELECT count(*) FROM mock.`a_4M` a JOIN mock.`b_1M` b ON a.key_i = b.key_i";
+      break;
+    case "sort":
+      sql = "SELECT id_i, name_s20 FROM mock.`t_1M` ORDER BY name_s20";
+      break;
+    case "filterProject":
+      sql = "SELECT id_i * 3 + 1, upper(name_s20), price_d / 2 FROM mock.`t_4M` " +
+            "WHERE mod(id_i, 7) = 3 OR price_d > 0.5";
+      break;
+    default:
+      throw new IllegalArgumentException(operator);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    cluster.close();
+  }
+
+  @Benchmark
+  public long runQuery() throws Exception {
+    return run(client, sql);
+  }
+
+  /**
+   * Runs a query, discarding its results.
+   *
+   * @return the number of rows returned
+   */
+  static long run(ClientFixture client, String sql) throws Exception {
+    QuerySummary summary = client.queryBuilder().sql(sql).run();
+    if (summary.failed()) {
+      throw summary.error();
+    }
+    return summary.recordCount();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scan throughput of the Parquet, JSON and text readers. The data is written
+ * once per trial, by CTAS from the mock data source into the local temporary
+ * workspace; each invocation then reads every column of every row. The filter
+ * matches no rows, so that the score is not dominated by sending results to
+ * the client, and cannot be answered from Parquet metadata alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReaderBenchmark {
+
+  @Param({"parquet", "json", "csv"})
+  public String format;
+
+  @Param({"1M"})
+  public String rows;
+
+  private ClusterFixture cluster;
+  private ClientFixture client;
+  private String sql;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    cluster = ClusterFixture.builder()
+        .maxParallelization(1)
+        .build();
+    client = cluster.clientFixture();
+
+    String table = "dfs_test.tmp.`reader_" + format + "`";
+    client.alterSession(ExecConstants.OUTPUT_FORMAT_OPTION, format);
+    OperatorBenchmark.run(client, "CREATE TABLE " + table +
+        " AS SELECT id_i, key_i, price_d, name_s20, comment_s100 FROM mock.`t_" + rows + "`");
+
+    if (format.equals("csv")) {
+      // CSV files are read back as a single columns array.
+      sql = "SELECT * FROM " + table + " WHERE length(columns[3]) = 0";
+    } else {
+      sql = "SELECT * FROM " + table + " WHERE length(name_s20) = 0";
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    cluster.close();
+  }
+
+  @Benchmark
+  public long scan() throws Exception {
+    return OperatorBenchmark.run(client, sql);
+  }
+}
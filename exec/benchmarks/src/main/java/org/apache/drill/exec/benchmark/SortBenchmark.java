@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import io.netty.buffer.DrillBuf;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.exec.physical.config.Sort;
+import org.apache.drill.exec.physical.impl.xsort.SingleBatchSorter;
+import org.apache.drill.exec.physical.impl.xsort.managed.MSorter;
+import org.apache.drill.exec.physical.impl.xsort.managed.OperatorCodeGenerator;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.drill.exec.vector.ValueVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The two steps of the in-memory sort of the external sort, on a single INT
+ * key, with the generated code of a query: the sort of each incoming batch
+ * through its selection vector, then the merge of the sorted batches into a
+ * single selection vector over all of them. Scores are in rows per
+ * microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SortBenchmark {
+  public static final int BATCHES = 16;
+  public static final int RECORDS = 32 * 1024;
+
+  private ComponentContext context;
+  // a batch of random keys, and batches of sorted keys
+  private VectorContainer unsorted;
+  private final List<VectorContainer> sorted = Lists.newArrayList();
+  private VectorContainer hyperBatch;
+  private SingleBatchSorter sorter;
+  private MSorter mSorter;
+  private SelectionVector2 sv2;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    context = new ComponentContext();
+    final Random random = new Random(42);
+    final int[] keys = new int[RECORDS];
+    for (int i = 0; i < RECORDS; i++) {
+      keys[i] = random.nextInt();
+    }
+    unsorted = context.createIntBatch("key", keys);
+
+    final List<ValueVector> vectors = Lists.newArrayList();
+    for (int b = 0; b < BATCHES; b++) {
+      for (int i = 0; i < RECORDS; i++) {
+        keys[i] = random.nextInt();
+      }
+      Arrays.sort(keys);
+      final VectorContainer batch = context.createIntBatch("key", keys);
+      sorted.add(batch);
+      vectors.add(batch.iterator().next().getValueVector());
+    }
+    hyperBatch = new VectorContainer();
+    hyperBatch.addHyperList(vectors, false);
+    hyperBatch.buildSchema(SelectionVectorMode.FOUR_BYTE);
+
+    final Sort sort = new Sort(null,
+        Collections.singletonList(new Ordering(Direction.ASCENDING, SchemaPath.getSimplePath("key"))), false);
+    final OperatorCodeGenerator codeGenerator = new OperatorCodeGenerator(context.getContext(), sort);
+    codeGenerator.setSchema(unsorted.getSchema());
+    sorter = codeGenerator.getSorter(unsorted);
+    mSorter = codeGenerator.createNewMSorter(sorted.get(0));
+    sv2 = new SelectionVector2(context.getAllocator());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    sv2.clear();
+    mSorter.clear();
+    hyperBatch.clear();
+    unsorted.clear();
+    for (VectorContainer batch : sorted) {
+      batch.clear();
+    }
+    context.close();
+  }
+
+  /**
+   * Sorts a batch of random keys.
+   */
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public int sortBatch() throws Exception {
+    sv2.allocateNew(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      sv2.setIndex(i, i);
+    }
+    sv2.setRecordCount(RECORDS);
+    sorter.setup(context.getContext(), sv2, unsorted);
+    sorter.sort(sv2);
+    final int first = sv2.getIndex(0);
+    sv2.clear();
+    return first;
+  }
+
+  /**
+   * Merges batches of sorted keys.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCHES * RECORDS)
+  public int mergeBatches() throws Exception {
+    final int count = BATCHES * RECORDS;
+    final DrillBuf buffer = context.getAllocator().buffer(4 * count);
+    final SelectionVector4 sv4 = new SelectionVector4(buffer, count, Character.MAX_VALUE);
+    for (int b = 0, index = 0; b < BATCHES; b++) {
+      for (int i = 0; i < RECORDS; i++, index++) {
+        sv4.set(index, b, i);
+      }
+    }
+    mSorter.setup(context.getContext(), context.getAllocator(), sv4, hyperBatch, count);
+    mSorter.sort(hyperBatch);
+    final int first = mSorter.getSV4().get(0);
+    mSorter.clear();
+    return first;
+  }
+}
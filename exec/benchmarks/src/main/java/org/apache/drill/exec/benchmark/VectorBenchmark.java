@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocator;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.VarCharVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Set, get and copy of fixed and variable width value vectors, one batch of
+ * {@link #RECORDS} values per invocation. Scores are in values per
+ * microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VectorBenchmark {
+  public static final int RECORDS = 64 * 1024;
+
+  private BufferAllocator allocator;
+  private IntVector intSource;
+  private IntVector intTarget;
+  private VarCharVector varCharSource;
+  private VarCharVector varCharTarget;
+  private byte[][] strings;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    intSource = new IntVector(MaterializedField.create("i", Types.required(MinorType.INT)), allocator);
+    intTarget = new IntVector(MaterializedField.create("i", Types.required(MinorType.INT)), allocator);
+    varCharSource = new VarCharVector(MaterializedField.create("s", Types.required(MinorType.VARCHAR)), allocator);
+    varCharTarget = new VarCharVector(MaterializedField.create("s", Types.required(MinorType.VARCHAR)), allocator);
+
+    strings = new byte[RECORDS][];
+    for (int i = 0; i < RECORDS; i++) {
+      strings[i] = ("value-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+    intSource.allocateNew(RECORDS);
+    varCharSource.allocateNew();
+    for (int i = 0; i < RECORDS; i++) {
+      intSource.getMutator().set(i, i);
+      varCharSource.getMutator().setSafe(i, strings[i]);
+    }
+    intSource.getMutator().setValueCount(RECORDS);
+    varCharSource.getMutator().setValueCount(RECORDS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    intSource.close();
+    intTarget.close();
+    varCharSource.close();
+    varCharTarget.close();
+    allocator.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void intSet() {
+    intTarget.allocateNew(RECORDS);
+    IntVector.Mutator mutator = intTarget.getMutator();
+    for (int i = 0; i < RECORDS; i++) {
+      mutator.set(i, i);
+    }
+    mutator.setValueCount(RECORDS);
+    intTarget.clear();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public long intGet() {
+    IntVector.Accessor accessor = intSource.getAccessor();
+    long sum = 0;
+    for (int i = 0; i < RECORDS; i++) {
+      sum += accessor.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void intCopy() {
+    intTarget.allocateNew(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      intTarget.copyFromSafe(i, i, intSource);
+    }
+    intTarget.getMutator().setValueCount(RECORDS);
+    intTarget.clear();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void varCharSetSafe() {
+    varCharTarget.allocateNew();
+    VarCharVector.Mutator mutator = varCharTarget.getMutator();
+    for (int i = 0; i < RECORDS; i++) {
+      mutator.setSafe(i, strings[i]);
+    }
+    mutator.setValueCount(RECORDS);
+    varCharTarget.clear();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void varCharGet(Blackhole bh) {
+    VarCharVector.Accessor accessor = varCharSource.getAccessor();
+    for (int i = 0; i < RECORDS; i++) {
+      bh.consume(accessor.get(i));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void varCharCopy() {
+    varCharTarget.allocateNew();
+    for (int i = 0; i < RECORDS; i++) {
+      varCharTarget.copyFromSafe(i, i, varCharSource);
+    }
+    varCharTarget.getMutator().setValueCount(RECORDS);
+    varCharTarget.clear();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesReader;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of a page of RLE / bit-packed definition levels and dictionary ids, by
+ * {@link RleBitPackedHybridReader} and by the parquet-mr readers it replaces in the
+ * Parquet reader, one page of {@link #VALUES} values per invocation. Scores are in
+ * values per microsecond.
+ * <p>
+ * The levels alternate runs of nulls and of defined values whose mean length is the
+ * {@code runLength} parameter: long runs are RLE encoded, runs of one or two values
+ * mostly bit-packed. The dictionary ids are random, so they are bit-packed.
+ * <p>
+ * The benchmark lives in the package of the reader, which is not public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RleDecodingBenchmark {
+  public static final int VALUES = 64 * 1024;
+  private static final int DICTIONARY_SIZE = 1000;
+
+  @Param({"1", "8", "100"})
+  public int runLength;
+
+  private ByteBuffer levelsPage;
+  private ByteBuffer idsPage;
+  private final int[] ids = new int[VALUES];
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    final Random random = new Random(42);
+    final RunLengthBitPackingHybridEncoder levels = newEncoder(1);
+    int level = 0;
+    for (int i = 0; i < VALUES; ) {
+      final int run = Math.min(1 + random.nextInt(2 * runLength - 1), VALUES - i);
+      for (int j = 0; j < run; j++) {
+        levels.writeInt(level);
+      }
+      level = 1 - level;
+      i += run;
+    }
+    // the levels of a data page are prefixed by their length
+    final byte[] levelBytes = levels.toBytes().toByteArray();
+    levelsPage = ByteBuffer.allocate(4 + levelBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+    levelsPage.putInt(levelBytes.length);
+    levelsPage.put(levelBytes);
+    levelsPage.flip();
+
+    // the dictionary ids of a data page are prefixed by their bit width
+    final int bitWidth = BytesUtils.getWidthFromMaxInt(DICTIONARY_SIZE - 1);
+    final RunLengthBitPackingHybridEncoder ids = newEncoder(bitWidth);
+    for (int i = 0; i < VALUES; i++) {
+      ids.writeInt(random.nextInt(DICTIONARY_SIZE));
+    }
+    final byte[] idBytes = ids.toBytes().toByteArray();
+    idsPage = ByteBuffer.allocate(1 + idBytes.length);
+    idsPage.put((byte) bitWidth);
+    idsPage.put(idBytes);
+    idsPage.flip();
+  }
+
+  private static RunLengthBitPackingHybridEncoder newEncoder(int bitWidth) {
+    return new RunLengthBitPackingHybridEncoder(bitWidth, VALUES, 4 * VALUES, new HeapByteBufferAllocator());
+  }
+
+  /**
+   * The nullable column readers before: one definition level at a time.
+   */
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public int parquetMrLevels() throws IOException {
+    final RunLengthBitPackingHybridValuesReader reader = new RunLengthBitPackingHybridValuesReader(1);
+    reader.initFromPage(VALUES, levelsPage, 0);
+    int defined = 0;
+    for (int i = 0; i < VALUES; i++) {
+      defined += reader.readInteger();
+    }
+    return defined;
+  }
+
+  /**
+   * The nullable column readers now: each run of nulls, and of defined values, in one call.
+   */
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public int drillLevelRuns() throws IOException {
+    final RleBitPackedHybridReader reader = RleBitPackedHybridReader.forLevels(1);
+    reader.initFromPage(VALUES, levelsPage, 0);
+    int defined = 0;
+    int read = 0;
+    while (read < VALUES) {
+      read += reader.readLevelRun(false, 1, VALUES - read);
+      final int run = reader.readLevelRun(true, 1, VALUES - read);
+      defined += run;
+      read += run;
+    }
+    return defined;
+  }
+
+  /**
+   * The nullable dictionary int and bigint readers before: one id at a time.
+   */
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public int[] parquetMrDictionaryIds() throws IOException {
+    // the dictionary is only used to decode values, not ids
+    final DictionaryValuesReader reader = new DictionaryValuesReader(null);
+    reader.initFromPage(VALUES, idsPage, 0);
+    for (int i = 0; i < VALUES; i++) {
+      ids[i] = reader.readValueDictionaryId();
+    }
+    return ids;
+  }
+
+  /**
+   * The nullable dictionary int and bigint readers now: blocks of ids.
+   */
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public int[] drillDictionaryIds() throws IOException {
+    final RleBitPackedHybridReader reader = RleBitPackedHybridReader.forDictionaryIds();
+    reader.initFromPage(VALUES, idsPage, 0);
+    for (int i = 0; i < VALUES; i += 1024) {
+      reader.readIntegers(ids, i, Math.min(1024, VALUES - i));
+    }
+    return ids;
+  }
+}
@@ -340,4 +340,25 @@ SqlNode SqlDropFunction() :
    {
        return new SqlDropFunction(pos, jar);
    }
-}
\ No newline at end of file
+}
+/**
+ * Parses an analyze table statement.
+ * ANALYZE TABLE tblname COMPUTE STATISTICS [ (field1, field2, ...) ]
+ */
+SqlNode SqlAnalyzeTable() :
+{
+    SqlParserPos pos;
+    SqlIdentifier tblName;
+    SqlNodeList fieldList;
+}
+{
+    <ANALYZE> { pos = getPos(); }
+    <TABLE>
+    tblName = CompoundIdentifier()
+    <COMPUTE>
+    <STATISTICS>
+    fieldList = ParseOptionalFieldList("Statistics")
+    {
+        return new SqlAnalyzeTable(pos, tblName, fieldList);
+    }
+}
@@ -46,6 +46,8 @@ public interface ExecConstants {
   String INITIAL_BIT_PORT = "drill.exec.rpc.bit.server.port";
   String INITIAL_DATA_PORT = "drill.exec.rpc.bit.server.dataport";
   String BIT_RPC_TIMEOUT = "drill.exec.rpc.bit.timeout";
+  String BIT_DATA_COMPRESSION_ENABLED = "drill.exec.rpc.bit.compression.enabled";
+  String BIT_DATA_COMPRESSION_THRESHOLD = "drill.exec.rpc.bit.compression.threshold";
   String INITIAL_USER_PORT = "drill.exec.rpc.user.server.port";
   String USER_RPC_TIMEOUT = "drill.exec.rpc.user.timeout";
   String METRICS_CONTEXT_NAME = "drill.exec.metrics.context";
@@ -85,6 +87,66 @@ public interface ExecConstants {
   // External Sort Runtime options
 
   BooleanValidator EXTERNAL_SORT_DISABLE_MANAGED_OPTION = new BooleanValidator("exec.sort.disable_managed", false);
+  String EXTERNAL_SORT_SPILL_COMPRESSION = "exec.sort.spill.compression";
+  StringValidator EXTERNAL_SORT_SPILL_COMPRESSION_VALIDATOR = new EnumeratedStringValidator(
+      EXTERNAL_SORT_SPILL_COMPRESSION, "none", "none", "snappy", "deflate");
+
+  // Hash Aggregate Boot configuration
+
+  String HASHAGG_SPILL_DIRS = "drill.exec.hashagg.spill.directories";
+  String HASHAGG_SPILL_FILESYSTEM = "drill.exec.hashagg.spill.fs";
+
+  // Hash Aggregate Runtime options
+
+  /**
+   * Number of partitions the incoming rows of a two-phase hash aggregate are
+   * hashed into. A partition is the unit of spilling; 1 disables spilling.
+   */
+  String HASHAGG_NUM_PARTITIONS_KEY = "exec.hashagg.num_partitions";
+  LongValidator HASHAGG_NUM_PARTITIONS_VALIDATOR = new RangeLongValidator(HASHAGG_NUM_PARTITIONS_KEY, 1, 128, 32);
+  /**
+   * Limit on the memory used by the hash aggregate. Overrides the value
+   * provided by the Foreman. Primarily for testing. 0 = no override.
+   */
+  String HASHAGG_MAX_MEMORY_KEY = "exec.hashagg.mem_limit";
+  LongValidator HASHAGG_MAX_MEMORY_VALIDATOR = new RangeLongValidator(HASHAGG_MAX_MEMORY_KEY, 0, Integer.MAX_VALUE, 0);
+
+  // Hash Join Boot configuration
+
+  String HASHJOIN_SPILL_DIRS = "drill.exec.hashjoin.spill.directories";
+  String HASHJOIN_SPILL_FILESYSTEM = "drill.exec.hashjoin.spill.fs";
+
+  // Hash Join Runtime options
+
+  /**
+   * Number of partitions the build and probe sides of a hash join are hashed
+   * into. Partitions that do not fit in memory are spilled and joined in a
+   * second pass; 1 disables spilling.
+   */
+  String HASHJOIN_NUM_PARTITIONS_KEY = "exec.hashjoin.num_partitions";
+  LongValidator HASHJOIN_NUM_PARTITIONS_VALIDATOR = new RangeLongValidator(HASHJOIN_NUM_PARTITIONS_KEY, 1, 128, 32);
+  /**
+   * Limit on the memory used by the hash join. Overrides the value
+   * provided by the Foreman. Primarily for testing. 0 = no override.
+   */
+  String HASHJOIN_MAX_MEMORY_KEY = "exec.hashjoin.mem_limit";
+  LongValidator HASHJOIN_MAX_MEMORY_VALIDATOR = new RangeLongValidator(HASHJOIN_MAX_MEMORY_KEY, 0, Integer.MAX_VALUE, 0);
+
+  /**
+   * Whether a hash join builds Bloom filters over its build side keys and
+   * hands them to the probe side scans of its fragment, which then drop the
+   * rows that cannot find a match.
+   */
+  String HASHJOIN_ENABLE_RUNTIME_FILTER_KEY = "exec.hashjoin.enable.runtime_filter";
+  BooleanValidator HASHJOIN_ENABLE_RUNTIME_FILTER_VALIDATOR =
+      new BooleanValidator(HASHJOIN_ENABLE_RUNTIME_FILTER_KEY, false);
+  /**
+   * Largest build side, in rows, for which a runtime filter is built. Past
+   * this, a filter would let through most probe rows anyway.
+   */
+  String HASHJOIN_RUNTIME_FILTER_MAX_ROWS_KEY = "exec.hashjoin.runtime_filter.max_build_rows";
+  LongValidator HASHJOIN_RUNTIME_FILTER_MAX_ROWS_VALIDATOR =
+      new RangeLongValidator(HASHJOIN_RUNTIME_FILTER_MAX_ROWS_KEY, 0, 1 << 26, 1 << 20);
 
 
   String TEXT_LINE_READER_BATCH_SIZE = "drill.exec.storage.file.text.batch.size";
@@ -123,6 +185,22 @@ public interface ExecConstants {
   String SCAN_THREADPOOL_SIZE = "drill.exec.scan.threadpool_size";
   // The size of the thread pool used by a scan to decode the data. Used by Parquet
   String SCAN_DECODE_THREADPOOL_SIZE = "drill.exec.scan.decode_threadpool_size";
+  // The number of reads the scans of a Drillbit may run at the same time. Zero means one per scan thread.
+  String SCAN_MAX_CONCURRENT_READS = "drill.exec.scan.max_concurrent_reads";
+
+  /**
+   * Number of readers a scan opens ahead of the one being read, on the scan
+   * thread pool. Zero disables prefetching.
+   */
+  String SCAN_PREFETCH_READERS_KEY = "exec.scan.prefetch_readers";
+  LongValidator SCAN_PREFETCH_READERS_VALIDATOR = new RangeLongValidator(SCAN_PREFETCH_READERS_KEY, 0, 64, 0);
+  /**
+   * Memory, in bytes, a scan may hold in the input buffered by the readers it
+   * opened ahead.
+   */
+  String SCAN_PREFETCH_MEMORY_KEY = "exec.scan.prefetch_memory";
+  LongValidator SCAN_PREFETCH_MEMORY_VALIDATOR =
+      new RangeLongValidator(SCAN_PREFETCH_MEMORY_KEY, 0, Integer.MAX_VALUE, 16 * 1024 * 1024);
 
   /**
    * Currently if a query is cancelled, but one of the fragments reports the status as FAILED instead of CANCELLED or
@@ -204,6 +282,11 @@ public interface ExecConstants {
   String PARQUET_PAGEREADER_USE_FADVISE = "store.parquet.reader.pagereader.usefadvise";
   OptionValidator PARQUET_PAGEREADER_USE_FADVISE_VALIDATOR = new  BooleanValidator(PARQUET_PAGEREADER_USE_FADVISE, false);
 
+  // read the variable width columns only for the batches having records which pass the conjuncts of the pushed
+  // filter on fixed width columns
+  String PARQUET_READER_LATE_MATERIALIZATION = "store.parquet.reader.late_materialization";
+  OptionValidator PARQUET_READER_LATE_MATERIALIZATION_VALIDATOR = new BooleanValidator(PARQUET_READER_LATE_MATERIALIZATION, false);
+
   OptionValidator COMPILE_SCALAR_REPLACEMENT = new BooleanValidator("exec.compile.scalar_replacement", false);
 
   String JSON_ALL_TEXT_MODE = "store.json.all_text_mode";
@@ -409,6 +492,13 @@ public interface ExecConstants {
   String CODE_GEN_EXP_IN_METHOD_SIZE = "exec.java.compiler.exp_in_method_size";
   LongValidator CODE_GEN_EXP_IN_METHOD_SIZE_VALIDATOR = new LongValidator(CODE_GEN_EXP_IN_METHOD_SIZE, 50);
 
+  /**
+   * Runs Filter and Project with the expression interpreter while their generated class is
+   * compiled in the background, then switches to the compiled class once it is ready.
+   */
+  String CODE_GEN_ASYNC = "exec.java.compiler.async";
+  BooleanValidator CODE_GEN_ASYNC_VALIDATOR = new BooleanValidator(CODE_GEN_ASYNC, false);
+
   /**
    * Timeout for create prepare statement request. If the request exceeds this timeout, then request is timed out.
    * Default value is 10mins.
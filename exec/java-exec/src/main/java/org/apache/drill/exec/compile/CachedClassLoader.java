@@ -19,6 +19,7 @@ package org.apache.drill.exec.compile;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
@@ -43,6 +44,13 @@ public class CachedClassLoader extends URLClassLoader {
 
   private ConcurrentMap<String, Class<?>> cache = Maps.newConcurrentMap();
 
+  /**
+   * Byte codes of the generated classes, kept to save them in the
+   * persistent code cache.
+   */
+
+  private ConcurrentMap<String, byte[]> classByteCodes = Maps.newConcurrentMap();
+
   public CachedClassLoader() {
     super(new URL[0], Thread.currentThread().getContextClassLoader());
   }
@@ -50,6 +58,11 @@ public class CachedClassLoader extends URLClassLoader {
   public void addClass(String fqcn, byte[] byteCodes) {
     Class<?> newClass = defineClass(fqcn, byteCodes, 0, byteCodes.length);
     cache.put(fqcn, newClass);
+    classByteCodes.put(fqcn, byteCodes);
+  }
+
+  public Map<String, byte[]> getByteCodes() {
+    return Collections.unmodifiableMap(classByteCodes);
   }
 
   @Override
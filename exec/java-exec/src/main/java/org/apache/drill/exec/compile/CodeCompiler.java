@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.compile;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.apache.drill.common.config.DrillConfig;
@@ -115,8 +116,23 @@ public class CodeCompiler {
 
   public static final String PREFER_POJ_CONFIG = CodeCompiler.COMPILE_BASE + ".prefer_plain_java";
 
+  /**
+   * Enables the persistent code cache, which keeps the compiled classes
+   * in a directory across restarts. See {@link PersistentCodeCache}.
+   */
+
+  public static final String PERSISTENT_CACHE_ENABLED_CONFIG = COMPILE_BASE + ".persistent_cache.enabled";
+
+  /**
+   * Directory of the persistent code cache. May be on a distributed
+   * file system to share the compiled classes within the cluster.
+   */
+
+  public static final String PERSISTENT_CACHE_DIR_CONFIG = COMPILE_BASE + ".persistent_cache.directory";
+
   private final CodeGenCompiler codeGenCompiler;
   private final boolean useCache;
+  private final PersistentCodeCache persistentCache;
 
   // Metrics
 
@@ -142,6 +158,22 @@ public class CodeCompiler {
         .build(new Loader());
     preferPlainJava = config.getBoolean(PREFER_POJ_CONFIG);
     logger.info(String.format("Plain java code generation preferred: %b", preferPlainJava));
+    persistentCache = useCache ? createPersistentCache(config, optionManager) : null;
+  }
+
+  private static PersistentCodeCache createPersistentCache(final DrillConfig config, final OptionManager optionManager) {
+    if (! config.getBoolean(PERSISTENT_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+    final String directory = config.getString(PERSISTENT_CACHE_DIR_CONFIG);
+    try {
+      final PersistentCodeCache persistentCache = new PersistentCodeCache(config, optionManager, directory);
+      logger.info(String.format("Persistent code cache in %s", directory));
+      return persistentCache;
+    } catch (IOException e) {
+      logger.warn(String.format("Persistent code cache disabled, cannot use directory %s", directory), e);
+      return null;
+    }
   }
 
   /**
@@ -220,8 +252,18 @@ public class CodeCompiler {
    */
 
   private GeneratedClassEntry makeClass(final CodeGenerator<?> cg) throws Exception {
+    if (persistentCache != null) {
+      final Class<?> clazz = persistentCache.get(cg);
+      if (clazz != null) {
+        return new GeneratedClassEntry(clazz);
+      }
+    }
     cacheMissCount++;
-    return new GeneratedClassEntry(codeGenCompiler.compile(cg));
+    final Class<?> clazz = codeGenCompiler.compile(cg);
+    if (persistentCache != null) {
+      persistentCache.put(cg, clazz);
+    }
+    return new GeneratedClassEntry(clazz);
   }
 
   private class GeneratedClassEntry {
@@ -258,5 +300,9 @@ public class CodeCompiler {
     }
     logger.info(String.format("Stats: code gen count: %d, cache miss count: %d, hit rate: %d%%",
                 classGenCount, cacheMissCount, hitRate));
+    if (persistentCache != null) {
+      logger.info(String.format("Stats: persistent code cache hit count: %d, miss count: %d",
+                  PersistentCodeCache.getHitCount(), PersistentCodeCache.getMissCount()));
+    }
   }
 }
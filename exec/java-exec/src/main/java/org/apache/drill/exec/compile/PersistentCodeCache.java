@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.util.DrillVersionInfo;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.metrics.DrillMetrics;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Second level cache of generated classes, which keeps the final byte codes of the classes
+ * in a directory so that they survive restarts of the Drillbit. The directory may be on a
+ * distributed file system, in which case the Drillbits of a cluster share the classes any of
+ * them compiled.
+ * <p>
+ * Classes are keyed by a hash of their template and generified source code. The classes of a
+ * Drill version are kept in their own sub-directory, and each file also records the version
+ * which wrote it, so a Drillbit never loads classes compiled against another version of the
+ * templates. Any failure to read or write the cache is logged and handled as a miss: the class
+ * is then compiled as usual.
+ */
+public class PersistentCodeCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PersistentCodeCache.class);
+
+  private static final int MAGIC = 0x44524c43;
+  private static final String SUFFIX = ".classes";
+
+  private static final Counter hits = DrillMetrics.getRegistry().counter("drill.compile.persistent_cache.hits");
+  private static final Counter misses = DrillMetrics.getRegistry().counter("drill.compile.persistent_cache.misses");
+
+  private final DrillConfig config;
+  private final OptionManager optionManager;
+  private final FileSystem fs;
+  private final Path directory;
+
+  public PersistentCodeCache(final DrillConfig config, final OptionManager optionManager, final String directory)
+      throws IOException {
+    this.config = config;
+    this.optionManager = optionManager;
+    final Path root = new Path(directory);
+    this.fs = root.getFileSystem(new Configuration());
+    this.directory = new Path(root, DrillVersionInfo.getVersion());
+    fs.mkdirs(this.directory);
+  }
+
+  /**
+   * Loads the class of a code generator from the cache.
+   *
+   * @param cg the code generator, which has generated its code
+   * @return the class, or null if it is not in the cache
+   */
+  @SuppressWarnings("resource")
+  public Class<?> get(final CodeGenerator<?> cg) {
+    final Path file = getPath(cg);
+    try (DataInputStream in = fs.open(file)) {
+      if (in.readInt() != MAGIC || !DrillVersionInfo.getVersion().equals(in.readUTF())) {
+        logger.warn("Ignoring code cache file {} written by another version of Drill", file);
+        misses.inc();
+        return null;
+      }
+      final String className = in.readUTF();
+      final QueryClassLoader loader = new QueryClassLoader(config, optionManager);
+      final int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        final String name = in.readUTF();
+        final byte[] byteCode = new byte[in.readInt()];
+        in.readFully(byteCode);
+        loader.injectByteCode(name, byteCode);
+      }
+      final Class<?> clazz = loader.findClass(className);
+      hits.inc();
+      logger.trace("Class {} loaded from code cache file {}", cg.getClassName(), file);
+      return clazz;
+    } catch (FileNotFoundException e) {
+      misses.inc();
+      return null;
+    } catch (IOException | ClassNotFoundException | LinkageError e) {
+      logger.warn("Failed to load class {} from code cache file {}", cg.getClassName(), file, e);
+      misses.inc();
+      return null;
+    }
+  }
+
+  /**
+   * Saves the byte codes of a class compiled for a code generator, along with its inner
+   * classes. The file is written under a unique name, then renamed, so that readers never see
+   * a partial file when several Drillbits compile the same class at the same time.
+   *
+   * @param cg the code generator
+   * @param clazz the class compiled for the code generator
+   */
+  public void put(final CodeGenerator<?> cg, final Class<?> clazz) {
+    final Map<String, byte[]> byteCodes = getByteCodes(clazz);
+    if (byteCodes == null) {
+      return;
+    }
+    final Path file = getPath(cg);
+    final Path tempFile = new Path(directory, file.getName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      try (DataOutputStream out = fs.create(tempFile)) {
+        out.writeInt(MAGIC);
+        out.writeUTF(DrillVersionInfo.getVersion());
+        out.writeUTF(clazz.getName());
+        out.writeInt(byteCodes.size());
+        for (Map.Entry<String, byte[]> byteCode : byteCodes.entrySet()) {
+          out.writeUTF(byteCode.getKey());
+          out.writeInt(byteCode.getValue().length);
+          out.write(byteCode.getValue());
+        }
+      }
+      if (!fs.rename(tempFile, file)) {
+        // another Drillbit saved the same class meanwhile
+        fs.delete(tempFile, false);
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to save class {} to code cache file {}", cg.getClassName(), file, e);
+      try {
+        fs.delete(tempFile, false);
+      } catch (IOException e2) {
+        logger.debug("Failed to delete code cache file {}", tempFile, e2);
+      }
+    }
+  }
+
+  private static Map<String, byte[]> getByteCodes(final Class<?> clazz) {
+    final ClassLoader loader = clazz.getClassLoader();
+    if (loader instanceof QueryClassLoader) {
+      return ((QueryClassLoader) loader).getInjectedByteCode();
+    }
+    if (loader instanceof CachedClassLoader) {
+      return ((CachedClassLoader) loader).getByteCodes();
+    }
+    return null;
+  }
+
+  private Path getPath(final CodeGenerator<?> cg) {
+    final Hasher hasher = Hashing.sha256().newHasher()
+        .putString(cg.getDefinition().getTemplateClassName(), Charsets.UTF_8)
+        .putBoolean(cg.isPlainJava())
+        .putString(cg.getGenerifiedCode(), Charsets.UTF_8);
+    return new Path(directory, hasher.hash().toString() + SUFFIX);
+  }
+
+  public static long getHitCount() {
+    return hits.getCount();
+  }
+
+  public static long getMissCount() {
+    return misses.getCount();
+  }
+}
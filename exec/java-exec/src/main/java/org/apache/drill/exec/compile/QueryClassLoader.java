@@ -20,6 +20,8 @@ package org.apache.drill.exec.compile;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -75,6 +77,13 @@ public class QueryClassLoader extends URLClassLoader {
 //    System.out.println( "Classes saved to: " + baseDir.getAbsolutePath() );
   }
 
+  /**
+   * @return the byte codes of the classes injected in this loader, by class name
+   */
+  public Map<String, byte[]> getInjectedByteCode() {
+    return Collections.unmodifiableMap(customClasses);
+  }
+
   @Override
   protected Class<?> findClass(String className) throws ClassNotFoundException {
     byte[] ba = customClasses.get(className);
@@ -208,6 +208,14 @@ public class CodeGenerator<T> {
     return generatedCode;
   }
 
+  /**
+   * @return the generated code with the name of the generated class replaced
+   * by a generic name, identical for code generators of the same code
+   */
+  public String getGenerifiedCode() {
+    return generifiedCode;
+  }
+
   public TemplateClassDefinition<T> getDefinition() {
     return definition;
   }
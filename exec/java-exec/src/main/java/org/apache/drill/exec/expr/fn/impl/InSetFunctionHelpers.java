@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import java.util.List;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+/**
+ * Encodes the values of an IN list into the constant string argument of the {@code in_number_set}
+ * and {@code in_string_set} functions, and decodes them in the setup of the functions. Numbers are
+ * separated by commas, and each string is preceded by its length and a colon. The values are split
+ * into several strings of a bounded length, since the constants are literals of the generated code.
+ */
+public class InSetFunctionHelpers {
+
+  // a literal of at most 16K characters fits in the constant pool of a class in any case
+  public static final int MAX_ENCODED_LENGTH = 16 * 1024;
+
+  public static List<String> encodeNumbers(List<Long> values) {
+    final List<String> encoded = Lists.newArrayList();
+    final StringBuilder sb = new StringBuilder();
+    for (long value : values) {
+      final String s = Long.toString(value);
+      if (sb.length() > 0 && sb.length() + 1 + s.length() > MAX_ENCODED_LENGTH) {
+        encoded.add(sb.toString());
+        sb.setLength(0);
+      }
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(s);
+    }
+    encoded.add(sb.toString());
+    return encoded;
+  }
+
+  public static long[] decodeNumbers(String encoded) {
+    if (encoded.isEmpty()) {
+      return new long[0];
+    }
+    final String[] parts = encoded.split(",");
+    final long[] values = new long[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      values[i] = Long.parseLong(parts[i]);
+    }
+    return values;
+  }
+
+  public static List<String> encodeStrings(List<String> values) {
+    final List<String> encoded = Lists.newArrayList();
+    final StringBuilder sb = new StringBuilder();
+    for (String value : values) {
+      final String s = value.length() + ":" + value;
+      if (sb.length() > 0 && sb.length() + s.length() > MAX_ENCODED_LENGTH) {
+        encoded.add(sb.toString());
+        sb.setLength(0);
+      }
+      sb.append(s);
+    }
+    encoded.add(sb.toString());
+    return encoded;
+  }
+
+  /**
+   * @return the UTF-8 bytes of the strings
+   */
+  public static List<byte[]> decodeStrings(String encoded) {
+    final List<byte[]> values = Lists.newArrayList();
+    int i = 0;
+    while (i < encoded.length()) {
+      final int colon = encoded.indexOf(':', i);
+      final int end = colon + 1 + Integer.parseInt(encoded.substring(i, colon));
+      values.add(encoded.substring(colon + 1, end).getBytes(Charsets.UTF_8));
+      i = end;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import io.netty.buffer.DrillBuf;
+
+import javax.inject.Inject;
+
+import org.apache.drill.exec.expr.DrillSimpleFunc;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate.FunctionScope;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate.NullHandling;
+import org.apache.drill.exec.expr.annotations.Output;
+import org.apache.drill.exec.expr.annotations.Param;
+import org.apache.drill.exec.expr.annotations.Workspace;
+import org.apache.drill.exec.expr.holders.BigIntHolder;
+import org.apache.drill.exec.expr.holders.BitHolder;
+import org.apache.drill.exec.expr.holders.Float8Holder;
+import org.apache.drill.exec.expr.holders.IntHolder;
+import org.apache.drill.exec.expr.holders.VarCharHolder;
+
+/**
+ * Membership of a value in the constant values of an IN list, which filters rewrite into these
+ * functions when the list is long (see {@link org.apache.drill.exec.physical.impl.filter.InListRewriter}),
+ * so that each value is looked up in a hash set built at setup rather than compared with each of the values. The values are encoded by {@link InSetFunctionHelpers}.
+ */
+public class InSetFunctions {
+
+  private InSetFunctions() {}
+
+  @FunctionTemplate(name = "in_number_set", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class IntInNumberSet implements DrillSimpleFunc {
+
+    @Param IntHolder input;
+    @Param(constant=true) VarCharHolder values;
+    @Inject DrillBuf buffer;
+    @Workspace org.apache.drill.exec.expr.fn.impl.OffHeapLongSet set;
+    @Output BitHolder out;
+
+    @Override
+    public void setup() {
+      final long[] numbers = org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers.decodeNumbers(
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(values.start, values.end, values.buffer));
+      buffer = buffer.reallocIfNeeded(org.apache.drill.exec.expr.fn.impl.OffHeapLongSet.getBufferSize(numbers.length));
+      set = new org.apache.drill.exec.expr.fn.impl.OffHeapLongSet(buffer, numbers);
+    }
+
+    @Override
+    public void eval() {
+      out.value = set.contains(input.value) ? 1 : 0;
+    }
+  }
+
+  @FunctionTemplate(name = "in_number_set", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class BigIntInNumberSet implements DrillSimpleFunc {
+
+    @Param BigIntHolder input;
+    @Param(constant=true) VarCharHolder values;
+    @Inject DrillBuf buffer;
+    @Workspace org.apache.drill.exec.expr.fn.impl.OffHeapLongSet set;
+    @Output BitHolder out;
+
+    @Override
+    public void setup() {
+      final long[] numbers = org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers.decodeNumbers(
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(values.start, values.end, values.buffer));
+      buffer = buffer.reallocIfNeeded(org.apache.drill.exec.expr.fn.impl.OffHeapLongSet.getBufferSize(numbers.length));
+      set = new org.apache.drill.exec.expr.fn.impl.OffHeapLongSet(buffer, numbers);
+    }
+
+    @Override
+    public void eval() {
+      out.value = set.contains(input.value) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Floating point values are in the set when they are integers and the integer is, so that they are
+   * not rounded to the integers of the set by an implicit cast.
+   */
+  @FunctionTemplate(name = "in_number_set", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class Float8InNumberSet implements DrillSimpleFunc {
+
+    @Param Float8Holder input;
+    @Param(constant=true) VarCharHolder values;
+    @Inject DrillBuf buffer;
+    @Workspace org.apache.drill.exec.expr.fn.impl.OffHeapLongSet set;
+    @Output BitHolder out;
+
+    @Override
+    public void setup() {
+      final long[] numbers = org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers.decodeNumbers(
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(values.start, values.end, values.buffer));
+      buffer = buffer.reallocIfNeeded(org.apache.drill.exec.expr.fn.impl.OffHeapLongSet.getBufferSize(numbers.length));
+      set = new org.apache.drill.exec.expr.fn.impl.OffHeapLongSet(buffer, numbers);
+    }
+
+    @Override
+    public void eval() {
+      final double value = input.value;
+      out.value = value == Math.rint(value) && value >= -9.223372036854775808E18 && value < 9.223372036854775808E18
+          && set.contains((long) value) ? 1 : 0;
+    }
+  }
+
+  @FunctionTemplate(name = "in_string_set", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class VarCharInStringSet implements DrillSimpleFunc {
+
+    @Param VarCharHolder input;
+    @Param(constant=true) VarCharHolder values;
+    @Inject DrillBuf buffer;
+    @Workspace org.apache.drill.exec.expr.fn.impl.OffHeapBytesSet set;
+    @Output BitHolder out;
+
+    @Override
+    public void setup() {
+      final java.util.List<byte[]> strings = org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers.decodeStrings(
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(values.start, values.end, values.buffer));
+      buffer = buffer.reallocIfNeeded(org.apache.drill.exec.expr.fn.impl.OffHeapBytesSet.getBufferSize(strings));
+      set = new org.apache.drill.exec.expr.fn.impl.OffHeapBytesSet(buffer, strings);
+    }
+
+    @Override
+    public void eval() {
+      out.value = set.contains(input.start, input.end, input.buffer) ? 1 : 0;
+    }
+  }
+}
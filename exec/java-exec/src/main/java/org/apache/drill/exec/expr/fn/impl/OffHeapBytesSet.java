@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import java.util.List;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Immutable set of byte strings in a {@link DrillBuf}, with open addressing and linear probing. The
+ * buffer holds a table of slots, each with the hash of a value and the offset of the value, followed
+ * by the values, each with its length. The hashes are compared before the bytes of the values, which
+ * are read only when the hashes are equal. The table is at most half full.
+ */
+public final class OffHeapBytesSet {
+
+  private static final int MIN_CAPACITY = 16;
+  private static final int SLOT_SIZE = 8;
+
+  private final DrillBuf buffer;
+  private final int mask;
+
+  /**
+   * @param buffer buffer of at least {@link #getBufferSize(List)} bytes for the values, which the set
+   *        uses from index 0 on
+   * @param values values of the set, possibly with duplicates
+   */
+  public OffHeapBytesSet(DrillBuf buffer, List<byte[]> values) {
+    final int capacity = getCapacity(values.size());
+    this.buffer = buffer;
+    this.mask = capacity - 1;
+    buffer.setZero(0, capacity * SLOT_SIZE);
+    int offset = capacity * SLOT_SIZE;
+    for (byte[] value : values) {
+      buffer.setInt(offset, value.length);
+      buffer.setBytes(offset + 4, value);
+      if (add(offset)) {
+        offset += 4 + value.length;
+      }
+    }
+  }
+
+  public static int getBufferSize(List<byte[]> values) {
+    int size = getCapacity(values.size()) * SLOT_SIZE;
+    for (byte[] value : values) {
+      size += 4 + value.length;
+    }
+    return size;
+  }
+
+  private static int getCapacity(int count) {
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(count, 1) * 2 - 1) * 2);
+  }
+
+  private static int hash(int start, int end, DrillBuf buffer) {
+    return XXHash.hash32(start, end, buffer, 0);
+  }
+
+  /**
+   * Adds the value written at the offset, unless the set already contains it.
+   *
+   * @return whether the value was added
+   */
+  private boolean add(int offset) {
+    final int start = offset + 4;
+    final int end = start + buffer.getInt(offset);
+    final int hash = hash(start, end, buffer);
+    int slot = hash & mask;
+    while (buffer.getInt(slot * SLOT_SIZE + 4) != 0) {
+      if (matches(slot, hash, start, end, buffer)) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    buffer.setInt(slot * SLOT_SIZE, hash);
+    buffer.setInt(slot * SLOT_SIZE + 4, offset);
+    return true;
+  }
+
+  /**
+   * @param start index of the first byte of the value
+   * @param end index after the last byte of the value
+   * @param input buffer holding the value
+   */
+  public boolean contains(int start, int end, DrillBuf input) {
+    final int hash = hash(start, end, input);
+    int slot = hash & mask;
+    while (buffer.getInt(slot * SLOT_SIZE + 4) != 0) {
+      if (matches(slot, hash, start, end, input)) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  private boolean matches(int slot, int hash, int start, int end, DrillBuf input) {
+    if (buffer.getInt(slot * SLOT_SIZE) != hash) {
+      return false;
+    }
+    final int offset = buffer.getInt(slot * SLOT_SIZE + 4);
+    final int length = buffer.getInt(offset);
+    if (length != end - start) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer.getByte(offset + 4 + i) != input.getByte(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Immutable set of longs in a {@link DrillBuf}, with open addressing and linear probing. The slots
+ * hold the values themselves, zero marking an empty slot, so whether zero is in the set is kept
+ * apart. The table is at most half full.
+ */
+public final class OffHeapLongSet {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private final DrillBuf table;
+  private final int mask;
+  private final boolean containsZero;
+
+  /**
+   * @param buffer buffer of at least {@link #getBufferSize(int)} bytes for the values, which the set
+   *        uses from index 0 on
+   * @param values values of the set, possibly with duplicates
+   */
+  public OffHeapLongSet(DrillBuf buffer, long[] values) {
+    final int capacity = getCapacity(values.length);
+    this.table = buffer;
+    this.mask = capacity - 1;
+    table.setZero(0, capacity * 8);
+    boolean zero = false;
+    for (long value : values) {
+      if (value == 0) {
+        zero = true;
+      } else {
+        add(value);
+      }
+    }
+    this.containsZero = zero;
+  }
+
+  public static int getBufferSize(int count) {
+    return getCapacity(count) * 8;
+  }
+
+  private static int getCapacity(int count) {
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(count, 1) * 2 - 1) * 2);
+  }
+
+  private static int hash(long value) {
+    return (int) MurmurHash3.fmix64(value);
+  }
+
+  private void add(long value) {
+    int slot = hash(value) & mask;
+    long key;
+    while ((key = table.getLong(slot * 8)) != 0) {
+      if (key == value) {
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    table.setLong(slot * 8, value);
+  }
+
+  public boolean contains(long value) {
+    if (value == 0) {
+      return containsZero;
+    }
+    int slot = hash(value) & mask;
+    long key;
+    while ((key = table.getLong(slot * 8)) != 0) {
+      if (key == value) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Matches a pattern against the whole of UTF-8 encoded values. Created once by the setup of a
+ * function with {@link SqlPatternMatchers#compile(String)}, which picks an implementation suited
+ * to the pattern, and reused for all the values of the function.
+ */
+public interface SqlPatternMatcher {
+
+  /**
+   * @param start index of the first byte of the value
+   * @param end index after the last byte of the value
+   * @param buffer buffer holding the value
+   * @return whether the pattern matches the whole value
+   */
+  boolean matches(int start, int end, DrillBuf buffer);
+}
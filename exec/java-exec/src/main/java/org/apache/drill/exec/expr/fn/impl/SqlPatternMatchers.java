@@ -0,0 +1,384 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Charsets;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Creates the {@link SqlPatternMatcher} of a Java regular expression, such as the ones translated
+ * from LIKE and SIMILAR patterns by {@link RegexpUtil}. Most patterns used in queries are a constant
+ * string, possibly preceded and/or followed by {@code .*}, i.e. an exact match, a prefix, a suffix or
+ * a contained string. These, and a single character class repeated over the whole value, are matched
+ * directly on the UTF-8 bytes of the values, without decoding them. Any other pattern is matched by
+ * {@link java.util.regex}.
+ * <p>
+ * UTF-8 encodes each character as a sequence of bytes which can not start inside the sequence of
+ * another character, so the bytes of a string match the bytes of a value where the characters do.
+ * As {@code .} does not match line terminators, the byte matchers do not match values which contain
+ * one where the pattern has {@code .*}.
+ */
+public final class SqlPatternMatchers {
+
+  private static final String REGEX_SPECIALS = ".[]()|^$+*?{}";
+  private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+  private static final String ANY = ".*";
+
+  private SqlPatternMatchers() {
+  }
+
+  public static SqlPatternMatcher compile(String regex) {
+    return compile(regex, 0);
+  }
+
+  /**
+   * @param regex Java regular expression
+   * @param flags flags of {@link Pattern#compile(String, int)}; the patterns with flags are always
+   *        matched by {@link java.util.regex}
+   */
+  public static SqlPatternMatcher compile(String regex, int flags) {
+    if (flags == 0) {
+      final SqlPatternMatcher matcher = classify(regex);
+      if (matcher != null) {
+        return matcher;
+      }
+    }
+    return new RegexMatcher(Pattern.compile(regex, flags));
+  }
+
+  private static SqlPatternMatcher classify(String regex) {
+    int from = 0;
+    int to = regex.length();
+    // anchors at the ends match nothing when the whole value is matched
+    if (regex.startsWith("^")) {
+      from++;
+    }
+    if (to > from && regex.charAt(to - 1) == '$' && !isEscaped(regex, to - 1)) {
+      to--;
+    }
+
+    final boolean anyPrefix = regex.startsWith(ANY, from);
+    if (anyPrefix) {
+      from += ANY.length();
+    }
+    final boolean anySuffix = to - from >= ANY.length() && regex.startsWith(ANY, to - ANY.length())
+        && !isEscaped(regex, to - ANY.length());
+    if (anySuffix) {
+      to -= ANY.length();
+    }
+
+    final String literal = parseLiteral(regex, from, to);
+    if (literal == null) {
+      return anyPrefix || anySuffix ? null : parseRepeatedClass(regex, from, to);
+    }
+    final byte[] bytes = literal.getBytes(Charsets.UTF_8);
+    if (!anyPrefix && !anySuffix) {
+      return new ExactMatcher(bytes);
+    }
+    if (containsLineTerminator(literal)) {
+      return null;
+    }
+    if (anyPrefix && anySuffix) {
+      return new ContainsMatcher(bytes);
+    }
+    return anySuffix ? new StartsWithMatcher(bytes) : new EndsWithMatcher(bytes);
+  }
+
+  // whether the character at the index is escaped by an odd number of backslashes
+  private static boolean isEscaped(String regex, int index) {
+    int backslashes = 0;
+    for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  /**
+   * @return the string matched by the part of the regular expression, or null if the part is not a
+   *         constant string
+   */
+  private static String parseLiteral(String regex, int from, int to) {
+    final StringBuilder literal = new StringBuilder(to - from);
+    for (int i = from; i < to; i++) {
+      final char c = regex.charAt(i);
+      if (c == '\\') {
+        // an escaped letter or digit is a character class, a reference or a quote
+        if (i + 1 == to || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+          return null;
+        }
+        literal.append(regex.charAt(++i));
+      } else if (REGEX_SPECIALS.indexOf(c) >= 0) {
+        return null;
+      } else {
+        literal.append(c);
+      }
+    }
+    return literal.toString();
+  }
+
+  private static boolean containsLineTerminator(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (LINE_TERMINATORS.indexOf(s.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parses a character class of ASCII characters followed by {@code +} or {@code *}, such as
+   * {@code [a-z0-9_]+} or {@code \d*}.
+   *
+   * @return the matcher of the class, or null if the part of the regular expression is not one
+   */
+  private static SqlPatternMatcher parseRepeatedClass(String regex, int from, int to) {
+    if (to - from < 3 || (regex.charAt(to - 1) != '+' && regex.charAt(to - 1) != '*')) {
+      return null;
+    }
+    final boolean[] members = new boolean[128];
+    final int classEnd = to - 1;
+    if (regex.charAt(from) == '\\') {
+      if (classEnd != from + 2 || !addEscapedClass(regex.charAt(from + 1), members)) {
+        return null;
+      }
+    } else if (regex.charAt(from) == '[' && regex.charAt(classEnd - 1) == ']') {
+      if (!parseClassMembers(regex, from + 1, classEnd - 1, members)) {
+        return null;
+      }
+    } else {
+      return null;
+    }
+    return new RepeatedClassMatcher(members, regex.charAt(to - 1) == '*');
+  }
+
+  private static boolean parseClassMembers(String regex, int from, int to, boolean[] members) {
+    if (from == to || regex.charAt(from) == '^') {
+      return false;
+    }
+    for (int i = from; i < to; i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (i + 1 == to) {
+          return false;
+        }
+        c = regex.charAt(++i);
+        if (Character.isLetterOrDigit(c)) {
+          if (!addEscapedClass(c, members)) {
+            return false;
+          }
+          continue;
+        }
+      } else if (c == '[' || c == ']' || c == '&') {
+        return false;
+      }
+      if (c >= members.length) {
+        return false;
+      }
+      if (i + 2 < to && regex.charAt(i + 1) == '-') {
+        final char last = regex.charAt(i + 2);
+        if (last == '\\' || last == '[' || last >= members.length || last < c) {
+          return false;
+        }
+        Arrays.fill(members, c, last + 1, true);
+        i += 2;
+      } else {
+        members[c] = true;
+      }
+    }
+    return true;
+  }
+
+  private static boolean addEscapedClass(char c, boolean[] members) {
+    switch (c) {
+    case 'd':
+      Arrays.fill(members, '0', '9' + 1, true);
+      return true;
+    case 'w':
+      Arrays.fill(members, 'a', 'z' + 1, true);
+      Arrays.fill(members, 'A', 'Z' + 1, true);
+      Arrays.fill(members, '0', '9' + 1, true);
+      members['_'] = true;
+      return true;
+    case 's':
+      for (char s : " \t\n\u000B\f\r".toCharArray()) {
+        members[s] = true;
+      }
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private static boolean equals(byte[] bytes, int start, DrillBuf buffer) {
+    for (int i = 0; i < bytes.length; i++) {
+      if (buffer.getByte(start + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether the UTF-8 encoded value contains a line terminator: \n, \r, U+0085, U+2028 or U+2029.
+   */
+  private static boolean containsLineTerminator(int start, int end, DrillBuf buffer) {
+    for (int i = start; i < end; i++) {
+      final byte b = buffer.getByte(i);
+      if (b == '\n' || b == '\r') {
+        return true;
+      }
+      if (b == (byte) 0xC2 && i + 1 < end && buffer.getByte(i + 1) == (byte) 0x85) {
+        return true;
+      }
+      if (b == (byte) 0xE2 && i + 2 < end && buffer.getByte(i + 1) == (byte) 0x80
+          && (buffer.getByte(i + 2) == (byte) 0xA8 || buffer.getByte(i + 2) == (byte) 0xA9)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static final class ExactMatcher implements SqlPatternMatcher {
+    private final byte[] bytes;
+
+    ExactMatcher(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      return end - start == bytes.length && SqlPatternMatchers.equals(bytes, start, buffer);
+    }
+  }
+
+  static final class StartsWithMatcher implements SqlPatternMatcher {
+    private final byte[] prefix;
+
+    StartsWithMatcher(byte[] prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      return end - start >= prefix.length && SqlPatternMatchers.equals(prefix, start, buffer)
+          && !containsLineTerminator(start + prefix.length, end, buffer);
+    }
+  }
+
+  static final class EndsWithMatcher implements SqlPatternMatcher {
+    private final byte[] suffix;
+
+    EndsWithMatcher(byte[] suffix) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      return end - start >= suffix.length && SqlPatternMatchers.equals(suffix, end - suffix.length, buffer)
+          && !containsLineTerminator(start, end - suffix.length, buffer);
+    }
+  }
+
+  /**
+   * Searches the string with the Boyer-Moore-Horspool algorithm: the bytes of a candidate position
+   * are compared from the last one, and the next candidate is shifted by how far the last byte of
+   * the current one is from the end of the string.
+   */
+  static final class ContainsMatcher implements SqlPatternMatcher {
+    private final byte[] bytes;
+    private final int[] shifts = new int[256];
+
+    ContainsMatcher(byte[] bytes) {
+      this.bytes = bytes;
+      Arrays.fill(shifts, bytes.length);
+      for (int i = 0; i < bytes.length - 1; i++) {
+        shifts[bytes[i] & 0xFF] = bytes.length - 1 - i;
+      }
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      return indexOf(start, end, buffer) >= 0 && !containsLineTerminator(start, end, buffer);
+    }
+
+    private int indexOf(int start, int end, DrillBuf buffer) {
+      final int last = bytes.length - 1;
+      if (last < 0) {
+        return start;
+      }
+      for (int i = start; i <= end - bytes.length; i += shifts[buffer.getByte(i + last) & 0xFF]) {
+        int j = last;
+        while (buffer.getByte(i + j) == bytes[j]) {
+          if (j == 0) {
+            return i;
+          }
+          j--;
+        }
+      }
+      return -1;
+    }
+  }
+
+  static final class RepeatedClassMatcher implements SqlPatternMatcher {
+    private final boolean[] members;
+    private final boolean allowEmpty;
+
+    RepeatedClassMatcher(boolean[] members, boolean allowEmpty) {
+      this.members = members;
+      this.allowEmpty = allowEmpty;
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      if (start == end) {
+        return allowEmpty;
+      }
+      for (int i = start; i < end; i++) {
+        // the bytes of the characters beyond ASCII are negative, and never members
+        final byte b = buffer.getByte(i);
+        if (b < 0 || !members[b]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  static final class RegexMatcher implements SqlPatternMatcher {
+    private final Matcher matcher;
+    private final CharSequenceWrapper charSequenceWrapper = new CharSequenceWrapper();
+
+    RegexMatcher(Pattern pattern) {
+      this.matcher = pattern.matcher(charSequenceWrapper);
+    }
+
+    @Override
+    public boolean matches(int start, int end, DrillBuf buffer) {
+      charSequenceWrapper.setBuffer(start, end, buffer);
+      // Reusing same charSequenceWrapper, no need to pass it in.
+      // This saves one method call since reset(CharSequence) calls reset()
+      matcher.reset();
+      return matcher.matches();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import org.apache.drill.exec.expr.DrillSimpleFunc;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate.FunctionScope;
+import org.apache.drill.exec.expr.annotations.FunctionTemplate.NullHandling;
+import org.apache.drill.exec.expr.annotations.Output;
+import org.apache.drill.exec.expr.annotations.Param;
+import org.apache.drill.exec.expr.holders.BigIntHolder;
+import org.apache.drill.exec.expr.holders.IntHolder;
+
+/**
+ * Functions used by ANALYZE TABLE to build HyperLogLog sketches with plain
+ * aggregations. The first {@code precision} bits of a 64 bit hash select one of
+ * 2^precision registers; each register keeps the maximum rank (the position of
+ * the first 1 bit) of the remaining bits.
+ */
+public class StatisticsFunctions {
+
+  @FunctionTemplate(name = "hll_bucket", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class HllBucket implements DrillSimpleFunc {
+
+    @Param BigIntHolder hash;
+    @Param IntHolder precision;
+    @Output IntHolder out;
+
+    public void setup() {}
+
+    public void eval() {
+      out.value = (int) (hash.value >>> (64 - precision.value));
+    }
+  }
+
+  @FunctionTemplate(name = "hll_rank", scope = FunctionScope.SIMPLE, nulls = NullHandling.NULL_IF_NULL)
+  public static class HllRank implements DrillSimpleFunc {
+
+    @Param BigIntHolder hash;
+    @Param IntHolder precision;
+    @Output IntHolder out;
+
+    public void setup() {}
+
+    public void eval() {
+      // the guard bit bounds the rank when all the remaining bits are 0
+      out.value = Long.numberOfLeadingZeros((hash.value << precision.value) | (1L << (precision.value - 1))) + 1;
+    }
+  }
+}
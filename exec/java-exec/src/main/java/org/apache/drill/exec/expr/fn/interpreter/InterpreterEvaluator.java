@@ -45,6 +45,7 @@ import org.apache.drill.exec.expr.ValueVectorReadExpression;
 import org.apache.drill.exec.expr.annotations.FunctionTemplate;
 import org.apache.drill.exec.expr.annotations.Output;
 import org.apache.drill.exec.expr.annotations.Param;
+import org.apache.drill.exec.expr.fn.DrillComplexWriterFuncHolder;
 import org.apache.drill.exec.expr.fn.DrillSimpleFuncHolder;
 import org.apache.drill.exec.expr.holders.BitHolder;
 import org.apache.drill.exec.expr.holders.NullableBitHolder;
@@ -52,6 +53,7 @@ import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.ops.UdfUtilities;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.ValueHolderHelper;
 import org.apache.drill.exec.vector.ValueVector;
 
@@ -88,6 +90,40 @@ public class InterpreterEvaluator {
 
   }
 
+  /**
+   * @return whether the expression only uses functions, value vector reads and constants the
+   * interpreter can evaluate, e.g. no complex writer function nor read of a map or list
+   */
+  public static boolean isInterpretable(LogicalExpression expr) {
+    return expr.accept(new InterpretableVisitor(), null);
+  }
+
+  /**
+   * Evaluates an expression on the records of a batch one at a time, for operators which run
+   * an expression without compiling it.
+   */
+  public static class RecordEvaluator {
+    private final LogicalExpression expr;
+    private final EvalVisitor evalVisitor;
+
+    public RecordEvaluator(UdfUtilities udfUtilities, VectorAccessible incoming, LogicalExpression expr) {
+      this.expr = expr;
+      this.evalVisitor = new EvalVisitor(incoming, udfUtilities);
+      expr.accept(new InitVisitor(udfUtilities), incoming);
+    }
+
+    public ValueHolder evaluate(int index) {
+      return expr.accept(evalVisitor, index);
+    }
+
+    /**
+     * @return whether the boolean expression is true for the record, rather than false or null
+     */
+    public boolean isTrue(int index) {
+      return evalVisitor.isBitOn(evaluate(index)) == EvalVisitor.Trivalent.TRUE;
+    }
+  }
+
   public static ValueHolder evaluateFunction(DrillSimpleFunc interpreter, ValueHolder[] args, String funcName) throws Exception {
     Preconditions.checkArgument(interpreter != null, "interpreter could not be null when use interpreted model to evaluate function " + funcName);
 
@@ -190,6 +226,150 @@ public class InterpreterEvaluator {
   }
 
 
+  private static class InterpretableVisitor extends AbstractExprVisitor<Boolean, Void, RuntimeException> {
+
+    private static boolean isScalar(TypeProtos.MajorType type) {
+      if (type.getMode() == TypeProtos.DataMode.REPEATED) {
+        return false;
+      }
+      switch (type.getMinorType()) {
+        case MAP:
+        case LIST:
+        case UNION:
+        case LATE:
+        case NULL:
+        case GENERIC_OBJECT:
+          return false;
+        default:
+          return true;
+      }
+    }
+
+    private boolean allInterpretable(Iterable<LogicalExpression> exprs) {
+      for (LogicalExpression e : exprs) {
+        if (!e.accept(this, null)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Boolean visitFunctionHolderExpression(FunctionHolderExpression holderExpr, Void value) {
+      if (!(holderExpr.getHolder() instanceof DrillSimpleFuncHolder)
+          || holderExpr.getHolder() instanceof DrillComplexWriterFuncHolder
+          || !isScalar(holderExpr.getMajorType())) {
+        return false;
+      }
+      final DrillSimpleFuncHolder holder = (DrillSimpleFuncHolder) holderExpr.getHolder();
+      for (int i = 0; i < holderExpr.args.size(); i++) {
+        if (holder.isFieldReader(i)) {
+          return false;
+        }
+      }
+      return allInterpretable(holderExpr.args);
+    }
+
+    @Override
+    public Boolean visitBooleanOperator(BooleanOperator op, Void value) {
+      return allInterpretable(op.args);
+    }
+
+    @Override
+    public Boolean visitIfExpression(IfExpression ifExpr, Void value) {
+      return isScalar(ifExpr.getMajorType()) && allInterpretable(ifExpr);
+    }
+
+    @Override
+    public Boolean visitUnknown(LogicalExpression e, Void value) {
+      if (e instanceof ValueVectorReadExpression) {
+        final ValueVectorReadExpression read = (ValueVectorReadExpression) e;
+        return !read.hasReadPath() && isScalar(read.getMajorType());
+      }
+      return false;
+    }
+
+    @Override
+    public Boolean visitIntConstant(ValueExpressions.IntExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitFloatConstant(ValueExpressions.FloatExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitLongConstant(ValueExpressions.LongExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDoubleConstant(ValueExpressions.DoubleExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitBooleanConstant(ValueExpressions.BooleanExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitQuotedStringConstant(ValueExpressions.QuotedString e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDateConstant(ValueExpressions.DateExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitTimeConstant(ValueExpressions.TimeExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitTimeStampConstant(ValueExpressions.TimeStampExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIntervalYearConstant(ValueExpressions.IntervalYearExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIntervalDayConstant(ValueExpressions.IntervalDayExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDecimal9Constant(ValueExpressions.Decimal9Expression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDecimal18Constant(ValueExpressions.Decimal18Expression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDecimal28Constant(ValueExpressions.Decimal28Expression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDecimal38Constant(ValueExpressions.Decimal38Expression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitNullConstant(TypedNullConstant e, Void value) {
+      return isScalar(e.getMajorType());
+    }
+  }
+
   public static class EvalVisitor extends AbstractExprVisitor<ValueHolder, Integer, RuntimeException> {
     private VectorAccessible incoming;
     private UdfUtilities udfUtilities;
@@ -427,8 +607,16 @@ public class InterpreterEvaluator {
         switch (type.getMode()) {
           case OPTIONAL:
           case REQUIRED:
-            vv = incoming.getValueAccessorById(TypeHelper.getValueVectorClass(type.getMinorType(),type.getMode()), e.getFieldId().getFieldIds()).getValueVector();
-            holder = TypeHelper.getValue(vv, inIndex.intValue());
+            final VectorWrapper<?> wrapper = incoming.getValueAccessorById(
+                TypeHelper.getValueVectorClass(type.getMinorType(), type.getMode()), e.getFieldId().getFieldIds());
+            if (e.isSuperReader()) {
+              // the index of a four byte selection vector: batch in the upper, record in the lower two bytes
+              vv = wrapper.getValueVectors()[inIndex >>> 16];
+              holder = TypeHelper.getValue(vv, inIndex & 0xFFFF);
+            } else {
+              vv = wrapper.getValueVector();
+              holder = TypeHelper.getValue(vv, inIndex.intValue());
+            }
             return holder;
           default:
             throw new UnsupportedOperationException("Type of " + type + " is not supported yet in interpreted expression evaluation!");
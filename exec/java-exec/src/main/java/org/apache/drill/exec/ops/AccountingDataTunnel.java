@@ -46,6 +46,13 @@ public class AccountingDataTunnel {
     tunnel.sendRecordBatch(statusHandler, batch);
   }
 
+  /**
+   * See {@link DataTunnel#getWireBytesSent()}.
+   */
+  public long getWireBytesSent() {
+    return tunnel.getWireBytesSent();
+  }
+
   /**
    * See {@link DataTunnel#setTestInjectionControls(ControlsInjector, ExecutionControls, Logger)}.
    */
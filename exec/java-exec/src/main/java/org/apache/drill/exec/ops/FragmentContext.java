@@ -23,7 +23,11 @@ import io.netty.buffer.DrillBuf;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import org.apache.calcite.schema.SchemaPlus;
 import org.apache.drill.common.config.DrillConfig;
@@ -39,6 +43,7 @@ import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.impl.join.RuntimeFilter;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.proto.BitControl.PlanFragment;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
@@ -63,6 +68,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFutureTask;
 
 /**
  * Contextual objects required for execution of a particular fragment.
@@ -108,6 +114,8 @@ public class FragmentContext implements AutoCloseable, UdfUtilities {
   private final AccountingUserConnection accountingUserConnection;
   /** Stores constants and their holders by type */
   private final Map<String, Map<MinorType, ValueHolder>> constantValueHolderCache;
+  /** Runtime filters published by the hash joins of the query, by the id of the scan they apply to */
+  private final ConcurrentMap<Integer, List<RuntimeFilter>> runtimeFilters = Maps.newConcurrentMap();
 
   /**
    * Create a FragmentContext instance for non-root fragment.
@@ -316,6 +324,24 @@ public class FragmentContext implements AutoCloseable, UdfUtilities {
     return context.getCompiler().createInstance(cg);
   }
 
+  /**
+   * Compiles the generated class on the executor of the Drillbit rather than in the
+   * fragment thread. The returned instance is not set up.
+   *
+   * @param cg the code generator of the class, which is not used any more by the caller
+   * @return the future instance of the generated class
+   */
+  public <T> Future<T> getImplementationClassAsync(final CodeGenerator<T> cg) {
+    final ListenableFutureTask<T> task = ListenableFutureTask.create(new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        return context.getCompiler().createInstance(cg);
+      }
+    });
+    getExecutor().execute(task);
+    return task;
+  }
+
   public <T> List<T> getImplementationClass(final ClassGenerator<T> cg, final int instanceCount) throws ClassTransformationException, IOException {
     return getImplementationClass(cg.getCodeGenerator(), instanceCount);
   }
@@ -342,6 +368,18 @@ public class FragmentContext implements AutoCloseable, UdfUtilities {
     return tunnel;
   }
 
+  /**
+   * @return the record batch body bytes this fragment has sent through its
+   * data tunnels, after compression for the batches that were compressed
+   */
+  public long getDataTunnelWireBytes() {
+    long bytes = 0;
+    for (AccountingDataTunnel tunnel : tunnels.values()) {
+      bytes += tunnel.getWireBytesSent();
+    }
+    return bytes;
+  }
+
   public IncomingBuffers getBuffers() {
     return buffers;
   }
@@ -461,6 +499,32 @@ public class FragmentContext implements AutoCloseable, UdfUtilities {
     return valueHolder;
   }
 
+  /**
+   * Hands a runtime filter built by a hash join to a scan of this fragment.
+   * Filters of a join of this fragment are published on the fragment's
+   * thread; those of a join of another major fragment arrive on an RPC
+   * thread, while the scan runs.
+   */
+  public void addRuntimeFilter(int scanOperatorId, RuntimeFilter filter) {
+    getRuntimeFilters(scanOperatorId).add(filter);
+  }
+
+  /**
+   * @return the runtime filters for the scan with the given operator id: a
+   * list which the filters published later are added to
+   */
+  public List<RuntimeFilter> getRuntimeFilters(int scanOperatorId) {
+    List<RuntimeFilter> filters = runtimeFilters.get(scanOperatorId);
+    if (filters == null) {
+      final List<RuntimeFilter> newFilters = new CopyOnWriteArrayList<>();
+      filters = runtimeFilters.putIfAbsent(scanOperatorId, newFilters);
+      if (filters == null) {
+        filters = newFilters;
+      }
+    }
+    return filters;
+  }
+
   public Executor getExecutor(){
     return context.getExecutor();
   }
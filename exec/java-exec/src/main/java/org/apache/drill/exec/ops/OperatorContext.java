@@ -26,6 +26,7 @@ import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.testing.ExecutionControls;
+import org.apache.drill.exec.util.filereader.ReadScheduler;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
 
@@ -51,6 +52,8 @@ public abstract class OperatorContext {
 
   public abstract ExecutorService getScanDecodeExecutor();
 
+  public abstract ReadScheduler getScanReadScheduler();
+
   public abstract ExecutionControls getExecutionControls();
 
   public abstract DrillFileSystem newFileSystem(Configuration conf) throws IOException;
@@ -30,6 +30,7 @@ import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.testing.ExecutionControls;
+import org.apache.drill.exec.util.filereader.ReadScheduler;
 import org.apache.drill.exec.work.WorkManager;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -52,6 +53,7 @@ class OperatorContextImpl extends OperatorContext implements AutoCloseable {
   private final ExecutorService executor;
   private final ExecutorService scanExecutor;
   private final ExecutorService scanDecodeExecutor;
+  private final ReadScheduler scanReadScheduler;
 
   /**
    * This lazily initialized executor service is used to submit a {@link Callable task} that needs a proxy user. There
@@ -74,6 +76,7 @@ class OperatorContextImpl extends OperatorContext implements AutoCloseable {
     executor = context.getDrillbitContext().getExecutor();
     scanExecutor = context.getDrillbitContext().getScanExecutor();
     scanDecodeExecutor = context.getDrillbitContext().getScanDecodeExecutor();
+    scanReadScheduler = context.getDrillbitContext().getScanReadScheduler();
   }
 
   public OperatorContextImpl(PhysicalOperator popConfig, FragmentContext context, OperatorStats stats)
@@ -87,6 +90,7 @@ class OperatorContextImpl extends OperatorContext implements AutoCloseable {
     executor = context.getDrillbitContext().getExecutor();
     scanExecutor = context.getDrillbitContext().getScanExecutor();
     scanDecodeExecutor = context.getDrillbitContext().getScanDecodeExecutor();
+    scanReadScheduler = context.getDrillbitContext().getScanReadScheduler();
   }
 
   @Override
@@ -117,6 +121,10 @@ class OperatorContextImpl extends OperatorContext implements AutoCloseable {
   public ExecutorService getScanDecodeExecutor() {
     return scanDecodeExecutor;
   }
+  @Override
+  public ReadScheduler getScanReadScheduler() {
+    return scanReadScheduler;
+  }
 
   @Override
   public ExecutionControls getExecutionControls() {
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.config;
+
+import java.util.List;
+
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.exec.physical.base.AbstractSingle;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.base.PhysicalVisitor;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * A filter followed by a project, evaluated in a single pass: the projected expressions are
+ * only evaluated for, and written from, the records which pass the filter.
+ */
+@JsonTypeName("filter-project")
+public class FilterProject extends AbstractSingle {
+
+  private final LogicalExpression condition;
+  private final List<NamedExpression> exprs;
+
+  @JsonCreator
+  public FilterProject(@JsonProperty("child") PhysicalOperator child,
+                       @JsonProperty("condition") LogicalExpression condition,
+                       @JsonProperty("exprs") List<NamedExpression> exprs) {
+    super(child);
+    this.condition = condition;
+    this.exprs = exprs;
+  }
+
+  public LogicalExpression getCondition() {
+    return condition;
+  }
+
+  public List<NamedExpression> getExprs() {
+    return exprs;
+  }
+
+  @Override
+  public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
+    return physicalVisitor.visitOp(this, value);
+  }
+
+  @Override
+  protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
+    return new FilterProject(child, condition, exprs);
+  }
+
+  @Override
+  public SelectionVectorMode getSVMode() {
+    return SelectionVectorMode.NONE;
+  }
+
+  @Override
+  public int getOperatorType() {
+    // reported as a project, which it is with a condition
+    return CoreOperatorType.PROJECT_VALUE;
+  }
+}
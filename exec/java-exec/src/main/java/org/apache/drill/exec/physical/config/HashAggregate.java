@@ -21,9 +21,11 @@ import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.exec.physical.base.AbstractSingle;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
+import org.apache.drill.exec.planner.physical.AggPrelBase.OperatorPhase;
 import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
@@ -34,6 +36,7 @@ public class HashAggregate extends AbstractSingle {
 
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HashAggregate.class);
 
+  private final OperatorPhase aggPhase;
   private final List<NamedExpression> groupByExprs;
   private final List<NamedExpression> aggrExprs;
 
@@ -41,15 +44,28 @@ public class HashAggregate extends AbstractSingle {
 
   @JsonCreator
   public HashAggregate(@JsonProperty("child") PhysicalOperator child,
+                       @JsonProperty("phase") OperatorPhase aggPhase,
                        @JsonProperty("keys") List<NamedExpression> groupByExprs,
                        @JsonProperty("exprs") List<NamedExpression> aggrExprs,
                        @JsonProperty("cardinality") float cardinality) {
     super(child);
+    // Plans written before the phase was recorded are treated as single-phase
+    this.aggPhase = aggPhase == null ? OperatorPhase.PHASE_1of1 : aggPhase;
     this.groupByExprs = groupByExprs;
     this.aggrExprs = aggrExprs;
     this.cardinality = cardinality;
   }
 
+  public HashAggregate(PhysicalOperator child, List<NamedExpression> groupByExprs,
+                       List<NamedExpression> aggrExprs, float cardinality) {
+    this(child, OperatorPhase.PHASE_1of1, groupByExprs, aggrExprs, cardinality);
+  }
+
+  @JsonProperty("phase")
+  public OperatorPhase getAggPhase() {
+    return aggPhase;
+  }
+
   public List<NamedExpression> getGroupByExprs() {
     return groupByExprs;
   }
@@ -69,7 +85,9 @@ public class HashAggregate extends AbstractSingle {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashAggregate(child, groupByExprs, aggrExprs, cardinality);
+    HashAggregate newHashAgg = new HashAggregate(child, aggPhase, groupByExprs, aggrExprs, cardinality);
+    newHashAgg.setMaxAllocation(getMaxAllocation());
+    return newHashAgg;
   }
 
   @Override
@@ -77,5 +95,18 @@ public class HashAggregate extends AbstractSingle {
     return CoreOperatorType.HASH_AGGREGATE_VALUE;
   }
 
+  /**
+   * A two-phase hash aggregate can relieve memory pressure (by spilling in the
+   * second phase, or by early output in the first) so it is given a memory
+   * budget by the Foreman, like the external sort.
+   */
+  @JsonIgnore
+  public boolean isBufferedOperator() {
+    return aggPhase.hasTwo();
+  }
+
+  public void setMaxAllocation(long maxAllocation) {
+    this.maxAllocation = maxAllocation;
+  }
 
 }
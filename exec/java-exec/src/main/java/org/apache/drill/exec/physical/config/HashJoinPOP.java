@@ -18,6 +18,7 @@
 
 package org.apache.drill.exec.physical.config;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -29,6 +30,9 @@ import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
 import org.apache.calcite.rel.core.JoinRelType;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.base.Preconditions;
@@ -44,19 +48,27 @@ public class HashJoinPOP extends AbstractBase {
     private final PhysicalOperator right;
     private final List<JoinCondition> conditions;
     private final JoinRelType joinType;
+    private final List<RuntimeFilterDef> runtimeFilters;
 
     @JsonCreator
     public HashJoinPOP(
             @JsonProperty("left") PhysicalOperator left,
             @JsonProperty("right") PhysicalOperator right,
             @JsonProperty("conditions") List<JoinCondition> conditions,
-            @JsonProperty("joinType") JoinRelType joinType
+            @JsonProperty("joinType") JoinRelType joinType,
+            @JsonProperty("runtimeFilters") List<RuntimeFilterDef> runtimeFilters
     ) {
         this.left = left;
         this.right = right;
         this.conditions = conditions;
         Preconditions.checkArgument(joinType != null, "Join type is missing!");
         this.joinType = joinType;
+        this.runtimeFilters = runtimeFilters == null ? Collections.<RuntimeFilterDef>emptyList() : runtimeFilters;
+    }
+
+    public HashJoinPOP(PhysicalOperator left, PhysicalOperator right, List<JoinCondition> conditions,
+                       JoinRelType joinType) {
+        this(left, right, conditions, joinType, null);
     }
 
     @Override
@@ -67,7 +79,10 @@ public class HashJoinPOP extends AbstractBase {
     @Override
     public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
         Preconditions.checkArgument(children.size() == 2);
-        return new HashJoinPOP(children.get(0), children.get(1), conditions, joinType);
+        HashJoinPOP newHashJoin = new HashJoinPOP(children.get(0), children.get(1), conditions, joinType,
+            runtimeFilters);
+        newHashJoin.setMaxAllocation(getMaxAllocation());
+        return newHashJoin;
     }
 
     @Override
@@ -91,13 +106,20 @@ public class HashJoinPOP extends AbstractBase {
         return conditions;
     }
 
+    @JsonInclude(Include.NON_EMPTY)
+    public List<RuntimeFilterDef> getRuntimeFilters() {
+        return runtimeFilters;
+    }
+
     public HashJoinPOP flipIfRight(){
         if(joinType == JoinRelType.RIGHT){
             List<JoinCondition> flippedConditions = Lists.newArrayList();
             for(JoinCondition c : conditions){
                 flippedConditions.add(c.flip());
             }
-            return new HashJoinPOP(right, left, flippedConditions, JoinRelType.LEFT);
+            HashJoinPOP flipped = new HashJoinPOP(right, left, flippedConditions, JoinRelType.LEFT);
+            flipped.setMaxAllocation(getMaxAllocation());
+            return flipped;
         }else{
             return this;
         }
@@ -107,4 +129,18 @@ public class HashJoinPOP extends AbstractBase {
     public int getOperatorType() {
       return CoreOperatorType.HASH_JOIN_VALUE;
     }
+
+    /**
+     * The hash join holds its whole build side, spilling partitions of it when
+     * they do not fit, so it is given a memory budget by the Foreman, like the
+     * external sort.
+     */
+    @JsonIgnore
+    public boolean isBufferedOperator() {
+      return true;
+    }
+
+    public void setMaxAllocation(long maxAllocation) {
+      this.maxAllocation = maxAllocation;
+    }
 }
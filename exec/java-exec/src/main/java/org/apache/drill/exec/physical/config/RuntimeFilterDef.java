@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.config;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Describes a runtime filter of a hash join: the join builds a Bloom filter
+ * over the build side values of one of its keys, and the scan that produces
+ * the matching probe side column uses it to drop the rows that cannot find a
+ * match. The scan either runs in the same fragment as the join, or in another
+ * major fragment, below an exchange.
+ */
+public class RuntimeFilterDef {
+
+  private final int keyIndex;
+  private final int scanMajorFragmentId;
+  private final int scanOperatorId;
+  private final String scanColumn;
+
+  @JsonCreator
+  public RuntimeFilterDef(@JsonProperty("keyIndex") int keyIndex,
+                          @JsonProperty("scanMajorFragmentId") int scanMajorFragmentId,
+                          @JsonProperty("scanOperatorId") int scanOperatorId,
+                          @JsonProperty("scanColumn") String scanColumn) {
+    this.keyIndex = keyIndex;
+    this.scanMajorFragmentId = scanMajorFragmentId;
+    this.scanOperatorId = scanOperatorId;
+    this.scanColumn = scanColumn;
+  }
+
+  /**
+   * @return the index of the join condition whose build side values are filtered on
+   */
+  public int getKeyIndex() {
+    return keyIndex;
+  }
+
+  /**
+   * @return the major fragment the probe side scan runs in
+   */
+  public int getScanMajorFragmentId() {
+    return scanMajorFragmentId;
+  }
+
+  /**
+   * @return the operator id of the probe side scan the filter applies to
+   */
+  public int getScanOperatorId() {
+    return scanOperatorId;
+  }
+
+  /**
+   * @return the name of the scan output column holding the probe side key
+   */
+  public String getScanColumn() {
+    return scanColumn;
+  }
+
+  @Override
+  public String toString() {
+    return "RuntimeFilterDef [keyIndex=" + keyIndex + ", scanMajorFragmentId=" + scanMajorFragmentId +
+        ", scanOperatorId=" + scanOperatorId +
+        ", scanColumn=" + scanColumn + "]";
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.drill.common.AutoCloseables;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.OperatorStats;
+import org.apache.drill.exec.store.PrefetchableRecordReader;
+import org.apache.drill.exec.store.RecordReader;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Iterates over the readers of a scan while the next ones read the beginning
+ * of their input on the scan thread pool. Up to {@code depth} readers are
+ * prefetched ahead of the one returned last, each buffering at most its share
+ * of the memory budget in the operator allocator.
+ * <p>
+ * A reader is returned once its prefetch completed; the time the fragment
+ * waited for it is reported in {@link ScanBatch.Metric#PREFETCH_WAIT_NANOS}.
+ * A failed prefetch is only logged, the reader then opening its input on
+ * setup as usual.
+ */
+class ReaderPrefetcher implements Iterator<RecordReader>, AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ReaderPrefetcher.class);
+
+  private final Iterator<RecordReader> readers;
+  private final ExecutorService executor;
+  private final BufferAllocator allocator;
+  private final OperatorStats stats;
+  private final int depth;
+  private final long bytesPerReader;
+  private final Deque<Prefetch> pending = new ArrayDeque<>();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  ReaderPrefetcher(Iterator<RecordReader> readers, ExecutorService executor, BufferAllocator allocator,
+      OperatorStats stats, int depth, long memoryBudget) {
+    this.readers = readers;
+    this.executor = executor;
+    this.allocator = allocator;
+    this.stats = stats;
+    this.depth = depth;
+    // the reader being read holds its buffer too
+    this.bytesPerReader = memoryBudget / (depth + 1);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !pending.isEmpty() || readers.hasNext();
+  }
+
+  @Override
+  public RecordReader next() {
+    fill();
+    if (pending.isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    final Prefetch prefetch = pending.poll();
+    prefetch.await();
+    fill();
+    return prefetch.reader;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Closes the readers which were not returned, once their prefetch finished.
+   */
+  @Override
+  public void close() throws Exception {
+    closed.set(true);
+    final Deque<AutoCloseable> toClose = new ArrayDeque<>();
+    for (Prefetch prefetch : pending) {
+      if (prefetch.future != null) {
+        try {
+          Uninterruptibles.getUninterruptibly(prefetch.future);
+        } catch (ExecutionException e) {
+          // the reader closes whatever it opened
+        }
+      }
+      toClose.add(prefetch.reader);
+    }
+    pending.clear();
+    AutoCloseables.close(toClose);
+  }
+
+  private void fill() {
+    while (pending.size() < depth && readers.hasNext()) {
+      final RecordReader reader = readers.next();
+      Future<Long> future = null;
+      if (reader instanceof PrefetchableRecordReader && bytesPerReader > 0) {
+        future = executor.submit(new Callable<Long>() {
+          @Override
+          public Long call() throws Exception {
+            if (closed.get()) {
+              return 0L;
+            }
+            return ((PrefetchableRecordReader) reader).prefetch(allocator, bytesPerReader);
+          }
+        });
+      }
+      pending.add(new Prefetch(reader, future));
+    }
+  }
+
+  private class Prefetch {
+    private final RecordReader reader;
+    private final Future<Long> future;
+
+    private Prefetch(RecordReader reader, Future<Long> future) {
+      this.reader = reader;
+      this.future = future;
+    }
+
+    private void await() {
+      if (future == null) {
+        return;
+      }
+      final long start = System.nanoTime();
+      stats.startWait();
+      try {
+        final long bytes = Uninterruptibles.getUninterruptibly(future);
+        stats.addLongStat(ScanBatch.Metric.READERS_PREFETCHED, 1);
+        stats.addLongStat(ScanBatch.Metric.BYTES_PREFETCHED, bytes);
+      } catch (ExecutionException e) {
+        logger.warn("Failure while prefetching the input of reader {}", reader, e.getCause());
+      } finally {
+        stats.stopWait();
+        stats.addLongStat(ScanBatch.Metric.PREFETCH_WAIT_NANOS, System.nanoTime() - start);
+      }
+    }
+  }
+}
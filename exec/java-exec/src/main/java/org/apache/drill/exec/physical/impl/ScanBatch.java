@@ -29,10 +29,12 @@ import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.record.BatchSchema;
@@ -84,28 +86,55 @@ public class ScanBatch implements CloseableRecordBatch {
   private Map<String, ValueVector> implicitVectors;
   private Iterator<Map<String, String>> implicitColumns;
   private Map<String, String> implicitValues;
+  /** Opens the next readers ahead of the current one, null if disabled. */
+  private final ReaderPrefetcher prefetcher;
+
+  public enum Metric implements MetricDef {
+    READERS_PREFETCHED,   // Number of readers whose input was read ahead
+    BYTES_PREFETCHED,     // Total bytes read ahead by the readers
+    PREFETCH_WAIT_NANOS;  // Time in nanos waiting for readers to finish reading ahead
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
 
   public ScanBatch(PhysicalOperator subScanConfig, FragmentContext context,
                    OperatorContext oContext, Iterator<RecordReader> readers,
                    List<Map<String, String>> implicitColumns) throws ExecutionSetupException {
     this.context = context;
-    this.readers = readers;
     if (!readers.hasNext()) {
       throw new ExecutionSetupException("A scan batch must contain at least one reader.");
     }
-    currentReader = readers.next();
     this.oContext = oContext;
+    final int prefetchDepth = (int) context.getOptions().getOption(ExecConstants.SCAN_PREFETCH_READERS_VALIDATOR);
+    if (prefetchDepth > 0) {
+      prefetcher = new ReaderPrefetcher(readers, oContext.getScanExecutor(), oContext.getAllocator(),
+          oContext.getStats(), prefetchDepth,
+          context.getOptions().getOption(ExecConstants.SCAN_PREFETCH_MEMORY_VALIDATOR));
+      this.readers = prefetcher;
+    } else {
+      prefetcher = null;
+      this.readers = readers;
+    }
 
     boolean setup = false;
     try {
       oContext.getStats().startProcessing();
+      currentReader = this.readers.next();
       currentReader.setup(oContext, mutator);
       setup = true;
     } finally {
       // if we had an exception during setup, make sure to release existing data.
       if (!setup) {
         try {
-          currentReader.close();
+          if (currentReader != null) {
+            currentReader.close();
+          }
+          if (prefetcher != null) {
+            prefetcher.close();
+          }
         } catch(final Exception e) {
           throw new ExecutionSetupException(e);
         }
@@ -414,6 +443,9 @@ public class ScanBatch implements CloseableRecordBatch {
     }
     fieldVectorMap.clear();
     currentReader.close();
+    if (prefetcher != null) {
+      prefetcher.close();
+    }
   }
 
   @Override
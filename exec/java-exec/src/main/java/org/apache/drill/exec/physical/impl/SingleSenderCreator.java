@@ -56,7 +56,8 @@ public class SingleSenderCreator implements RootCreator<SingleSender>{
     private volatile boolean done = false;
 
     public enum Metric implements MetricDef {
-      BYTES_SENT;
+      BYTES_SENT,
+      COMPRESSED_BYTES_SENT; // body bytes put on the wire, after compression
 
       @Override
       public int metricId() {
@@ -140,6 +141,12 @@ public class SingleSenderCreator implements RootCreator<SingleSender>{
       stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
     }
 
+    @Override
+    public void close() throws Exception {
+      super.close();
+      stats.setLongStat(Metric.COMPRESSED_BYTES_SENT, tunnel.getWireBytesSent());
+    }
+
     @Override
     public void receivingFragmentFinished(FragmentHandle handle) {
       done = true;
@@ -135,7 +135,12 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
 
     if (aggregator.buildComplete() && !aggregator.allFlushed()) {
       // aggregation is complete and not all records have been output yet
-      return aggregator.outputCurrentBatch();
+      IterOutcome outcome = aggregator.outputCurrentBatch();
+      // Once the in-memory groups are output, a spilled partition (if any)
+      // is read back and has to be aggregated before output resumes.
+      if (aggregator.buildComplete()) {
+        return outcome;
+      }
     }
 
     logger.debug("Starting aggregator doWork; incoming record count = {} ", incoming.getRecordCount());
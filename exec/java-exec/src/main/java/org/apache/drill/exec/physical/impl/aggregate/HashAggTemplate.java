@@ -18,17 +18,24 @@
 package org.apache.drill.exec.physical.impl.aggregate;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 
 import javax.inject.Named;
 
+import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.ErrorCollector;
 import org.apache.drill.common.expression.ErrorCollectorImpl;
 import org.apache.drill.common.expression.ExpressionPosition;
 import org.apache.drill.common.expression.FieldReference;
 import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.VectorAccessibleSerializable;
 import org.apache.drill.exec.compile.sig.RuntimeOverridden;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -43,12 +50,18 @@ import org.apache.drill.exec.physical.impl.common.HashTable;
 import org.apache.drill.exec.physical.impl.common.HashTableConfig;
 import org.apache.drill.exec.physical.impl.common.HashTableStats;
 import org.apache.drill.exec.physical.impl.common.IndexPointer;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
+import org.apache.drill.exec.physical.impl.spill.SpilledRecordbatch;
+import org.apache.drill.exec.planner.physical.AggPrelBase.OperatorPhase;
+import org.apache.drill.exec.record.BatchSchema;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.RecordBatch.IterOutcome;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.WritableBatch;
 import org.apache.drill.exec.vector.AllocationHelper;
 import org.apache.drill.exec.vector.FixedWidthVector;
 import org.apache.drill.exec.vector.ObjectVector;
@@ -72,23 +85,53 @@ public abstract class HashAggTemplate implements HashAggregator {
   private IterOutcome outcome;
 //  private int outputCount = 0;
   private int numGroupedRecords = 0;
-  private int outBatchIndex = 0;
   private int lastBatchOutputCount = 0;
   private RecordBatch incoming;
 //  private BatchSchema schema;
   private HashAggBatch outgoing;
   private VectorContainer outContainer;
-//  private FragmentContext context;
+  private FragmentContext context;
   private BufferAllocator allocator;
 
-//  private HashAggregate hashAggrConfig;
-  private HashTable htable;
-  private ArrayList<BatchHolder> batchHolders;
+  private HashAggregate hashAggrConfig;
+  private HashTableConfig htConfig;
+  private TypedFieldId[] groupByOutFieldIds;
+
+  // The incoming rows are hashed into partitions; each partition has its own
+  // hash table and batch holders, and is the unit of spilling (2nd phase) or
+  // early output (1st phase).
+  private int numPartitions = 0;
+  private int partitionMask = 0;
+  private HashTable htables[];
+  private ArrayList<BatchHolder> batchHolders[];
+  private int outBatchIndex[];
+  private int nextPartitionToReturn = 0;
+
   private IndexPointer htIdxHolder; // holder for the Hashtable's internal index returned by put()
   private IndexPointer outStartIdxHolder;
   private IndexPointer outNumRecordsHolder;
   private int numGroupByOutFields = 0; // Note: this should be <= number of group-by fields
 
+  // Spilling state
+  private boolean is2ndPhase = false;
+  private boolean canSpill = false;
+  private long memoryLimit = 0;
+  private long estMaxBatchSize = 0;
+  private SpillSet spillSet;
+  private OutputStream outputStream[];
+  private String spillFiles[];
+  private int spilledBatchesCount[];
+  private int numSpilledPartitions = 0;
+  private int cycleNum = 0; // 0 - original incoming, 1 - first spill cycle, etc.
+  private int maxCycleNum = 0;
+  private long spilledBytes = 0;
+  private final LinkedList<SpilledPartition> spilledPartitionsList = new LinkedList<>();
+  private SpilledRecordbatch newIncoming; // when reading a spilled partition, replaces the original incoming
+
+  // Early output state (1st phase)
+  private boolean earlyOutput = false;
+  private int earlyPartition = 0;
+
   ErrorCollector collector = new ErrorCollectorImpl();
 
   private MaterializedField[] materializedValueFields;
@@ -103,7 +146,11 @@ public abstract class HashAggTemplate implements HashAggregator {
     NUM_BUCKETS,
     NUM_ENTRIES,
     NUM_RESIZING,
-    RESIZING_TIME;
+    RESIZING_TIME,
+    NUM_PARTITIONS,
+    SPILLED_PARTITIONS, // number of partitions spilled in the original incoming
+    SPILL_MB,           // megabytes written to spill files, over all cycles
+    SPILL_CYCLE;        // highest spill cycle reached: 0 - no spill, 1 - spilled, 2 - spilled a spilled partition, etc.
 
     // duplicate for hash ag
 
@@ -113,6 +160,24 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
   }
 
+  /**
+   * A partition written to a spill file, to be read back and aggregated after
+   * the current incoming is exhausted. Public, as the generated subclass of the
+   * template lives in another package.
+   */
+  public static class SpilledPartition {
+    public final String spillFile;
+    public final int spilledBatches;
+    public final int cycleNum;
+    public final int origPartn;
+
+    public SpilledPartition(String spillFile, int spilledBatches, int cycleNum, int origPartn) {
+      this.spillFile = spillFile;
+      this.spilledBatches = spilledBatches;
+      this.cycleNum = cycleNum;
+      this.origPartn = origPartn;
+    }
+  }
 
   public class BatchHolder {
 
@@ -230,7 +295,7 @@ public abstract class HashAggTemplate implements HashAggregator {
       throw new IllegalArgumentException("Wrong number of workspace variables.");
     }
 
-//    this.context = context;
+    this.context = context;
     this.stats = stats;
     this.allocator = allocator;
     this.incoming = incoming;
@@ -238,7 +303,9 @@ public abstract class HashAggTemplate implements HashAggregator {
     this.outgoing = outgoing;
     this.outContainer = outContainer;
 
-//    this.hashAggrConfig = hashAggrConfig;
+    this.hashAggrConfig = hashAggrConfig;
+    this.htConfig = htConfig;
+    this.groupByOutFieldIds = groupByOutFieldIds;
 
     // currently, hash aggregation is only applicable if there are group-by expressions.
     // For non-grouped (a.k.a Plain) aggregations that don't involve DISTINCT, there is no
@@ -266,17 +333,130 @@ public abstract class HashAggTemplate implements HashAggregator {
       }
     }
 
-    ChainedHashTable ht =
-        new ChainedHashTable(htConfig, context, allocator, incoming, null /* no incoming probe */, outgoing);
-    this.htable = ht.createAndSetupHashTable(groupByOutFieldIds);
-
     numGroupByOutFields = groupByOutFieldIds.length;
-    batchHolders = new ArrayList<BatchHolder>();
-    // First BatchHolder is created when the first put request is received.
+
+    setupPartitions(hashAggrConfig.getAggPhase());
 
     doSetup(incoming);
   }
 
+  /**
+   * Decides whether this aggregate may spill (or output early) and on the
+   * number of partitions, then creates the hash table of each partition.
+   * <p>
+   * Only the phases of a two-phase aggregate can relieve memory pressure: the
+   * first phase by returning a partition's groups early (the second phase
+   * combines them), the second phase by spilling partitions and later
+   * aggregating each spilled partition on its own. The latter requires the
+   * spilled batches (in the output schema) to be usable as input, which
+   * holds when the incoming schema matches the output schema.
+   */
+  @SuppressWarnings("unchecked")
+  private void setupPartitions(OperatorPhase phase) throws SchemaChangeException, ClassTransformationException,
+      IOException {
+    is2ndPhase = phase.is2nd();
+    canSpill = phase.hasTwo();
+
+    memoryLimit = allocator.getLimit();
+    long configLimit = context.getOptions().getOption(ExecConstants.HASHAGG_MAX_MEMORY_VALIDATOR);
+    if (configLimit > 0) {
+      memoryLimit = Math.min(memoryLimit, configLimit);
+    }
+    estMaxBatchSize = estimateMaxBatchSize();
+
+    numPartitions = 1;
+    if (canSpill) {
+      int configPartitions = (int) context.getOptions().getOption(ExecConstants.HASHAGG_NUM_PARTITIONS_VALIDATOR);
+      numPartitions = Integer.highestOneBit(configPartitions); // must be a power of 2
+    }
+    if (canSpill && is2ndPhase && !isSpillableSchema()) {
+      logger.debug("HashAggregate: incoming schema differs from the outgoing schema; spilling is disabled.");
+      canSpill = false;
+      numPartitions = 1;
+    }
+    // Each partition needs at least one batch in memory, plus room for an outgoing
+    // and an incoming batch.
+    while (numPartitions > 1 && (numPartitions + 2) * estMaxBatchSize > memoryLimit) {
+      numPartitions /= 2;
+    }
+    if (numPartitions == 1 && is2ndPhase && canSpill) {
+      logger.warn("HashAggregate: not enough memory ({} bytes) for more than one partition; spilling is disabled.",
+          memoryLimit);
+      canSpill = false;
+    }
+    partitionMask = numPartitions - 1;
+
+    logger.debug("HashAggregate: {} partition(s), memory limit {}, estimated batch size {}, can spill: {}",
+        numPartitions, memoryLimit, estMaxBatchSize, canSpill);
+
+    htables = new HashTable[numPartitions];
+    batchHolders = new ArrayList[numPartitions];
+    outBatchIndex = new int[numPartitions];
+    outputStream = new OutputStream[numPartitions];
+    spillFiles = new String[numPartitions];
+    spilledBatchesCount = new int[numPartitions];
+
+    // The initial capacity is shared among the partitions
+    HashTableConfig partitionHtConfig =
+        htConfig.withInitialCapacity(Math.max(htConfig.getInitialCapacity() / numPartitions, 1));
+    ChainedHashTable ht =
+        new ChainedHashTable(partitionHtConfig, context, allocator, incoming, null /* no incoming probe */, outgoing);
+    for (int i = 0; i < numPartitions; i++) {
+      htables[i] = ht.createAndSetupHashTable(groupByOutFieldIds);
+      // First BatchHolder of a partition is created when its first put request is received.
+      batchHolders[i] = new ArrayList<BatchHolder>();
+    }
+  }
+
+  private boolean isSpillableSchema() {
+    if (incoming.getSchema().getSelectionVectorMode() != SelectionVectorMode.NONE) {
+      return false;
+    }
+    BatchSchema inSchema = incoming.getSchema();
+    BatchSchema outSchema = outContainer.getSchema();
+    if (inSchema.getFieldCount() != outSchema.getFieldCount()) {
+      return false;
+    }
+    for (int i = 0; i < inSchema.getFieldCount(); i++) {
+      MaterializedField inField = inSchema.getColumn(i);
+      MaterializedField outField = outSchema.getColumn(i);
+      if (!inField.getType().equals(outField.getType()) ||
+          !inField.getPath().equalsIgnoreCase(outField.getPath())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Estimates the memory taken by one batch holder worth of groups, that is,
+   * the keys and hash table slots, the workspace values and the outgoing
+   * vectors when that batch is output.
+   */
+  private long estimateMaxBatchSize() {
+    long rowWidth = 11; // hash table slot: 8 bytes, at a load factor of 0.75
+    for (VectorWrapper<?> w : incoming) {
+      rowWidth += estimateWidth(w.getField().getType());
+    }
+    for (MaterializedField field : materializedValueFields) {
+      rowWidth += 2 * estimateWidth(field.getType()); // workspace and outgoing
+    }
+    return rowWidth * HashTable.BATCH_SIZE;
+  }
+
+  private static int estimateWidth(MajorType type) {
+    int width;
+    try {
+      width = TypeHelper.getSize(type);
+    } catch (UnsupportedOperationException e) {
+      width = VARIABLE_WIDTH_VALUE_SIZE;
+    }
+    if (type.getMode() == DataMode.OPTIONAL) {
+      width += 1; // "bits" vector
+    }
+    return width;
+  }
+
   @Override
   public AggOutcome doWork() {
     try {
@@ -285,17 +465,29 @@ public abstract class HashAggTemplate implements HashAggregator {
       // In the future HashAggregate may also need to perform some actions conditionally
       // in the outer try block.
 
+      // A previous call stopped while returning the groups of a partition early;
+      // return the next batch of that partition, if any.
+      if (earlyOutput && outputEarlyBatch()) {
+        return AggOutcome.RETURN_OUTCOME;
+      }
+
       outside:
       while (true) {
         // loop through existing records, aggregating the values as necessary.
         if (EXTRA_DEBUG_1) {
           logger.debug("Starting outer loop of doWork()...");
         }
-        for (; underlyingIndex < incoming.getRecordCount(); incIndex()) {
+        while (underlyingIndex < incoming.getRecordCount()) {
           if (EXTRA_DEBUG_2) {
             logger.debug("Doing loop with values underlying {}, current {}", underlyingIndex, currentIndex);
           }
           checkGroupAndAggrValues(currentIndex);
+          incIndex();
+
+          // The last row filled up a partition chosen for early output
+          if (earlyOutput && outputEarlyBatch()) {
+            return AggOutcome.RETURN_OUTCOME;
+          }
         }
 
         if (EXTRA_DEBUG_1) {
@@ -309,7 +501,7 @@ public abstract class HashAggTemplate implements HashAggregator {
             for (VectorWrapper<?> v : incoming) {
               v.getValueVector().clear();
             }
-            IterOutcome out = outgoing.next(0, incoming);
+            IterOutcome out = newIncoming != null ? newIncoming.next() : outgoing.next(0, incoming);
             if (EXTRA_DEBUG_1) {
               logger.debug("Received IterOutcome of {}", out);
             }
@@ -330,30 +522,35 @@ public abstract class HashAggTemplate implements HashAggregator {
 
               case OK:
                 resetIndex();
-                if (incoming.getRecordCount() == 0) {
-                  continue;
-                } else {
-                  checkGroupAndAggrValues(currentIndex);
-                  incIndex();
-
-                  if (EXTRA_DEBUG_1) {
-                    logger.debug("Continuing outside loop");
-                  }
-                  continue outside;
+                if (EXTRA_DEBUG_1) {
+                  logger.debug("Continuing outside loop");
                 }
+                continue outside;
 
               case NONE:
                 // outcome = out;
 
                 buildComplete = true;
 
-                updateStats(htable);
+                updateStats();
+
+                // Finish spilling the partitions that spilled during this cycle, so
+                // that they can be read back once the in-memory partitions are returned.
+                if (canSpill) {
+                  completeSpilledPartitions();
+                }
 
                 // output the first batch; remaining batches will be output
                 // in response to each next() call by a downstream operator
 
                 outputCurrentBatch();
 
+                // Returning the in-memory partitions may have moved on to reading a
+                // spilled partition, which then needs to be aggregated.
+                if (!buildComplete) {
+                  continue outside;
+                }
+
                 // return setOkAndReturn();
                 return AggOutcome.RETURN_OUTCOME;
 
@@ -406,21 +603,62 @@ public abstract class HashAggTemplate implements HashAggregator {
 
   @Override
   public void cleanup() {
-    if (htable != null) {
-      htable.clear();
-      htable = null;
+    if (htables != null) {
+      for (int i = 0; i < numPartitions; i++) {
+        if (htables[i] != null) {
+          htables[i].clear();
+        }
+        if (batchHolders[i] != null) {
+          for (BatchHolder bh : batchHolders[i]) {
+            bh.clear();
+          }
+          batchHolders[i].clear();
+        }
+      }
+      htables = null;
+      batchHolders = null;
     }
     htIdxHolder = null;
     materializedValueFields = null;
     outStartIdxHolder = null;
     outNumRecordsHolder = null;
 
-    if (batchHolders != null) {
-      for (BatchHolder bh : batchHolders) {
-        bh.clear();
+    if (newIncoming != null) {
+      newIncoming.close();
+      newIncoming = null;
+    }
+    if (spillSet == null) {
+      return;
+    }
+
+    // Remove the spill files not yet read back (e.g. when the query was cancelled)
+    if (outputStream != null) {
+      for (int i = 0; i < numPartitions; i++) {
+        if (outputStream[i] != null) {
+          try {
+            outputStream[i].close();
+          } catch (IOException e) {
+            logger.warn("Cannot close hash aggregate spill file: " + spillFiles[i], e);
+          }
+          outputStream[i] = null;
+          deleteSpillFile(spillFiles[i]);
+        }
       }
-      batchHolders.clear();
-      batchHolders = null;
+    }
+    for (SpilledPartition sp : spilledPartitionsList) {
+      deleteSpillFile(sp.spillFile);
+    }
+    spilledPartitionsList.clear();
+    spillSet.close();
+    spillSet = null;
+  }
+
+  private void deleteSpillFile(String spillFile) {
+    try {
+      spillSet.delete(spillFile);
+    } catch (IOException e) {
+      // since this is meant to be used in a batch's cleanup, we don't propagate the exception
+      logger.warn("Cannot delete hash aggregate spill file: " + spillFile, e);
     }
   }
 
@@ -446,12 +684,13 @@ public abstract class HashAggTemplate implements HashAggregator {
     incIndex();
   }
 
-  private void addBatchHolder() {
+  private void addBatchHolder(int part) {
     BatchHolder bh = newBatchHolder();
-    batchHolders.add(bh);
+    batchHolders[part].add(bh);
 
     if (EXTRA_DEBUG_1) {
-      logger.debug("HashAggregate: Added new batch; num batches = {}.", batchHolders.size());
+      logger.debug("HashAggregate: Added new batch to partition {}; num batches = {}.", part,
+          batchHolders[part].size());
     }
 
     bh.setup();
@@ -463,54 +702,105 @@ public abstract class HashAggTemplate implements HashAggregator {
     return new BatchHolder();
   }
 
+  /**
+   * Outputs the next batch of groups held in memory. Once all the in-memory
+   * partitions have been returned, starts reading back the next spilled
+   * partition, if any; that partition needs to be aggregated before its
+   * groups can be output, which the caller detects as
+   * {@link #buildComplete()} becoming false.
+   */
   @Override
   public IterOutcome outputCurrentBatch() {
-    if (outBatchIndex >= batchHolders.size()) {
-      this.outcome = IterOutcome.NONE;
-      return outcome;
-    }
 
-    // get the number of records in the batch holder that are pending output
-    int numPendingOutput = batchHolders.get(outBatchIndex).getNumPendingOutput();
+    // Skip the partitions (and batch holders) having nothing left to output
+    while (nextPartitionToReturn < numPartitions) {
+      ArrayList<BatchHolder> holders = batchHolders[nextPartitionToReturn];
+      int batchIdx = outBatchIndex[nextPartitionToReturn];
+      if (batchIdx < holders.size() && holders.get(batchIdx).getNumPendingOutput() > 0) {
+        break;
+      }
+      if (batchIdx < holders.size()) {
+        outBatchIndex[nextPartitionToReturn]++;
+      } else {
+        nextPartitionToReturn++;
+      }
+    }
 
-    if (numPendingOutput == 0) {
+    if (nextPartitionToReturn >= numPartitions) {
+      if (startNextSpilledPartition()) {
+        this.outcome = IterOutcome.NONE; // not returned; the spilled partition is aggregated first
+        return outcome;
+      }
+      allFlushed = true;
+      logger.debug("HashAggregate: All batches flushed.");
       this.outcome = IterOutcome.NONE;
+      // cleanup my internal state since there is nothing more to return
+      this.cleanup();
       return outcome;
     }
 
-    allocateOutgoing(numPendingOutput);
+    int part = nextPartitionToReturn;
+    int numOutputRecords = outputBatch(part, outBatchIndex[part]);
+
+    this.outcome = IterOutcome.OK;
 
-    batchHolders.get(outBatchIndex).outputValues(outStartIdxHolder, outNumRecordsHolder);
+    logger.debug("HashAggregate: Output partition {} batch index {} with {} records.", part, outBatchIndex[part],
+        numOutputRecords);
+
+    lastBatchOutputCount = numOutputRecords;
+    outBatchIndex[part]++;
+
+    return this.outcome;
+  }
+
+  /**
+   * Moves the pending groups of the given batch holder (keys and values) into
+   * the outgoing container.
+   *
+   * @return the number of records output
+   */
+  private int outputBatch(int part, int batchIdx) {
+    BatchHolder bh = batchHolders[part].get(batchIdx);
+    allocateOutgoing(bh.getNumPendingOutput());
+
+    bh.outputValues(outStartIdxHolder, outNumRecordsHolder);
     int numOutputRecords = outNumRecordsHolder.value;
 
     if (EXTRA_DEBUG_1) {
       logger.debug("After output values: outStartIdx = {}, outNumRecords = {}", outStartIdxHolder.value, outNumRecordsHolder.value);
     }
-    this.htable.outputKeys(outBatchIndex, this.outContainer, outStartIdxHolder.value, outNumRecordsHolder.value);
+    htables[part].outputKeys(batchIdx, this.outContainer, outStartIdxHolder.value, outNumRecordsHolder.value);
 
     // set the value count for outgoing batch value vectors
     for (VectorWrapper<?> v : outgoing) {
       v.getValueVector().getMutator().setValueCount(numOutputRecords);
     }
+    outContainer.setRecordCount(numOutputRecords);
+    return numOutputRecords;
+  }
 
-//    outputCount += numOutputRecords;
-
-    this.outcome = IterOutcome.OK;
-
-    logger.debug("HashAggregate: Output current batch index {} with {} records.", outBatchIndex, numOutputRecords);
-
-    lastBatchOutputCount = numOutputRecords;
-    outBatchIndex++;
-    if (outBatchIndex == batchHolders.size()) {
-      allFlushed = true;
-
-      logger.debug("HashAggregate: All batches flushed.");
-
-      // cleanup my internal state since there is nothing more to return
-      this.cleanup();
+  /**
+   * Outputs the next batch of the partition chosen for early output. Once all
+   * its batches are returned, the partition is emptied and aggregation of the
+   * incoming rows resumes.
+   *
+   * @return true if a batch was output, false if the partition was exhausted
+   */
+  private boolean outputEarlyBatch() {
+    ArrayList<BatchHolder> holders = batchHolders[earlyPartition];
+    while (outBatchIndex[earlyPartition] < holders.size()) {
+      int batchIdx = outBatchIndex[earlyPartition]++;
+      if (holders.get(batchIdx).getNumPendingOutput() > 0) {
+        lastBatchOutputCount = outputBatch(earlyPartition, batchIdx);
+        this.outcome = IterOutcome.OK;
+        logger.debug("HashAggregate: Early output of partition {} batch index {} with {} records.", earlyPartition,
+            batchIdx, lastBatchOutputCount);
+        return true;
+      }
     }
-
-    return this.outcome;
+    earlyOutput = false;
+    reinitPartition(earlyPartition);
+    return false;
   }
 
   @Override
@@ -547,36 +837,256 @@ public abstract class HashAggTemplate implements HashAggregator {
      }
      */
 
-    htable.put(incomingRowIdx, htIdxHolder, 1 /* retry count */);
+    int hashCode = htables[0].getHashCode(incomingRowIdx);
+    int part = getPartition(hashCode);
+
+    htables[part].put(incomingRowIdx, htIdxHolder, hashCode);
 
     int currentIdx = htIdxHolder.value;
+    ArrayList<BatchHolder> holders = batchHolders[part];
 
     // get the batch index and index within the batch
-    if (currentIdx >= batchHolders.size() * HashTable.BATCH_SIZE) {
-      addBatchHolder();
+    if (currentIdx >= holders.size() * HashTable.BATCH_SIZE) {
+      addBatchHolder(part);
     }
-    BatchHolder bh = batchHolders.get((currentIdx >>> 16) & HashTable.BATCH_MASK);
+    BatchHolder bh = holders.get((currentIdx >>> 16) & HashTable.BATCH_MASK);
     int idxWithinBatch = currentIdx & HashTable.BATCH_MASK;
 
+    if (bh.updateAggrValues(incomingRowIdx, idxWithinBatch)) {
+      numGroupedRecords++;
+    }
+
     // Check if we have almost filled up the workspace vectors and add a batch if necessary
     if ((idxWithinBatch == (bh.capacity - 1)) && (bh.allocatedNextBatch == false)) {
-      htable.addNewKeyBatch();
-      addBatchHolder();
       bh.allocatedNextBatch = true;
+
+      // Make room for the next batch first, if memory is running low
+      if (canSpill && needToFreeMemory()) {
+        if (is2ndPhase) {
+          spillPartitionsUntilFits();
+        } else {
+          earlyOutput = true;
+          earlyPartition = chooseLargestPartition(false);
+          logger.debug("HashAggregate: memory is low; returning the groups of partition {} early.", earlyPartition);
+        }
+      }
+
+      // No next batch if the partition was just spilled, or is about to be returned
+      boolean partitionEmptied = batchHolders[part].isEmpty();
+      if (!partitionEmptied && !(earlyOutput && earlyPartition == part)) {
+        htables[part].addNewKeyBatch();
+        addBatchHolder(part);
+      }
     }
+  }
 
+  /**
+   * Chooses the partition of a row. Rows read back from a spill file all
+   * belong to one partition of the previous cycle, so each cycle mixes the
+   * hash code with a different seed to spread those rows again.
+   */
+  private int getPartition(int hashCode) {
+    if (numPartitions == 1) {
+      return 0;
+    }
+    int h = hashCode + cycleNum * 0x9E3779B9;
+    // MurmurHash3 finalizer
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h & partitionMask;
+  }
 
-    if (bh.updateAggrValues(incomingRowIdx, idxWithinBatch)) {
-      numGroupedRecords++;
+  /**
+   * @return true if allocating another batch (plus any resulting hash table
+   * resize) would exceed the memory limit of this operator
+   */
+  private boolean needToFreeMemory() {
+    long needed = 2 * estMaxBatchSize; // next batch holder and outgoing batch
+    for (int i = 0; i < numPartitions; i++) {
+      needed += htables[i].extraMemoryNeededForResize();
+    }
+    return allocator.getAllocatedMemory() + needed > memoryLimit;
+  }
+
+  /**
+   * Chooses the partition holding the most batches. On a tie, a partition
+   * that has already spilled is preferred, as it avoids creating a new spill
+   * file.
+   */
+  private int chooseLargestPartition(boolean preferSpilled) {
+    int largest = -1;
+    int largestSize = 0;
+    for (int i = 0; i < numPartitions; i++) {
+      int size = batchHolders[i].size();
+      if (size == 0) {
+        continue;
+      }
+      if (largest < 0 || size > largestSize ||
+          (preferSpilled && size == largestSize && outputStream[i] != null && outputStream[largest] == null)) {
+        largest = i;
+        largestSize = size;
+      }
+    }
+    return Math.max(largest, 0);
+  }
+
+  private void spillPartitionsUntilFits() {
+    do {
+      int part = chooseLargestPartition(true);
+      if (batchHolders[part].isEmpty()) {
+        break; // nothing left to spill
+      }
+      spillAPartition(part);
+    } while (needToFreeMemory());
+  }
+
+  /**
+   * Writes all the groups of a partition (in the outgoing schema) to the
+   * partition's spill file, then empties the partition. The groups are
+   * aggregated again when the file is read back.
+   */
+  private void spillAPartition(int part) {
+    if (spillSet == null) {
+      spillSet = new SpillSet(context, hashAggrConfig, "hashagg", "spill");
+    }
+    if (outputStream[part] == null) {
+      spillFiles[part] = spillSet.getNextSpillFile();
+      spilledBatchesCount[part] = 0;
+      try {
+        outputStream[part] = spillSet.openForOutput(spillFiles[part]);
+      } catch (IOException e) {
+        throw UserException.resourceError(e)
+            .message("Hash Aggregation failed to open spill file: " + spillFiles[part])
+            .build(logger);
+      }
+      if (cycleNum == 0) {
+        numSpilledPartitions++;
+      }
+      logger.debug("HashAggregate: spilling partition {} (cycle {}) to {}", part, cycleNum, spillFiles[part]);
+    }
+
+    ArrayList<BatchHolder> holders = batchHolders[part];
+    for (int batchIdx = 0; batchIdx < holders.size(); batchIdx++) {
+      if (holders.get(batchIdx).getNumPendingOutput() == 0) {
+        continue;
+      }
+      int numOutputRecords = outputBatch(part, batchIdx);
+      @SuppressWarnings("resource")
+      WritableBatch batch = WritableBatch.getBatchNoHVWrap(numOutputRecords, outContainer, false);
+      VectorAccessibleSerializable outputBatch = new VectorAccessibleSerializable(batch, allocator);
+      try {
+        outputBatch.writeToStream(outputStream[part]);
+      } catch (IOException e) {
+        throw UserException.dataWriteError(e)
+            .message("Hash Aggregation failed to write to spill file: " + spillFiles[part])
+            .build(logger);
+      }
+      outContainer.zeroVectors();
+      spilledBatchesCount[part]++;
     }
+
+    reinitPartition(part);
+  }
+
+  /**
+   * Closes the spill files of the partitions that spilled during this cycle
+   * (spilling their remaining in-memory groups first) and queues them to be
+   * read back.
+   */
+  private void completeSpilledPartitions() {
+    for (int part = 0; part < numPartitions; part++) {
+      if (outputStream[part] == null) {
+        continue;
+      }
+      spillAPartition(part);
+      try {
+        spillSet.tallyWriteBytes(spillSet.getPosition(outputStream[part]));
+        outputStream[part].close();
+      } catch (IOException e) {
+        throw UserException.dataWriteError(e)
+            .message("Hash Aggregation failed to close spill file: " + spillFiles[part])
+            .build(logger);
+      } finally {
+        outputStream[part] = null;
+      }
+      spilledPartitionsList.add(new SpilledPartition(spillFiles[part], spilledBatchesCount[part], cycleNum, part));
+    }
+    spilledBytes = spillSet == null ? 0 : spillSet.getWriteBytes();
+    updateStats();
   }
 
-  private void updateStats(HashTable htable) {
-    htable.getStats(htStats);
-    this.stats.setLongStat(Metric.NUM_BUCKETS, htStats.numBuckets);
-    this.stats.setLongStat(Metric.NUM_ENTRIES, htStats.numEntries);
-    this.stats.setLongStat(Metric.NUM_RESIZING, htStats.numResizing);
-    this.stats.setLongStat(Metric.RESIZING_TIME, htStats.resizingTime);
+  /**
+   * Empties a partition: releases its batch holders and its hash table
+   * entries, keeping the (now empty) hash table for further use.
+   */
+  private void reinitPartition(int part) {
+    for (BatchHolder bh : batchHolders[part]) {
+      bh.clear();
+    }
+    batchHolders[part].clear();
+    htables[part].reset();
+    outBatchIndex[part] = 0;
+  }
+
+  /**
+   * Starts aggregating the next spilled partition: empties all partitions and
+   * makes the partition's spill file the incoming of this aggregate.
+   *
+   * @return false if there are no more spilled partitions
+   */
+  private boolean startNextSpilledPartition() {
+    if (newIncoming != null) {
+      newIncoming.close(); // also deletes the spill file
+      newIncoming = null;
+    }
+    SpilledPartition sp = spilledPartitionsList.poll();
+    if (sp == null) {
+      return false;
+    }
+
+    for (int part = 0; part < numPartitions; part++) {
+      reinitPartition(part);
+    }
+    nextPartitionToReturn = 0;
+    cycleNum = sp.cycleNum + 1;
+    maxCycleNum = Math.max(maxCycleNum, cycleNum);
+    logger.debug("HashAggregate: reading back partition {} of cycle {} ({} batches) from {}", sp.origPartn,
+        sp.cycleNum, sp.spilledBatches, sp.spillFile);
+
+    newIncoming = new SpilledRecordbatch(sp.spillFile, sp.spilledBatches, context, allocator, spillSet);
+    incoming = newIncoming;
+    for (int part = 0; part < numPartitions; part++) {
+      htables[part].updateIncoming(newIncoming, null);
+    }
+    doSetup(newIncoming);
+    resetIndex();
+    buildComplete = false;
+    return true;
+  }
+
+  private void updateStats() {
+    long numBuckets = 0;
+    long numEntries = 0;
+    long numResizing = 0;
+    long resizingTime = 0;
+    for (int i = 0; i < numPartitions; i++) {
+      htables[i].getStats(htStats);
+      numBuckets += htStats.numBuckets;
+      numEntries += htStats.numEntries;
+      numResizing += htStats.numResizing;
+      resizingTime += htStats.resizingTime;
+    }
+    this.stats.setLongStat(Metric.NUM_BUCKETS, numBuckets);
+    this.stats.setLongStat(Metric.NUM_ENTRIES, numEntries);
+    this.stats.setLongStat(Metric.NUM_RESIZING, numResizing);
+    this.stats.setLongStat(Metric.RESIZING_TIME, resizingTime);
+    this.stats.setLongStat(Metric.NUM_PARTITIONS, numPartitions);
+    this.stats.setLongStat(Metric.SPILLED_PARTITIONS, numSpilledPartitions);
+    this.stats.setLongStat(Metric.SPILL_MB, spilledBytes / (1024 * 1024));
+    this.stats.setLongStat(Metric.SPILL_CYCLE, maxCycleNum);
   }
 
   // Code-generated methods (implemented in HashAggBatch)
@@ -50,7 +50,8 @@ public class BroadcastSenderRootExec extends BaseRootExec {
 
   public enum Metric implements MetricDef {
     N_RECEIVERS,
-    BYTES_SENT;
+    BYTES_SENT,
+    COMPRESSED_BYTES_SENT; // body bytes put on the wire, after compression
     @Override
     public int metricId() {
       return ordinal();
@@ -151,4 +152,10 @@ public class BroadcastSenderRootExec extends BaseRootExec {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.length);
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
   }
+
+  @Override
+  public void close() throws Exception {
+    super.close();
+    stats.setLongStat(Metric.COMPRESSED_BYTES_SENT, fragmentContext.getDataTunnelWireBytes());
+  }
 }
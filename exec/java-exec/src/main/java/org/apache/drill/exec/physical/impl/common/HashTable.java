@@ -60,10 +60,29 @@ public interface HashTable {
 
   public void updateBatches();
 
-  public void put(int incomingRowIdx, IndexPointer htIdxHolder, int retryCount);
+  /**
+   * Computes the hash code of the build-side key at the given row. Callers
+   * pass it (possibly with some bits consumed for partitioning) to
+   * {@link #put(int, IndexPointer, int)}.
+   */
+  public int getHashCode(int incomingRowIdx);
+
+  public PutStatus put(int incomingRowIdx, IndexPointer htIdxHolder, int hashCode);
+
+  /**
+   * Computes the hash codes of the keys of the first numRecords rows of the
+   * build (or probe) side batch, a batch at a time.
+   */
+  public void getHashCodes(int numRecords, int[] hashCodes, boolean isProbe);
 
   public int containsKey(int incomingRowIdx, boolean isProbe);
 
+  /**
+   * Same as {@link #containsKey(int, boolean)}, for a row whose hash code was
+   * already computed.
+   */
+  public int containsKey(int incomingRowIdx, int hashCode, boolean isProbe);
+
   public void getStats(HashTableStats stats);
 
   public int size();
@@ -75,6 +94,25 @@ public interface HashTable {
   public boolean outputKeys(int batchIdx, VectorContainer outContainer, int outStartIndex, int numRecords);
 
   public void addNewKeyBatch();
+
+  /**
+   * Removes all entries, releasing their memory, but keeps the table set up
+   * so that it can be filled again (e.g. after its contents were spilled).
+   */
+  public void reset();
+
+  /**
+   * Points the table at new build and probe side batches (with the same
+   * schemas as the original ones), such as batches read back from spill
+   * files. The probe side may be null if the table has none.
+   */
+  public void updateIncoming(RecordBatch newIncoming, RecordBatch newIncomingProbe);
+
+  /**
+   * @return the additional memory (in bytes) a resize would need if the next
+   * batch worth of entries triggered one; 0 if no resize is expected
+   */
+  public long extraMemoryNeededForResize();
 }
 
 
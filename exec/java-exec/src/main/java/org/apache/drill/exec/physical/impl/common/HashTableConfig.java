@@ -66,4 +66,8 @@ public class HashTableConfig  {
     return comparators;
   }
 
+  public HashTableConfig withInitialCapacity(int initialCapacity) {
+    return new HashTableConfig(initialCapacity, loadFactor, keyExprsBuild, keyExprsProbe, comparators);
+  }
+
 }
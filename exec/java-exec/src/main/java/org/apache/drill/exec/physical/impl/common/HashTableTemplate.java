@@ -22,6 +22,7 @@ import java.util.Iterator;
 
 import javax.inject.Named;
 
+import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.compile.sig.RuntimeOverridden;
@@ -35,27 +36,37 @@ import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.BigIntVector;
 import org.apache.drill.exec.vector.FixedWidthVector;
-import org.apache.drill.exec.vector.IntVector;
 import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.exec.vector.VariableWidthVector;
 
+/**
+ * A hash table with open addressing. The keys are stored in {@link BatchHolder}s,
+ * in the order they are inserted; the table itself is an array of slots, each
+ * a long holding the global index of a key and the key's hash code side by
+ * side. A lookup walks consecutive slots (linear probing) and compares the
+ * stored hash codes, calling the generated key comparison only when they are
+ * equal, so a probe touches one or two cache lines of slots instead of
+ * following a chain of links through the batch holders. Resizing reinserts
+ * the slots using the stored hash codes, without touching the keys.
+ */
 public abstract class HashTableTemplate implements HashTable {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HashTable.class);
   private static final boolean EXTRA_DEBUG = false;
 
   private static final int EMPTY_SLOT = -1;
-  // private final int MISSING_VALUE = 65544;
-
-  // A hash 'bucket' consists of the start index to indicate start of a hash chain
+  private static final long EMPTY_SLOT_VALUE = -1L;
+  // Slots are 8 bytes, and a buffer can not exceed 2GB
+  private static final int MAXIMUM_SLOTS = 1 << 27;
 
-  // Array of start indexes. start index is a global index across all batch holders
-  private IntVector startIndices;
+  // Array of slots: the low 32 bits of a slot are the global index (across all
+  // batch holders) of a key, or EMPTY_SLOT; the high 32 bits the key's hash code
+  private BigIntVector slots;
 
   // Array of batch holders..each batch holder can hold up to BATCH_SIZE entries
   private ArrayList<BatchHolder> batchHolders;
 
-  // Size of the hash table in terms of number of buckets
+  // Size of the hash table in terms of number of slots
   private int tableSize = 0;
 
   // Threshold after which we rehash; It must be the tableSize * loadFactor
@@ -67,9 +78,6 @@ public abstract class HashTableTemplate implements HashTable {
   // current available (free) slot globally across all batch holders
   private int freeIndex = 0;
 
-  // Placeholder for the current index while probing the hash table
-  private IndexPointer currentIdxHolder;
-
 //  private FragmentContext context;
 
   private BufferAllocator allocator;
@@ -89,13 +97,13 @@ public abstract class HashTableTemplate implements HashTable {
   // The original container from which others may be cloned
   private VectorContainer htContainerOrig;
 
-  private MaterializedField dummyIntField;
+  private MaterializedField dummyBigIntField;
 
   private int numResizing = 0;
 
   private int resizingTime = 0;
 
-  // This class encapsulates the links, keys and values for up to BATCH_SIZE
+  // This class encapsulates the keys and values for up to BATCH_SIZE
   // *unique* records. Thus, suppose there are N incoming record batches, each
   // of size BATCH_SIZE..but they have M unique keys altogether, the number of
   // BatchHolders will be (M/BATCH_SIZE) + 1
@@ -104,12 +112,6 @@ public abstract class HashTableTemplate implements HashTable {
     // Container of vectors to hold type-specific keys
     private VectorContainer htContainer;
 
-    // Array of 'link' values
-    private IntVector links;
-
-    // Array of hash values - this is useful when resizing the hash table
-    private IntVector hashValues;
-
     private int maxOccupiedIdx = -1;
 //    private int batchOutputCount = 0;
 
@@ -126,11 +128,9 @@ public abstract class HashTableTemplate implements HashTable {
           @SuppressWarnings("resource")
           ValueVector vv = TypeHelper.getNewVector(w.getField(), allocator);
 
-          // Capacity for "hashValues" and "links" vectors is BATCH_SIZE records. It is better to allocate space for
-          // "key" vectors to store as close to as BATCH_SIZE records. A new BatchHolder is created when either BATCH_SIZE
-          // records are inserted or "key" vectors ran out of space. Allocating too less space for "key" vectors will
-          // result in unused space in "hashValues" and "links" vectors in the BatchHolder. Also for each new
-          // BatchHolder we create a SV4 vector of BATCH_SIZE in HashJoinHelper.
+          // It is better to allocate space for "key" vectors to store as close to as BATCH_SIZE records. A new
+          // BatchHolder is created when either BATCH_SIZE records are inserted or "key" vectors ran out of space.
+          // Also for each new BatchHolder we create a SV4 vector of BATCH_SIZE in HashJoinHelper.
           if (vv instanceof FixedWidthVector) {
             ((FixedWidthVector) vv).allocateNew(BATCH_SIZE);
           } else if (vv instanceof VariableWidthVector) {
@@ -141,179 +141,43 @@ public abstract class HashTableTemplate implements HashTable {
 
           htContainer.add(vv);
         }
-
-        links = allocMetadataVector(HashTable.BATCH_SIZE, EMPTY_SLOT);
-        hashValues = allocMetadataVector(HashTable.BATCH_SIZE, 0);
         success = true;
       } finally {
         if (!success) {
           htContainer.clear();
-          if (links != null) {
-            links.clear();
-          }
         }
       }
     }
 
-    private void init(IntVector links, IntVector hashValues, int size) {
-      for (int i = 0; i < size; i++) {
-        links.getMutator().setSafe(i, EMPTY_SLOT);
-      }
-      for (int i = 0; i < size; i++) {
-        hashValues.getMutator().setSafe(i, 0);
-      }
-      links.getMutator().setValueCount(size);
-      hashValues.getMutator().setValueCount(size);
-    }
-
     protected void setup() {
       setupInterior(incomingBuild, incomingProbe, outgoing, htContainer);
     }
 
-    // Check if the key at the currentIdx position in hash table matches the key
-    // at the incomingRowIdx. if the key does not match, update the
-    // currentIdxHolder with the index of the next link.
-    private boolean isKeyMatch(int incomingRowIdx,
-        IndexPointer currentIdxHolder,
-        boolean isProbe) {
-
-      int currentIdxWithinBatch = currentIdxHolder.value & BATCH_MASK;
-      boolean match = false;
-
-      if (currentIdxWithinBatch >= HashTable.BATCH_SIZE) {
-        logger.debug("Batch size = {}, incomingRowIdx = {}, currentIdxWithinBatch = {}.", HashTable.BATCH_SIZE,
-            incomingRowIdx, currentIdxWithinBatch);
-      }
+    // Check if the key at the given position in this batch holder matches the key
+    // at the incomingRowIdx.
+    private boolean isKeyMatch(int incomingRowIdx, int currentIdxWithinBatch, boolean isProbe) {
       assert (currentIdxWithinBatch < HashTable.BATCH_SIZE);
       assert (incomingRowIdx < HashTable.BATCH_SIZE);
 
       if (isProbe) {
-        match = isKeyMatchInternalProbe(incomingRowIdx, currentIdxWithinBatch);
+        return isKeyMatchInternalProbe(incomingRowIdx, currentIdxWithinBatch);
       } else {
-        match = isKeyMatchInternalBuild(incomingRowIdx, currentIdxWithinBatch);
+        return isKeyMatchInternalBuild(incomingRowIdx, currentIdxWithinBatch);
       }
-
-      if (!match) {
-        currentIdxHolder.value = links.getAccessor().get(currentIdxWithinBatch);
-      }
-      return match;
     }
 
     // Insert a new <key1, key2...keyN> entry coming from the incoming batch into the hash table
     // container at the specified index
-    private void insertEntry(int incomingRowIdx, int currentIdx, int hashValue, BatchHolder lastEntryBatch, int lastEntryIdxWithinBatch) {
+    private void insertEntry(int incomingRowIdx, int currentIdx) {
       int currentIdxWithinBatch = currentIdx & BATCH_MASK;
 
       setValue(incomingRowIdx, currentIdxWithinBatch);
 
-      // the previous entry in this hash chain should now point to the entry in this currentIdx
-      if (lastEntryBatch != null) {
-        lastEntryBatch.updateLinks(lastEntryIdxWithinBatch, currentIdx);
-      }
-
-      // since this is the last entry in the hash chain, the links array at position currentIdx
-      // will point to a null (empty) slot
-      links.getMutator().setSafe(currentIdxWithinBatch, EMPTY_SLOT);
-      hashValues.getMutator().setSafe(currentIdxWithinBatch, hashValue);
-
       maxOccupiedIdx = Math.max(maxOccupiedIdx, currentIdxWithinBatch);
 
       if (EXTRA_DEBUG) {
-        logger.debug("BatchHolder: inserted key at incomingRowIdx = {}, currentIdx = {}, hash value = {}.",
-            incomingRowIdx, currentIdx, hashValue);
-      }
-    }
-
-    private void updateLinks(int lastEntryIdxWithinBatch, int currentIdx) {
-      links.getMutator().setSafe(lastEntryIdxWithinBatch, currentIdx);
-    }
-
-    private void rehash(int numbuckets, IntVector newStartIndices, int batchStartIdx) {
-
-      logger.debug("Rehashing entries within the batch: {}; batchStartIdx = {}, total numBuckets in hash table = {}.", batchIndex, batchStartIdx, numbuckets);
-
-      int size = links.getAccessor().getValueCount();
-      IntVector newLinks = allocMetadataVector(size, EMPTY_SLOT);
-      IntVector newHashValues = allocMetadataVector(size, 0);
-
-      for (int i = 0; i <= maxOccupiedIdx; i++) {
-        int entryIdxWithinBatch = i;
-        int entryIdx = entryIdxWithinBatch + batchStartIdx;
-        int hash = hashValues.getAccessor().get(entryIdxWithinBatch); // get the already saved hash value
-        int bucketIdx = getBucketIndex(hash, numbuckets);
-        int newStartIdx = newStartIndices.getAccessor().get(bucketIdx);
-
-        if (newStartIdx == EMPTY_SLOT) { // new bucket was empty
-          newStartIndices.getMutator().setSafe(bucketIdx, entryIdx); // update the start index to point to entry
-          newLinks.getMutator().setSafe(entryIdxWithinBatch, EMPTY_SLOT);
-          newHashValues.getMutator().setSafe(entryIdxWithinBatch, hash);
-
-          if (EXTRA_DEBUG) {
-            logger.debug("New bucket was empty. bucketIdx = {}, newStartIndices[ {} ] = {}, newLinks[ {} ] = {}, " +
-                "hash value = {}.", bucketIdx, bucketIdx, newStartIndices.getAccessor().get(bucketIdx),
-                entryIdxWithinBatch, newLinks.getAccessor().get(entryIdxWithinBatch),
-                newHashValues.getAccessor().get(entryIdxWithinBatch));
-          }
-
-        } else {
-          // follow the new table's hash chain until we encounter empty slot. Note that the hash chain could
-          // traverse multiple batch holders, so make sure we are accessing the right batch holder.
-          int idx = newStartIdx;
-          int idxWithinBatch = 0;
-          BatchHolder bh = this;
-          while (true) {
-            if (idx != EMPTY_SLOT) {
-              idxWithinBatch = idx & BATCH_MASK;
-              int batchIdx = ((idx >>> 16) & BATCH_MASK);
-              bh = batchHolders.get(batchIdx);
-            }
-
-            if (bh == this && newLinks.getAccessor().get(idxWithinBatch) == EMPTY_SLOT) {
-              newLinks.getMutator().setSafe(idxWithinBatch, entryIdx);
-              newLinks.getMutator().setSafe(entryIdxWithinBatch, EMPTY_SLOT);
-              newHashValues.getMutator().setSafe(entryIdxWithinBatch, hash);
-
-              if (EXTRA_DEBUG) {
-                logger.debug("Followed hash chain in new bucket. bucketIdx = {}, newLinks[ {} ] = {}, " +
-                    "newLinks[ {} ] = {}, hash value = {}.", bucketIdx, idxWithinBatch,
-                    newLinks.getAccessor().get(idxWithinBatch), entryIdxWithinBatch,
-                    newLinks.getAccessor().get(entryIdxWithinBatch), newHashValues.getAccessor().get
-                        (entryIdxWithinBatch));
-              }
-
-              break;
-            } else if (bh != this && bh.links.getAccessor().get(idxWithinBatch) == EMPTY_SLOT) {
-              bh.links.getMutator().setSafe(idxWithinBatch, entryIdx); // update the link in the other batch
-              newLinks.getMutator().setSafe(entryIdxWithinBatch, EMPTY_SLOT); // update the newLink entry in this
-              // batch to mark end of the hash chain
-              newHashValues.getMutator().setSafe(entryIdxWithinBatch, hash);
-
-              if (EXTRA_DEBUG) {
-                logger.debug("Followed hash chain in new bucket. bucketIdx = {}, newLinks[ {} ] = {}, " +
-                    "newLinks[ {} ] = {}, hash value = {}.", bucketIdx, idxWithinBatch,
-                    newLinks.getAccessor().get(idxWithinBatch), entryIdxWithinBatch,
-                    newLinks.getAccessor().get(entryIdxWithinBatch),
-                    newHashValues.getAccessor().get(entryIdxWithinBatch));
-              }
-
-              break;
-            }
-            if (bh == this) {
-              idx = newLinks.getAccessor().get(idxWithinBatch);
-            } else {
-              idx = bh.links.getAccessor().get(idxWithinBatch);
-            }
-          }
-
-        }
-
+        logger.debug("BatchHolder: inserted key at incomingRowIdx = {}, currentIdx = {}.", incomingRowIdx, currentIdx);
       }
-
-      links.clear();
-      hashValues.clear();
-
-      links = newLinks;
-      hashValues = newHashValues;
     }
 
     private boolean outputKeys(VectorContainer outContainer, int outStartIndex, int numRecords) {
@@ -368,23 +232,8 @@ public abstract class HashTableTemplate implements HashTable {
       }
     }
 
-    private void dump(int idx) {
-      while (true) {
-        int idxWithinBatch = idx & BATCH_MASK;
-        if (idxWithinBatch == EMPTY_SLOT) {
-          break;
-        } else {
-          logger.debug("links[ {} ] = {}, hashValues[ {} ] = {}.", idxWithinBatch,
-              links.getAccessor().get(idxWithinBatch), idxWithinBatch, hashValues.getAccessor().get(idxWithinBatch));
-          idx = links.getAccessor().get(idxWithinBatch);
-        }
-      }
-    }
-
     private void clear() {
       htContainer.clear();
-      links.clear();
-      hashValues.clear();
     }
 
     // Only used for internal debugging. Get the value vector at a particular index from the htContainer.
@@ -462,23 +311,21 @@ public abstract class HashTableTemplate implements HashTable {
 
     // round up the initial capacity to nearest highest power of 2
     tableSize = roundUpToPowerOf2(initialCap);
-    if (tableSize > MAXIMUM_CAPACITY) {
-      tableSize = MAXIMUM_CAPACITY;
+    if (tableSize > MAXIMUM_SLOTS) {
+      tableSize = MAXIMUM_SLOTS;
     }
 
     threshold = (int) Math.ceil(tableSize * loadf);
 
-    dummyIntField = MaterializedField.create("dummy", Types.required(MinorType.INT));
+    dummyBigIntField = MaterializedField.create("dummy", Types.required(MinorType.BIGINT));
 
-    startIndices = allocMetadataVector(tableSize, EMPTY_SLOT);
+    slots = allocSlotVector(tableSize);
 
     // Create the first batch holder
     batchHolders = new ArrayList<BatchHolder>();
     // First BatchHolder is created when the first put request is received.
 
     doSetup(incomingBuild, incomingProbe);
-
-    currentIdxHolder = new IndexPointer();
   }
 
   @Override
@@ -490,7 +337,7 @@ public abstract class HashTableTemplate implements HashTable {
   }
 
   public int numBuckets() {
-    return startIndices.getAccessor().getValueCount();
+    return tableSize;
   }
 
   public int numResizing() {
@@ -516,6 +363,40 @@ public abstract class HashTableTemplate implements HashTable {
     return numEntries == 0;
   }
 
+  @Override
+  public void reset() {
+    for (BatchHolder bh : batchHolders) {
+      bh.clear();
+    }
+    batchHolders.clear();
+    slots.clear();
+
+    tableSize = roundUpToPowerOf2(htConfig.getInitialCapacity());
+    if (tableSize > MAXIMUM_SLOTS) {
+      tableSize = MAXIMUM_SLOTS;
+    }
+    threshold = (int) Math.ceil(tableSize * htConfig.getLoadFactor());
+    slots = allocSlotVector(tableSize);
+    freeIndex = 0;
+    numEntries = 0;
+  }
+
+  @Override
+  public void updateIncoming(RecordBatch newIncoming, RecordBatch newIncomingProbe) {
+    incomingBuild = newIncoming;
+    incomingProbe = newIncomingProbe;
+    updateBatches();
+  }
+
+  @Override
+  public long extraMemoryNeededForResize() {
+    if (numEntries + BATCH_SIZE < threshold || tableSize == MAXIMUM_SLOTS) {
+      return 0;
+    }
+    // A resize allocates the doubled (8-byte) slots
+    return 2L * tableSize * 8;
+  }
+
   @Override
   public void clear() {
     if (batchHolders != null) {
@@ -525,8 +406,7 @@ public abstract class HashTableTemplate implements HashTable {
       batchHolders.clear();
       batchHolders = null;
     }
-    startIndices.clear();
-    currentIdxHolder = null;
+    slots.clear();
     numEntries = 0;
   }
 
@@ -545,128 +425,104 @@ public abstract class HashTableTemplate implements HashTable {
   }
 
   @Override
-  public void put(int incomingRowIdx, IndexPointer htIdxHolder, int retryCount) {
-    put(incomingRowIdx, htIdxHolder);
+  public int getHashCode(int incomingRowIdx) {
+    return getHashBuild(incomingRowIdx);
   }
 
-  private PutStatus put(int incomingRowIdx, IndexPointer htIdxHolder) {
-
-    int hash = getHashBuild(incomingRowIdx);
-    int i = getBucketIndex(hash, numBuckets());
-    int startIdx = startIndices.getAccessor().get(i);
-    int currentIdx;
-    int currentIdxWithinBatch;
-    BatchHolder bh;
-    BatchHolder lastEntryBatch = null;
-    int lastEntryIdxWithinBatch = EMPTY_SLOT;
-
-
-    if (startIdx == EMPTY_SLOT) {
-      // this is the first entry in this bucket; find the first available slot in the
-      // container of keys and values
-      currentIdx = freeIndex++;
-      addBatchIfNeeded(currentIdx);
-
-      if (EXTRA_DEBUG) {
-        logger.debug("Empty bucket index = {}. incomingRowIdx = {}; inserting new entry at currentIdx = {}.", i,
-            incomingRowIdx, currentIdx);
+  @Override
+  public void getHashCodes(int numRecords, int[] hashCodes, boolean isProbe) {
+    if (isProbe) {
+      for (int i = 0; i < numRecords; i++) {
+        hashCodes[i] = getHashProbe(i);
+      }
+    } else {
+      for (int i = 0; i < numRecords; i++) {
+        hashCodes[i] = getHashBuild(i);
       }
-
-      insertEntry(incomingRowIdx, currentIdx, hash, lastEntryBatch, lastEntryIdxWithinBatch);
-      // update the start index array
-      startIndices.getMutator().setSafe(getBucketIndex(hash, numBuckets()), currentIdx);
-      htIdxHolder.value = currentIdx;
-      return PutStatus.KEY_ADDED;
     }
+  }
 
-    currentIdx = startIdx;
-    boolean found = false;
-
-    bh = batchHolders.get((currentIdx >>> 16) & BATCH_MASK);
-    currentIdxHolder.value = currentIdx;
+  @Override
+  public PutStatus put(int incomingRowIdx, IndexPointer htIdxHolder, int hashCode) {
+    final BigIntVector.Accessor slotAccessor = slots.getAccessor();
+    final int mask = tableSize - 1;
+    int slot = hashCode & mask;
 
-    // if startIdx is non-empty, follow the hash chain links until we find a matching
-    // key or reach the end of the chain
+    // walk the slots from the one the hash code points to, until we find a
+    // matching key or an empty slot
     while (true) {
-      currentIdxWithinBatch = currentIdxHolder.value & BATCH_MASK;
-
-      if (bh.isKeyMatch(incomingRowIdx, currentIdxHolder, false)) {
-        htIdxHolder.value = currentIdxHolder.value;
-        found = true;
+      final long slotValue = slotAccessor.get(slot);
+      final int currentIdx = (int) slotValue;
+      if (currentIdx == EMPTY_SLOT) {
         break;
-      } else if (currentIdxHolder.value == EMPTY_SLOT) {
-        lastEntryBatch = bh;
-        lastEntryIdxWithinBatch = currentIdxWithinBatch;
-        break;
-      } else {
-        bh = batchHolders.get((currentIdxHolder.value >>> 16) & HashTable.BATCH_MASK);
-        lastEntryBatch = bh;
       }
+      if ((int) (slotValue >>> 32) == hashCode &&
+          batchHolders.get((currentIdx >>> 16) & BATCH_MASK).isKeyMatch(incomingRowIdx, currentIdx & BATCH_MASK, false)) {
+        htIdxHolder.value = currentIdx;
+        return PutStatus.KEY_PRESENT;
+      }
+      slot = (slot + 1) & mask;
     }
 
-    if (!found) {
-      // no match was found, so insert a new entry
-      currentIdx = freeIndex++;
-      addBatchIfNeeded(currentIdx);
+    // no match was found, so insert a new entry in the first available slot in the
+    // container of keys and values
+    int currentIdx = freeIndex++;
 
-      if (EXTRA_DEBUG) {
-        logger.debug("No match was found for incomingRowIdx = {}; inserting new entry at currentIdx = {}.", incomingRowIdx, currentIdx);
-      }
-
-      insertEntry(incomingRowIdx, currentIdx, hash, lastEntryBatch, lastEntryIdxWithinBatch);
-      htIdxHolder.value = currentIdx;
-      return PutStatus.KEY_ADDED;
+    if (EXTRA_DEBUG) {
+      logger.debug("No match was found for incomingRowIdx = {}; inserting new entry at currentIdx = {}, slot = {}.",
+          incomingRowIdx, currentIdx, slot);
     }
 
-    return found ? PutStatus.KEY_PRESENT : PutStatus.KEY_ADDED;
+    insertEntry(incomingRowIdx, currentIdx);
+    slots.getMutator().set(slot, toSlotValue(currentIdx, hashCode));
+    htIdxHolder.value = currentIdx;
+
+    /* Resize hash table if needed and reinsert the slots. Resize only after
+     * filling the slot of the current entry, so that it is carried over.
+     */
+    resizeAndRehashIfNeeded();
+    return PutStatus.KEY_ADDED;
   }
 
-  private void insertEntry(int incomingRowIdx, int currentIdx, int hashValue, BatchHolder lastEntryBatch, int lastEntryIdx) {
+  private static long toSlotValue(int entryIdx, int hashCode) {
+    return ((long) hashCode << 32) | (entryIdx & 0xFFFFFFFFL);
+  }
+
+  private void insertEntry(int incomingRowIdx, int currentIdx) {
 
     addBatchIfNeeded(currentIdx);
 
     BatchHolder bh = batchHolders.get((currentIdx >>> 16) & BATCH_MASK);
 
-    bh.insertEntry(incomingRowIdx, currentIdx, hashValue, lastEntryBatch, lastEntryIdx);
+    bh.insertEntry(incomingRowIdx, currentIdx);
     numEntries++;
-
-      /* Resize hash table if needed and transfer the metadata
-       * Resize only after inserting the current entry into the hash table
-       * Otherwise our calculated lastEntryBatch and lastEntryIdx
-       * becomes invalid after resize.
-       */
-    resizeAndRehashIfNeeded();
   }
 
   // Return -1 if key is not found in the hash table. Otherwise, return the global index of the key
   @Override
   public int containsKey(int incomingRowIdx, boolean isProbe) {
     int hash = isProbe ? getHashProbe(incomingRowIdx) : getHashBuild(incomingRowIdx);
-    int i = getBucketIndex(hash, numBuckets());
-
-    int currentIdx = startIndices.getAccessor().get(i);
-
-    if (currentIdx == EMPTY_SLOT) {
-      return -1;
-    }
-
-    BatchHolder bh = batchHolders.get((currentIdx >>> 16) & BATCH_MASK);
-    currentIdxHolder.value = currentIdx;
+    return containsKey(incomingRowIdx, hash, isProbe);
+  }
 
-    boolean found = false;
+  @Override
+  public int containsKey(int incomingRowIdx, int hashCode, boolean isProbe) {
+    final BigIntVector.Accessor slotAccessor = slots.getAccessor();
+    final int mask = tableSize - 1;
+    int slot = hashCode & mask;
 
     while (true) {
-      if (bh.isKeyMatch(incomingRowIdx, currentIdxHolder, isProbe)) {
-        found = true;
-        break;
-      } else if (currentIdxHolder.value == EMPTY_SLOT) {
-        break;
-      } else {
-        bh = batchHolders.get((currentIdxHolder.value >>> 16) & BATCH_MASK);
+      final long slotValue = slotAccessor.get(slot);
+      final int currentIdx = (int) slotValue;
+      if (currentIdx == EMPTY_SLOT) {
+        return -1;
+      }
+      if ((int) (slotValue >>> 32) == hashCode &&
+          batchHolders.get((currentIdx >>> 16) & BATCH_MASK).isKeyMatch(incomingRowIdx, currentIdx & BATCH_MASK, isProbe)) {
+        return currentIdx;
       }
+      slot = (slot + 1) & mask;
     }
-
-    return found ? currentIdxHolder.value : -1;
   }
 
   // Add a new BatchHolder to the list of batch holders if needed. This is based on the supplied
@@ -697,58 +553,67 @@ public abstract class HashTableTemplate implements HashTable {
     return new BatchHolder(index);
   }
 
-  // Resize the hash table if needed by creating a new one with double the number of buckets.
-  // For each entry in the old hash table, re-hash it to the new table and update the metadata
-  // in the new table.. the metadata consists of the startIndices, links and hashValues.
-  // Note that the keys stored in the BatchHolders are not moved around.
+  // Resize the hash table if needed by creating a new one with double the number of slots.
+  // Each occupied slot of the old table is reinserted in the new one, using the stored
+  // hash code. Note that the keys stored in the BatchHolders are not moved around.
   private void resizeAndRehashIfNeeded() {
     if (numEntries < threshold) {
       return;
     }
 
+    // If the table size is already MAXIMUM_SLOTS, don't resize the table, but
+    // let it fill up until a single empty slot is left, which ends the probes
+    if (tableSize == MAXIMUM_SLOTS) {
+      if (numEntries >= tableSize - 1) {
+        throw UserException.resourceError()
+            .message("Hash table can not hold more than %d entries", tableSize - 1)
+            .build(logger);
+      }
+      return;
+    }
+
     long t0 = System.currentTimeMillis();
 
     if (EXTRA_DEBUG) {
       logger.debug("Hash table numEntries = {}, threshold = {}; resizing the table...", numEntries, threshold);
     }
 
-    // If the table size is already MAXIMUM_CAPACITY, don't resize
-    // the table, but set the threshold to Integer.MAX_VALUE such that
-    // future attempts to resize will return immediately.
-    if (tableSize == MAXIMUM_CAPACITY) {
-      threshold = Integer.MAX_VALUE;
-      return;
-    }
-
-    int newSize = 2 * tableSize;
-
-    tableSize = roundUpToPowerOf2(newSize);
-    if (tableSize > MAXIMUM_CAPACITY) {
-      tableSize = MAXIMUM_CAPACITY;
+    int oldSize = tableSize;
+    tableSize = roundUpToPowerOf2(2 * tableSize);
+    if (tableSize > MAXIMUM_SLOTS) {
+      tableSize = MAXIMUM_SLOTS;
     }
 
     // set the new threshold based on the new table size and load factor
     threshold = (int) Math.ceil(tableSize * htConfig.getLoadFactor());
 
-    IntVector newStartIndices = allocMetadataVector(tableSize, EMPTY_SLOT);
+    BigIntVector newSlots = allocSlotVector(tableSize);
+    BigIntVector.Accessor oldAccessor = slots.getAccessor();
+    BigIntVector.Accessor newAccessor = newSlots.getAccessor();
+    BigIntVector.Mutator newMutator = newSlots.getMutator();
+    int mask = tableSize - 1;
 
-    for (int i = 0; i < batchHolders.size(); i++) {
-      BatchHolder bh = batchHolders.get(i);
-      int batchStartIdx = i * BATCH_SIZE;
-      bh.rehash(tableSize, newStartIndices, batchStartIdx);
+    for (int i = 0; i < oldSize; i++) {
+      long slotValue = oldAccessor.get(i);
+      if ((int) slotValue == EMPTY_SLOT) {
+        continue;
+      }
+      int slot = (int) (slotValue >>> 32) & mask;
+      while ((int) newAccessor.get(slot) != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+      newMutator.set(slot, slotValue);
     }
 
-    startIndices.clear();
-    startIndices = newStartIndices;
+    slots.clear();
+    slots = newSlots;
 
     if (EXTRA_DEBUG) {
       logger.debug("After resizing and rehashing, dumping the hash table...");
-      logger.debug("Number of buckets = {}.", startIndices.getAccessor().getValueCount());
-      for (int i = 0; i < startIndices.getAccessor().getValueCount(); i++) {
-        logger.debug("Bucket: {}, startIdx[ {} ] = {}.", i, i, startIndices.getAccessor().get(i));
-        int idx = startIndices.getAccessor().get(i);
-        BatchHolder bh = batchHolders.get((idx >>> 16) & BATCH_MASK);
-        bh.dump(idx);
+      logger.debug("Number of slots = {}.", tableSize);
+      for (int i = 0; i < tableSize; i++) {
+        long slotValue = slots.getAccessor().get(i);
+        logger.debug("Slot: {}, entry index = {}, hash value = {}.", i, (int) slotValue, (int) (slotValue >>> 32));
       }
     }
     resizingTime += System.currentTimeMillis() - t0;
@@ -764,13 +629,14 @@ public abstract class HashTableTemplate implements HashTable {
     return true;
   }
 
-  private IntVector allocMetadataVector(int size, int initialValue) {
-    IntVector vector = (IntVector) TypeHelper.getNewVector(dummyIntField, allocator);
+  private BigIntVector allocSlotVector(int size) {
+    BigIntVector vector = (BigIntVector) TypeHelper.getNewVector(dummyBigIntField, allocator);
     vector.allocateNew(size);
+    BigIntVector.Mutator mutator = vector.getMutator();
     for (int i = 0; i < size; i++) {
-      vector.getMutator().setSafe(i, initialValue);
+      mutator.set(i, EMPTY_SLOT_VALUE);
     }
-    vector.getMutator().setValueCount(size);
+    mutator.setValueCount(size);
     return vector;
   }
 
@@ -19,16 +19,20 @@ package org.apache.drill.exec.physical.impl.filter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.drill.common.expression.ErrorCollector;
 import org.apache.drill.common.expression.ErrorCollectorImpl;
 import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.Filter;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
@@ -48,6 +52,9 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
   private SelectionVector2 sv2;
   private SelectionVector4 sv4;
   private Filterer filter;
+  // the generated filterer being compiled while the interpreted one filters the batches
+  private Future<Filterer> compilingFilter;
+  private TransferPair[] transfers;
 
   public FilterRecordBatch(Filter pop, RecordBatch incoming, FragmentContext context) throws OutOfMemoryException {
     super(pop, context, incoming);
@@ -78,6 +85,7 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
     container.zeroVectors();
     int recordCount = incoming.getRecordCount();
     try {
+      switchToCompiledFilter();
       filter.filterBatch(recordCount);
     } catch (SchemaChangeException e) {
       throw new UnsupportedOperationException(e);
@@ -86,8 +94,34 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
     return IterOutcome.OK;
   }
 
+  /**
+   * Replaces the interpreted filterer with the generated one once it is compiled.
+   */
+  private void switchToCompiledFilter() throws SchemaChangeException {
+    if (compilingFilter == null || !compilingFilter.isDone()) {
+      return;
+    }
+    try {
+      final Filterer compiledFilter = compilingFilter.get();
+      compiledFilter.setup(context, incoming, this, transfers);
+      filter = compiledFilter;
+    } catch (InterruptedException | ExecutionException e) {
+      throw new SchemaChangeException("Failure while attempting to load generated class", e);
+    } finally {
+      compilingFilter = null;
+    }
+  }
+
+  private void cancelCompilation() {
+    if (compilingFilter != null) {
+      compilingFilter.cancel(false);
+      compilingFilter = null;
+    }
+  }
+
   @Override
   public void close() {
+    cancelCompilation();
     if (sv2 != null) {
       sv2.clear();
     }
@@ -99,6 +133,7 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
 
   @Override
   protected boolean setupNewSchema() throws SchemaChangeException {
+    cancelCompilation();
     if (sv2 != null) {
       sv2.clear();
     }
@@ -146,7 +181,8 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
     final List<TransferPair> transfers = Lists.newArrayList();
     final ClassGenerator<Filterer> cg = CodeGenerator.getRoot(Filterer.TEMPLATE_DEFINITION4, context.getFunctionRegistry(), context.getOptions());
 
-    final LogicalExpression expr = ExpressionTreeMaterializer.materialize(popConfig.getExpr(), incoming, collector, context.getFunctionRegistry());
+    final LogicalExpression condition = InListRewriter.rewrite(popConfig.getExpr(), incoming, context.getOptions());
+    final LogicalExpression expr = ExpressionTreeMaterializer.materialize(condition, incoming, collector, context.getFunctionRegistry());
     if (collector.hasErrors()) {
       throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
     }
@@ -166,6 +202,14 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
 
     try {
       final TransferPair[] tx = transfers.toArray(new TransferPair[transfers.size()]);
+      if (context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_VALIDATOR)
+          && InterpreterEvaluator.isInterpretable(expr)) {
+        this.transfers = tx;
+        compilingFilter = context.getImplementationClassAsync(cg.getCodeGenerator());
+        final Filterer filter = new InterpretedFilterer4(expr);
+        filter.setup(context, incoming, this, tx);
+        return filter;
+      }
       final Filterer filter = context.getImplementationClass(cg);
       filter.setup(context, incoming, this, tx);
       return filter;
@@ -180,7 +224,8 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
     final List<TransferPair> transfers = Lists.newArrayList();
     final ClassGenerator<Filterer> cg = CodeGenerator.getRoot(Filterer.TEMPLATE_DEFINITION2, context.getFunctionRegistry(), context.getOptions());
 
-    final LogicalExpression expr = ExpressionTreeMaterializer.materialize(popConfig.getExpr(), incoming, collector,
+    final LogicalExpression condition = InListRewriter.rewrite(popConfig.getExpr(), incoming, context.getOptions());
+    final LogicalExpression expr = ExpressionTreeMaterializer.materialize(condition, incoming, collector,
             context.getFunctionRegistry(), false, unionTypeEnabled);
     if (collector.hasErrors()) {
       throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
@@ -199,6 +244,14 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter>{
       codeGen.plainJavaCapable(true);
       // Uncomment out this line to debug the generated code.
 //    cg.saveCodeForDebugging(true);
+      if (context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_VALIDATOR)
+          && InterpreterEvaluator.isInterpretable(expr)) {
+        this.transfers = tx;
+        compilingFilter = context.getImplementationClassAsync(codeGen);
+        final Filterer filter = new InterpretedFilterer2(expr);
+        filter.setup(context, incoming, this, tx);
+        return filter;
+      }
       final Filterer filter = context.getImplementationClass(codeGen);
       filter.setup(context, incoming, this, tx);
       return filter;
@@ -0,0 +1,286 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.drill.common.expression.BooleanOperator;
+import org.apache.drill.common.expression.ExpressionPosition;
+import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.expression.ValueExpressions;
+import org.apache.drill.common.expression.ValueExpressions.IntExpression;
+import org.apache.drill.common.expression.ValueExpressions.LongExpression;
+import org.apache.drill.common.expression.ValueExpressions.QuotedString;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.server.options.OptionManager;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Rewrites the comparisons of a column with many constants in a filter condition, which is what IN
+ * lists shorter than planner.in_subquery_threshold are converted to, into lookups of the column in a
+ * hash set of the constants:
+ * <ul>
+ * <li>{@code a = 1 OR a = 2 OR ...} into {@code in_number_set(a, '1,2,...')}</li>
+ * <li>{@code a <> 'x' AND a <> 'y' AND ...} into {@code NOT in_string_set(a, '1:x1:y...')}</li>
+ * </ul>
+ * The condition is rewritten against the schema of the incoming batch, before it is materialized, as
+ * the types of the columns are usually not known when planning. A column is only looked up in a set
+ * when its type matches the type of the constants, so that the lookup compares the same values as the
+ * comparisons, which cast the constants to the type of the column: VARCHAR columns with string
+ * constants, and INT, BIGINT and FLOAT8 columns with integer constants, as long as they are exactly
+ * represented as doubles for FLOAT8 columns.
+ * <p>
+ * Longer IN lists are rewritten into lookups when planning (see
+ * {@link org.apache.drill.exec.planner.logical.DrillInListSetRule}), whatever the type of the column. The
+ * lookups of a column whose type does not match are turned back into comparisons with each constant.
+ */
+public class InListRewriter {
+
+  private static final String NUMBER_SET = "in_number_set";
+  private static final String STRING_SET = "in_string_set";
+
+  // largest magnitude up to which all integers are exactly represented as doubles
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+  private final VectorAccessible incoming;
+  private final int threshold;
+
+  private InListRewriter(VectorAccessible incoming, int threshold) {
+    this.incoming = incoming;
+    this.threshold = threshold;
+  }
+
+  /**
+   * @param condition the filter condition, not materialized yet
+   * @param incoming the batch the condition is evaluated against
+   * @param options the options of the fragment
+   * @return the rewritten condition; only the lookups created when planning are checked if lookups in sets are
+   *         disabled
+   */
+  public static LogicalExpression rewrite(LogicalExpression condition, VectorAccessible incoming,
+      OptionManager options) {
+    final int threshold = options.getOption(PlannerSettings.IN_LIST_SET)
+        ? (int) options.getOption(PlannerSettings.IN_LIST_SET_THRESHOLD) : Integer.MAX_VALUE;
+    return new InListRewriter(incoming, threshold).rewrite(condition);
+  }
+
+  private LogicalExpression rewrite(LogicalExpression expr) {
+    if (expr instanceof FunctionCall) {
+      return checkSetCall((FunctionCall) expr);
+    }
+    if (!(expr instanceof BooleanOperator)) {
+      return expr;
+    }
+    final BooleanOperator operator = (BooleanOperator) expr;
+    final boolean or = operator.getName().equals("booleanOr");
+    final String comparison = or ? "equal" : "not_equal";
+
+    final List<LogicalExpression> args = Lists.newArrayList();
+    // the constants compared with each column, separately for numbers and strings
+    final Map<SchemaPath, List<Long>> numbers = Maps.newLinkedHashMap();
+    final Map<SchemaPath, List<String>> strings = Maps.newLinkedHashMap();
+    for (LogicalExpression arg : operator.args) {
+      arg = rewrite(arg);
+      args.add(arg);
+      if (!(arg instanceof FunctionCall) || !((FunctionCall) arg).getName().equals(comparison)
+          || ((FunctionCall) arg).args.size() != 2) {
+        continue;
+      }
+      final FunctionCall call = (FunctionCall) arg;
+      final SchemaPath column = getColumn(call);
+      if (column == null) {
+        continue;
+      }
+      final LogicalExpression constant = getConstant(call, column);
+      if (constant instanceof IntExpression) {
+        getValues(numbers, column).add((long) ((IntExpression) constant).getInt());
+      } else if (constant instanceof LongExpression) {
+        getValues(numbers, column).add(((LongExpression) constant).getLong());
+      } else if (constant instanceof QuotedString) {
+        getValues(strings, column).add(((QuotedString) constant).getString());
+      }
+    }
+
+    final List<LogicalExpression> sets = Lists.newArrayList();
+    for (Map.Entry<SchemaPath, List<Long>> entry : numbers.entrySet()) {
+      if (entry.getValue().size() >= threshold && isNumberSetType(entry.getKey(), entry.getValue())) {
+        removeComparisons(args, comparison, entry.getKey(), true);
+        for (String values : InSetFunctionHelpers.encodeNumbers(entry.getValue())) {
+          sets.add(createSetCall(NUMBER_SET, entry.getKey(), values, or));
+        }
+      }
+    }
+    for (Map.Entry<SchemaPath, List<String>> entry : strings.entrySet()) {
+      if (entry.getValue().size() >= threshold && getType(entry.getKey()) == MinorType.VARCHAR) {
+        removeComparisons(args, comparison, entry.getKey(), false);
+        for (String values : InSetFunctionHelpers.encodeStrings(entry.getValue())) {
+          sets.add(createSetCall(STRING_SET, entry.getKey(), values, or));
+        }
+      }
+    }
+    if (sets.isEmpty()) {
+      return new BooleanOperator(operator.getName(), args, operator.getPosition());
+    }
+    args.addAll(0, sets);
+    return args.size() == 1 ? args.get(0) : new BooleanOperator(operator.getName(), args, operator.getPosition());
+  }
+
+  /**
+   * Turns a lookup in a set, created when planning, into comparisons with each of the constants of the set,
+   * unless the type of the column matches the type of the constants.
+   */
+  private LogicalExpression checkSetCall(FunctionCall call) {
+    final boolean number = call.getName().equals(NUMBER_SET);
+    if (!number && !call.getName().equals(STRING_SET) || call.args.size() != 2
+        || !(call.args.get(0) instanceof SchemaPath) || !(call.args.get(1) instanceof QuotedString)) {
+      return call;
+    }
+    final SchemaPath column = (SchemaPath) call.args.get(0);
+    final String encoded = ((QuotedString) call.args.get(1)).getString();
+    final List<LogicalExpression> comparisons = Lists.newArrayList();
+    if (number) {
+      final List<Long> values = Lists.newArrayList();
+      for (long value : InSetFunctionHelpers.decodeNumbers(encoded)) {
+        values.add(value);
+      }
+      if (isNumberSetType(column, values)) {
+        return call;
+      }
+      for (long value : values) {
+        comparisons.add(createComparison(column, ValueExpressions.getBigInt(value)));
+      }
+    } else {
+      if (getType(column) == MinorType.VARCHAR) {
+        return call;
+      }
+      for (byte[] value : InSetFunctionHelpers.decodeStrings(encoded)) {
+        comparisons.add(createComparison(column, ValueExpressions.getChar(new String(value, Charsets.UTF_8))));
+      }
+    }
+    if (comparisons.isEmpty()) {
+      return ValueExpressions.getBit(false);
+    }
+    return comparisons.size() == 1 ? comparisons.get(0)
+        : new BooleanOperator("booleanOr", comparisons, call.getPosition());
+  }
+
+  private static LogicalExpression createComparison(SchemaPath column, LogicalExpression constant) {
+    return new FunctionCall("equal", ImmutableList.of(column, constant), ExpressionPosition.UNKNOWN);
+  }
+
+  /**
+   * @return the type of a column of the incoming batch, or null if it is missing or repeated
+   */
+  private MinorType getType(SchemaPath column) {
+    final TypedFieldId id = incoming.getValueVectorId(column);
+    if (id == null) {
+      return null;
+    }
+    final MajorType type = id.getFinalType();
+    return type.getMode() == DataMode.REPEATED ? null : type.getMinorType();
+  }
+
+  private boolean isNumberSetType(SchemaPath column, List<Long> values) {
+    final MinorType type = getType(column);
+    if (type == MinorType.INT || type == MinorType.BIGINT) {
+      return true;
+    }
+    if (type != MinorType.FLOAT8) {
+      return false;
+    }
+    for (long value : values) {
+      if (value > MAX_EXACT_DOUBLE || value < -MAX_EXACT_DOUBLE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <T> List<T> getValues(Map<SchemaPath, List<T>> values, SchemaPath column) {
+    List<T> list = values.get(column);
+    if (list == null) {
+      list = Lists.newArrayList();
+      values.put(column, list);
+    }
+    return list;
+  }
+
+  /**
+   * @return the column of a comparison with a constant, or null if it is not one
+   */
+  private static SchemaPath getColumn(FunctionCall call) {
+    final LogicalExpression left = call.args.get(0);
+    final LogicalExpression right = call.args.get(1);
+    if (left instanceof SchemaPath && isConstant(right)) {
+      return (SchemaPath) left;
+    }
+    if (right instanceof SchemaPath && isConstant(left)) {
+      return (SchemaPath) right;
+    }
+    return null;
+  }
+
+  private static LogicalExpression getConstant(FunctionCall call, SchemaPath column) {
+    return call.args.get(0) == column ? call.args.get(1) : call.args.get(0);
+  }
+
+  private static boolean isConstant(LogicalExpression expr) {
+    return expr instanceof IntExpression || expr instanceof LongExpression || expr instanceof QuotedString;
+  }
+
+  private static boolean isNumber(LogicalExpression expr) {
+    return expr instanceof IntExpression || expr instanceof LongExpression;
+  }
+
+  private static void removeComparisons(List<LogicalExpression> args, String comparison, SchemaPath column,
+      boolean number) {
+    for (int i = args.size() - 1; i >= 0; i--) {
+      final LogicalExpression arg = args.get(i);
+      if (!(arg instanceof FunctionCall) || !((FunctionCall) arg).getName().equals(comparison)
+          || ((FunctionCall) arg).args.size() != 2) {
+        continue;
+      }
+      final FunctionCall call = (FunctionCall) arg;
+      final SchemaPath argColumn = getColumn(call);
+      if (argColumn != null && argColumn.equals(column)) {
+        if (isNumber(getConstant(call, argColumn)) == number) {
+          args.remove(i);
+        }
+      }
+    }
+  }
+
+  private static LogicalExpression createSetCall(String name, SchemaPath column, String values, boolean or) {
+    final LogicalExpression call = new FunctionCall(name,
+        ImmutableList.of(column, ValueExpressions.getChar(values)), ExpressionPosition.UNKNOWN);
+    return or ? call : new FunctionCall("not", ImmutableList.of(call), ExpressionPosition.UNKNOWN);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator.RecordEvaluator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+
+/**
+ * Filters records of batches with a four byte selection vector with the expression
+ * interpreter, while the generated filterer is compiled.
+ */
+public class InterpretedFilterer4 extends FilterTemplate4 {
+
+  private final LogicalExpression expr;
+  private RecordEvaluator evaluator;
+
+  public InterpretedFilterer4(LogicalExpression expr) {
+    this.expr = expr;
+  }
+
+  @Override
+  public void doSetup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing) {
+    evaluator = new RecordEvaluator(context, incoming, expr);
+  }
+
+  @Override
+  public boolean doEval(int inIndex, int outIndex) {
+    return evaluator.isTrue(inIndex);
+  }
+}
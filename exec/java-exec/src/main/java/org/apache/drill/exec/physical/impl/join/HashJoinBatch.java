@@ -19,10 +19,15 @@ package org.apache.drill.exec.physical.impl.join;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.logical.data.JoinCondition;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos;
@@ -37,9 +42,12 @@ import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.HashJoinPOP;
+import org.apache.drill.exec.physical.config.RuntimeFilterDef;
+import org.apache.drill.exec.physical.impl.spill.SpilledRecordbatch;
 import org.apache.drill.exec.physical.impl.common.ChainedHashTable;
 import org.apache.drill.exec.physical.impl.common.HashTable;
 import org.apache.drill.exec.physical.impl.common.HashTableConfig;
@@ -47,17 +55,22 @@ import org.apache.drill.exec.physical.impl.common.HashTableStats;
 import org.apache.drill.exec.physical.impl.common.IndexPointer;
 import org.apache.drill.exec.physical.impl.common.Comparator;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.SimpleRecordBatch;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.exec.vector.complex.AbstractContainerVector;
+import org.apache.drill.exec.work.filter.RuntimeFilterMessage;
+import org.apache.drill.exec.work.filter.RuntimeFilterRouter;
 import org.apache.calcite.rel.core.JoinRelType;
 
 import com.sun.codemodel.JExpr;
@@ -67,6 +80,8 @@ import com.sun.codemodel.JVar;
 public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
   public static final long ALLOCATOR_INITIAL_RESERVATION = 1 * 1024 * 1024;
   public static final long ALLOCATOR_MAX_RESERVATION = 20L * 1000 * 1000 * 1000;
+  // Average width of a variable width value, as used by the hash table
+  private static final int VARIABLE_WIDTH_VALUE_SIZE = 50;
 
   // Probe side record batch
   private final RecordBatch left;
@@ -110,6 +125,43 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
   // Schema of the build side
   private BatchSchema rightSchema = null;
 
+  /* Partitioning state. When there is enough memory for more than one
+   * partition, the build side rows go straight into the hash table until the
+   * memory limit is hit; from then on they are hashed into partitions, and the
+   * partitions that do not fit in memory are spilled (along with their probe
+   * side rows) and joined one at a time once the in-memory partitions are done.
+   * partitions is null when the join cannot be partitioned.
+   */
+  private HashJoinPartition[] partitions = null;
+  private int numPartitions = 1;
+  private int partitionMask = 0;
+  // True once the build side no longer fits in memory and its rows go into the partitions
+  private boolean partitioning = false;
+  private long memoryLimit;
+  // Estimated bytes of a build side row in its value vectors
+  private long buildRowWidth;
+  // Memory set aside for the probe side: spilled partitions' probe batches and the outgoing batch
+  private long reservedMemory;
+  // Estimated bytes of hash table and helper structures per in-memory build row
+  private long buildRowHashCost;
+  private SpillSet spillSet;
+  private int numSpilledPartitions = 0;
+  private final LinkedList<HashJoinPartition> spilledPartitions = new LinkedList<>();
+  // True once the probe side is exhausted and spilled partitions are being joined
+  private boolean joiningSpilledPartitions = false;
+  // Probe side of the spilled partition currently being joined
+  private SpilledRecordbatch spilledProbe = null;
+
+  // Hash codes of the keys of the current build batch
+  private int[] buildHashCodes = new int[0];
+
+  // Runtime filters being built over the build side keys, by index in the join's definitions; null if there are
+  // none, or once published
+  private Map<Integer, RuntimeFilter.Builder> runtimeFilterBuilders = null;
+  private boolean runtimeFiltersPublished = false;
+  // Runtime filters published to the probe side scans of this fragment
+  private final List<RuntimeFilter> runtimeFilters = new ArrayList<>();
+
 
   // Generator mapping for the build side
   // Generator mapping for the build side : scalar
@@ -155,7 +207,12 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     NUM_BUCKETS,
     NUM_ENTRIES,
     NUM_RESIZING,
-    RESIZING_TIME;
+    RESIZING_TIME,
+    NUM_PARTITIONS,
+    SPILLED_PARTITIONS,
+    SPILL_MB,
+    RUNTIME_FILTERS,
+    RUNTIME_FILTERED_RECORDS;
 
     // duplicate for hash ag
 
@@ -185,21 +242,13 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
       return;
     }
 
-    // Initialize the hash join helper context
-    hjHelper = new HashJoinHelper(context, oContext.getAllocator());
     try {
       rightSchema = right.getSchema();
-      final VectorContainer vectors = new VectorContainer(oContext);
-      for (final VectorWrapper<?> w : right) {
-        vectors.addOrGet(w.getField());
-      }
-      vectors.buildSchema(SelectionVectorMode.NONE);
-      vectors.setRecordCount(0);
-      hyperContainer = new ExpandableHyperContainer(vectors);
-      hjHelper.addNewBatch(0);
-      buildBatchIndex++;
+      initBuildContainers();
       setupHashTable();
       hashJoinProbe = setupHashJoinProbe();
+      setupPartitions();
+      setupRuntimeFilters();
       // Build the container schema and set the counts
       for (final VectorWrapper<?> w : container) {
         w.getValueVector().allocateNew();
@@ -211,6 +260,24 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     }
   }
 
+  /**
+   * Creates the hash join helper and the hyper container holding the build
+   * side batches; both start with an empty batch at index 0.
+   */
+  private void initBuildContainers() throws SchemaChangeException {
+    // Initialize the hash join helper context
+    hjHelper = new HashJoinHelper(context, oContext.getAllocator());
+    final VectorContainer vectors = new VectorContainer(oContext);
+    for (final VectorWrapper<?> w : right) {
+      vectors.addOrGet(w.getField());
+    }
+    vectors.buildSchema(SelectionVectorMode.NONE);
+    vectors.setRecordCount(0);
+    hyperContainer = new ExpandableHyperContainer(vectors);
+    hjHelper.addNewBatch(0);
+    buildBatchIndex = 1;
+  }
+
   @Override
   public IterOutcome innerNext() {
     try {
@@ -220,6 +287,7 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
       if (state == BatchState.FIRST) {
         // Build the hash table, using the build side record batches.
         executeBuildPhase();
+        publishRuntimeFilters(true);
         //                IterOutcome next = next(HashJoinHelper.LEFT_INPUT, left);
         hashJoinProbe.setupHashJoinProbe(context, hyperContainer, left, left.getRecordCount(), this, hashTable,
             hjHelper, joinType);
@@ -228,31 +296,39 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
         updateStats(this.hashTable);
       }
 
-      // Store the number of records projected
-      if (!hashTable.isEmpty() || joinType != JoinRelType.INNER) {
+      while (true) {
+        // Store the number of records projected
+        if (!hashTable.isEmpty() || joinType != JoinRelType.INNER || numSpilledPartitions > 0) {
 
-        // Allocate the memory for the vectors in the output container
-        allocateVectors();
+          // Allocate the memory for the vectors in the output container
+          allocateVectors();
 
-        outputRecords = hashJoinProbe.probeAndProject();
+          outputRecords = hashJoinProbe.probeAndProject();
 
-        /* We are here because of one the following
-         * 1. Completed processing of all the records and we are done
-         * 2. We've filled up the outgoing batch to the maximum and we need to return upstream
-         * Either case build the output container's schema and return
-         */
-        if (outputRecords > 0 || state == BatchState.FIRST) {
-          if (state == BatchState.FIRST) {
-            state = BatchState.NOT_FIRST;
-          }
+          /* We are here because of one the following
+           * 1. Completed processing of all the records and we are done
+           * 2. We've filled up the outgoing batch to the maximum and we need to return upstream
+           * Either case build the output container's schema and return
+           */
+          if (outputRecords > 0 || state == BatchState.FIRST) {
+            if (state == BatchState.FIRST) {
+              state = BatchState.NOT_FIRST;
+            }
+
+            for (final VectorWrapper<?> v : container) {
+              v.getValueVector().getMutator().setValueCount(outputRecords);
+            }
 
-          for (final VectorWrapper<?> v : container) {
-            v.getValueVector().getMutator().setValueCount(outputRecords);
+            return IterOutcome.OK;
           }
 
-          return IterOutcome.OK;
+          // Done with the current pass; join the next spilled partition, if any
+          if (startNextSpilledPartition()) {
+            continue;
+          }
+          break;
         }
-      } else {
+
         // Our build side is empty, we won't have any matches, clear the probe side
         if (leftUpstream == IterOutcome.OK_NEW_SCHEMA || leftUpstream == IterOutcome.OK) {
           for (final VectorWrapper<?> wrapper : left) {
@@ -267,10 +343,12 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
             leftUpstream = next(HashJoinHelper.LEFT_INPUT, left);
           }
         }
+        break;
       }
 
       // No more output records, clean up and return
       state = BatchState.DONE;
+      updateRuntimeFilterStats();
       //            if (first) {
       //              return IterOutcome.OK_NEW_SCHEMA;
       //            }
@@ -348,58 +426,494 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
             throw new SchemaChangeException("Hash join does not support schema changes");
           }
           hashTable.updateBatches();
+          updatePartitionInputs();
         }
         // Fall through
       case OK:
-        final int currentRecordCount = right.getRecordCount();
+        if (!partitioning && !buildBatchFits()) {
+          startPartitioning();
+        }
+        if (partitioning) {
+          partitionBuildBatch();
+        } else {
+          addBuildBatch(right);
+        }
+        break;
+      }
+      // Get the next record batch
+      rightUpstream = next(HashJoinHelper.RIGHT_INPUT, right);
+    }
+
+    if (partitioning) {
+      completePartitionedBuild();
+    }
+  }
+
+  /**
+   * Inserts the rows of a build side batch into the hash table, then moves
+   * the batch into the hyper container.
+   */
+  private void addBuildBatch(RecordBatch buildBatch) throws SchemaChangeException {
+    final int currentRecordCount = buildBatch.getRecordCount();
+
+    if (runtimeFilterBuilders != null) {
+      for (final RuntimeFilter.Builder builder : runtimeFilterBuilders.values()) {
+        builder.add(buildBatch);
+      }
+    }
+
+                /* For every new build batch, we store some state in the helper context
+                 * Add new state to the helper context
+                 */
+    hjHelper.addNewBatch(currentRecordCount);
+
+    // Holder contains the global index where the key is hashed into using the hash table
+    final IndexPointer htIndex = new IndexPointer();
 
-                    /* For every new build batch, we store some state in the helper context
-                     * Add new state to the helper context
+    // For every record in the build batch , hash the key columns
+    final int[] hashCodes = getBuildHashCodes(buildBatch.getRecordCount());
+    for (int i = 0; i < currentRecordCount; i++) {
+      hashTable.put(i, htIndex, hashCodes[i]);
+
+                    /* Use the global index returned by the hash table, to store
+                     * the current record index and batch index. This will be used
+                     * later when we probe and find a match.
                      */
-        hjHelper.addNewBatch(currentRecordCount);
+      hjHelper.setCurrentIndex(htIndex.value, buildBatchIndex, i);
+    }
 
-        // Holder contains the global index where the key is hashed into using the hash table
-        final IndexPointer htIndex = new IndexPointer();
+                /* Completed hashing all records in this batch. Transfer the batch
+                 * to the hyper vector container. Will be used when we want to retrieve
+                 * records that have matching keys on the probe side.
+                 */
+    final RecordBatchData nextBatch = new RecordBatchData(buildBatch, oContext.getAllocator());
+    boolean success = false;
+    try {
+      if (hyperContainer == null) {
+        hyperContainer = new ExpandableHyperContainer(nextBatch.getContainer());
+      } else {
+        hyperContainer.addBatch(nextBatch.getContainer());
+      }
 
-        // For every record in the build batch , hash the key columns
-        for (int i = 0; i < currentRecordCount; i++) {
-          hashTable.put(i, htIndex, 1 /* retry count */);
+      // completed processing a batch, increment batch index
+      buildBatchIndex++;
+      success = true;
+    } finally {
+      if (!success) {
+        nextBatch.clear();
+      }
+    }
+  }
+
+  /**
+   * Decides on the number of partitions. The join is partitioned only if
+   * both sides have data and memory allows more than one partition; each
+   * partition needs room for a build batch and, once spilled, a probe batch.
+   */
+  private void setupPartitions() {
+    if ((leftUpstream != IterOutcome.OK && leftUpstream != IterOutcome.OK_NEW_SCHEMA) ||
+        (rightUpstream != IterOutcome.OK && rightUpstream != IterOutcome.OK_NEW_SCHEMA)) {
+      return;
+    }
+    memoryLimit = oContext.getAllocator().getLimit();
+    final long configLimit = context.getOptions().getOption(ExecConstants.HASHJOIN_MAX_MEMORY_VALIDATOR);
+    if (configLimit > 0) {
+      memoryLimit = Math.min(memoryLimit, configLimit);
+    }
+    buildRowWidth = estimateRowWidth(right);
+    final long probeRowWidth = estimateRowWidth(left);
+
+    numPartitions = Integer.highestOneBit(
+        (int) context.getOptions().getOption(ExecConstants.HASHJOIN_NUM_PARTITIONS_VALIDATOR));
+    while (numPartitions > 1 &&
+        numPartitions * HashJoinPartition.RECORDS_PER_BATCH * (buildRowWidth + probeRowWidth) > memoryLimit / 2) {
+      numPartitions /= 2;
+    }
+    logger.debug("HashJoin: {} partition(s), memory limit {}", numPartitions, memoryLimit);
+    if (numPartitions == 1) {
+      return;
+    }
+    partitionMask = numPartitions - 1;
+
+    // Hash table links and hash values, helper start indices and links, plus the key copies
+    buildRowHashCost = 4 * 4;
+    for (final JoinCondition condition : conditions) {
+      buildRowHashCost += estimateKeyWidth(condition.getRight());
+    }
+    reservedMemory = numPartitions * HashJoinPartition.RECORDS_PER_BATCH * probeRowWidth +
+        HashJoinPartition.RECORDS_PER_BATCH * (buildRowWidth + probeRowWidth);
+
+    spillSet = new SpillSet(context, popConfig, "hashjoin", "spill");
+    partitions = new HashJoinPartition[numPartitions];
+    for (int i = 0; i < numPartitions; i++) {
+      partitions[i] = new HashJoinPartition(i, oContext.getAllocator(), spillSet, right, left);
+    }
+  }
 
-                        /* Use the global index returned by the hash table, to store
-                         * the current record index and batch index. This will be used
-                         * later when we probe and find a match.
-                         */
-          hjHelper.setCurrentIndex(htIndex.value, buildBatchIndex, i);
+  /**
+   * Sets up the runtime filters the planner found scans for. A filter is
+   * built only if both sides of its key have the same type, as values are
+   * matched on their bytes, and only when unmatched probe rows are not part
+   * of the result.
+   */
+  private void setupRuntimeFilters() {
+    final List<RuntimeFilterDef> defs = popConfig.getRuntimeFilters();
+    if (defs.isEmpty() || (joinType != JoinRelType.INNER && joinType != JoinRelType.RIGHT) ||
+        (leftUpstream != IterOutcome.OK && leftUpstream != IterOutcome.OK_NEW_SCHEMA) ||
+        !context.getOptions().getOption(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_VALIDATOR)) {
+      return;
+    }
+    final long maxRows = context.getOptions().getOption(ExecConstants.HASHJOIN_RUNTIME_FILTER_MAX_ROWS_VALIDATOR);
+    runtimeFilterBuilders = Maps.newHashMap();
+    for (int i = 0; i < defs.size(); i++) {
+      final RuntimeFilterDef def = defs.get(i);
+      final JoinCondition condition = conditions.get(def.getKeyIndex());
+      if (comparators.get(def.getKeyIndex()) != Comparator.EQUALS ||
+          !(condition.getLeft() instanceof SchemaPath) || !(condition.getRight() instanceof SchemaPath)) {
+        continue;
+      }
+      final String buildColumn = ((SchemaPath) condition.getRight()).getRootSegment().getPath();
+      final MaterializedField buildField = findField(rightSchema, buildColumn);
+      final MaterializedField probeField =
+          findField(left.getSchema(), ((SchemaPath) condition.getLeft()).getRootSegment().getPath());
+      if (buildField == null || probeField == null ||
+          buildField.getType().getMinorType() != probeField.getType().getMinorType() ||
+          !RuntimeFilter.isSupported(buildField.getType()) || !RuntimeFilter.isSupported(probeField.getType())) {
+        continue;
+      }
+      runtimeFilterBuilders.put(i, new RuntimeFilter.Builder(buildColumn, def.getScanColumn(),
+          buildField.getType().getMinorType(), maxRows));
+    }
+  }
+
+  private static MaterializedField findField(BatchSchema schema, String name) {
+    for (final MaterializedField field : schema) {
+      if (field.getPath().equalsIgnoreCase(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Hands the runtime filters to the probe side scans once the build side is
+   * complete: directly to a scan of this fragment, and through the foreman to
+   * the scan of another major fragment, where the filters of all the minor
+   * fragments of the join are merged (see {@link RuntimeFilterRouter}). No
+   * filter is built if a partition spilled, as its build rows would then be
+   * missing from the filters; the foreman is still told, so that it does not
+   * wait for the filters of this fragment.
+   *
+   * @param buildComplete false if the join ends before its build side is complete
+   */
+  private void publishRuntimeFilters(boolean buildComplete) {
+    if (runtimeFiltersPublished) {
+      return;
+    }
+    runtimeFiltersPublished = true;
+    final List<RuntimeFilterDef> defs = popConfig.getRuntimeFilters();
+    final FragmentHandle handle = context.getHandle();
+    int sentFilters = 0;
+    for (int i = 0; i < defs.size(); i++) {
+      final RuntimeFilterDef def = defs.get(i);
+      final RuntimeFilter.Builder builder = runtimeFilterBuilders == null ? null : runtimeFilterBuilders.get(i);
+      final RuntimeFilter filter = !buildComplete || builder == null || numSpilledPartitions > 0 ? null
+          : builder.build();
+      if (def.getScanMajorFragmentId() == handle.getMajorFragmentId()) {
+        if (filter != null) {
+          context.addRuntimeFilter(def.getScanOperatorId(), filter);
+          runtimeFilters.add(filter);
+        }
+      } else {
+        RuntimeFilterRouter.sendContribution(context, new RuntimeFilterMessage(handle.getQueryId(),
+            handle.getMajorFragmentId(), popConfig.getOperatorId(), i, def.getScanMajorFragmentId(), -1,
+            def.getScanOperatorId(), filter));
+        if (filter != null) {
+          sentFilters++;
         }
+      }
+    }
+    runtimeFilterBuilders = null;
+    stats.setLongStat(Metric.RUNTIME_FILTERS, runtimeFilters.size() + sentFilters);
+  }
 
-                    /* Completed hashing all records in this batch. Transfer the batch
-                     * to the hyper vector container. Will be used when we want to retrieve
-                     * records that have matching keys on the probe side.
-                     */
-        final RecordBatchData nextBatch = new RecordBatchData(right, oContext.getAllocator());
-        boolean success = false;
-        try {
-          if (hyperContainer == null) {
-            hyperContainer = new ExpandableHyperContainer(nextBatch.getContainer());
-          } else {
-            hyperContainer.addBatch(nextBatch.getContainer());
-          }
+  private void updateRuntimeFilterStats() {
+    long filteredRecords = 0;
+    for (final RuntimeFilter filter : runtimeFilters) {
+      filteredRecords += filter.getFilteredRecords();
+    }
+    stats.setLongStat(Metric.RUNTIME_FILTERED_RECORDS, filteredRecords);
+  }
 
-          // completed processing a batch, increment batch index
-          buildBatchIndex++;
-          success = true;
-        } finally {
-          if (!success) {
-            nextBatch.clear();
-          }
+  private static long estimateRowWidth(RecordBatch batch) {
+    long width = 0;
+    for (final VectorWrapper<?> w : batch) {
+      width += estimateWidth(w.getField().getType());
+    }
+    return width;
+  }
+
+  private long estimateKeyWidth(LogicalExpression keyExpr) {
+    if (keyExpr instanceof SchemaPath) {
+      final String name = ((SchemaPath) keyExpr).getRootSegment().getPath();
+      for (final MaterializedField field : rightSchema) {
+        if (field.getPath().equalsIgnoreCase(name)) {
+          return estimateWidth(field.getType());
         }
-        break;
       }
-      // Get the next record batch
-      rightUpstream = next(HashJoinHelper.RIGHT_INPUT, right);
+    }
+    return 8;
+  }
+
+  private static int estimateWidth(MajorType type) {
+    int width;
+    try {
+      width = TypeHelper.getSize(type);
+    } catch (UnsupportedOperationException e) {
+      width = VARIABLE_WIDTH_VALUE_SIZE;
+    }
+    if (type.getMode() == DataMode.OPTIONAL) {
+      width += 1; // "bits" vector
+    }
+    return width;
+  }
+
+  /**
+   * Computes the hash codes of the keys of the current build batch, a batch
+   * at a time.
+   */
+  private int[] getBuildHashCodes(int recordCount) {
+    if (buildHashCodes.length < recordCount) {
+      buildHashCodes = new int[recordCount];
+    }
+    hashTable.getHashCodes(recordCount, buildHashCodes, false);
+    return buildHashCodes;
+  }
+
+  private int partitionOf(int hashCode) {
+    // MurmurHash3 finalizer, so that the partition does not depend on the
+    // bits that choose the hash table bucket
+    int h = hashCode;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h & partitionMask;
+  }
+
+  /**
+   * @return true if the current build side batch can be added to the hash
+   * table without exceeding the memory limit, always so when the join cannot
+   * be partitioned
+   */
+  private boolean buildBatchFits() {
+    if (partitions == null) {
+      return true;
+    }
+    return oContext.getAllocator().getAllocatedMemory() +
+        right.getRecordCount() * (buildRowWidth + buildRowHashCost) + reservedMemory <= memoryLimit;
+  }
+
+  /**
+   * Called when the next build side batch does not fit in memory. Copies the
+   * batches already in the hash table into their partitions and empties the
+   * hash table; it is rebuilt from the partitions that stay in memory once the
+   * build side is done.
+   */
+  private void startPartitioning() throws SchemaChangeException {
+    logger.debug("HashJoin: memory limit reached after {} build batches, partitioning", buildBatchIndex - 1);
+    partitioning = true;
+    // Batch 0 of the hyper container is the empty placeholder batch
+    for (int batchIdx = 1; batchIdx < buildBatchIndex; batchIdx++) {
+      final VectorContainer batch = new VectorContainer();
+      int recordCount = 0;
+      for (final VectorWrapper<?> w : hyperContainer) {
+        final ValueVector vv = w.getValueVectors()[batchIdx];
+        recordCount = vv.getAccessor().getValueCount();
+        batch.add(vv);
+      }
+      batch.buildSchema(SelectionVectorMode.NONE);
+      batch.setRecordCount(recordCount);
+      final RecordBatch buildBatch = new SimpleRecordBatch(batch, null, context);
+      hashTable.updateIncoming(buildBatch, left);
+      for (final HashJoinPartition partition : partitions) {
+        partition.setBuildIncoming(buildBatch);
+      }
+      appendToPartitions(buildBatch);
+    }
+
+    // The rows were copied; release the hash table and the batches
+    hjHelper.clear();
+    hyperContainer.clear();
+    hashTable.reset();
+    initBuildContainers();
+    hashTable.updateIncoming(right, left);
+    for (final HashJoinPartition partition : partitions) {
+      partition.setBuildIncoming(right);
+    }
+    // The in-memory partitions add their rows to new filters when the build side is done
+    setupRuntimeFilters();
+  }
+
+  private void appendToPartitions(RecordBatch buildBatch) {
+    final int recordCount = buildBatch.getRecordCount();
+    final int[] hashCodes = getBuildHashCodes(recordCount);
+    for (int i = 0; i < recordCount; i++) {
+      partitions[partitionOf(hashCodes[i])].appendBuildRow(i);
+    }
+  }
+
+  /**
+   * Copies the rows of a build side batch into their partitions, then spills
+   * partitions while the build side does not fit in memory.
+   */
+  private void partitionBuildBatch() {
+    appendToPartitions(right);
+    // The rows were copied; release the incoming batch
+    for (final VectorWrapper<?> w : right) {
+      w.clear();
+    }
+
+    while (needToSpill()) {
+      HashJoinPartition largest = null;
+      for (final HashJoinPartition partition : partitions) {
+        if (!partition.isSpilled() &&
+            (largest == null || partition.getInMemoryRecordCount() > largest.getInMemoryRecordCount())) {
+          largest = partition;
+        }
+      }
+      if (largest == null || largest.getInMemoryRecordCount() == 0) {
+        break; // nothing left to spill
+      }
+      logger.debug("HashJoin: spilling partition {} ({} build rows)", largest.getPartitionNum(),
+          largest.getInMemoryRecordCount());
+      largest.spill();
+      numSpilledPartitions++;
     }
   }
 
+  /**
+   * @return true if the in-memory build rows, once hashed, plus the memory
+   * reserved for the probe side would exceed the memory limit
+   */
+  private boolean needToSpill() {
+    long inMemoryRecords = 0;
+    for (final HashJoinPartition partition : partitions) {
+      if (!partition.isSpilled()) {
+        inMemoryRecords += partition.getInMemoryRecordCount();
+      }
+    }
+    return oContext.getAllocator().getAllocatedMemory() + inMemoryRecords * buildRowHashCost + reservedMemory >
+        memoryLimit;
+  }
+
+  /**
+   * Builds the hash table from the partitions that stayed in memory; the
+   * spilled partitions are queued for joining after the probe side is done.
+   */
+  private void completePartitionedBuild() throws SchemaChangeException {
+    for (final HashJoinPartition partition : partitions) {
+      for (final VectorContainer batch : partition.finishBuild()) {
+        final RecordBatch buildBatch = new SimpleRecordBatch(batch, null, context);
+        hashTable.updateIncoming(buildBatch, left);
+        addBuildBatch(buildBatch);
+        batch.clear();
+      }
+      if (partition.isSpilled()) {
+        spilledPartitions.add(partition);
+      }
+    }
+    hashTable.updateIncoming(right, left);
+  }
+
+  /**
+   * Called by the probe for each new probe row. Sets aside the rows whose
+   * partition was spilled, to be joined with that partition later.
+   *
+   * @return true if the row was set aside, false if it is to be probed now
+   */
+  public boolean spillProbeRow(int probeIndex, int hashCode) {
+    if (numSpilledPartitions == 0 || joiningSpilledPartitions) {
+      return false;
+    }
+    final HashJoinPartition partition = partitions[partitionOf(hashCode)];
+    if (!partition.isSpilled()) {
+      return false;
+    }
+    partition.appendProbeRow(probeIndex);
+    return true;
+  }
+
+  /**
+   * Called when an incoming side provides new vectors (OK_NEW_SCHEMA), as
+   * the partitions copy rows from the incoming vectors.
+   */
+  public void updatePartitionInputs() {
+    if (partitions == null) {
+      return;
+    }
+    for (final HashJoinPartition partition : partitions) {
+      partition.resetIncoming();
+    }
+  }
+
+  /**
+   * Replaces the build side with the next spilled partition: reads its build
+   * rows back into the hash table, then sets up the probe to read its probe
+   * rows back.
+   *
+   * @return false if there are no more spilled partitions to join
+   */
+  private boolean startNextSpilledPartition() throws SchemaChangeException {
+    if (numSpilledPartitions == 0) {
+      return false;
+    }
+    if (!joiningSpilledPartitions) {
+      // The probe side is exhausted; no more probe rows will be set aside
+      for (final HashJoinPartition partition : spilledPartitions) {
+        partition.finishProbe();
+      }
+      joiningSpilledPartitions = true;
+    }
+    if (spilledProbe != null) {
+      spilledProbe.close();
+      spilledProbe = null;
+    }
+    final HashJoinPartition partition = spilledPartitions.poll();
+    if (partition == null) {
+      return false;
+    }
+    logger.debug("HashJoin: joining spilled partition {}", partition.getPartitionNum());
+
+    // Release the build side of the previous pass
+    hjHelper.clear();
+    hyperContainer.clear();
+    hashTable.reset();
+    initBuildContainers();
+
+    final SpilledRecordbatch spilledBuild = new SpilledRecordbatch(partition.getBuildSpillFile(),
+        partition.getBuildSpilledBatches(), context, oContext.getAllocator(), spillSet);
+    try {
+      hashTable.updateIncoming(spilledBuild, left);
+      do {
+        if (spilledBuild.getRecordCount() > 0) {
+          addBuildBatch(spilledBuild);
+        }
+      } while (spilledBuild.next() == IterOutcome.OK);
+    } finally {
+      spilledBuild.close();
+    }
+
+    spilledProbe = new SpilledRecordbatch(partition.getProbeSpillFile(), partition.getProbeSpilledBatches(),
+        context, oContext.getAllocator(), spillSet);
+    hashTable.updateIncoming(right, spilledProbe);
+    hashJoinProbe.setupHashJoinProbe(context, hyperContainer, spilledProbe, spilledProbe.getRecordCount(), this,
+        hashTable, hjHelper, joinType);
+    updateStats(hashTable);
+    return true;
+  }
+
   public HashJoinProbe setupHashJoinProbe() throws ClassTransformationException, IOException {
     final CodeGenerator<HashJoinProbe> cg = CodeGenerator.get(HashJoinProbe.TEMPLATE_DEFINITION, context.getFunctionRegistry(), context.getOptions());
     cg.plainJavaCapable(true);
@@ -515,6 +1029,11 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     stats.setLongStat(Metric.NUM_ENTRIES, htStats.numEntries);
     stats.setLongStat(Metric.NUM_RESIZING, htStats.numResizing);
     stats.setLongStat(Metric.RESIZING_TIME, htStats.resizingTime);
+    stats.setLongStat(Metric.NUM_PARTITIONS, numPartitions);
+    stats.setLongStat(Metric.SPILLED_PARTITIONS, numSpilledPartitions);
+    if (spillSet != null) {
+      stats.setLongStat(Metric.SPILL_MB, spillSet.getWriteBytes() / (1024 * 1024));
+    }
   }
 
   @Override
@@ -525,6 +1044,9 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
 
   @Override
   public void close() {
+    // the foreman waits for the filters of all the minor fragments of the join
+    publishRuntimeFilters(false);
+
     if (hjHelper != null) {
       hjHelper.clear();
     }
@@ -537,6 +1059,18 @@ public class HashJoinBatch extends AbstractRecordBatch<HashJoinPOP> {
     if (hashTable != null) {
       hashTable.clear();
     }
+
+    if (spilledProbe != null) {
+      spilledProbe.close();
+    }
+    if (partitions != null) {
+      for (final HashJoinPartition partition : partitions) {
+        partition.close();
+      }
+    }
+    if (spillSet != null) {
+      spillSet.close();
+    }
     super.close();
   }
 }
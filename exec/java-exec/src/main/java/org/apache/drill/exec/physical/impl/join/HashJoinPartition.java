@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.join;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.cache.VectorAccessibleSerializable;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.WritableBatch;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * One partition of a partitioned hash join. Holds the build side rows whose
+ * keys hash into this partition, in batches of {@link #RECORDS_PER_BATCH}
+ * rows. If memory runs short, the partition is spilled: its build batches are
+ * written to a spill file, as are all its later build rows and, during the
+ * probe, the probe rows whose keys hash into it. The spilled partition is then
+ * joined in a second pass, after the in-memory partitions.
+ */
+public class HashJoinPartition {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HashJoinPartition.class);
+
+  public static final int RECORDS_PER_BATCH = 4096;
+
+  private final int partitionNum;
+  private final BufferAllocator allocator;
+  private final SpillSet spillSet;
+  private final PartitionSide build;
+  private final PartitionSide probe;
+  private boolean spilled = false;
+
+  public HashJoinPartition(int partitionNum, BufferAllocator allocator, SpillSet spillSet,
+                           RecordBatch buildBatch, RecordBatch probeBatch) {
+    this.partitionNum = partitionNum;
+    this.allocator = allocator;
+    this.spillSet = spillSet;
+    this.build = new PartitionSide(buildBatch, "build");
+    this.probe = new PartitionSide(probeBatch, "probe");
+  }
+
+  /**
+   * The rows of one side of the partition: a batch being filled, the
+   * completed batches held in memory, and the spill file once spilled.
+   */
+  private class PartitionSide {
+    private RecordBatch incoming;
+    private final String name;
+    private VectorContainer current;
+    private TransferPair[] pairs;
+    private int currentCount = 0;
+    private final List<VectorContainer> batches = new ArrayList<>();
+    private long inMemoryRecords = 0;
+    private String spillFile;
+    private OutputStream outputStream;
+    private int spilledBatches = 0;
+
+    private PartitionSide(RecordBatch incoming, String name) {
+      this.incoming = incoming;
+      this.name = name;
+    }
+
+    private VectorContainer newContainer() {
+      VectorContainer container = new VectorContainer();
+      for (VectorWrapper<?> w : incoming) {
+        @SuppressWarnings("resource")
+        ValueVector vv = TypeHelper.getNewVector(w.getField(), allocator);
+        vv.allocateNew();
+        container.add(vv);
+      }
+      container.buildSchema(SelectionVectorMode.NONE);
+      return container;
+    }
+
+    private void appendRow(int rowIdx) {
+      if (current == null) {
+        current = newContainer();
+        currentCount = 0;
+        pairs = null;
+      }
+      if (pairs == null) {
+        pairs = new TransferPair[current.getNumberOfColumns()];
+        Iterator<VectorWrapper<?>> currentIter = current.iterator();
+        int i = 0;
+        for (VectorWrapper<?> w : incoming) {
+          pairs[i++] = w.getValueVector().makeTransferPair(currentIter.next().getValueVector());
+        }
+      }
+      for (TransferPair pair : pairs) {
+        pair.copyValueSafe(rowIdx, currentCount);
+      }
+      currentCount++;
+      if (currentCount == RECORDS_PER_BATCH) {
+        completeBatch();
+      }
+    }
+
+    private void completeBatch() {
+      if (current == null) {
+        return;
+      }
+      for (VectorWrapper<?> w : current) {
+        w.getValueVector().getMutator().setValueCount(currentCount);
+      }
+      current.setRecordCount(currentCount);
+      if (outputStream != null) {
+        writeBatch(current);
+      } else {
+        batches.add(current);
+        inMemoryRecords += currentCount;
+      }
+      current = null;
+      pairs = null;
+    }
+
+    private void spill() {
+      spillFile = spillSet.getNextSpillFile();
+      try {
+        outputStream = spillSet.openForOutput(spillFile);
+      } catch (IOException e) {
+        throw UserException.resourceError(e)
+            .message("Hash Join failed to open spill file: " + spillFile)
+            .build(logger);
+      }
+      for (VectorContainer batch : batches) {
+        writeBatch(batch);
+      }
+      batches.clear();
+      inMemoryRecords = 0;
+    }
+
+    private void writeBatch(VectorContainer batch) {
+      @SuppressWarnings("resource")
+      WritableBatch wb = WritableBatch.getBatchNoHVWrap(batch.getRecordCount(), batch, false);
+      VectorAccessibleSerializable outputBatch = new VectorAccessibleSerializable(wb, allocator);
+      try {
+        outputBatch.writeToStream(outputStream);
+      } catch (IOException e) {
+        throw UserException.dataWriteError(e)
+            .message("Hash Join failed to write to spill file: " + spillFile)
+            .build(logger);
+      } finally {
+        batch.clear();
+      }
+      spilledBatches++;
+    }
+
+    /**
+     * Writes the last, partially filled batch and closes the spill file. A
+     * side with no rows at all writes an empty batch, so that the schema can
+     * be read back.
+     */
+    private void closeSpillFile() {
+      completeBatch();
+      if (spilledBatches == 0) {
+        current = newContainer();
+        currentCount = 0;
+        completeBatch();
+      }
+      try {
+        spillSet.tallyWriteBytes(spillSet.getPosition(outputStream));
+        outputStream.close();
+      } catch (IOException e) {
+        throw UserException.dataWriteError(e)
+            .message("Hash Join failed to close spill file: " + spillFile)
+            .build(logger);
+      } finally {
+        outputStream = null;
+      }
+      logger.debug("HashJoin: partition {} spilled {} {} batches to {}", partitionNum, spilledBatches, name,
+          spillFile);
+    }
+
+    private void clear() {
+      if (current != null) {
+        current.clear();
+        current = null;
+      }
+      pairs = null;
+      for (VectorContainer batch : batches) {
+        batch.clear();
+      }
+      batches.clear();
+      inMemoryRecords = 0;
+      if (outputStream != null) {
+        try {
+          outputStream.close();
+        } catch (IOException e) {
+          logger.warn("Cannot close hash join spill file: " + spillFile, e);
+        }
+        outputStream = null;
+      }
+      if (spillFile != null) {
+        try {
+          spillSet.delete(spillFile); // no-op if already read back
+        } catch (IOException e) {
+          // since this is meant to be used in a batch's cleanup, we don't propagate the exception
+          logger.warn("Cannot delete hash join spill file: " + spillFile, e);
+        }
+        spillFile = null;
+      }
+    }
+  }
+
+  public int getPartitionNum() { return partitionNum; }
+
+  public boolean isSpilled() { return spilled; }
+
+  /**
+   * @return the number of build rows held in memory, in completed batches
+   */
+  public long getInMemoryRecordCount() { return build.inMemoryRecords + (spilled ? 0 : build.currentCount); }
+
+  public void appendBuildRow(int rowIdx) {
+    build.appendRow(rowIdx);
+  }
+
+  public void appendProbeRow(int rowIdx) {
+    probe.appendRow(rowIdx);
+  }
+
+  /**
+   * Forgets the transfer pairs from the incoming vectors, as needed when the
+   * incoming sides provide new vectors (e.g. on OK_NEW_SCHEMA).
+   */
+  public void resetIncoming() {
+    build.pairs = null;
+    probe.pairs = null;
+  }
+
+  /**
+   * Makes the build rows come from another batch of the same schema, as when
+   * the batches already hashed are moved into the partitions.
+   */
+  public void setBuildIncoming(RecordBatch buildBatch) {
+    build.incoming = buildBatch;
+    build.pairs = null;
+  }
+
+  /**
+   * Writes the build batches held in memory to a new spill file. All later
+   * rows of this partition, on both sides, go to spill files.
+   */
+  public void spill() {
+    if (spilled) {
+      return;
+    }
+    build.spill();
+    probe.spill();
+    spilled = true;
+  }
+
+  /**
+   * Called at the end of the build side. For an in-memory partition, returns
+   * its build batches, whose ownership passes to the caller; for a spilled
+   * partition, closes the build spill file and returns an empty list.
+   */
+  public List<VectorContainer> finishBuild() {
+    if (spilled) {
+      build.closeSpillFile();
+      return new ArrayList<>();
+    }
+    build.completeBatch();
+    List<VectorContainer> result = new ArrayList<>(build.batches);
+    build.batches.clear();
+    build.inMemoryRecords = 0;
+    return result;
+  }
+
+  /**
+   * Called at the end of the probe side; closes the probe spill file of a
+   * spilled partition.
+   */
+  public void finishProbe() {
+    if (spilled) {
+      probe.closeSpillFile();
+    }
+  }
+
+  public String getBuildSpillFile() { return build.spillFile; }
+  public int getBuildSpilledBatches() { return build.spilledBatches; }
+  public String getProbeSpillFile() { return probe.spillFile; }
+  public int getProbeSpilledBatches() { return probe.spilledBatches; }
+
+  /**
+   * Releases the memory of this partition and deletes its spill files (which
+   * are normally deleted once read back).
+   */
+  public void close() {
+    build.clear();
+    probe.clear();
+  }
+}
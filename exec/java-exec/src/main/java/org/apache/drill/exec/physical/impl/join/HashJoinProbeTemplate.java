@@ -80,6 +80,10 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
   // For outer or right joins, this is a list of unmatched records that needs to be projected
   private List<Integer> unmatchedBuildIndexes = null;
 
+  // Hash codes of the keys of the current probe batch, computed a batch at a time
+  private int[] probeHashCodes = new int[0];
+  private boolean probeHashCodesValid = false;
+
   @Override
   public void setupHashJoinProbe(FragmentContext context, VectorContainer buildBatch, RecordBatch probeBatch,
                                  int probeRecordCount, HashJoinBatch outgoing, HashTable hashTable,
@@ -94,6 +98,14 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
     this.hjHelper = hjHelper;
     this.outgoingJoinBatch = outgoing;
 
+    // A partitioned join sets up the probe again for each spilled partition
+    this.recordsProcessed = 0;
+    this.getNextRecord = true;
+    this.currentCompositeIdx = -1;
+    this.probeState = ProbeState.PROBE_PROJECT;
+    this.unmatchedBuildIndexes = null;
+    this.probeHashCodesValid = false;
+
     doSetup(context, buildBatch, probeBatch, outgoing);
   }
 
@@ -137,12 +149,14 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
             if (probeBatch.getSchema().equals(probeSchema)) {
               doSetup(outgoingJoinBatch.getContext(), buildBatch, probeBatch, outgoingJoinBatch);
               hashTable.updateBatches();
+              outgoingJoinBatch.updatePartitionInputs();
             } else {
               throw new SchemaChangeException("Hash join does not support schema changes");
             }
           case OK:
             recordsToProcess = probeBatch.getRecordCount();
             recordsProcessed = 0;
+            probeHashCodesValid = false;
             // If we received an empty batch do nothing
             if (recordsToProcess == 0) {
               continue;
@@ -154,7 +168,20 @@ public abstract class HashJoinProbeTemplate implements HashJoinProbe {
       // Check if we need to drain the next row in the probe side
       if (getNextRecord) {
         if (hashTable != null) {
-          probeIndex = hashTable.containsKey(recordsProcessed, true);
+          if (!probeHashCodesValid) {
+            if (probeHashCodes.length < recordsToProcess) {
+              probeHashCodes = new int[recordsToProcess];
+            }
+            hashTable.getHashCodes(recordsToProcess, probeHashCodes, true);
+            probeHashCodesValid = true;
+          }
+          final int hashCode = probeHashCodes[recordsProcessed];
+          // Rows of a spilled partition are joined later, with that partition
+          if (outgoingJoinBatch.spillProbeRow(recordsProcessed, hashCode)) {
+            recordsProcessed++;
+            continue;
+          }
+          probeIndex = hashTable.containsKey(recordsProcessed, hashCode, true);
         }
 
           if (probeIndex != -1) {
@@ -0,0 +1,279 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.join;
+
+import io.netty.buffer.DrillBuf;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.expr.fn.impl.XXHash;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.UInt4Vector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VarBinaryVector;
+import org.apache.drill.exec.vector.VarCharVector;
+
+/**
+ * A Bloom filter over the values of a hash join's build side key, applied to
+ * the column of a probe side scan that feeds the join key. A value that is
+ * not in the filter cannot find a match, so the scan can drop its row before
+ * it goes any further.
+ * <p>
+ * Values are hashed on their bytes, so the build key and the scanned column
+ * must have the same minor type; nulls are never in the filter, as they do
+ * not match in an equality join. A filter is used on the thread of a single
+ * fragment: when the scan runs in another major fragment than the join, the
+ * filter is sent to each of its minor fragments, after the filters of all the
+ * minor fragments of the join were merged (see
+ * {@link org.apache.drill.exec.work.filter.RuntimeFilterRouter}).
+ */
+public class RuntimeFilter {
+  private static final int NUM_HASHES = 3;
+  private static final int BITS_PER_VALUE = 10;
+  private static final long SEED = 0;
+
+  private final String column;
+  private final MinorType type;
+  private final long[] bits;
+  private final int bitMask;
+  private long filteredRecords = 0;
+
+  private RuntimeFilter(String column, MinorType type, long[] bits) {
+    this.column = column;
+    this.type = type;
+    this.bits = bits;
+    // the number of bits is a power of two, of at least 64
+    bitMask = bits.length * Long.SIZE - 1;
+  }
+
+  private static long[] toBits(long[] hashes, int count) {
+    int numBits = Long.SIZE;
+    while (numBits < (long) count * BITS_PER_VALUE && numBits < (1 << 30)) {
+      numBits <<= 1;
+    }
+    final long[] bits = new long[numBits / Long.SIZE];
+    final int bitMask = numBits - 1;
+    for (int i = 0; i < count; i++) {
+      final int h1 = (int) hashes[i];
+      final int h2 = (int) (hashes[i] >>> 32);
+      for (int k = 0; k < NUM_HASHES; k++) {
+        final int bit = (h1 + k * h2) & bitMask;
+        bits[bit >>> 6] |= 1L << bit;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Merges the filters built over different parts of the build side, on the
+   * same column. The bits of the larger filter are folded down to the size of
+   * the smaller one: as both sizes are powers of two, the bit a value sets in
+   * the smaller filter is the one it sets in the larger filter, with its high
+   * bits masked off.
+   *
+   * @return a filter which may contain every value either filter may contain
+   */
+  public static RuntimeFilter merge(RuntimeFilter a, RuntimeFilter b) {
+    final RuntimeFilter smaller = a.bits.length <= b.bits.length ? a : b;
+    final RuntimeFilter larger = smaller == a ? b : a;
+    final long[] bits = smaller.bits.clone();
+    for (int i = 0; i < larger.bits.length; i++) {
+      bits[i & (bits.length - 1)] |= larger.bits[i];
+    }
+    return new RuntimeFilter(a.column, a.type, bits);
+  }
+
+  /**
+   * Writes the filter, to be sent to the fragments of another drillbit.
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeUTF(column);
+    out.writeInt(type.getNumber());
+    out.writeInt(bits.length);
+    for (final long word : bits) {
+      out.writeLong(word);
+    }
+  }
+
+  /**
+   * Reads a filter written by {@link #write(DataOutput)}.
+   */
+  public static RuntimeFilter read(DataInput in) throws IOException {
+    final String column = in.readUTF();
+    final MinorType type = MinorType.valueOf(in.readInt());
+    final long[] bits = new long[in.readInt()];
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = in.readLong();
+    }
+    return new RuntimeFilter(column, type, bits);
+  }
+
+  /**
+   * @return true if values of the type can be filtered on
+   */
+  public static boolean isSupported(MajorType type) {
+    if (type.getMode() == DataMode.REPEATED) {
+      return false;
+    }
+    switch (type.getMinorType()) {
+    case INT:
+    case BIGINT:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+    case VARCHAR:
+    case VARBINARY:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public MinorType getType() {
+    return type;
+  }
+
+  /**
+   * @return the number of rows this filter dropped so far
+   */
+  public long getFilteredRecords() {
+    return filteredRecords;
+  }
+
+  /**
+   * @return false if the value at the index cannot be among the build side
+   * values (null values never are); true if it may be
+   */
+  public boolean mightContain(ValueVector vector, int index) {
+    if (vector.getAccessor().isNull(index)) {
+      filteredRecords++;
+      return false;
+    }
+    final long hash = hash(vector, index);
+    final int h1 = (int) hash;
+    final int h2 = (int) (hash >>> 32);
+    for (int k = 0; k < NUM_HASHES; k++) {
+      final int bit = (h1 + k * h2) & bitMask;
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        filteredRecords++;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long hash(ValueVector vector, int index) {
+    final ValueVector values = vector instanceof NullableVector ? ((NullableVector) vector).getValuesVector() : vector;
+    final DrillBuf data = ((BaseDataValueVector) values).getBuffer();
+    final UInt4Vector offsets;
+    if (values instanceof VarCharVector) {
+      offsets = ((VarCharVector) values).getOffsetVector();
+    } else if (values instanceof VarBinaryVector) {
+      offsets = ((VarBinaryVector) values).getOffsetVector();
+    } else {
+      final int width = TypeHelper.getSize(values.getField().getType());
+      return XXHash.hash64(index * width, (index + 1) * width, data, SEED);
+    }
+    final UInt4Vector.Accessor offsetAccessor = offsets.getAccessor();
+    return XXHash.hash64(offsetAccessor.get(index), offsetAccessor.get(index + 1), data, SEED);
+  }
+
+  /**
+   * Collects the hashes of the build side key values as the build batches
+   * arrive. Gives up once there are more values than the limit.
+   */
+  public static class Builder {
+    private final String buildColumn;
+    private final String scanColumn;
+    private final MinorType type;
+    private final long maxValues;
+    private long[] hashes = new long[1024];
+    private int count = 0;
+    private boolean overflow = false;
+
+    public Builder(String buildColumn, String scanColumn, MinorType type, long maxValues) {
+      this.buildColumn = buildColumn;
+      this.scanColumn = scanColumn;
+      this.type = type;
+      this.maxValues = maxValues;
+    }
+
+    /**
+     * Adds the key values of a build side batch.
+     */
+    public void add(RecordBatch buildBatch) {
+      if (overflow) {
+        return;
+      }
+      ValueVector vector = null;
+      for (final VectorWrapper<?> w : buildBatch) {
+        if (w.getField().getPath().equalsIgnoreCase(buildColumn)) {
+          vector = w.getValueVector();
+          break;
+        }
+      }
+      if (vector == null) {
+        overflow = true; // should not happen; do not filter
+        return;
+      }
+      final int recordCount = buildBatch.getRecordCount();
+      final ValueVector.Accessor accessor = vector.getAccessor();
+      for (int i = 0; i < recordCount; i++) {
+        if (accessor.isNull(i)) {
+          continue;
+        }
+        if (count == maxValues) {
+          overflow = true;
+          hashes = null;
+          return;
+        }
+        if (count == hashes.length) {
+          hashes = Arrays.copyOf(hashes, (int) Math.min(Integer.MAX_VALUE - 8, 2L * hashes.length));
+        }
+        hashes[count++] = hash(vector, i);
+      }
+    }
+
+    /**
+     * @return the filter over all the values added, or null if there were
+     * too many values to build one
+     */
+    public RuntimeFilter build() {
+      if (overflow) {
+        return null;
+      }
+      final RuntimeFilter filter = new RuntimeFilter(scanColumn, type, toBits(hashes, count));
+      hashes = null;
+      return filter;
+    }
+  }
+}
@@ -115,7 +115,8 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
   public static enum Metric implements MetricDef{
     BYTES_RECEIVED,
     NUM_SENDERS,
-    NEXT_WAIT_NANOS;
+    NEXT_WAIT_NANOS,
+    COMPRESSED_BYTES_RECEIVED; // body bytes as received, before decompression
 
     @Override
     public int metricId() {
@@ -145,6 +146,7 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
       final RawFragmentBatch b = provider.getNext();
       if (b != null) {
         stats.addLongStat(Metric.BYTES_RECEIVED, b.getByteCount());
+        stats.addLongStat(Metric.COMPRESSED_BYTES_RECEIVED, b.getWireByteCount());
         stats.batchReceived(0, b.getHeader().getDef().getRecordCount(), false);
         inputCounts[providerIndex] += b.getHeader().getDef().getRecordCount();
       }
@@ -88,7 +88,8 @@ public class PartitionSenderRootExec extends BaseRootExec {
     N_RECEIVERS,
     BYTES_SENT,
     SENDING_THREADS_COUNT,
-    COST;
+    COST,
+    COMPRESSED_BYTES_SENT; // body bytes put on the wire, after compression
 
     @Override
     public int metricId() {
@@ -337,6 +338,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
     logger.debug("Partition sender stopping.");
     super.close();
     ok = false;
+    stats.setLongStat(Metric.COMPRESSED_BYTES_SENT, context.getDataTunnelWireBytes());
     if (partitioner != null) {
       updateAggregateStats();
       partitioner.clear();
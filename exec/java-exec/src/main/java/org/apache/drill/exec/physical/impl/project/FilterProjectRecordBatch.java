@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.exec.compile.sig.GeneratorMapping;
+import org.apache.drill.exec.compile.sig.MappingSet;
+import org.apache.drill.exec.exception.ClassTransformationException;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ClassGenerator;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.ValueVectorWriteExpression;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.config.FilterProject;
+import org.apache.drill.exec.physical.impl.filter.InListRewriter;
+import org.apache.drill.exec.physical.impl.filter.ReturnValueExpression;
+import org.apache.drill.exec.record.AbstractSingleRecordBatch;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.vector.AllocationHelper;
+import org.apache.drill.exec.vector.FixedWidthVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Evaluates a condition and a list of expressions over the incoming records in a single
+ * generated loop, writing the values of the expressions for the records which pass the
+ * condition into consecutive output records. This replaces a filter, the selection vector
+ * remover copying the records it selects, and a project, so the records are copied once and
+ * the expressions are not evaluated for the records which are filtered out.
+ * <p>
+ * Every output column is evaluated, as the output records are not aligned with the incoming
+ * ones and the vectors can not be transferred.
+ */
+public class FilterProjectRecordBatch extends AbstractSingleRecordBatch<FilterProject> {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FilterProjectRecordBatch.class);
+
+  private static final GeneratorMapping FILTER = GeneratorMapping.create("doSetup", "doFilter", null, null);
+  private static final GeneratorMapping PROJECT = GeneratorMapping.create("doSetup", "doProject", null, null);
+  private static final MappingSet FILTER_MAPPING = new MappingSet("inIndex", "outIndex", ClassGenerator.DEFAULT_CONSTANT_MAP, FILTER);
+  private static final MappingSet PROJECT_MAPPING = new MappingSet("inIndex", "outIndex", ClassGenerator.DEFAULT_CONSTANT_MAP, PROJECT);
+
+  private FilterProjector filterProjector;
+  private List<ValueVector> allocationVectors;
+  private int recordCount;
+
+  public FilterProjectRecordBatch(FilterProject pop, RecordBatch incoming, FragmentContext context) throws OutOfMemoryException {
+    super(pop, context, incoming);
+  }
+
+  @Override
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  protected IterOutcome doWork() {
+    final int incomingRecordCount = incoming.getRecordCount();
+    container.zeroVectors();
+    for (final ValueVector v : allocationVectors) {
+      AllocationHelper.allocateNew(v, incomingRecordCount);
+    }
+
+    recordCount = filterProjector.filterProjectRecords(incomingRecordCount);
+    for (final ValueVector v : allocationVectors) {
+      v.getMutator().setValueCount(recordCount);
+    }
+    for (final VectorWrapper<?> v : incoming) {
+      v.clear();
+    }
+    return IterOutcome.OK;
+  }
+
+  @Override
+  protected boolean setupNewSchema() throws SchemaChangeException {
+    if (allocationVectors != null) {
+      for (final ValueVector v : allocationVectors) {
+        v.clear();
+      }
+    }
+    allocationVectors = Lists.newArrayList();
+    container.zeroVectors();
+
+    final ErrorCollector collector = new ErrorCollectorImpl();
+    final ClassGenerator<FilterProjector> cg = CodeGenerator.getRoot(FilterProjector.TEMPLATE_DEFINITION,
+        context.getFunctionRegistry(), context.getOptions());
+
+    cg.setMappingSet(FILTER_MAPPING);
+    final LogicalExpression condition = ExpressionTreeMaterializer.materialize(
+        InListRewriter.rewrite(popConfig.getCondition(), incoming, context.getOptions()), incoming, collector,
+        context.getFunctionRegistry(), false, unionTypeEnabled);
+    if (collector.hasErrors()) {
+      throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
+    }
+    cg.addExpr(new ReturnValueExpression(condition), ClassGenerator.BlkCreateMode.FALSE);
+
+    cg.setMappingSet(PROJECT_MAPPING);
+    for (final NamedExpression namedExpression : popConfig.getExprs()) {
+      final LogicalExpression expr = ExpressionTreeMaterializer.materialize(namedExpression.getExpr(), incoming,
+          collector, context.getFunctionRegistry(), true, unionTypeEnabled);
+      if (collector.hasErrors()) {
+        throw new SchemaChangeException(String.format("Failure while trying to materialize incoming schema.  Errors:\n %s.", collector.toErrorString()));
+      }
+      final MaterializedField outputField =
+          MaterializedField.create(namedExpression.getRef().getRootSegment().getPath(), expr.getMajorType());
+      final ValueVector vector = container.addOrGet(outputField, callBack);
+      allocationVectors.add(vector);
+      final TypedFieldId fid = container.getValueVectorId(SchemaPath.getSimplePath(outputField.getPath()));
+      final boolean useSetSafe = !(vector instanceof FixedWidthVector);
+      cg.addExpr(new ValueVectorWriteExpression(fid, expr, useSetSafe), ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+    }
+
+    try {
+      final CodeGenerator<FilterProjector> codeGen = cg.getCodeGenerator();
+      codeGen.plainJavaCapable(true);
+      // Uncomment out this line to debug the generated code.
+//      codeGen.saveCodeForDebugging(true);
+      filterProjector = context.getImplementationClass(codeGen);
+      filterProjector.setup(context, incoming, this);
+    } catch (ClassTransformationException | IOException e) {
+      throw new SchemaChangeException("Failure while attempting to load generated class", e);
+    }
+
+    if (container.isSchemaChanged()) {
+      container.buildSchema(SelectionVectorMode.NONE);
+      return true;
+    }
+    return false;
+  }
+}
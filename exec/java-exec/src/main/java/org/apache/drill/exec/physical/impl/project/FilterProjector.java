@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import org.apache.drill.exec.compile.TemplateClassDefinition;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+
+public interface FilterProjector {
+
+  public abstract void setup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing) throws SchemaChangeException;
+
+  /**
+   * Projects the incoming records which pass the filter into consecutive output records.
+   *
+   * @param recordCount the number of incoming records
+   * @return the number of output records
+   */
+  public abstract int filterProjectRecords(int recordCount);
+
+  public static TemplateClassDefinition<FilterProjector> TEMPLATE_DEFINITION =
+      new TemplateClassDefinition<FilterProjector>(FilterProjector.class, FilterProjectorTemplate.class);
+}
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import javax.inject.Named;
+
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+
+public abstract class FilterProjectorTemplate implements FilterProjector {
+
+  private SelectionVector2 incomingSelectionVector;
+  private SelectionVectorMode svMode;
+
+  @Override
+  public final void setup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing) throws SchemaChangeException {
+    this.svMode = incoming.getSchema().getSelectionVectorMode();
+    switch (svMode) {
+    case NONE:
+      break;
+    case TWO_BYTE:
+      this.incomingSelectionVector = incoming.getSelectionVector2();
+      break;
+    default:
+      throw new UnsupportedOperationException();
+    }
+    doSetup(context, incoming, outgoing);
+  }
+
+  @Override
+  public final int filterProjectRecords(int recordCount) {
+    int outIndex = 0;
+    try {
+      switch (svMode) {
+      case NONE:
+        for (int i = 0; i < recordCount; i++) {
+          if (doFilter(i, outIndex)) {
+            doProject(i, outIndex);
+            outIndex++;
+          }
+        }
+        break;
+      case TWO_BYTE:
+        for (int i = 0; i < recordCount; i++) {
+          final int index = incomingSelectionVector.getIndex(i);
+          if (doFilter(index, outIndex)) {
+            doProject(index, outIndex);
+            outIndex++;
+          }
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException();
+      }
+    } catch (SchemaChangeException e) {
+      throw new UnsupportedOperationException(e);
+    }
+    return outIndex;
+  }
+
+  public abstract void doSetup(@Named("context") FragmentContext context,
+                               @Named("incoming") RecordBatch incoming,
+                               @Named("outgoing") RecordBatch outgoing)
+                       throws SchemaChangeException;
+  public abstract boolean doFilter(@Named("inIndex") int inIndex, @Named("outIndex") int outIndex)
+                          throws SchemaChangeException;
+  public abstract void doProject(@Named("inIndex") int inIndex, @Named("outIndex") int outIndex)
+                       throws SchemaChangeException;
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import java.util.List;
+
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator.RecordEvaluator;
+import org.apache.drill.exec.expr.holders.ValueHolder;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * Projects records with the expression interpreter, while the generated projector is compiled.
+ */
+public class InterpretedProjector extends ProjectorTemplate {
+
+  private final List<ValueVector> vectors;
+  private final List<LogicalExpression> exprs;
+  private RecordEvaluator[] evaluators;
+
+  /**
+   * @param vectors the output vectors of the evaluated expressions
+   * @param exprs the evaluated expressions, in the order of their output vectors
+   */
+  public InterpretedProjector(List<ValueVector> vectors, List<LogicalExpression> exprs) {
+    this.vectors = vectors;
+    this.exprs = exprs;
+  }
+
+  @Override
+  public void doSetup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing) throws SchemaChangeException {
+    evaluators = new RecordEvaluator[exprs.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      evaluators[i] = new RecordEvaluator(context, incoming, exprs.get(i));
+    }
+  }
+
+  @Override
+  public void doEval(int inIndex, int outIndex) throws SchemaChangeException {
+    for (int i = 0; i < evaluators.length; i++) {
+      final ValueVector vector = vectors.get(i);
+      ValueHolder holder = evaluators[i].evaluate(inIndex);
+      final DataMode mode = vector.getField().getType().getMode();
+      if (mode != TypeHelper.getValueHolderType(holder).getMode()) {
+        holder = mode == DataMode.OPTIONAL ? TypeHelper.nullify(holder) : TypeHelper.deNullify(holder);
+      }
+      TypeHelper.setValueSafe(vector, outIndex, holder);
+    }
+  }
+}
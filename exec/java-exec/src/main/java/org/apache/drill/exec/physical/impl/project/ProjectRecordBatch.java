@@ -20,6 +20,8 @@ package org.apache.drill.exec.physical.impl.project;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.collections.map.CaseInsensitiveMap;
 import org.apache.drill.common.expression.ConvertExpression;
@@ -37,6 +39,7 @@ import org.apache.drill.common.expression.fn.CastFunctions;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
@@ -49,6 +52,7 @@ import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.expr.ValueVectorReadExpression;
 import org.apache.drill.exec.expr.ValueVectorWriteExpression;
 import org.apache.drill.exec.expr.fn.DrillComplexWriterFuncHolder;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.Project;
 import org.apache.drill.exec.planner.StarColumnHelper;
@@ -75,6 +79,9 @@ import com.google.common.collect.Maps;
 public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ProjectRecordBatch.class);
   private Projector projector;
+  // the generated projector being compiled while the interpreted one projects the batches
+  private Future<Projector> compilingProjector;
+  private List<TransferPair> transfers;
   private List<ValueVector> allocationVectors;
   private List<ComplexWriter> complexWriters;
   private List<DrillComplexWriterFuncHolder> complexExprList;
@@ -189,6 +196,11 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     }
     first = false;
 
+    try {
+      switchToCompiledProjector();
+    } catch (final SchemaChangeException e) {
+      throw new RuntimeException(e);
+    }
     container.zeroVectors();
 
     if (!doAlloc(incomingRecordCount)) {
@@ -245,6 +257,37 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     }
   }
 
+  /**
+   * Replaces the interpreted projector with the generated one once it is compiled.
+   */
+  private void switchToCompiledProjector() throws SchemaChangeException {
+    if (compilingProjector == null || !compilingProjector.isDone()) {
+      return;
+    }
+    try {
+      final Projector compiledProjector = compilingProjector.get();
+      compiledProjector.setup(context, incoming, this, transfers);
+      projector = compiledProjector;
+    } catch (InterruptedException | ExecutionException | SchemaChangeException e) {
+      throw new SchemaChangeException("Failure while attempting to load generated class", e);
+    } finally {
+      compilingProjector = null;
+    }
+  }
+
+  private void cancelCompilation() {
+    if (compilingProjector != null) {
+      compilingProjector.cancel(false);
+      compilingProjector = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    cancelCompilation();
+    super.close();
+  }
+
   public void addComplexWriter(final ComplexWriter writer) {
     complexWriters.add(writer);
   }
@@ -306,6 +349,7 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
 
   @Override
   protected boolean setupNewSchema() throws SchemaChangeException {
+    cancelCompilation();
     if (allocationVectors != null) {
       for (final ValueVector v : allocationVectors) {
         v.clear();
@@ -327,6 +371,9 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
 //    cg.getCodeGenerator().saveCodeForDebugging(true);
 
     final IntHashSet transferFieldIds = new IntHashSet();
+    // the evaluated expressions and their output vectors, to run them with the interpreter
+    final List<ValueVector> evalVectors = Lists.newArrayList();
+    final List<LogicalExpression> evalExprs = Lists.newArrayList();
 
     final boolean isAnyWildcard = isAnyWildcard(exprs);
 
@@ -392,6 +439,8 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
               final TypedFieldId fid = container.getValueVectorId(SchemaPath.getSimplePath(outputField.getPath()));
               final ValueVectorWriteExpression write = new ValueVectorWriteExpression(fid, expr, true);
               final HoldingContainer hc = cg.addExpr(write, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+              evalVectors.add(vv);
+              evalExprs.add(expr);
             }
           }
           continue;
@@ -469,6 +518,8 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
         final boolean useSetSafe = !(vector instanceof FixedWidthVector);
         final ValueVectorWriteExpression write = new ValueVectorWriteExpression(fid, expr, useSetSafe);
         final HoldingContainer hc = cg.addExpr(write, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+        evalVectors.add(vector);
+        evalExprs.add(expr);
 
         // We cannot do multiple transfers from the same vector. However we still need to instantiate the output vector.
         if (expr instanceof ValueVectorReadExpression) {
@@ -488,7 +539,14 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
       codeGen.plainJavaCapable(true);
       // Uncomment out this line to debug the generated code.
 //      codeGen.saveCodeForDebugging(true);
-      this.projector = context.getImplementationClass(codeGen);
+      this.transfers = transfers;
+      if (context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_VALIDATOR)
+          && complexWriters == null && isInterpretable(evalExprs)) {
+        compilingProjector = context.getImplementationClassAsync(codeGen);
+        this.projector = new InterpretedProjector(evalVectors, evalExprs);
+      } else {
+        this.projector = context.getImplementationClass(codeGen);
+      }
       projector.setup(context, incoming, this, transfers);
     } catch (ClassTransformationException | IOException e) {
       throw new SchemaChangeException("Failure while attempting to load generated class", e);
@@ -501,6 +559,15 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     }
   }
 
+  private static boolean isInterpretable(final List<LogicalExpression> exprs) {
+    for (final LogicalExpression expr : exprs) {
+      if (!InterpreterEvaluator.isInterpretable(expr)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean isImplicitFileColumn(ValueVector vvIn) {
     return ImplicitColumnExplorer.initImplicitFileColumns(context.getOptions()).get(vvIn.getField().getName()) != null;
   }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.xerial.snappy.SnappyInputStream;
+import org.xerial.snappy.SnappyOutputStream;
+
+/**
+ * Block compression of spill files. The compressed stream sits between the
+ * serialized batches and the spill file, so that spilling trades some CPU
+ * for less disk I/O. The codec is chosen per query; a spill file is read back
+ * with the codec used to write it.
+ */
+
+public enum SpillCompression {
+  NONE {
+    @Override
+    public OutputStream compress(OutputStream out) { return out; }
+
+    @Override
+    public InputStream decompress(InputStream in) { return in; }
+  },
+
+  /**
+   * Fast compression with a moderate ratio; the usual choice when the spill
+   * disk is the bottleneck.
+   */
+  SNAPPY {
+    @Override
+    public OutputStream compress(OutputStream out) {
+      return new SnappyOutputStream(out, BLOCK_SIZE);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+      return new SnappyInputStream(in);
+    }
+  },
+
+  /**
+   * Deflate at its fastest level: a better ratio than Snappy, at a higher
+   * CPU cost.
+   */
+  DEFLATE {
+    @Override
+    public OutputStream compress(OutputStream out) {
+      // The stream does not release a deflater it did not create.
+      final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      return new DeflaterOutputStream(out, deflater, BLOCK_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            deflater.end();
+          }
+        }
+      };
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) {
+      return new InflaterInputStream(in);
+    }
+  };
+
+  public static final int BLOCK_SIZE = 64 * 1024;
+
+  /**
+   * Wraps a spill file output stream. Closing the returned stream closes the
+   * file.
+   */
+  public abstract OutputStream compress(OutputStream out) throws IOException;
+
+  /**
+   * Wraps a spill file input stream. Closing the returned stream closes the
+   * file.
+   */
+  public abstract InputStream decompress(InputStream in) throws IOException;
+
+  /**
+   * Writes any data buffered in a stream returned by {@link #compress}, and
+   * any end-of-stream marker, to the underlying spill file, so that its size
+   * can be measured before it is closed.
+   */
+  public static void finish(OutputStream out) throws IOException {
+    if (out instanceof DeflaterOutputStream) {
+      ((DeflaterOutputStream) out).finish();
+    }
+    out.flush();
+  }
+
+  /**
+   * @param name the codec name, as set in the session option; validated
+   * by the option
+   */
+  public static SpillCompression fromName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+}
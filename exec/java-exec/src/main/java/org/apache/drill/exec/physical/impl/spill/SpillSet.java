@@ -34,6 +34,8 @@ import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.config.HashAggregate;
+import org.apache.drill.exec.physical.config.HashJoinPOP;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
 import org.apache.drill.exec.proto.helper.QueryIdHelper;
 import org.apache.hadoop.conf.Configuration;
@@ -47,7 +49,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 
 /**
- * Generates the set of spill files for this sort session.
+ * Generates the set of spill files for this sort, hash aggregate or hash join session.
  */
 
 public class SpillSet {
@@ -356,6 +358,8 @@ public class SpillSet {
 
   private long writeBytes;
 
+  private long uncompressedWriteBytes;
+
   public SpillSet(FragmentContext context, PhysicalOperator popConfig) {
     this(context, popConfig, null, "spill");
   }
@@ -365,7 +369,21 @@ public class SpillSet {
     FragmentHandle handle = context.getHandle();
     DrillConfig config = context.getConfig();
     spillFileName = fileName;
-    List<String> dirList = config.getStringList(ExecConstants.EXTERNAL_SORT_SPILL_DIRS);
+    // The hash aggregate and hash join have their own spill settings;
+    // all others share those of the external sort.
+
+    String spillFs;
+    List<String> dirList;
+    if (popConfig instanceof HashAggregate) {
+      spillFs = config.getString(ExecConstants.HASHAGG_SPILL_FILESYSTEM);
+      dirList = config.getStringList(ExecConstants.HASHAGG_SPILL_DIRS);
+    } else if (popConfig instanceof HashJoinPOP) {
+      spillFs = config.getString(ExecConstants.HASHJOIN_SPILL_FILESYSTEM);
+      dirList = config.getStringList(ExecConstants.HASHJOIN_SPILL_DIRS);
+    } else {
+      spillFs = config.getString(ExecConstants.EXTERNAL_SORT_SPILL_FILESYSTEM);
+      dirList = config.getStringList(ExecConstants.EXTERNAL_SORT_SPILL_DIRS);
+    }
     dirs = Iterators.cycle(dirList);
 
     // If more than one directory, semi-randomly choose an offset into
@@ -386,7 +404,6 @@ public class SpillSet {
     // system is selected and impersonation is off. (We use that
     // as a proxy for a non-production Drill setup.)
 
-    String spillFs = config.getString(ExecConstants.EXTERNAL_SORT_SPILL_FILESYSTEM);
     boolean impersonationEnabled = config.getBoolean(ExecConstants.IMPERSONATION_ENABLED);
     if (spillFs.startsWith("file:///") && ! impersonationEnabled) {
       fileManager = new LocalFileManager(spillFs);
@@ -440,6 +457,7 @@ public class SpillSet {
   }
 
   public long getWriteBytes() { return writeBytes; }
+  public long getUncompressedWriteBytes() { return uncompressedWriteBytes; }
   public long getReadBytes() { return readBytes; }
 
   public void close() {
@@ -468,4 +486,12 @@ public class SpillSet {
   public void tallyWriteBytes(long writeLength) {
     writeBytes += writeLength;
   }
+
+  /**
+   * Records the size of spilled data before compression; the size written
+   * to disk is recorded by {@link #tallyWriteBytes(long)}.
+   */
+  public void tallyUncompressedWriteBytes(long writeLength) {
+    uncompressedWriteBytes += writeLength;
+  }
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.cache.VectorAccessibleSerializable;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.BatchSchema;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.WritableBatch;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.record.selection.SelectionVector4;
+
+/**
+ * Replays the batches of one partition that were written to a spill file,
+ * acting as the "incoming" batch of a hash aggregate (or one side of a hash
+ * join) while that partition is processed.
+ * <p>
+ * The first batch is read when the record batch is created, so that the schema
+ * is available for setting up the operator. Each following batch is
+ * transferred into the same vectors, so that generated code bound to this
+ * batch's vectors keeps working across calls to {@link #next()}. Reading is
+ * destructive: closing the batch deletes the spill file.
+ */
+
+public class SpilledRecordbatch implements RecordBatch, AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpilledRecordbatch.class);
+
+  private final FragmentContext context;
+  private final BufferAllocator allocator;
+  private final SpillSet spillSet;
+  private final String spillFile;
+  private VectorContainer container;
+  private InputStream spillStream;
+  private int spilledBatches;
+
+  public SpilledRecordbatch(String spillFile, int spilledBatches, FragmentContext context,
+                            BufferAllocator allocator, SpillSet spillSet) {
+    this.context = context;
+    this.allocator = allocator;
+    this.spillSet = spillSet;
+    this.spillFile = spillFile;
+    this.spilledBatches = spilledBatches;
+    try {
+      spillStream = spillSet.openForInput(spillFile);
+    } catch (IOException e) {
+      throw UserException.resourceError(e)
+          .message("Failed to open spill file: " + spillFile)
+          .build(logger);
+    }
+    next(); // read the first batch
+  }
+
+  @Override
+  public FragmentContext getContext() { return context; }
+
+  @Override
+  public BatchSchema getSchema() { return container.getSchema(); }
+
+  @Override
+  public int getRecordCount() { return container.getRecordCount(); }
+
+  @Override
+  public void kill(boolean sendUpstream) { close(); }
+
+  @Override
+  public VectorContainer getOutgoingContainer() { return container; }
+
+  @Override
+  public TypedFieldId getValueVectorId(SchemaPath path) {
+    return container.getValueVectorId(path);
+  }
+
+  @Override
+  public VectorWrapper<?> getValueAccessorById(Class<?> clazz, int... ids) {
+    return container.getValueAccessorById(clazz, ids);
+  }
+
+  @Override
+  public Iterator<VectorWrapper<?>> iterator() {
+    return container.iterator();
+  }
+
+  @Override
+  public SelectionVector2 getSelectionVector2() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public SelectionVector4 getSelectionVector4() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public WritableBatch getWritableBatch() {
+    return WritableBatch.get(this);
+  }
+
+  /**
+   * Reads the next spilled batch.
+   *
+   * @return {@link IterOutcome#OK} if a batch was read, {@link IterOutcome#NONE}
+   * once all the batches of the spill file have been read
+   */
+  @Override
+  public IterOutcome next() {
+    if (spilledBatches <= 0) {
+      return IterOutcome.NONE;
+    }
+    VectorAccessibleSerializable vas = new VectorAccessibleSerializable(allocator);
+    try {
+      vas.readFromStream(spillStream);
+    } catch (IOException e) {
+      vas.get().clear();
+      throw UserException.dataReadError(e)
+          .message("Failure while reading spilled data from file: " + spillFile)
+          .build(logger);
+    }
+    VectorContainer c = vas.get();
+    spilledBatches--;
+
+    if (container == null) {
+      container = c;
+      return IterOutcome.OK;
+    }
+
+    // Move the data into the existing vectors, as the operator's generated
+    // code holds references to them.
+
+    container.zeroVectors();
+    Iterator<VectorWrapper<?>> wrapperIterator = c.iterator();
+    for (VectorWrapper<?> w : container) {
+      TransferPair pair = wrapperIterator.next().getValueVector().makeTransferPair(w.getValueVector());
+      pair.transfer();
+    }
+    container.setRecordCount(c.getRecordCount());
+    c.zeroVectors();
+    return IterOutcome.OK;
+  }
+
+  @Override
+  public void close() {
+    if (container != null) {
+      container.clear();
+    }
+    if (spillStream == null) {
+      return;
+    }
+    try {
+      spillSet.tallyReadBytes(spillSet.getPosition(spillStream));
+      spillStream.close();
+      spillStream = null;
+      spillSet.delete(spillFile);
+    } catch (IOException e) {
+      // since this is meant to be used in a batch's cleanup, we don't propagate the exception
+      logger.warn("Cannot close/delete spill file: " + spillFile, e);
+    }
+  }
+}
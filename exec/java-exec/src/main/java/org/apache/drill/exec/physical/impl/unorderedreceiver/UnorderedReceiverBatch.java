@@ -66,7 +66,8 @@ public class UnorderedReceiverBatch implements CloseableRecordBatch {
 
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
-    NUM_SENDERS;
+    NUM_SENDERS,
+    COMPRESSED_BYTES_RECEIVED; // body bytes as received, before decompression
 
     @Override
     public int metricId() {
@@ -189,6 +190,7 @@ public class UnorderedReceiverBatch implements CloseableRecordBatch {
       // TODO:  Clean:  DRILL-2933:  That load(...) no longer throws
       // SchemaChangeException, so check/clean catch clause below.
       stats.addLongStat(Metric.BYTES_RECEIVED, batch.getByteCount());
+      stats.addLongStat(Metric.COMPRESSED_BYTES_RECEIVED, batch.getWireByteCount());
 
       batch.release();
       if(schemaChanged) {
@@ -148,7 +148,9 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     PEAK_BATCHES_IN_MEMORY, // maximum number of batches kept in memory
     MERGE_COUNT,            // Used only by the managed version.
     MIN_BUFFER,             // Used only by the managed version.
-    INPUT_BATCHES;          // Used only by the managed version.
+    INPUT_BATCHES,          // Used only by the managed version.
+    SPILL_UNCOMPRESSED_BYTES, // Used only by the managed version.
+    SPILL_COMPRESSED_BYTES; // Used only by the managed version.
 
     @Override
     public int metricId() {
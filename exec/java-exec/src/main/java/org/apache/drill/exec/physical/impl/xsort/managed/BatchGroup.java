@@ -28,7 +28,9 @@ import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.exec.cache.VectorAccessibleSerializable;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.spill.SpillCompression;
 import org.apache.drill.exec.physical.impl.spill.SpillSet;
+import org.apache.drill.exec.physical.impl.spill.SpillSet.CountingOutputStream;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.SchemaUtil;
 import org.apache.drill.exec.record.TransferPair;
@@ -145,19 +147,42 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
    */
 
   public static class SpilledRun extends BatchGroup {
+
+    // The file streams are used to measure the (compressed) spill file
+    // size; batches are written to and read from the wrapping
+    // (de)compression streams.
+
+    private InputStream fileInputStream;
     private InputStream inputStream;
-    private OutputStream outputStream;
+    private OutputStream fileOutputStream;
+    private OutputStream compressedOutputStream;
+    private CountingOutputStream outputStream;
     private String path;
     private SpillSet spillSet;
+    private SpillCompression compression;
     private BufferAllocator allocator;
     private int spilledBatches = 0;
 
     public SpilledRun(SpillSet spillSet, String path, OperatorContext context) throws IOException {
+      this(spillSet, path, SpillCompression.NONE, context);
+    }
+
+    @SuppressWarnings("resource")
+    public SpilledRun(SpillSet spillSet, String path, SpillCompression compression,
+                      OperatorContext context) throws IOException {
       super(null, context);
       this.spillSet = spillSet;
       this.path = path;
+      this.compression = compression;
       this.allocator = context.getAllocator();
-      outputStream = spillSet.openForOutput(path);
+      fileOutputStream = spillSet.openForOutput(path);
+      try {
+        compressedOutputStream = compression.compress(fileOutputStream);
+      } catch (IOException e) {
+        fileOutputStream.close();
+        throw e;
+      }
+      outputStream = new CountingOutputStream(compressedOutputStream);
     }
 
     public void addBatch(VectorContainer newContainer) throws IOException {
@@ -207,8 +232,9 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
     }
 
     private VectorContainer getBatch() throws IOException {
-      if (inputStream == null) {
-        inputStream = spillSet.openForInput(path);
+      if (fileInputStream == null) {
+        fileInputStream = spillSet.openForInput(path);
+        inputStream = compression.decompress(fileInputStream);
       }
       VectorAccessibleSerializable vas = new VectorAccessibleSerializable(allocator);
       Stopwatch watch = Stopwatch.createStarted();
@@ -265,13 +291,18 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
     }
 
     private void closeInputStream() throws IOException {
-      if (inputStream == null) {
+      if (fileInputStream == null) {
         return;
       }
-      long readLength = spillSet.getPosition(inputStream);
+      long readLength = spillSet.getPosition(fileInputStream);
       spillSet.tallyReadBytes(readLength);
-      inputStream.close();
+      if (inputStream != null) {
+        inputStream.close();
+      } else {
+        fileInputStream.close();
+      }
       inputStream = null;
+      fileInputStream = null;
       logger.trace("Summary: Read {} bytes from {}", readLength, path);
     }
 
@@ -279,11 +310,16 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
       if (outputStream == null) {
         return 0;
       }
-      long writeSize = spillSet.getPosition(outputStream);
+      SpillCompression.finish(compressedOutputStream);
+      long writeSize = spillSet.getPosition(fileOutputStream);
+      long uncompressedSize = outputStream.getCount();
       spillSet.tallyWriteBytes(writeSize);
+      spillSet.tallyUncompressedWriteBytes(uncompressedSize);
       outputStream.close();
       outputStream = null;
-      logger.trace("Summary: Wrote {} bytes to {}", writeSize, path);
+      compressedOutputStream = null;
+      fileOutputStream = null;
+      logger.trace("Summary: Wrote {} bytes ({} uncompressed) to {}", writeSize, uncompressedSize, path);
       return writeSize;
     }
   }
@@ -34,6 +34,7 @@ import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.ExternalSort;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
 import org.apache.drill.exec.physical.impl.spill.RecordBatchSizer;
+import org.apache.drill.exec.physical.impl.spill.SpillCompression;
 import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.physical.impl.xsort.MSortTemplate;
 import org.apache.drill.exec.physical.impl.xsort.SingleBatchSorter;
@@ -257,6 +258,12 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
 
   private final SpillSet spillSet;
 
+  /**
+   * Codec used to compress spilled runs, set by a session option.
+   */
+
+  private final SpillCompression spillCompression;
+
   /**
    * Manages the copier used to merge a collection of batches into
    * a new set of batches.
@@ -376,9 +383,12 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     PEAK_BATCHES_IN_MEMORY, // maximum number of batches kept in memory
     MERGE_COUNT,            // Number of second+ generation merges
     MIN_BUFFER,             // Minimum memory level observed in operation.
-    SPILL_MB;               // Number of MB of data spilled to disk. This
+    SPILL_MB,               // Number of MB of data spilled to disk. This
                             // amount is first written, then later re-read.
                             // So, disk I/O is twice this amount.
+    SPILL_UNCOMPRESSED_BYTES, // Bytes of spilled data before compression
+    SPILL_COMPRESSED_BYTES; // Bytes of spilled data written to disk, after
+                            // compression (if enabled)
 
     @Override
     public int metricId() {
@@ -406,6 +416,8 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     opCodeGen = new OperatorCodeGenerator(context, popConfig);
 
     spillSet = new SpillSet(context, popConfig, "sort", "run");
+    spillCompression = SpillCompression.fromName(
+        context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_SPILL_COMPRESSION_VALIDATOR));
     copierHolder = new CopierHolder(context, allocator, opCodeGen);
     configure(context.getConfig());
   }
@@ -1358,7 +1370,7 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
                    batchesToSpill.size(), bufferedBatches.size() + batchesToSpill.size(),
                    spillBatchRowCount,
                    allocator.getAllocatedMemory(), outputFile);
-      newGroup = new BatchGroup.SpilledRun(spillSet, outputFile, oContext);
+      newGroup = new BatchGroup.SpilledRun(spillSet, outputFile, spillCompression, oContext);
 
       // The copier will merge records from the buffered batches into
       // the outputContainer up to targetRecordCount number of rows.
@@ -1455,6 +1467,8 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     }
     stats.setLongStat(Metric.SPILL_MB,
         (int) Math.round( spillSet.getWriteBytes() / 1024.0D / 1024.0 ) );
+    stats.setLongStat(Metric.SPILL_UNCOMPRESSED_BYTES, spillSet.getUncompressedWriteBytes());
+    stats.setLongStat(Metric.SPILL_COMPRESSED_BYTES, spillSet.getWriteBytes());
     RuntimeException ex = null;
     try {
       if (bufferedBatches != null) {
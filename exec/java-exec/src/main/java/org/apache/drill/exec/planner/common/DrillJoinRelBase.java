@@ -25,6 +25,7 @@ import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.expr.holders.IntHolder;
 import org.apache.drill.exec.planner.cost.DrillCostBase;
+import org.apache.drill.exec.planner.cost.DrillRelMdSelectivity;
 import org.apache.drill.exec.physical.impl.join.JoinUtils;
 import org.apache.drill.exec.physical.impl.join.JoinUtils.JoinCategory;
 import org.apache.drill.exec.planner.cost.DrillCostBase.DrillCostFactory;
@@ -97,9 +98,15 @@ public abstract class DrillJoinRelBase extends Join implements DrillRelNode {
   public double getRows() {
     if (this.condition.isAlwaysTrue()) {
       return joinRowFactor * this.getLeft().getRows() * this.getRight().getRows();
-    } else {
-      return joinRowFactor * Math.max(this.getLeft().getRows(), this.getRight().getRows());
     }
+    if (joinType == JoinRelType.INNER) {
+      // with statistics on the join keys, estimate from their number of distinct values
+      final Double selectivity = DrillRelMdSelectivity.getJoinSelectivity(this, condition);
+      if (selectivity != null) {
+        return Math.max(1.0, selectivity * this.getLeft().getRows() * this.getRight().getRows());
+      }
+    }
+    return joinRowFactor * Math.max(this.getLeft().getRows(), this.getRight().getRows());
   }
 
   /**
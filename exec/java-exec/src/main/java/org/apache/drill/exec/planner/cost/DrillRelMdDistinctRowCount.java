@@ -36,13 +36,36 @@ public class DrillRelMdDistinctRowCount extends RelMdDistinctRowCount{
 
   @Override
   public Double getDistinctRowCount(RelNode rel, ImmutableBitSet groupKey, RexNode predicate) {
-    if (rel instanceof DrillScanRel) {
+    final Double fromStatistics = getDistinctRowCountFromStatistics(rel, groupKey);
+    if (fromStatistics != null) {
+      return fromStatistics;
+    } else if (rel instanceof DrillScanRel) {
       return getDistinctRowCount((DrillScanRel) rel, groupKey, predicate);
     } else {
       return super.getDistinctRowCount(rel, groupKey, predicate);
     }
   }
 
+  /**
+   * Estimates the number of distinct values of the group key of a scan as the
+   * product of the columns' distinct value counts (from ANALYZE TABLE), capped
+   * by the row count.
+   */
+  private Double getDistinctRowCountFromStatistics(RelNode rel, ImmutableBitSet groupKey) {
+    if (groupKey.isEmpty() || TableStatistics.forScan(rel) == null) {
+      return null;
+    }
+    double ndv = 1.0;
+    for (int index : groupKey) {
+      final TableStatistics.ColumnStatistics column = TableStatistics.findColumn(rel, index);
+      if (column == null) {
+        return null;
+      }
+      ndv *= column.getNdv();
+    }
+    return Math.min(ndv, rel.getRows());
+  }
+
   private Double getDistinctRowCount(DrillScanRel scan, ImmutableBitSet groupKey, RexNode predicate) {
     // Consistent with the estimation of Aggregate row count in RelMdRowCount : distinctRowCount = rowCount * 10%.
     return scan.getRows() * 0.1;
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.cost;
+
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.metadata.ReflectiveRelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMdSelectivity;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataProvider;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.util.BuiltInMethod;
+import org.apache.drill.exec.planner.cost.TableStatistics.ColumnStatistics;
+
+/**
+ * Estimates the selectivity of predicates on scans from the statistics
+ * computed by ANALYZE TABLE, falling back to Calcite's guesses for columns
+ * which have none. Also provides the selectivity of equi-join conditions used
+ * by the join row count estimate.
+ */
+public class DrillRelMdSelectivity extends RelMdSelectivity {
+  private static final DrillRelMdSelectivity INSTANCE = new DrillRelMdSelectivity();
+
+  public static final RelMetadataProvider SOURCE =
+      ReflectiveRelMetadataProvider.reflectiveSource(BuiltInMethod.SELECTIVITY.method, INSTANCE);
+
+  @Override
+  public Double getSelectivity(RelNode rel, RexNode predicate) {
+    if (predicate != null && TableStatistics.forScan(rel) != null) {
+      return getScanSelectivity(rel, predicate);
+    }
+    return super.getSelectivity(rel, predicate);
+  }
+
+  /**
+   * Estimates the selectivity of the given join condition relative to the
+   * cross product of the inputs, as the product of 1 / max(ndv(left key),
+   * ndv(right key)) over the equality conditions.
+   *
+   * @return the selectivity, or null unless the condition consists of
+   * equalities only and statistics are known for all the keys
+   */
+  public static Double getJoinSelectivity(Join join, RexNode condition) {
+    final int leftCount = join.getLeft().getRowType().getFieldCount();
+    double selectivity = 1.0;
+    boolean found = false;
+    for (RexNode conjunct : RelOptUtil.conjunctions(condition)) {
+      if (conjunct.getKind() != SqlKind.EQUALS) {
+        return null;
+      }
+      final RexCall call = (RexCall) conjunct;
+      final RexNode op0 = call.getOperands().get(0);
+      final RexNode op1 = call.getOperands().get(1);
+      if (!(op0 instanceof RexInputRef) || !(op1 instanceof RexInputRef)) {
+        return null;
+      }
+      int left = ((RexInputRef) op0).getIndex();
+      int right = ((RexInputRef) op1).getIndex();
+      if (left > right) {
+        final int tmp = left;
+        left = right;
+        right = tmp;
+      }
+      if (left >= leftCount || right < leftCount) {
+        return null;
+      }
+      final ColumnStatistics leftStats = TableStatistics.findColumn(join.getLeft(), left);
+      final ColumnStatistics rightStats = TableStatistics.findColumn(join.getRight(), right - leftCount);
+      if (leftStats == null || rightStats == null) {
+        return null;
+      }
+      selectivity *= leftStats.getNonNullFraction() * rightStats.getNonNullFraction()
+          / Math.max(leftStats.getNdv(), rightStats.getNdv());
+      found = true;
+    }
+    return found ? selectivity : null;
+  }
+
+  private Double getScanSelectivity(RelNode scan, RexNode predicate) {
+    double selectivity = 1.0;
+    for (RexNode conjunct : RelOptUtil.conjunctions(predicate)) {
+      final Double estimate = estimate(scan, conjunct);
+      selectivity *= estimate != null ? estimate : RelMdUtil.guessSelectivity(conjunct);
+    }
+    return selectivity;
+  }
+
+  private Double estimate(RelNode scan, RexNode conjunct) {
+    if (!(conjunct instanceof RexCall)) {
+      return null;
+    }
+    final RexCall call = (RexCall) conjunct;
+    SqlKind kind = call.getKind();
+    if (kind == SqlKind.IS_NULL || kind == SqlKind.IS_NOT_NULL) {
+      final ColumnStatistics column = findColumn(scan, call.getOperands().get(0));
+      if (column == null) {
+        return null;
+      }
+      final double nonNull = column.getNonNullFraction();
+      return kind == SqlKind.IS_NULL ? 1.0 - nonNull : nonNull;
+    }
+    if (call.getOperands().size() != 2) {
+      return null;
+    }
+    RexNode ref = call.getOperands().get(0);
+    RexNode literal = call.getOperands().get(1);
+    if (ref instanceof RexLiteral) {
+      ref = literal;
+      literal = call.getOperands().get(0);
+      kind = reverse(kind);
+    }
+    final ColumnStatistics column = findColumn(scan, ref);
+    if (column == null || !(literal instanceof RexLiteral)) {
+      return null;
+    }
+    switch (kind) {
+      case EQUALS:
+        return column.getNonNullFraction() / column.getNdv();
+      case NOT_EQUALS:
+        return column.getNonNullFraction() * (1.0 - 1.0 / column.getNdv());
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        final Object value = ((RexLiteral) literal).getValue();
+        if (!(value instanceof Number)) {
+          return null;
+        }
+        final Double below = column.getFractionBelow(((Number) value).doubleValue());
+        if (below == null) {
+          return null;
+        }
+        final boolean less = kind == SqlKind.LESS_THAN || kind == SqlKind.LESS_THAN_OR_EQUAL;
+        return column.getNonNullFraction() * (less ? below : 1.0 - below);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return the comparison which holds when the operands are swapped
+   */
+  private static SqlKind reverse(SqlKind kind) {
+    switch (kind) {
+      case LESS_THAN:
+        return SqlKind.GREATER_THAN;
+      case LESS_THAN_OR_EQUAL:
+        return SqlKind.GREATER_THAN_OR_EQUAL;
+      case GREATER_THAN:
+        return SqlKind.LESS_THAN;
+      case GREATER_THAN_OR_EQUAL:
+        return SqlKind.LESS_THAN_OR_EQUAL;
+      default:
+        return kind;
+    }
+  }
+
+  private static ColumnStatistics findColumn(RelNode scan, RexNode ref) {
+    if (ref.getKind() == SqlKind.CAST) {
+      ref = ((RexCall) ref).getOperands().get(0);
+    }
+    if (!(ref instanceof RexInputRef)) {
+      return null;
+    }
+    return TableStatistics.findColumn(scan, ((RexInputRef) ref).getIndex());
+  }
+}
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.cost;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.calcite.plan.hep.HepRelVertex;
+import org.apache.calcite.plan.volcano.RelSubset;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.drill.exec.physical.base.GroupScan;
+import org.apache.drill.exec.planner.logical.DrillScanRel;
+import org.apache.drill.exec.planner.physical.PrelUtil;
+import org.apache.drill.exec.planner.physical.ScanPrel;
+import org.apache.drill.exec.store.parquet.ParquetGroupScan;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+
+/**
+ * Table and column statistics computed by ANALYZE TABLE. The statistics are
+ * stored as JSON records in the {@link #STATISTICS_DIRECTORY} directory of the
+ * table: for each column one "summary" record with the row count, the number
+ * of non-null values, min/max and the HyperLogLog registers' sum, and for
+ * numeric columns one "histogram" record per equi-depth histogram bucket.
+ */
+public class TableStatistics {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TableStatistics.class);
+
+  public static final String STATISTICS_DIRECTORY = ".stats.drill";
+
+  /** Number of hash bits used to pick a HyperLogLog register (2^11 registers). */
+  public static final int HLL_PRECISION = 11;
+  public static final int HISTOGRAM_BUCKETS = 10;
+
+  public static final String KIND_SUMMARY = "summary";
+  public static final String KIND_HISTOGRAM = "histogram";
+
+  public static final String COLUMN = "column";
+  public static final String KIND = "kind";
+  public static final String ROW_COUNT = "row_count";
+  public static final String NON_NULL_COUNT = "non_null_count";
+  public static final String MIN_VALUE = "min_value";
+  public static final String MAX_VALUE = "max_value";
+  public static final String HLL_SUM = "hll_sum";
+  public static final String HLL_BUCKETS = "hll_buckets";
+  public static final String BUCKET = "bucket";
+  public static final String UPPER_BOUND = "upper_bound";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** Used to stop walking the plan below a filter or project at some point. */
+  private static final int MAX_DEPTH = 16;
+
+  private final Map<String, ColumnStatistics> columns = Maps.newHashMap();
+  private double rowCount = -1;
+
+  private TableStatistics() { }
+
+  /**
+   * @return the number of rows of the table at the time it was analyzed, or -1
+   * if unknown
+   */
+  public double getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return the statistics of the given column (case-insensitive), or null if
+   * the column was not analyzed
+   */
+  public ColumnStatistics getColumn(String name) {
+    return columns.get(name.toLowerCase());
+  }
+
+  /**
+   * Statistics of one column.
+   */
+  public static class ColumnStatistics {
+    private double rowCount;
+    private double nonNullCount;
+    private Double min;
+    private Double max;
+    private double hllSum;
+    private long hllBuckets;
+    private final List<double[]> histogram = new ArrayList<>();
+    private double[] bounds;
+    private double[] depths;
+
+    public double getRowCount() {
+      return rowCount;
+    }
+
+    public double getNonNullCount() {
+      return nonNullCount;
+    }
+
+    public double getNonNullFraction() {
+      return rowCount <= 0 ? 1.0 : nonNullCount / rowCount;
+    }
+
+    public Double getMin() {
+      return min;
+    }
+
+    public Double getMax() {
+      return max;
+    }
+
+    /**
+     * @return the estimated number of distinct non-null values, from the
+     * HyperLogLog registers; at least one
+     */
+    public double getNdv() {
+      final double m = 1 << HLL_PRECISION;
+      final double zeros = m - hllBuckets;
+      final double alpha = 0.7213 / (1 + 1.079 / m);
+      double estimate = alpha * m * m / (hllSum + zeros);
+      if (estimate <= 2.5 * m && zeros > 0) {
+        // small range correction (linear counting)
+        estimate = m * Math.log(m / zeros);
+      }
+      return Math.max(1.0, Math.min(estimate, nonNullCount));
+    }
+
+    /**
+     * Estimates the fraction of the non-null values which are below (or equal
+     * to) the given value.
+     *
+     * @return the fraction, or null if the column has no numeric range
+     */
+    public Double getFractionBelow(double value) {
+      if (bounds != null && bounds.length > 0 && min != null) {
+        double lower = min;
+        double seen = 0;
+        for (int i = 0; i < bounds.length; i++) {
+          if (value < bounds[i]) {
+            final double width = bounds[i] - lower;
+            final double part = width <= 0 || value < lower ? 0 : (value - lower) / width;
+            return (seen + part * depths[i]) / nonNullCount;
+          }
+          seen += depths[i];
+          lower = bounds[i];
+        }
+        return 1.0;
+      }
+      if (min == null || max == null) {
+        return null;
+      }
+      if (value < min) {
+        return 0.0;
+      } else if (value >= max || max.doubleValue() == min.doubleValue()) {
+        return 1.0;
+      }
+      return (value - min) / (max - min);
+    }
+
+    private void finish() {
+      if (histogram.isEmpty() || nonNullCount <= 0) {
+        return;
+      }
+      Collections.sort(histogram, new Comparator<double[]>() {
+        @Override
+        public int compare(double[] o1, double[] o2) {
+          return Double.compare(o1[0], o2[0]);
+        }
+      });
+      bounds = new double[histogram.size()];
+      depths = new double[histogram.size()];
+      for (int i = 0; i < bounds.length; i++) {
+        bounds[i] = histogram.get(i)[1];
+        depths[i] = histogram.get(i)[2];
+      }
+    }
+  }
+
+  /**
+   * Reads the statistics of the table rooted at the given directory.
+   *
+   * @return the statistics, or null if the table was never analyzed
+   */
+  public static TableStatistics read(FileSystem fs, Path tableRoot) throws IOException {
+    final Path statsDir = new Path(tableRoot, STATISTICS_DIRECTORY);
+    if (!fs.exists(statsDir) || !fs.isDirectory(statsDir)) {
+      return null;
+    }
+    final TableStatistics stats = new TableStatistics();
+    for (FileStatus status : fs.listStatus(statsDir)) {
+      if (!status.isFile() || !status.getPath().getName().endsWith(".json")) {
+        continue;
+      }
+      try (InputStream is = fs.open(status.getPath());
+           MappingIterator<JsonNode> records = MAPPER.readerFor(JsonNode.class).readValues(is)) {
+        while (records.hasNext()) {
+          stats.add(records.next());
+        }
+      }
+    }
+    for (ColumnStatistics column : stats.columns.values()) {
+      column.finish();
+    }
+    logger.debug("Read statistics of {} columns from {}", stats.columns.size(), statsDir);
+    return stats.columns.isEmpty() ? null : stats;
+  }
+
+  private void add(JsonNode record) {
+    if (!record.hasNonNull(COLUMN) || !record.hasNonNull(KIND)) {
+      return;
+    }
+    final String name = record.get(COLUMN).asText().toLowerCase();
+    ColumnStatistics column = columns.get(name);
+    if (column == null) {
+      column = new ColumnStatistics();
+      columns.put(name, column);
+    }
+    final String kind = record.get(KIND).asText();
+    if (KIND_SUMMARY.equals(kind)) {
+      column.rowCount = record.path(ROW_COUNT).asDouble();
+      column.nonNullCount = record.path(NON_NULL_COUNT).asDouble();
+      column.min = record.hasNonNull(MIN_VALUE) ? record.get(MIN_VALUE).asDouble() : null;
+      column.max = record.hasNonNull(MAX_VALUE) ? record.get(MAX_VALUE).asDouble() : null;
+      column.hllSum = record.path(HLL_SUM).asDouble();
+      column.hllBuckets = record.path(HLL_BUCKETS).asLong();
+      rowCount = Math.max(rowCount, column.rowCount);
+    } else if (KIND_HISTOGRAM.equals(kind) && record.hasNonNull(UPPER_BOUND)) {
+      column.histogram.add(new double[] {
+          record.path(BUCKET).asDouble(), record.get(UPPER_BOUND).asDouble(), record.path(NON_NULL_COUNT).asDouble()});
+    }
+  }
+
+  /**
+   * @return the statistics of the table read by the given scan, or null if the
+   * table has none or use of statistics is disabled
+   */
+  public static TableStatistics forScan(RelNode rel) {
+    final GroupScan groupScan;
+    if (rel instanceof DrillScanRel) {
+      groupScan = ((DrillScanRel) rel).getGroupScan();
+    } else if (rel instanceof ScanPrel) {
+      groupScan = ((ScanPrel) rel).getGroupScan();
+    } else {
+      return null;
+    }
+    if (!(groupScan instanceof ParquetGroupScan)
+        || !PrelUtil.getPlannerSettings(rel.getCluster()).useStatistics()) {
+      return null;
+    }
+    return ((ParquetGroupScan) groupScan).getTableStatistics();
+  }
+
+  /**
+   * Finds the statistics of the column which provides the given field of the
+   * given relational expression, looking through projects and filters down to
+   * the scan.
+   *
+   * @return the column statistics, or null if unknown
+   */
+  public static ColumnStatistics findColumn(RelNode rel, int index) {
+    for (int depth = 0; rel != null && depth < MAX_DEPTH; depth++) {
+      if (rel instanceof RelSubset) {
+        final RelSubset subset = (RelSubset) rel;
+        rel = subset.getBest() != null ? subset.getBest()
+            : subset.getRelList().isEmpty() ? null : subset.getRelList().get(0);
+      } else if (rel instanceof HepRelVertex) {
+        rel = ((HepRelVertex) rel).getCurrentRel();
+      } else if (rel instanceof Project) {
+        final RexNode expr = ((Project) rel).getProjects().get(index);
+        if (!(expr instanceof RexInputRef)) {
+          return null;
+        }
+        index = ((RexInputRef) expr).getIndex();
+        rel = ((Project) rel).getInput();
+      } else if (rel instanceof Filter) {
+        rel = ((Filter) rel).getInput();
+      } else {
+        final TableStatistics stats = forScan(rel);
+        if (stats == null) {
+          return null;
+        }
+        return stats.getColumn(rel.getRowType().getFieldNames().get(index));
+      }
+    }
+    return null;
+  }
+}
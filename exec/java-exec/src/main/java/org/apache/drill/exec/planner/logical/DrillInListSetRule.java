@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.logical;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptRuleOperand;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.NlsString;
+import org.apache.drill.exec.expr.fn.impl.InSetFunctionHelpers;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.planner.physical.PrelUtil;
+import org.apache.drill.exec.planner.sql.DrillSqlOperator;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Rewrites the join of a column with the distinct values of a constant list, which is how IN lists of at least
+ * planner.in_subquery_threshold values are converted, into a filter looking the column up in a hash set of the
+ * values (see {@link org.apache.drill.exec.physical.impl.filter.InListRewriter}). The values joined are projected
+ * as the column, cast to their type, since they are equal to it.
+ * <p>
+ * The types of the columns are usually not known when planning: a filter whose column turns out not to have the
+ * type of the values compares it with each of them instead. NOT IN lists are planned as outer joins and are left
+ * as they are.
+ */
+public class DrillInListSetRule extends RelOptRule {
+
+  public static final RelOptRule INSTANCE = new DrillInListSetRule(
+      RelOptHelper.some(DrillJoinRel.class, RelOptHelper.any(RelNode.class),
+          RelOptHelper.some(DrillAggregateRel.class, RelOptHelper.any(DrillValuesRel.class))),
+      "DrillInListSetRule");
+
+  private DrillInListSetRule(RelOptRuleOperand operand, String description) {
+    super(operand, description);
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    final DrillJoinRel join = call.rel(0);
+    final DrillAggregateRel aggregate = call.rel(2);
+    final DrillValuesRel values = call.rel(3);
+    final PlannerSettings settings = PrelUtil.getPlannerSettings(call.getPlanner());
+    return settings.isInListSetEnabled()
+        && join.getJoinType() == JoinRelType.INNER
+        && values.getRowType().getFieldCount() == 1
+        && aggregate.getGroupSet().cardinality() == 1
+        && aggregate.getAggCallList().isEmpty()
+        && values.getTuples().size() >= settings.getInListSetThreshold();
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    final DrillJoinRel join = call.rel(0);
+    final RelNode left = call.rel(1);
+    final DrillValuesRel values = call.rel(3);
+
+    final List<Integer> leftKeys = Lists.newArrayList();
+    final List<Integer> rightKeys = Lists.newArrayList();
+    final List<Boolean> filterNulls = Lists.newArrayList();
+    final RexNode remaining = RelOptUtil.splitJoinCondition(left, join.getRight(), join.getCondition(), leftKeys,
+        rightKeys, filterNulls);
+    if (!remaining.isAlwaysTrue() || leftKeys.size() != 1 || !filterNulls.get(0)) {
+      return;
+    }
+
+    final List<Long> numbers = Lists.newArrayList();
+    final List<String> strings = Lists.newArrayList();
+    for (List<RexLiteral> tuple : values.getTuples()) {
+      if (!addValue(tuple.get(0), numbers, strings)) {
+        return;
+      }
+    }
+    final String function;
+    final List<String> encoded;
+    if (strings.isEmpty()) {
+      function = "in_number_set";
+      encoded = InSetFunctionHelpers.encodeNumbers(numbers);
+    } else if (numbers.isEmpty()) {
+      function = "in_string_set";
+      encoded = InSetFunctionHelpers.encodeStrings(strings);
+    } else {
+      return;
+    }
+
+    final RexBuilder rexBuilder = join.getCluster().getRexBuilder();
+    final RelDataType booleanType = rexBuilder.getTypeFactory().createTypeWithNullability(
+        rexBuilder.getTypeFactory().createSqlType(SqlTypeName.BOOLEAN), true);
+    final DrillSqlOperator operator = new DrillSqlOperator(function, 2, true, booleanType, false);
+    final RexNode key = rexBuilder.makeInputRef(left, leftKeys.get(0));
+    final List<RexNode> lookups = Lists.newArrayList();
+    for (String valueList : encoded) {
+      lookups.add(rexBuilder.makeCall(operator, key, rexBuilder.makeLiteral(valueList)));
+    }
+    final RelNode filter = DrillFilterRel.create(left, RexUtil.composeDisjunction(rexBuilder, lookups, false));
+
+    final List<RexNode> exprs = new ArrayList<>();
+    for (int i = 0; i < left.getRowType().getFieldCount(); i++) {
+      exprs.add(rexBuilder.makeInputRef(left, i));
+    }
+    final RelDataType valueType = values.getRowType().getFieldList().get(0).getType();
+    exprs.add(key.getType().equals(valueType) ? key : rexBuilder.makeCast(valueType, key));
+    call.transformTo(DrillProjectRel.create(join.getCluster(), join.getTraitSet(), filter, exprs, join.getRowType()));
+  }
+
+  /**
+   * Adds an integer or string literal to the values of its kind.
+   *
+   * @return false if the literal is of another type, or null
+   */
+  private static boolean addValue(RexLiteral literal, List<Long> numbers, List<String> strings) {
+    if (RexLiteral.isNullLiteral(literal)) {
+      return false;
+    }
+    switch (literal.getType().getSqlTypeName()) {
+    case TINYINT:
+    case SMALLINT:
+    case INTEGER:
+    case BIGINT:
+      numbers.add(((BigDecimal) literal.getValue()).longValue());
+      return true;
+    case CHAR:
+    case VARCHAR:
+      strings.add(((NlsString) literal.getValue()).getValue());
+      return true;
+    default:
+      return false;
+    }
+  }
+}
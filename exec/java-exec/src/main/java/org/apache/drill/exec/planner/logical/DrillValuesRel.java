@@ -62,6 +62,7 @@ public class DrillValuesRel extends AbstractRelNode implements DrillRel {
 
   private static final long MILLIS_IN_DAY = 1000*60*60*24;
 
+  private final ImmutableList<ImmutableList<RexLiteral>> tuples;
   private final JSONOptions options;
   private final double rowCount;
 
@@ -71,6 +72,7 @@ public class DrillValuesRel extends AbstractRelNode implements DrillRel {
     verifyRowType(tuples, rowType);
 
     this.rowType = rowType;
+    this.tuples = tuples;
     this.rowCount = tuples.size();
 
     try{
@@ -81,8 +83,10 @@ public class DrillValuesRel extends AbstractRelNode implements DrillRel {
 
   }
 
-  private DrillValuesRel(RelOptCluster cluster, RelDataType rowType, RelTraitSet traits, JSONOptions options, double rowCount){
+  private DrillValuesRel(RelOptCluster cluster, RelDataType rowType, ImmutableList<ImmutableList<RexLiteral>> tuples,
+      RelTraitSet traits, JSONOptions options, double rowCount){
     super(cluster, traits);
+    this.tuples = tuples;
     this.options = options;
     this.rowCount = rowCount;
     this.rowType = rowType;
@@ -112,7 +116,7 @@ public class DrillValuesRel extends AbstractRelNode implements DrillRel {
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
     assert inputs.isEmpty();
-    return new DrillValuesRel(getCluster(), rowType, traitSet, options, rowCount);
+    return new DrillValuesRel(getCluster(), rowType, tuples, traitSet, options, rowCount);
   }
 
   @Override
@@ -122,6 +126,10 @@ public class DrillValuesRel extends AbstractRelNode implements DrillRel {
           .build();
   }
 
+  public ImmutableList<ImmutableList<RexLiteral>> getTuples() {
+    return tuples;
+  }
+
   public JSONOptions getTuplesAsJsonOptions() throws IOException {
     return options;
   }
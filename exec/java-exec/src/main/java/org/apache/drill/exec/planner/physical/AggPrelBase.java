@@ -51,7 +51,28 @@ import java.util.List;
 
 public abstract class AggPrelBase extends DrillAggregateRelBase implements Prel {
 
-  protected static enum OperatorPhase {PHASE_1of1, PHASE_1of2, PHASE_2of2};
+  public static enum OperatorPhase {
+    PHASE_1of1(false, true),
+    PHASE_1of2(true, true),
+    PHASE_2of2(true, false);
+
+    private final boolean hasTwo;
+    private final boolean is1st;
+
+    OperatorPhase(boolean hasTwo, boolean is1st) {
+      this.hasTwo = hasTwo;
+      this.is1st = is1st;
+    }
+
+    /** True if this phase is part of a two-phase aggregation plan. */
+    public boolean hasTwo() { return hasTwo; }
+
+    /** True if this phase is the first (or only) phase of the aggregation. */
+    public boolean is1st() { return is1st; }
+
+    /** True if this phase is the second phase of a two-phase aggregation. */
+    public boolean is2nd() { return !is1st; }
+  };
 
   protected OperatorPhase operPhase = OperatorPhase.PHASE_1of1 ; // default phase
   protected List<NamedExpression> keys = Lists.newArrayList();
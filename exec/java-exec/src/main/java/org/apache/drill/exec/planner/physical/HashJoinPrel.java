@@ -21,9 +21,19 @@ import java.io.IOException;
 import java.util.List;
 
 import org.apache.calcite.rel.core.Join;
+import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.logical.data.JoinCondition;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.base.AbstractSingle;
+import org.apache.drill.exec.physical.base.Exchange;
+import org.apache.drill.exec.physical.base.GroupScan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.config.Filter;
 import org.apache.drill.exec.physical.config.HashJoinPOP;
+import org.apache.drill.exec.physical.config.Project;
+import org.apache.drill.exec.physical.config.RuntimeFilterDef;
+import org.apache.drill.exec.physical.config.SelectionVectorRemover;
 import org.apache.drill.exec.physical.impl.join.JoinUtils;
 import org.apache.drill.exec.physical.impl.join.JoinUtils.JoinCategory;
 import org.apache.drill.exec.planner.cost.DrillCostBase.DrillCostFactory;
@@ -36,6 +46,7 @@ import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
 
 import com.google.common.collect.Lists;
 
@@ -113,10 +124,63 @@ public class HashJoinPrel  extends JoinPrel {
 
     buildJoinConditions(conditions, leftFields, rightFields, leftKeys, rightKeys);
 
-    HashJoinPOP hjoin = new HashJoinPOP(leftPop, rightPop, conditions, jtype);
+    List<RuntimeFilterDef> runtimeFilters = Lists.newArrayList();
+    if (PrelUtil.getSettings(getCluster()).getOptions().getOption(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_VALIDATOR) &&
+        (jtype == JoinRelType.INNER || jtype == JoinRelType.RIGHT)) {
+      for (int i = 0; i < conditions.size(); i++) {
+        final JoinCondition condition = conditions.get(i);
+        if (!SqlKind.EQUALS.toString().equals(condition.getRelationship())) {
+          continue;
+        }
+        final RuntimeFilterDef filter = findProbeScanColumn(leftPop, leftFields.get(leftKeys.get(i)), i);
+        if (filter != null) {
+          runtimeFilters.add(filter);
+        }
+      }
+    }
+
+    HashJoinPOP hjoin = new HashJoinPOP(leftPop, rightPop, conditions, jtype, runtimeFilters);
     return creator.addMetadata(this, hjoin);
   }
 
+  /**
+   * Follows a probe side key column down through projects, filters and
+   * exchanges to the scan that produces it. Below an exchange, the scan runs
+   * in another major fragment than the join: the major fragment id is the
+   * upper half of the operator ids the planner assigns.
+   *
+   * @return the runtime filter for the key, or null if the key does not come
+   * straight from a scan column
+   */
+  private static RuntimeFilterDef findProbeScanColumn(PhysicalOperator op, String column, int keyIndex) {
+    while (true) {
+      if (op instanceof GroupScan) {
+        return new RuntimeFilterDef(keyIndex, op.getOperatorId() >> 16, Short.MAX_VALUE & op.getOperatorId(), column);
+      } else if (op instanceof Filter || op instanceof SelectionVectorRemover) {
+        op = ((AbstractSingle) op).getChild();
+      } else if (op instanceof Exchange) {
+        op = ((Exchange) op).getChild();
+      } else if (op instanceof Project) {
+        String source = null;
+        for (NamedExpression expr : ((Project) op).getExprs()) {
+          if (expr.getRef().getRootSegment().getPath().equalsIgnoreCase(column)) {
+            if (expr.getExpr() instanceof SchemaPath && ((SchemaPath) expr.getExpr()).isSimplePath()) {
+              source = ((SchemaPath) expr.getExpr()).getRootSegment().getPath();
+            }
+            break;
+          }
+        }
+        if (source == null) {
+          return null;
+        }
+        column = source;
+        op = ((Project) op).getChild();
+      } else {
+        return null;
+      }
+    }
+  }
+
   public void setSwapped(boolean swapped) {
     this.swapped = swapped;
   }
@@ -104,6 +104,31 @@ public class PlannerSettings implements Context{
   public static final String PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD_KEY = "planner.store.parquet.rowgroup.filter.pushdown.threshold";
   public static final PositiveLongValidator PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD = new PositiveLongValidator(PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD_KEY,
       Long.MAX_VALUE, 10000);
+  /**
+   * Whether Parquet scans re-evaluate the pushed filter against the row group statistics of the footers at
+   * execution time, skipping the row groups which cannot match.
+   */
+  public static final String PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION_KEY = "planner.store.parquet.rowgroup.filter.pushdown.execution";
+  public static final BooleanValidator PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION = new BooleanValidator(PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION_KEY, true);
+  public static final String USE_STATISTICS_KEY = "planner.use_statistics";
+  public static final BooleanValidator USE_STATISTICS = new BooleanValidator(USE_STATISTICS_KEY, true);
+  /**
+   * Whether a project over a filter is planned as a single operator, which writes the projected values
+   * of the records passing the filter instead of copying them through a selection vector remover first.
+   */
+  public static final String FILTER_PROJECT_FUSION_KEY = "planner.enable_filter_project_fusion";
+  public static final BooleanValidator FILTER_PROJECT_FUSION = new BooleanValidator(FILTER_PROJECT_FUSION_KEY, false);
+  /**
+   * Whether filters look up the values of the columns compared with at least planner.in_list_set_threshold
+   * constants, as IN lists shorter than planner.in_subquery_threshold are, in a hash set of the constants.
+   * Only columns whose type at execution time matches the type of the constants are looked up this way.
+   * Longer IN lists, planned as joins with the list values, are rewritten into such lookups too.
+   */
+  public static final String IN_LIST_SET_KEY = "planner.enable_in_list_set";
+  public static final BooleanValidator IN_LIST_SET = new BooleanValidator(IN_LIST_SET_KEY, false);
+  public static final String IN_LIST_SET_THRESHOLD_KEY = "planner.in_list_set_threshold";
+  public static final PositiveLongValidator IN_LIST_SET_THRESHOLD = new PositiveLongValidator(IN_LIST_SET_THRESHOLD_KEY,
+      Integer.MAX_VALUE, 10);
 
 
   public OptionManager options = null;
@@ -202,6 +227,14 @@ public class PlannerSettings implements Context{
 
   public boolean isHepOptEnabled() { return options.getOption(HEP_OPT.getOptionName()).bool_val;}
 
+  public boolean isInListSetEnabled() {
+    return options.getOption(IN_LIST_SET);
+  }
+
+  public long getInListSetThreshold() {
+    return options.getOption(IN_LIST_SET_THRESHOLD);
+  }
+
   public double getHashJoinSwapMarginFactor() {
     return options.getOption(HASH_JOIN_SWAP_MARGIN_FACTOR.getOptionName()).float_val / 100d;
   }
@@ -258,10 +291,22 @@ public class PlannerSettings implements Context{
     return options.getOption(PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING);
   }
 
+  public boolean isParquetRowGroupFilterPushdownExecutionEnabled() {
+    return options.getOption(PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION);
+  }
+
   public long getParquetRowGroupFilterPushDownThreshold() {
     return options.getOption(PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD);
   }
 
+  public boolean useStatistics() {
+    return options.getOption(USE_STATISTICS);
+  }
+
+  public boolean isFilterProjectFusionEnabled() {
+    return options.getOption(FILTER_PROJECT_FUSION);
+  }
+
   @Override
   public <T> T unwrap(Class<T> clazz) {
     if(clazz == PlannerSettings.class){
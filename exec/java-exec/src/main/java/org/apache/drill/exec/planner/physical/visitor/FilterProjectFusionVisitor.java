@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.physical.visitor;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
+import org.apache.drill.exec.planner.StarColumnHelper;
+import org.apache.drill.exec.planner.physical.FilterPrel;
+import org.apache.drill.exec.planner.physical.FilterProjectPrel;
+import org.apache.drill.exec.planner.physical.Prel;
+import org.apache.drill.exec.planner.physical.ProjectPrel;
+import org.apache.drill.exec.planner.physical.SelectionVectorRemoverPrel;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Replaces a project over the selection vector remover of a filter with a {@link FilterProjectPrel},
+ * which writes the projected values of the records passing the condition without copying them first.
+ * Projects with star columns or functions with complex output are left as they are, since they rely
+ * on the transfers and writers of the project operator.
+ */
+public class FilterProjectFusionVisitor extends BasePrelVisitor<Prel, Void, RuntimeException> {
+
+  private final FunctionImplementationRegistry funcReg;
+
+  private FilterProjectFusionVisitor(FunctionImplementationRegistry funcReg) {
+    this.funcReg = funcReg;
+  }
+
+  public static Prel fuseFilterProjects(Prel prel, FunctionImplementationRegistry funcReg) {
+    return prel.accept(new FilterProjectFusionVisitor(funcReg), null);
+  }
+
+  @Override
+  public Prel visitPrel(Prel prel, Void value) throws RuntimeException {
+    List<RelNode> children = Lists.newArrayList();
+    for (Prel child : prel) {
+      children.add(child.accept(this, value));
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), children);
+  }
+
+  @Override
+  public Prel visitProject(ProjectPrel prel, Void value) throws RuntimeException {
+    Prel child = ((Prel) prel.getInput()).accept(this, value);
+    if (child instanceof SelectionVectorRemoverPrel
+        && ((SelectionVectorRemoverPrel) child).getInput() instanceof FilterPrel
+        && canFuse(prel)) {
+      FilterPrel filter = (FilterPrel) ((SelectionVectorRemoverPrel) child).getInput();
+      return new FilterProjectPrel(prel.getCluster(), prel.getTraitSet(), filter.getInput(), prel.getProjects(),
+          prel.getRowType(), filter.getCondition(), filter.getRows());
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), Collections.<RelNode>singletonList(child));
+  }
+
+  private boolean canFuse(ProjectPrel prel) {
+    if (prel.needsFinalColumnReordering()
+        || StarColumnHelper.containsStarColumn(prel.getRowType())
+        || StarColumnHelper.containsStarColumn(prel.getInput().getRowType())) {
+      return false;
+    }
+    for (RexNode expr : prel.getProjects()) {
+      if (expr instanceof RexCall && funcReg.isFunctionComplexOutput(((RexCall) expr).getOperator().getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
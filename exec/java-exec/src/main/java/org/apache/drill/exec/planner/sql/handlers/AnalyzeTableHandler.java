@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql.handlers;
+
+import static org.apache.drill.exec.planner.cost.TableStatistics.BUCKET;
+import static org.apache.drill.exec.planner.cost.TableStatistics.COLUMN;
+import static org.apache.drill.exec.planner.cost.TableStatistics.HISTOGRAM_BUCKETS;
+import static org.apache.drill.exec.planner.cost.TableStatistics.HLL_BUCKETS;
+import static org.apache.drill.exec.planner.cost.TableStatistics.HLL_PRECISION;
+import static org.apache.drill.exec.planner.cost.TableStatistics.HLL_SUM;
+import static org.apache.drill.exec.planner.cost.TableStatistics.KIND;
+import static org.apache.drill.exec.planner.cost.TableStatistics.KIND_HISTOGRAM;
+import static org.apache.drill.exec.planner.cost.TableStatistics.KIND_SUMMARY;
+import static org.apache.drill.exec.planner.cost.TableStatistics.MAX_VALUE;
+import static org.apache.drill.exec.planner.cost.TableStatistics.MIN_VALUE;
+import static org.apache.drill.exec.planner.cost.TableStatistics.NON_NULL_COUNT;
+import static org.apache.drill.exec.planner.cost.TableStatistics.ROW_COUNT;
+import static org.apache.drill.exec.planner.cost.TableStatistics.UPPER_BOUND;
+import static org.apache.drill.exec.planner.sql.SchemaUtilites.findSchema;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.schema.SchemaPlus;
+import org.apache.calcite.schema.Table;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.tools.RelConversionException;
+import org.apache.calcite.tools.ValidationException;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.logical.FormatPluginConfig;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.planner.cost.TableStatistics;
+import org.apache.drill.exec.planner.logical.DrillRel;
+import org.apache.drill.exec.planner.logical.DrillScreenRel;
+import org.apache.drill.exec.planner.logical.DrillTable;
+import org.apache.drill.exec.planner.logical.DrillWriterRel;
+import org.apache.drill.exec.planner.logical.FileSystemCreateTableEntry;
+import org.apache.drill.exec.planner.physical.Prel;
+import org.apache.drill.exec.planner.sql.DirectPlan;
+import org.apache.drill.exec.planner.sql.SchemaUtilites;
+import org.apache.drill.exec.planner.sql.parser.SqlAnalyzeTable;
+import org.apache.drill.exec.store.StorageStrategy;
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.DrillPathFilter;
+import org.apache.drill.exec.store.dfs.FileSystemConfig;
+import org.apache.drill.exec.store.dfs.FileSystemPlugin;
+import org.apache.drill.exec.store.dfs.FormatPlugin;
+import org.apache.drill.exec.store.dfs.FormatSelection;
+import org.apache.drill.exec.store.dfs.NamedFormatPluginConfig;
+import org.apache.drill.exec.store.parquet.ParquetFormatConfig;
+import org.apache.drill.exec.work.foreman.ForemanSetupException;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Handles ANALYZE TABLE ... COMPUTE STATISTICS. The statistics are computed by
+ * a distributed query over the table whose results are written as JSON to the
+ * {@link TableStatistics#STATISTICS_DIRECTORY} directory of the table, where
+ * the planner picks them up.
+ * <p>
+ * The number of distinct values is estimated with HyperLogLog: rows are
+ * grouped by register (the leading bits of the value's hash), the register
+ * value being the maximum rank of the hashes in the group. Equi-depth
+ * histograms of numeric columns are built with NTILE.
+ */
+public class AnalyzeTableHandler extends CreateTableHandler {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AnalyzeTableHandler.class);
+
+  public AnalyzeTableHandler(SqlHandlerConfig config) {
+    super(config, null);
+  }
+
+  private PhysicalPlan direct(boolean outcome, String message, Object... values) {
+    return DirectPlan.createDirectPlan(context, outcome, String.format(message, values));
+  }
+
+  private PhysicalPlan notSupported(String tbl) {
+    return direct(false, "Table %s does not support statistics. Support is currently limited to directory-based Parquet tables.", tbl);
+  }
+
+  @Override
+  public PhysicalPlan getPlan(SqlNode sqlNode) throws ValidationException, RelConversionException, IOException, ForemanSetupException {
+    final SqlAnalyzeTable analyzeTable = unwrap(sqlNode, SqlAnalyzeTable.class);
+
+    final SchemaPlus schema = findSchema(config.getConverter().getDefaultSchema(), analyzeTable.getSchemaPath());
+    if (schema == null) {
+      return direct(false, "Storage plugin or workspace does not exist [%s]",
+          SchemaUtilites.SCHEMA_PATH_JOINER.join(analyzeTable.getSchemaPath()));
+    }
+
+    final String tableName = analyzeTable.getName();
+    final Table table = schema.getTable(tableName);
+    if (table == null) {
+      return direct(false, "Table %s does not exist.", tableName);
+    }
+    if (!(table instanceof DrillTable) || !(((DrillTable) table).getSelection() instanceof FormatSelection)) {
+      return notSupported(tableName);
+    }
+    final DrillTable drillTable = (DrillTable) table;
+    final FormatSelection formatSelection = (FormatSelection) drillTable.getSelection();
+    final FormatPluginConfig formatConfig = formatSelection.getFormat();
+    if (!((formatConfig instanceof ParquetFormatConfig) ||
+        ((formatConfig instanceof NamedFormatPluginConfig) && ((NamedFormatPluginConfig) formatConfig).name.equals("parquet")))) {
+      return notSupported(tableName);
+    }
+
+    final FileSystemPlugin plugin = (FileSystemPlugin) drillTable.getPlugin();
+    final DrillFileSystem fs = new DrillFileSystem(plugin.getFormatPlugin(formatConfig).getFsConf());
+    final String selectionRoot = formatSelection.getSelection().selectionRoot;
+    if (!fs.getFileStatus(new Path(selectionRoot)).isDirectory()) {
+      return notSupported(tableName);
+    }
+    final FormatPlugin jsonPlugin = plugin.getFormatPlugin("json");
+    if (jsonPlugin == null) {
+      return direct(false, "Storage plugin of table %s has no json format to store statistics with.", tableName);
+    }
+
+    final Map<String, Boolean> columns = getColumns(fs, new Path(selectionRoot), analyzeTable.getFieldNames());
+    if (columns.isEmpty()) {
+      return direct(false, "Table %s has no columns to compute statistics for.", tableName);
+    }
+
+    // drop the statistics of the previous analysis, the writer only adds files
+    final Path statsDir = new Path(selectionRoot, TableStatistics.STATISTICS_DIRECTORY);
+    if (fs.exists(statsDir)) {
+      fs.delete(statsDir, true);
+    }
+
+    final String sql = buildQuery(analyzeTable, columns);
+    logger.debug("Computing statistics of table {} with query: {}", tableName, sql);
+
+    final ConvertedRelNode convertedRelNode = validateAndConvert(config.getConverter().parse(sql));
+    final RelDataType validatedRowType = convertedRelNode.getValidatedRowType();
+    final DrillRel convertedDrel = convertToDrel(convertedRelNode.getConvertedNode());
+    final DrillRel topProject = addRenamedProject(convertedDrel, validatedRowType);
+
+    final List<String> noPartitions = Collections.emptyList();
+    final RelTraitSet traits = convertedDrel.getCluster().traitSet().plus(DrillRel.DRILL_LOGICAL);
+    final DrillWriterRel writerRel = new DrillWriterRel(convertedDrel.getCluster(), traits, topProject,
+        new FileSystemCreateTableEntry((FileSystemConfig) plugin.getConfig(), jsonPlugin, statsDir.toString(),
+            noPartitions, StorageStrategy.PERSISTENT));
+    final RelNode drel = new DrillScreenRel(writerRel.getCluster(), writerRel.getTraitSet(), writerRel);
+
+    final Prel prel = convertToPrel(drel, validatedRowType, noPartitions);
+    logAndSetTextPlan("Drill Physical", prel, logger);
+    final PhysicalOperator pop = convertToPop(prel);
+    final PhysicalPlan plan = convertToPlan(pop);
+    log("Drill Plan", plan, logger);
+    return plan;
+  }
+
+  /**
+   * Reads the columns of the table from the footer of its first Parquet file.
+   * Only top-level, non-repeated primitive columns are analyzed.
+   *
+   * @return the columns to analyze, mapped to whether they are numeric
+   */
+  private Map<String, Boolean> getColumns(DrillFileSystem fs, Path root, List<String> requested) throws IOException {
+    final FileStatus file = findFile(fs, root);
+    if (file == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, Boolean> available = Maps.newLinkedHashMap();
+    final Map<String, String> names = Maps.newHashMap();
+    for (Type field : ParquetFileReader.readFooter(fs.getConf(), file).getFileMetaData().getSchema().getFields()) {
+      if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+        continue;
+      }
+      final PrimitiveType type = field.asPrimitiveType();
+      switch (type.getPrimitiveTypeName()) {
+        case INT32:
+        case INT64:
+          available.put(field.getName(), isInteger(type.getOriginalType()));
+          break;
+        case FLOAT:
+        case DOUBLE:
+          available.put(field.getName(), true);
+          break;
+        case BOOLEAN:
+        case BINARY:
+          available.put(field.getName(), false);
+          break;
+        default:
+          continue;
+      }
+      names.put(field.getName().toLowerCase(), field.getName());
+    }
+    if (requested.isEmpty()) {
+      return available;
+    }
+    final Map<String, Boolean> columns = Maps.newLinkedHashMap();
+    for (String column : requested) {
+      final String name = names.get(column.toLowerCase());
+      if (name == null) {
+        throw UserException.validationError()
+            .message("Cannot compute statistics of column %s: no such column of a supported type.", column)
+            .build(logger);
+      }
+      columns.put(name, available.get(name));
+    }
+    return columns;
+  }
+
+  private static boolean isInteger(OriginalType originalType) {
+    if (originalType == null) {
+      return true;
+    }
+    switch (originalType) {
+      case INT_8:
+      case INT_16:
+      case INT_32:
+      case INT_64:
+      case UINT_8:
+      case UINT_16:
+      case UINT_32:
+      case UINT_64:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static FileStatus findFile(DrillFileSystem fs, Path dir) throws IOException {
+    final List<FileStatus> dirs = Lists.newArrayList();
+    for (FileStatus status : fs.listStatus(dir, new DrillPathFilter())) {
+      if (status.isFile()) {
+        return status;
+      }
+      dirs.add(status);
+    }
+    for (FileStatus status : dirs) {
+      final FileStatus file = findFile(fs, status.getPath());
+      if (file != null) {
+        return file;
+      }
+    }
+    return null;
+  }
+
+  private static String buildQuery(SqlAnalyzeTable analyzeTable, Map<String, Boolean> columns) {
+    final StringBuilder table = new StringBuilder();
+    for (String part : analyzeTable.getSchemaPath()) {
+      table.append(quote(part)).append('.');
+    }
+    table.append(quote(analyzeTable.getName()));
+
+    final List<String> queries = Lists.newArrayList();
+    for (Map.Entry<String, Boolean> column : columns.entrySet()) {
+      queries.add(summaryQuery(table.toString(), column.getKey(), column.getValue()));
+      if (column.getValue()) {
+        queries.add(histogramQuery(table.toString(), column.getKey()));
+      }
+    }
+    return Joiner.on("\nUNION ALL\n").join(queries);
+  }
+
+  /**
+   * Row count, non-null count, min/max and HyperLogLog registers' sum of the
+   * given column.
+   */
+  private static String summaryQuery(String table, String column, boolean numeric) {
+    final String c = quote(column);
+    return String.format("SELECT %s, %s, SUM(cnt) AS %s, SUM(nn) AS %s, %s AS %s, %s AS %s, "
+        + "SUM(POWER(2, -CAST(r AS DOUBLE))) AS %s, COUNT(r) AS %s, CAST(NULL AS INTEGER) AS %s, "
+        + "CAST(NULL AS DOUBLE) AS %s "
+        + "FROM (SELECT COUNT(*) AS cnt, COUNT(h) AS nn, %s MAX(hll_rank(h, %d)) AS r "
+        + "FROM (SELECT %s, CASE WHEN %s IS NULL THEN NULL ELSE hash64(%s) END AS h FROM %s) hashed "
+        + "GROUP BY hll_bucket(h, %d)) registers",
+        header(column, KIND_SUMMARY), quote(KIND), quote(ROW_COUNT), quote(NON_NULL_COUNT),
+        numeric ? "CAST(MIN(mn) AS DOUBLE)" : "CAST(NULL AS DOUBLE)", quote(MIN_VALUE),
+        numeric ? "CAST(MAX(mx) AS DOUBLE)" : "CAST(NULL AS DOUBLE)", quote(MAX_VALUE),
+        quote(HLL_SUM), quote(HLL_BUCKETS), quote(BUCKET), quote(UPPER_BOUND),
+        numeric ? String.format("MIN(%s) AS mn, MAX(%s) AS mx,", c, c) : "", HLL_PRECISION,
+        c, c, c, table, HLL_PRECISION);
+  }
+
+  /**
+   * Equi-depth histogram of the given numeric column: the upper bound and
+   * number of values of each bucket.
+   */
+  private static String histogramQuery(String table, String column) {
+    final String c = quote(column);
+    return String.format("SELECT %s, %s, CAST(NULL AS BIGINT) AS %s, COUNT(*) AS %s, CAST(NULL AS DOUBLE) AS %s, "
+        + "CAST(NULL AS DOUBLE) AS %s, CAST(NULL AS DOUBLE) AS %s, CAST(NULL AS BIGINT) AS %s, "
+        + "CAST(t AS INTEGER) AS %s, CAST(MAX(v) AS DOUBLE) AS %s "
+        + "FROM (SELECT %s AS v, NTILE(%d) OVER (ORDER BY %s) AS t FROM %s WHERE %s IS NOT NULL) tiles "
+        + "GROUP BY t",
+        header(column, KIND_HISTOGRAM), quote(KIND), quote(ROW_COUNT), quote(NON_NULL_COUNT), quote(MIN_VALUE),
+        quote(MAX_VALUE), quote(HLL_SUM), quote(HLL_BUCKETS), quote(BUCKET), quote(UPPER_BOUND),
+        c, HISTOGRAM_BUCKETS, c, table, c);
+  }
+
+  private static String header(String column, String kind) {
+    return String.format("CAST('%s' AS VARCHAR) AS %s, CAST('%s' AS VARCHAR)",
+        column.replace("'", "''"), quote(COLUMN), kind);
+  }
+
+  private static String quote(String identifier) {
+    return "`" + identifier + "`";
+  }
+}
@@ -133,7 +133,7 @@ public class CreateTableHandler extends DefaultSqlHandler {
     return new DrillScreenRel(writerRel.getCluster(), writerRel.getTraitSet(), writerRel);
   }
 
-  private Prel convertToPrel(RelNode drel, RelDataType inputRowType, List<String> partitionColumns)
+  protected Prel convertToPrel(RelNode drel, RelDataType inputRowType, List<String> partitionColumns)
       throws RelConversionException, SqlUnsupportedException {
     Prel prel = convertToPrel(drel);
 
@@ -80,6 +80,7 @@ import org.apache.drill.exec.planner.physical.Prel;
 import org.apache.drill.exec.planner.physical.explain.PrelSequencer;
 import org.apache.drill.exec.planner.physical.visitor.ComplexToJsonPrelVisitor;
 import org.apache.drill.exec.planner.physical.visitor.ExcessiveExchangeIdentifier;
+import org.apache.drill.exec.planner.physical.visitor.FilterProjectFusionVisitor;
 import org.apache.drill.exec.planner.physical.visitor.FinalColumnReorderer;
 import org.apache.drill.exec.planner.physical.visitor.InsertLocalExchangeVisitor;
 import org.apache.drill.exec.planner.physical.visitor.JoinPrelRenameVisitor;
@@ -222,7 +223,7 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
     }
 
     try {
-      final RelNode convertedRelNode;
+      RelNode convertedRelNode;
 
       // HEP Directory pruning .
       final RelNode pruned = transform(PlannerType.HEP_BOTTOM_UP, PlannerPhase.DIRECTORY_PRUNING, relNode);
@@ -231,9 +232,12 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
       if (!context.getPlannerSettings().isHepOptEnabled()) {
         // hep is disabled, use volcano
         convertedRelNode = transform(PlannerType.VOLCANO, PlannerPhase.LOGICAL_PRUNE_AND_JOIN, pruned, logicalTraits);
+        if (context.getPlannerSettings().isInListSetEnabled()) {
+          convertedRelNode = transform(PlannerType.HEP_BOTTOM_UP, PlannerPhase.IN_LIST_SET, convertedRelNode);
+        }
 
       } else {
-        final RelNode intermediateNode2;
+        RelNode intermediateNode2;
         if (context.getPlannerSettings().isHepPartitionPruningEnabled()) {
 
           // hep is enabled and hep pruning is enabled.
@@ -245,6 +249,11 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
           intermediateNode2 = transform(PlannerType.VOLCANO, PlannerPhase.LOGICAL_PRUNE, pruned, logicalTraits);
         }
 
+        // Rewrite the joins with long IN lists, after partition pruning, which does not know the set lookups
+        if (context.getPlannerSettings().isInListSetEnabled()) {
+          intermediateNode2 = transform(PlannerType.HEP_BOTTOM_UP, PlannerPhase.IN_LIST_SET, intermediateNode2);
+        }
+
         // Do Join Planning.
         convertedRelNode = transform(PlannerType.HEP_BOTTOM_UP, PlannerPhase.JOIN_PLANNING, intermediateNode2);
       }
@@ -486,9 +495,10 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
           .getHashJoinSwapMarginFactor()));
     }
 
-    /* Parquet row group filter pushdown in planning time */
+    /* Parquet row group filter pushdown in planning time, or passing the filter to the scan for execution time */
 
-    if (context.getPlannerSettings().isParquetRowGroupFilterPushdownPlanningEnabled()) {
+    if (context.getPlannerSettings().isParquetRowGroupFilterPushdownPlanningEnabled()
+        || context.getPlannerSettings().isParquetRowGroupFilterPushdownExecutionEnabled()) {
       phyRelNode = (Prel) transform(PlannerType.HEP_BOTTOM_UP, PlannerPhase.PHYSICAL_PARTITION_PRUNING, phyRelNode);
     }
 
@@ -556,6 +566,15 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
      */
     phyRelNode = SelectionVectorPrelVisitor.addSelectionRemoversWhereNecessary(phyRelNode);
 
+    /* 7.1)
+     * Fuse each project over the selection vector remover of a filter into a single operator
+     * which only writes the records passing the filter.
+     */
+    if (context.getPlannerSettings().isFilterProjectFusionEnabled()) {
+      phyRelNode = FilterProjectFusionVisitor.fuseFilterProjects(phyRelNode,
+          context.getPlannerSettings().functionImplementationRegistry);
+    }
+
     /* 8.)
      * Finally, Make sure that the no rels are repeats.
      * This could happen in the case of querying the same table twice as Optiq may canonicalize these.
@@ -74,6 +74,14 @@ public class RawFragmentBatch {
     return body == null ? 0 : body.readableBytes();
   }
 
+  /**
+   * @return the size of the body as it was received, which is smaller than
+   * {@link #getByteCount()} if the sender compressed it
+   */
+  public long getWireByteCount() {
+    return header.hasCompressedBodyLength() ? header.getCompressedBodyLength() : getByteCount();
+  }
+
   public boolean isAckSent() {
     return ackSent.get();
   }
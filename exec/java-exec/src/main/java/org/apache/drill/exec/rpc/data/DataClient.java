@@ -104,6 +104,11 @@ public class DataClient extends BasicClient<RpcType, DataClientConnection, BitCl
           handshake.getRpcVersion(), DataRpcConfig.RPC_VERSION));
     }
 
+    // compress only if both ends agree to
+    if (config.isCompressionEnabled() && handshake.getAcceptCompressedBatches()) {
+      connection.enableCompression(config.getCompressionThreshold());
+    }
+
     if (handshake.getAuthenticationMechanismsCount() != 0) { // remote requires authentication
       final SaslClient saslClient;
       try {
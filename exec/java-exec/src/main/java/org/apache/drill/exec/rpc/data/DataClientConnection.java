@@ -36,6 +36,7 @@ public class DataClientConnection extends AbstractClientConnection {
 
   private final DataClient client;
   private final UUID id;
+  private volatile int compressionThreshold = -1;
 
   public DataClientConnection(SocketChannel channel, DataClient client) {
     super(channel, "data client");
@@ -48,6 +49,21 @@ public class DataClientConnection extends AbstractClientConnection {
     return client.getAllocator();
   }
 
+  /**
+   * Compress the record batch bodies of at least the given number of bytes
+   * sent on this connection, as agreed with the server during the handshake.
+   */
+  void enableCompression(int threshold) {
+    compressionThreshold = threshold;
+  }
+
+  /**
+   * @return whether a record batch body of the given length is to be compressed
+   */
+  boolean shouldCompress(long bodyLength) {
+    return compressionThreshold >= 0 && bodyLength >= compressionThreshold;
+  }
+
   public <SEND extends MessageLite, RECEIVE extends MessageLite>
   void send(RpcOutcomeListener<RECEIVE> outcomeListener, RpcType rpcType, SEND protobufBody,
             Class<RECEIVE> clazz, ByteBuf... dataBodies) {
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.rpc.RpcException;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy compression of record batch bodies sent on the data channel. A
+ * compressed body holds the total uncompressed length (an int) followed, for
+ * each buffer of the original body, by the length of its compressed form (an
+ * int) and the compressed bytes. Buffers are compressed one at a time so that
+ * the vectors' buffers need not be copied into one contiguous buffer first.
+ */
+// package private
+final class DataCompression {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataCompression.class);
+
+  private DataCompression() { }
+
+  /**
+   * Compresses the given record batch body.
+   *
+   * @param buffers the body's buffers; left untouched
+   * @param bodyLength the total readable bytes of the buffers
+   * @param allocator allocator for the compressed body
+   * @return the compressed body, or null if compression failed or did not
+   * make the body any smaller
+   */
+  static DrillBuf compress(ByteBuf[] buffers, int bodyLength, BufferAllocator allocator) {
+    int maxLength = 4;
+    for (ByteBuf buffer : buffers) {
+      maxLength += 4 + Snappy.maxCompressedLength(buffer.readableBytes());
+    }
+    final DrillBuf out = allocator.buffer(maxLength);
+    try {
+      out.writeInt(bodyLength);
+      for (ByteBuf buffer : buffers) {
+        final ByteBuffer src = buffer.nioBuffer(buffer.readerIndex(), buffer.readableBytes());
+        final ByteBuffer dst = out.nioBuffer(out.writerIndex() + 4, out.capacity() - out.writerIndex() - 4);
+        final int length = Snappy.compress(src, dst);
+        out.writeInt(length);
+        out.writerIndex(out.writerIndex() + length);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failure while compressing record batch, sending it uncompressed.", e);
+      out.release();
+      return null;
+    }
+    if (out.readableBytes() >= bodyLength) {
+      out.release();
+      return null;
+    }
+    return out;
+  }
+
+  /**
+   * Decompresses a record batch body written by
+   * {@link #compress(ByteBuf[], int, BufferAllocator)}.
+   *
+   * @param in the compressed body; its reference count is not changed
+   * @param allocator allocator for the decompressed body
+   * @return the decompressed body, which the caller must release
+   */
+  static DrillBuf decompress(DrillBuf in, BufferAllocator allocator) throws RpcException {
+    final int bodyLength = in.getInt(in.readerIndex());
+    final DrillBuf out = allocator.buffer(bodyLength);
+    try {
+      int position = in.readerIndex() + 4;
+      final int end = in.writerIndex();
+      while (position < end) {
+        final int length = in.getInt(position);
+        position += 4;
+        final ByteBuffer src = in.nioBuffer(position, length);
+        final ByteBuffer dst = out.nioBuffer(out.writerIndex(), bodyLength - out.writerIndex());
+        out.writerIndex(out.writerIndex() + Snappy.uncompress(src, dst));
+        position += length;
+      }
+    } catch (IOException | RuntimeException e) {
+      out.release();
+      throw new RpcException("Failure while decompressing record batch.", e);
+    }
+    if (out.writerIndex() != bodyLength) {
+      out.release();
+      throw new RpcException(String.format("Decompressed record batch body holds %d bytes, expected %d.",
+          out.writerIndex(), bodyLength));
+    }
+    return out;
+  }
+}
@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.rpc.data;
 
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.DrillbitStartupException;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.rpc.BitConnectionConfig;
@@ -28,11 +30,16 @@ class DataConnectionConfig extends BitConnectionConfig {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataConnectionConfig.class);
 
   private final DataServerRequestHandler handler;
+  private final boolean compressionEnabled;
+  private final int compressionThreshold;
 
   DataConnectionConfig(BufferAllocator allocator, BootStrapContext context, DataServerRequestHandler handler)
       throws DrillbitStartupException {
     super(allocator, context);
     this.handler = handler;
+    final DrillConfig config = context.getConfig();
+    this.compressionEnabled = config.getBoolean(ExecConstants.BIT_DATA_COMPRESSION_ENABLED);
+    this.compressionThreshold = config.getInt(ExecConstants.BIT_DATA_COMPRESSION_THRESHOLD);
   }
 
   @Override
@@ -43,4 +50,19 @@ class DataConnectionConfig extends BitConnectionConfig {
   DataServerRequestHandler getMessageHandler() {
     return handler;
   }
+
+  /**
+   * @return whether this drillbit compresses the record batches it sends, and
+   * accepts compressed record batches, on the data channel
+   */
+  boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  /**
+   * @return the smallest record batch body, in bytes, worth compressing
+   */
+  int getCompressionThreshold() {
+    return compressionThreshold;
+  }
 }
@@ -84,6 +84,7 @@ public class DataServer extends BasicServer<RpcType, DataServerConnection> {
         if (config.getAuthMechanismToUse() != null) {
           builder.addAllAuthenticationMechanisms(config.getAuthProvider().getAllFactoryNames());
         }
+        builder.setAcceptCompressedBatches(config.isCompressionEnabled());
         return builder.build();
       }
 
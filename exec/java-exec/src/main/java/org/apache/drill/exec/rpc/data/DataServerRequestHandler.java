@@ -55,13 +55,18 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
     assert rpcType == BitData.RpcType.REQ_RECORD_BATCH_VALUE;
 
     final FragmentRecordBatch fragmentBatch = RpcBus.get(pBody, FragmentRecordBatch.PARSER);
+
+    // a compressed body is replaced by its decompressed form, which is released once transferred to the receivers
+    final DrillBuf body = fragmentBatch.hasCompressedBodyLength()
+        ? DataCompression.decompress((DrillBuf) dBody, connection.getAllocator())
+        : (DrillBuf) dBody;
     final AckSender ack = new AckSender(sender);
 
     // increment so we don't get false returns.
     ack.increment();
 
     try {
-      final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, (DrillBuf) dBody, ack);
+      final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, body, ack);
       final int targetCount = fragmentBatch.getReceivingMinorFragmentIdCount();
 
       // randomize who gets first transfer (and thus ownership) so memory usage is balanced when we're sharing amongst
@@ -81,6 +86,9 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
 
       // decrement the extra reference we grabbed at the top.
       ack.sendOk();
+      if (body != dBody) {
+        body.release();
+      }
     }
   }
 
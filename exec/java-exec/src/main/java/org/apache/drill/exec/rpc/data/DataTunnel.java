@@ -18,10 +18,13 @@
 package org.apache.drill.exec.rpc.data;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
 
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.proto.BitData.FragmentRecordBatch;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
 import org.apache.drill.exec.record.FragmentWritableBatch;
@@ -40,6 +43,7 @@ public class DataTunnel {
 
   private final DataConnectionManager manager;
   private final Semaphore sendingSemaphore = new Semaphore(3);
+  private final AtomicLong wireBytesSent = new AtomicLong();
 
   // Needed for injecting a test pause
   private boolean isInjectionControlSet;
@@ -96,6 +100,42 @@ public class DataTunnel {
     }
   }
 
+  /**
+   * @return the record batch body bytes sent through this tunnel, after
+   * compression for the batches that were compressed
+   */
+  public long getWireBytesSent() {
+    return wireBytesSent.get();
+  }
+
+  /**
+   * Sends the batch over the given connection, first compressing its body if
+   * the connection calls for it.
+   */
+  private void send(RpcOutcomeListener<Ack> outcomeListener, DataClientConnection connection,
+      FragmentWritableBatch batch) {
+    FragmentRecordBatch header = batch.getHeader();
+    ByteBuf[] buffers = batch.getBuffers();
+    long bodyLength = 0;
+    for (ByteBuf buffer : buffers) {
+      bodyLength += buffer.readableBytes();
+    }
+    if (connection.shouldCompress(bodyLength) && bodyLength <= Integer.MAX_VALUE) {
+      final DrillBuf compressed = DataCompression.compress(buffers, (int) bodyLength, connection.getAllocator());
+      if (compressed != null) {
+        for (ByteBuf buffer : buffers) {
+          buffer.release();
+        }
+        header = header.toBuilder().setCompressedBodyLength(compressed.readableBytes()).build();
+        buffers = new ByteBuf[] { compressed };
+        bodyLength = compressed.readableBytes();
+      }
+    }
+    wireBytesSent.addAndGet(bodyLength);
+    connection.send(new ThrottlingOutcomeListener(outcomeListener), RpcType.REQ_RECORD_BATCH, header, Ack.class,
+        buffers);
+  }
+
   // TODO: This is not used anywhere. Can we remove this method and SendBatchAsyncFuture?
   public DrillRpcFuture<Ack> sendRecordBatch(FragmentContext context, FragmentWritableBatch batch) {
     SendBatchAsyncFuture b = new SendBatchAsyncFuture(batch, context);
@@ -150,7 +190,7 @@ public class DataTunnel {
 
     @Override
     public void doRpcCall(RpcOutcomeListener<Ack> outcomeListener, DataClientConnection connection) {
-      connection.send(new ThrottlingOutcomeListener(outcomeListener), RpcType.REQ_RECORD_BATCH, batch.getHeader(), Ack.class, batch.getBuffers());
+      send(outcomeListener, connection, batch);
     }
 
     @Override
@@ -179,7 +219,7 @@ public class DataTunnel {
 
     @Override
     public void doRpcCall(RpcOutcomeListener<Ack> outcomeListener, DataClientConnection connection) {
-      connection.send(new ThrottlingOutcomeListener(outcomeListener), RpcType.REQ_RECORD_BATCH, batch.getHeader(), Ack.class, batch.getBuffers());
+      send(outcomeListener, connection, batch);
     }
 
     @Override
@@ -41,6 +41,7 @@ import org.apache.drill.exec.rpc.NamedThreadFactory;
 import org.apache.drill.exec.rpc.TransportCheck;
 import org.apache.drill.exec.rpc.security.AuthenticatorProvider;
 import org.apache.drill.exec.rpc.security.AuthenticatorProviderImpl;
+import org.apache.drill.exec.util.filereader.ReadScheduler;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CommonConfigurationKeys;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -68,6 +69,7 @@ public class BootStrapContext implements AutoCloseable {
   private final ExecutorService executor;
   private final ExecutorService scanExecutor;
   private final ExecutorService scanDecodeExecutor;
+  private final ReadScheduler scanReadScheduler;
   private final String hostName;
 
   public BootStrapContext(DrillConfig config, ScanResult classpathScan) throws DrillbitStartupException {
@@ -107,6 +109,10 @@ public class BootStrapContext implements AutoCloseable {
     this.scanExecutor = Executors.newFixedThreadPool(scanThreadPoolSize, new NamedThreadFactory("scan-"));
     this.scanDecodeExecutor =
         Executors.newFixedThreadPool(scanDecodeThreadPoolSize, new NamedThreadFactory("scan-decode-"));
+    // Reads are capped below the size of the scan pool when the disks cannot serve that many reads at once.
+    final int maxConcurrentReads = config.getInt(ExecConstants.SCAN_MAX_CONCURRENT_READS);
+    this.scanReadScheduler = new ReadScheduler(scanExecutor,
+        maxConcurrentReads > 0 && maxConcurrentReads < scanThreadPoolSize ? maxConcurrentReads : scanThreadPoolSize);
   }
 
   private void login(final DrillConfig config) throws DrillbitStartupException {
@@ -181,6 +187,10 @@ public class BootStrapContext implements AutoCloseable {
     return scanDecodeExecutor;
   }
 
+  public ReadScheduler getScanReadScheduler() {
+    return scanReadScheduler;
+  }
+
   public DrillConfig getConfig() {
     return config;
   }
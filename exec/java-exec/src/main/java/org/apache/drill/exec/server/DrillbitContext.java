@@ -42,6 +42,7 @@ import org.apache.drill.exec.server.options.SystemOptionManager;
 import org.apache.drill.exec.store.SchemaFactory;
 import org.apache.drill.exec.store.StoragePluginRegistry;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
+import org.apache.drill.exec.util.filereader.ReadScheduler;
 
 import com.codahale.metrics.MetricRegistry;
 
@@ -184,6 +185,9 @@ public class DrillbitContext implements AutoCloseable {
   public ExecutorService getScanDecodeExecutor() {
     return context.getScanDecodeExecutor();
   }
+  public ReadScheduler getScanReadScheduler() {
+    return context.getScanReadScheduler();
+  }
 
   public LogicalPlanPersistence getLpPersistence() {
     return lpPersistence;
@@ -91,6 +91,11 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       PlannerSettings.UNIONALL_DISTRIBUTE,
       PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING,
       PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD,
+      PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION,
+      PlannerSettings.USE_STATISTICS,
+      PlannerSettings.FILTER_PROJECT_FUSION,
+      PlannerSettings.IN_LIST_SET,
+      PlannerSettings.IN_LIST_SET_THRESHOLD,
       ExecConstants.CAST_TO_NULLABLE_NUMERIC_OPTION,
       ExecConstants.OUTPUT_FORMAT_VALIDATOR,
       ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR,
@@ -108,6 +113,7 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       ExecConstants.PARQUET_PAGEREADER_USE_BUFFERED_READ_VALIDATOR,
       ExecConstants.PARQUET_PAGEREADER_BUFFER_SIZE_VALIDATOR,
       ExecConstants.PARQUET_PAGEREADER_USE_FADVISE_VALIDATOR,
+      ExecConstants.PARQUET_READER_LATE_MATERIALIZATION_VALIDATOR,
       ExecConstants.PARQUET_READER_INT96_AS_TIMESTAMP_VALIDATOR,
       ExecConstants.JSON_READER_ALL_TEXT_MODE_VALIDATOR,
       ExecConstants.ENABLE_UNION_TYPE,
@@ -161,9 +167,19 @@ public class SystemOptionManager extends BaseOptionManager implements AutoClosea
       ExecConstants.IMPLICIT_FQN_COLUMN_LABEL_VALIDATOR,
       ExecConstants.IMPLICIT_FILEPATH_COLUMN_LABEL_VALIDATOR,
       ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE_VALIDATOR,
+      ExecConstants.CODE_GEN_ASYNC_VALIDATOR,
       ExecConstants.CREATE_PREPARE_STATEMENT_TIMEOUT_MILLIS_VALIDATOR,
       ExecConstants.DYNAMIC_UDF_SUPPORT_ENABLED_VALIDATOR,
       ExecConstants.EXTERNAL_SORT_DISABLE_MANAGED_OPTION,
+      ExecConstants.EXTERNAL_SORT_SPILL_COMPRESSION_VALIDATOR,
+      ExecConstants.HASHAGG_NUM_PARTITIONS_VALIDATOR,
+      ExecConstants.HASHAGG_MAX_MEMORY_VALIDATOR,
+      ExecConstants.HASHJOIN_NUM_PARTITIONS_VALIDATOR,
+      ExecConstants.HASHJOIN_MAX_MEMORY_VALIDATOR,
+      ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_VALIDATOR,
+      ExecConstants.HASHJOIN_RUNTIME_FILTER_MAX_ROWS_VALIDATOR,
+      ExecConstants.SCAN_PREFETCH_READERS_VALIDATOR,
+      ExecConstants.SCAN_PREFETCH_MEMORY_VALIDATOR,
       ExecConstants.ENABLE_QUERY_PROFILE_VALIDATOR,
       ExecConstants.QUERY_PROFILE_DEBUG_VALIDATOR,
       ExecConstants.USE_DYNAMIC_UDFS,
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store;
+
+import java.io.IOException;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+
+/**
+ * A record reader which can open its input and read its beginning before it
+ * is set up, so that a scan can prepare the next readers while reading the
+ * current one.
+ */
+public interface PrefetchableRecordReader extends RecordReader {
+
+  /**
+   * Opens the input of this reader and buffers up to the given number of bytes
+   * of it. Called at most once, before {@link #setup}, and from a scan thread
+   * rather than the fragment's: must not touch the operator context or output.
+   * The buffered input is released when the reader is closed, whether or not
+   * it was set up. If this fails, the reader must still be able to set up
+   * without the buffered input.
+   *
+   * @param allocator the allocator of the buffered input
+   * @param maxBytes the most bytes to buffer
+   * @return the number of bytes buffered
+   */
+  long prefetch(BufferAllocator allocator, long maxBytes) throws IOException;
+}
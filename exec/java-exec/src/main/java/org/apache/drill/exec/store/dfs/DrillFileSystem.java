@@ -777,13 +777,29 @@ public class DrillFileSystem extends FileSystem implements OpenFileTracker {
   }
 
   public InputStream openPossiblyCompressedStream(Path path) throws IOException {
+    return openPossiblyCompressedStream(path, open(path));
+  }
+
+  /**
+   * Decompresses the given stream of the given file if the file extension names a compression codec.
+   */
+  public InputStream openPossiblyCompressedStream(Path path, FSDataInputStream in) throws IOException {
     CompressionCodec codec = codecFactory.getCodec(path); // infers from file ext.
     if (codec != null) {
-      return codec.createInputStream(open(path));
+      return codec.createInputStream(in);
     } else {
-      return open(path);
+      return in;
     }
   }
+
+  /**
+   * Opens the file without collecting IO stats, for threads other than the fragment's which must not update
+   * the operator stats.
+   */
+  public FSDataInputStream openUninstrumented(Path f) throws IOException {
+    return underlyingFs.open(f);
+  }
+
   @Override
   public void fileOpened(Path path, DrillFSDataInputStream fsDataInputStream) {
     openedFiles.put(fsDataInputStream, new DebugStackTrace(path, Thread.currentThread().getStackTrace()));
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+
+/**
+ * Input stream of the lines of a split of a file made of newline delimited records. A split
+ * reads the lines which start up to its end, including the line starting right at its end,
+ * and skips the line it starts in unless it starts at the beginning of the file, since that
+ * line is read by the previous split. This is the same rule the text reader applies to splits.
+ */
+public class LineSplitInputStream extends InputStream {
+  private static final byte NEW_LINE = '\n';
+
+  private final FSDataInputStream in;
+  private final long end;
+  // position in the file of the next byte of the stream
+  private long position;
+  private boolean endFound;
+
+  /**
+   * @param in stream of the file, positioned at its beginning
+   * @param start position of the first byte of the split
+   * @param end position after the last byte of the split
+   */
+  public LineSplitInputStream(FSDataInputStream in, long start, long end) throws IOException {
+    this.in = in;
+    this.end = end;
+    this.position = start;
+    if (start > 0) {
+      in.seek(start);
+      skipLine();
+      // the next line starts after the split, the split has no line of its own
+      endFound = endFound || position > end;
+    }
+  }
+
+  private void skipLine() throws IOException {
+    int b;
+    do {
+      b = in.read();
+      if (b == -1) {
+        endFound = true;
+        return;
+      }
+      position++;
+    } while (b != NEW_LINE);
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (endFound) {
+      return -1;
+    }
+    int n = in.read(b, off, len);
+    if (n <= 0) {
+      return n;
+    }
+    if (position + n > end) {
+      // stop after the first new line at or after the end of the split
+      for (int i = (int) Math.max(end - position, 0); i < n; i++) {
+        if (b[off + i] == NEW_LINE) {
+          n = i + 1;
+          endFound = true;
+          break;
+        }
+      }
+    }
+    position += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
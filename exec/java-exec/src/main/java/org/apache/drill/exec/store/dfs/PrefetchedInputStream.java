@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import io.netty.buffer.DrillBuf;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Input stream of a file whose beginning was read ahead into a buffer of the
+ * operator allocator, possibly by another thread than the one reading the
+ * stream. Reads are served from the buffer first, then from the file. The
+ * buffer is released when the stream is closed.
+ * <p>
+ * Wrap into an {@link FSDataInputStream} to hand over to readers expecting
+ * a seekable stream.
+ */
+public class PrefetchedInputStream extends FSInputStream implements ByteBufferReadable {
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final DrillFileSystem fs;
+  private final Path path;
+  private final long fileLength;
+  private final int prefetchedLength;
+  private DrillBuf prefetched;
+  private FSDataInputStream in;
+  private long position;
+  private boolean closed;
+
+  private PrefetchedInputStream(DrillFileSystem fs, Path path, long fileLength, DrillBuf prefetched,
+      int prefetchedLength, FSDataInputStream in) {
+    this.fs = fs;
+    this.path = path;
+    this.fileLength = fileLength;
+    this.prefetched = prefetched;
+    this.prefetchedLength = prefetchedLength;
+    this.in = in;
+  }
+
+  /**
+   * Opens the given file and reads up to the given number of bytes from its
+   * beginning. The file is opened without collecting IO stats, so that this
+   * may be called from any thread.
+   */
+  public static PrefetchedInputStream prefetch(DrillFileSystem fs, Path path, BufferAllocator allocator,
+      long maxBytes) throws IOException {
+    final long fileLength = fs.getFileStatus(path).getLen();
+    final int length = (int) Math.min(fileLength, Math.min(maxBytes, Integer.MAX_VALUE));
+    FSDataInputStream in = fs.openUninstrumented(path);
+    DrillBuf buffer = null;
+    try {
+      buffer = allocator.buffer(length);
+      final byte[] chunk = new byte[Math.min(length, CHUNK_SIZE)];
+      int read = 0;
+      while (read < length) {
+        final int n = in.read(chunk, 0, Math.min(chunk.length, length - read));
+        if (n < 0) {
+          break;
+        }
+        buffer.setBytes(read, chunk, 0, n);
+        read += n;
+      }
+      if (read >= fileLength) {
+        in.close();
+        in = null;
+      }
+      final PrefetchedInputStream stream = new PrefetchedInputStream(fs, path, fileLength, buffer, read, in);
+      buffer = null;
+      in = null;
+      return stream;
+    } finally {
+      if (buffer != null) {
+        buffer.release();
+      }
+      if (in != null) {
+        in.close();
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes read ahead
+   */
+  public int getPrefetchedLength() {
+    return prefetchedLength;
+  }
+
+  @Override
+  public synchronized int read() throws IOException {
+    final byte[] b = new byte[1];
+    return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
+    checkOpen();
+    if (len == 0) {
+      return 0;
+    }
+    if (position < prefetchedLength) {
+      final int n = (int) Math.min(len, prefetchedLength - position);
+      prefetched.getBytes((int) position, b, off, n);
+      position += n;
+      return n;
+    }
+    if (position >= fileLength) {
+      return -1;
+    }
+    final int n = file().read(b, off, len);
+    if (n > 0) {
+      position += n;
+    }
+    return n;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer buf) throws IOException {
+    checkOpen();
+    if (!buf.hasRemaining()) {
+      return 0;
+    }
+    if (position < prefetchedLength) {
+      final int n = (int) Math.min(buf.remaining(), prefetchedLength - position);
+      final ByteBuffer target = buf.duplicate();
+      target.limit(target.position() + n);
+      prefetched.getBytes((int) position, target);
+      buf.position(buf.position() + n);
+      position += n;
+      return n;
+    }
+    if (position >= fileLength) {
+      return -1;
+    }
+    final FSDataInputStream file = file();
+    final int n;
+    if (file.getWrappedStream() instanceof ByteBufferReadable) {
+      n = file.read(buf);
+    } else if (buf.hasArray()) {
+      n = file.read(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+      if (n > 0) {
+        buf.position(buf.position() + n);
+      }
+    } else {
+      final byte[] chunk = new byte[Math.min(buf.remaining(), CHUNK_SIZE)];
+      n = file.read(chunk, 0, chunk.length);
+      if (n > 0) {
+        buf.put(chunk, 0, n);
+      }
+    }
+    if (n > 0) {
+      position += n;
+    }
+    return n;
+  }
+
+  @Override
+  public synchronized void seek(long pos) throws IOException {
+    checkOpen();
+    if (pos < 0 || pos > fileLength) {
+      throw new EOFException(String.format("Cannot seek to %d in %s of length %d", pos, path, fileLength));
+    }
+    position = pos;
+  }
+
+  @Override
+  public synchronized long getPos() throws IOException {
+    return position;
+  }
+
+  @Override
+  public boolean seekToNewSource(long targetPos) throws IOException {
+    return false;
+  }
+
+  @Override
+  public synchronized int available() throws IOException {
+    checkOpen();
+    return (int) Math.min(Integer.MAX_VALUE, fileLength - position);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    prefetched.release();
+    prefetched = null;
+    if (in != null) {
+      in.close();
+      in = null;
+    }
+  }
+
+  /**
+   * @return the stream of the file, positioned at the current position
+   */
+  private FSDataInputStream file() throws IOException {
+    if (in == null) {
+      in = fs.openUninstrumented(path);
+    }
+    if (in.getPos() != position) {
+      in.seek(position);
+    }
+    return in;
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed: " + path);
+    }
+  }
+}
@@ -62,9 +62,20 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
   @Override
   public RecordReader getRecordReader(FragmentContext context, DrillFileSystem dfs, FileWork fileWork,
       List<SchemaPath> columns, String userName) throws ExecutionSetupException {
+    if (isBlockSplittable()) {
+      return new JSONRecordReader(context, fileWork.getPath(), fileWork.getStart(), fileWork.getLength(), dfs, columns);
+    }
     return new JSONRecordReader(context, fileWork.getPath(), dfs, columns);
   }
 
+  /**
+   * Files are split only when their records are each on their own line.
+   */
+  @Override
+  public boolean isBlockSplittable() {
+    return getConfig().isNewlineDelimited();
+  }
+
   @Override
   public RecordWriter getRecordWriter(FragmentContext context, EasyWriter writer) throws IOException {
     Map<String, String> options = Maps.newHashMap();
@@ -94,6 +105,8 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
 
     public List<String> extensions = ImmutableList.of("json");
     private static final List<String> DEFAULT_EXTS = ImmutableList.of("json");
+    // whether each record is on its own line, so that files may be split
+    public boolean newlineDelimited = false;
 
     @JsonInclude(JsonInclude.Include.NON_DEFAULT)
     public List<String> getExtensions() {
@@ -104,11 +117,17 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
       return extensions;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isNewlineDelimited() {
+      return newlineDelimited;
+    }
+
     @Override
     public int hashCode() {
       final int prime = 31;
       int result = 1;
       result = prime * result + ((extensions == null) ? 0 : extensions.hashCode());
+      result = prime * result + (newlineDelimited ? 1231 : 1237);
       return result;
     }
 
@@ -131,6 +150,9 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
       } else if (!extensions.equals(other.extensions)) {
         return false;
       }
+      if (newlineDelimited != other.newlineDelimited) {
+        return false;
+      }
       return true;
     }
 
@@ -27,16 +27,21 @@ import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.OutputMutator;
 import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.store.PrefetchableRecordReader;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.LineSplitInputStream;
+import org.apache.drill.exec.store.dfs.PrefetchedInputStream;
 import org.apache.drill.exec.store.easy.json.JsonProcessor.ReadState;
 import org.apache.drill.exec.store.easy.json.reader.CountingJsonReader;
 import org.apache.drill.exec.vector.BaseValueVector;
 import org.apache.drill.exec.vector.complex.fn.JsonReader;
 import org.apache.drill.exec.vector.complex.impl.VectorContainerWriter;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
 
 import com.fasterxml.jackson.core.JsonParseException;
@@ -44,7 +49,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
-public class JSONRecordReader extends AbstractRecordReader {
+public class JSONRecordReader extends AbstractRecordReader implements PrefetchableRecordReader {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JSONRecordReader.class);
 
   public static final long DEFAULT_ROWS_PER_BATCH = BaseValueVector.INITIAL_VALUE_ALLOCATION;
@@ -53,8 +58,12 @@ public class JSONRecordReader extends AbstractRecordReader {
 
   // Data we're consuming
   private Path hadoopPath;
+  // split of the file of newline delimited records to read, the whole file if the length is negative
+  private final long start;
+  private final long length;
   private JsonNode embeddedContent;
   private InputStream stream;
+  private PrefetchedInputStream prefetched;
   private final DrillFileSystem fileSystem;
   private JsonProcessor jsonReader;
   private int recordCount;
@@ -78,7 +87,22 @@ public class JSONRecordReader extends AbstractRecordReader {
    */
   public JSONRecordReader(final FragmentContext fragmentContext, final String inputPath, final DrillFileSystem fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(fragmentContext, inputPath, null, fileSystem, columns);
+    this(fragmentContext, inputPath, 0, -1, null, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader that reads the records of a split of a file whose records are each on their own line.
+   * @param fragmentContext
+   * @param inputPath
+   * @param start  position of the split in the file
+   * @param length  length of the split
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(final FragmentContext fragmentContext, final String inputPath, final long start, final long length,
+      final DrillFileSystem fileSystem, final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(fragmentContext, inputPath, start, length, null, fileSystem, columns);
   }
 
   /**
@@ -91,11 +115,11 @@ public class JSONRecordReader extends AbstractRecordReader {
    */
   public JSONRecordReader(final FragmentContext fragmentContext, final JsonNode embeddedContent,
       final DrillFileSystem fileSystem, final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(fragmentContext, null, embeddedContent, fileSystem, columns);
+    this(fragmentContext, null, 0, -1, embeddedContent, fileSystem, columns);
   }
 
-  private JSONRecordReader(final FragmentContext fragmentContext, final String inputPath,
-      final JsonNode embeddedContent, final DrillFileSystem fileSystem,
+  private JSONRecordReader(final FragmentContext fragmentContext, final String inputPath, final long start,
+      final long length, final JsonNode embeddedContent, final DrillFileSystem fileSystem,
       final List<SchemaPath> columns) {
 
     Preconditions.checkArgument(
@@ -110,6 +134,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.embeddedContent = embeddedContent;
     }
 
+    this.start = start;
+    this.length = length;
     this.fileSystem = fileSystem;
     this.fragmentContext = fragmentContext;
     // only enable all text mode if we aren't using embedded content mode.
@@ -130,12 +156,29 @@ public class JSONRecordReader extends AbstractRecordReader {
          + ", runningRecordCount = " + runningRecordCount + ", ...]";
   }
 
+  @Override
+  public long prefetch(BufferAllocator allocator, long maxBytes) throws IOException {
+    if (hadoopPath == null || start != 0) {
+      return 0;
+    }
+    prefetched = PrefetchedInputStream.prefetch(fileSystem, hadoopPath, allocator,
+        length >= 0 ? Math.min(maxBytes, length) : maxBytes);
+    return prefetched.getPrefetchedLength();
+  }
+
   @Override
   public void setup(final OperatorContext context, final OutputMutator output) throws ExecutionSetupException {
     try{
-      if (hadoopPath != null) {
+      if (prefetched != null) {
+        this.stream = fileSystem.openPossiblyCompressedStream(hadoopPath, new FSDataInputStream(prefetched));
+        prefetched = null;
+      } else if (hadoopPath != null) {
         this.stream = fileSystem.openPossiblyCompressedStream(hadoopPath);
       }
+      if (length >= 0 && stream instanceof FSDataInputStream) {
+        // compressed files are not split
+        this.stream = new LineSplitInputStream((FSDataInputStream) stream, start, start + length);
+      }
 
       this.writer = new VectorContainerWriter(output, unionEnabled);
       if (isSkipQuery()) {
@@ -240,6 +283,10 @@ public class JSONRecordReader extends AbstractRecordReader {
 
   @Override
   public void close() throws Exception {
+    if (prefetched != null) {
+      prefetched.close();
+      prefetched = null;
+    }
     if(stream != null) {
       stream.close();
     }
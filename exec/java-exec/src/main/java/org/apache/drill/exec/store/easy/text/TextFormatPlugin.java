@@ -142,6 +142,12 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
     public char comment = '#';
     public boolean skipFirstLine = false;
     public boolean extractHeader = false;
+    // columns of the fields, read into typed vectors rather than varchar, e.g. "id INT, created DATE"
+    public String schema = null;
+    // whether values which do not parse as the type of their column are read as null rather than failing
+    public boolean nullInvalidValues = false;
+    // whether quoted values may contain line separators, which is accounted for when splitting files
+    public boolean quotedNewLines = false;
 
     public List<String> getExtensions() {
       return extensions;
@@ -187,6 +193,18 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       return skipFirstLine;
     }
 
+    public String getSchema() {
+      return schema;
+    }
+
+    public boolean isNullInvalidValues() {
+      return nullInvalidValues;
+    }
+
+    public boolean isQuotedNewLines() {
+      return quotedNewLines;
+    }
+
     @Override
     public int hashCode() {
       final int prime = 31;
@@ -199,6 +217,9 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       result = prime * result + quote;
       result = prime * result + (skipFirstLine ? 1231 : 1237);
       result = prime * result + (extractHeader ? 1231 : 1237);
+      result = prime * result + ((schema == null) ? 0 : schema.hashCode());
+      result = prime * result + (nullInvalidValues ? 1231 : 1237);
+      result = prime * result + (quotedNewLines ? 1231 : 1237);
       return result;
     }
 
@@ -246,6 +267,19 @@ public class TextFormatPlugin extends EasyFormatPlugin<TextFormatPlugin.TextForm
       if (extractHeader != other.extractHeader) {
         return false;
       }
+      if (schema == null) {
+        if (other.schema != null) {
+          return false;
+        }
+      } else if (!schema.equals(other.schema)) {
+        return false;
+      }
+      if (nullInvalidValues != other.nullInvalidValues) {
+        return false;
+      }
+      if (quotedNewLines != other.quotedNewLines) {
+        return false;
+      }
       return true;
     }
 
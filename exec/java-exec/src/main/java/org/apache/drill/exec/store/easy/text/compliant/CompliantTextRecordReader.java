@@ -33,14 +33,18 @@ import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.OutputMutator;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.store.PrefetchableRecordReader;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.PrefetchedInputStream;
 import org.apache.drill.exec.util.CallBack;
 import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.mapred.FileSplit;
 
 import com.google.common.base.Predicate;
@@ -48,12 +52,13 @@ import com.google.common.collect.Iterables;
 import org.apache.drill.exec.expr.TypeHelper;
 
 // New text reader, complies with the RFC 4180 standard for text/csv files
-public class CompliantTextRecordReader extends AbstractRecordReader {
+public class CompliantTextRecordReader extends AbstractRecordReader implements PrefetchableRecordReader {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CompliantTextRecordReader.class);
 
   private static final int MAX_RECORDS_PER_BATCH = 8096;
   private static final int READ_BUFFER = 1024*1024;
   private static final int WHITE_SPACE_BUFFER = 64*1024;
+  private static final int FIELD_BUFFER = 64*1024;
   // When no named column is required, ask SCAN to return a DEFAULT column.
   // If such column does not exist, it will be returned as a nullable-int column.
   private static final List<SchemaPath> DEFAULT_NAMED_TEXT_COLS_TO_READ =
@@ -69,7 +74,11 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
   private DrillBuf readBuffer;
   // working buffer to handle whitespaces
   private DrillBuf whitespaceBuffer;
+  // working buffer holding the bytes of a field parsed into a typed vector
+  private DrillBuf fieldBuffer;
   private DrillFileSystem dfs;
+  // beginning of the split read ahead of setup, if any
+  private PrefetchedInputStream prefetched;
   // operator context for OutputMutator
   private OperatorContext oContext;
 
@@ -97,19 +106,32 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
   /**
    * Returns list of default columns to read to replace empty list of columns.
    * For text files without headers returns "columns[0]".
-   * Text files with headers do not support columns syntax,
-   * so when header extraction is enabled, returns fake named column "_DEFAULT_COL_TO_READ_".
+   * Text files with headers or a declared schema do not support columns syntax,
+   * so when header extraction is enabled or a schema is declared, returns fake named column "_DEFAULT_COL_TO_READ_".
    *
    * @return list of default columns to read
    */
   @Override
   protected List<SchemaPath> getDefaultColumnsToRead() {
-    if (settings.isHeaderExtractionEnabled()) {
+    if (settings.isHeaderExtractionEnabled() || settings.getSchema() != null) {
       return DEFAULT_NAMED_TEXT_COLS_TO_READ;
     }
     return DEFAULT_TEXT_COLS_TO_READ;
   }
 
+  /**
+   * Reads ahead the beginning of the file when this reader starts at it; splits further in the file are
+   * not read ahead.
+   */
+  @Override
+  public long prefetch(BufferAllocator allocator, long maxBytes) throws IOException {
+    if (split.getStart() != 0) {
+      return 0;
+    }
+    prefetched = PrefetchedInputStream.prefetch(dfs, split.getPath(), allocator, Math.min(maxBytes, split.getLength()));
+    return prefetched.getPrefetchedLength();
+  }
+
   /**
    * Performs the initial setup required for the record reader.
    * Initializes the input stream, handling of the output record batch
@@ -141,7 +163,15 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
       InputStream stream = null;
 
       // setup Output using OutputMutator
-      if (settings.isHeaderExtractionEnabled()){
+      if (settings.getSchema() != null) {
+        // the declared schema names the columns, a header is only skipped
+        if (settings.isHeaderExtractionEnabled()) {
+          settings.setSkipFirstLine(true);
+        }
+        fieldBuffer = context.getAllocator().buffer(FIELD_BUFFER);
+        output = new TypedFieldOutput(outputMutator, settings.getSchema(), getColumns(), isStarQuery(),
+            settings.isNullInvalidValues(), fieldBuffer);
+      } else if (settings.isHeaderExtractionEnabled()){
         //extract header and use that to setup a set of VarCharVectors
         String [] fieldNames = extractHeader();
         output = new FieldVarCharOutput(outputMutator, fieldNames, getColumns(), isStarQuery());
@@ -151,7 +181,12 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
       }
 
       // setup Input using InputStream
-      stream = dfs.openPossiblyCompressedStream(split.getPath());
+      if (prefetched != null) {
+        stream = dfs.openPossiblyCompressedStream(split.getPath(), new FSDataInputStream(prefetched));
+        prefetched = null;
+      } else {
+        stream = dfs.openPossiblyCompressedStream(split.getPath());
+      }
       input = new TextInput(settings, stream, readBuffer, split.getStart(), split.getStart() + split.getLength());
 
       // setup Reader using Input and Output
@@ -250,7 +285,15 @@ public class CompliantTextRecordReader extends AbstractRecordReader {
       whitespaceBuffer.release();
       whitespaceBuffer = null;
     }
+    if (fieldBuffer != null) {
+      fieldBuffer.release();
+      fieldBuffer = null;
+    }
     try {
+      if (prefetched != null) {
+        prefetched.close();
+        prefetched = null;
+      }
       if (reader != null) {
         reader.close();
         reader = null;
@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.store.easy.text.compliant;
 
+import io.netty.buffer.DrillBuf;
+
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.types.TypeProtos;
@@ -169,6 +171,25 @@ class FieldVarCharOutput extends TextOutput {
     fieldBytes[currentDataPointer++] = data;
   }
 
+  @Override
+  public void append(DrillBuf buffer, int start, int length) {
+    if (!collect) {
+      return;
+    }
+
+    if (currentDataPointer + length > MAX_FIELD_LENGTH -1) {
+      throw UserException
+          .unsupportedError()
+          .message("Trying to write something big in a column")
+          .addContext("columnIndex", currentFieldIndex)
+          .addContext("Limit", MAX_FIELD_LENGTH)
+          .build(logger);
+    }
+
+    buffer.getBytes(start, fieldBytes, currentDataPointer, length);
+    currentDataPointer += length;
+  }
+
   @Override
   public boolean endField() {
     fieldOpen = false;
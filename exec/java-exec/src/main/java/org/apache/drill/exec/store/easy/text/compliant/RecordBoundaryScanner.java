@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Finds the end of the record a split of a text file starts in, when quoted values may contain
+ * line separators. Whether the start of a split is inside a quoted value can not be known
+ * without reading the file from its beginning, so the scanner follows each possible state at
+ * the start of the split at once: in an unquoted value, at the start of a value, in a quoted
+ * value, and just after a quote in a quoted value. A state is dropped as soon as the bytes that
+ * follow are not valid for it, e.g. a quote in the middle of an unquoted value, or anything but
+ * a delimiter or line separator after a closing quote. The end of the record is known once the
+ * remaining states agree on it.
+ */
+final class RecordBoundaryScanner {
+
+  private static final int FIELD_START = 0;
+  private static final int UNQUOTED = 1;
+  private static final int QUOTED = 2;
+  // a quote inside a quoted value: either closes the value or is escaped by the next quote
+  private static final int QUOTE = 3;
+  // an escape character inside a quoted value, when it is not the quote
+  private static final int ESCAPE = 4;
+  // after the closing quote of a value
+  private static final int CLOSED = 5;
+  private static final int INVALID = -1;
+
+  private static final int[] START_STATES = {UNQUOTED, FIELD_START, QUOTED, QUOTE};
+
+  private final byte quote;
+  private final byte quoteEscape;
+  private final byte delimiter;
+  private final byte[] lineSeparator;
+
+  RecordBoundaryScanner(byte quote, byte quoteEscape, byte delimiter, byte[] lineSeparator) {
+    this.quote = quote;
+    this.quoteEscape = quoteEscape;
+    this.delimiter = delimiter;
+    this.lineSeparator = lineSeparator;
+  }
+
+  /**
+   * @param buffer bytes of the file starting at the start of a split
+   * @param start index of the first byte of the split in the buffer
+   * @param end index after the last byte in the buffer
+   * @return the index of the last byte of the line separator which ends the record the first
+   *         byte belongs to, or -1 if it can not be told from the bytes of the buffer
+   */
+  int findRecordEnd(ByteBuffer buffer, int start, int end) {
+    final int count = START_STATES.length;
+    final int[] states = START_STATES.clone();
+    final int[] recordEnds = new int[count];
+    Arrays.fill(recordEnds, -1);
+
+    for (int i = start; i < end; i++) {
+      final byte b = buffer.get(i);
+      final boolean lineEnd = isLineEnd(buffer, start, i);
+      for (int s = 0; s < count; s++) {
+        if (states[s] == INVALID) {
+          continue;
+        }
+        final int next = next(states[s], b, lineEnd);
+        if (lineEnd && next == FIELD_START && recordEnds[s] == -1) {
+          recordEnds[s] = i;
+        }
+        states[s] = next;
+      }
+      final int recordEnd = agreedRecordEnd(states, recordEnds);
+      if (recordEnd != -1) {
+        return recordEnd;
+      }
+      if (allInvalid(states)) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  // the end of the record if all valid states found the same one
+  private static int agreedRecordEnd(int[] states, int[] recordEnds) {
+    int recordEnd = -1;
+    for (int s = 0; s < states.length; s++) {
+      if (states[s] == INVALID) {
+        continue;
+      }
+      if (recordEnds[s] == -1 || (recordEnd != -1 && recordEnds[s] != recordEnd)) {
+        return -1;
+      }
+      recordEnd = recordEnds[s];
+    }
+    return recordEnd;
+  }
+
+  private static boolean allInvalid(int[] states) {
+    for (int state : states) {
+      if (state != INVALID) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isLineEnd(ByteBuffer buffer, int start, int index) {
+    final int first = index - lineSeparator.length + 1;
+    if (first < start) {
+      return false;
+    }
+    for (int i = 0; i < lineSeparator.length; i++) {
+      if (buffer.get(first + i) != lineSeparator[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int next(int state, byte b, boolean lineEnd) {
+    switch (state) {
+      case FIELD_START:
+      case UNQUOTED:
+        if (lineEnd || b == delimiter) {
+          return FIELD_START;
+        }
+        if (b == quote) {
+          return state == FIELD_START ? QUOTED : INVALID;
+        }
+        return UNQUOTED;
+      case QUOTED:
+        if (b == quote && quote == quoteEscape) {
+          return QUOTE;
+        }
+        if (b == quoteEscape) {
+          return ESCAPE;
+        }
+        return b == quote ? CLOSED : QUOTED;
+      case ESCAPE:
+        return QUOTED;
+      case QUOTE:
+        if (b == quote) {
+          return QUOTED;
+        }
+        return closed(b, lineEnd);
+      case CLOSED:
+        return closed(b, lineEnd);
+      default:
+        return INVALID;
+    }
+  }
+
+  private int closed(byte b, boolean lineEnd) {
+    if (lineEnd || b == delimiter) {
+      return FIELD_START;
+    }
+    if (TextReader.isWhite(b)) {
+      // white spaces after a quoted value, and the first bytes of a line separator
+      return CLOSED;
+    }
+    return INVALID;
+  }
+}
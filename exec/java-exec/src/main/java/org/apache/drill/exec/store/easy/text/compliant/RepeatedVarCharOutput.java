@@ -281,6 +281,20 @@ class RepeatedVarCharOutput extends TextOutput {
 
   }
 
+  @Override
+  public void append(DrillBuf buffer, int start, int length) {
+    if(!collect){
+      return;
+    }
+
+    while(characterData + length > characterDataMax){
+      expandVarCharData();
+    }
+
+    PlatformDependent.copyMemory(buffer.memoryAddress() + start, characterData, length);
+    characterData += length;
+  }
+
   @Override
   public long getRecordCount() {
     return recordCount;
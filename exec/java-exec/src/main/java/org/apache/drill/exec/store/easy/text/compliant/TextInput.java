@@ -69,12 +69,6 @@ final class TextInput {
 
   private final boolean bufferReadable;
 
-  /**
-   * Whether there was a possible partial line separator on the previous
-   * read so we dropped it and it should be appended to next read.
-   */
-  private int remByte = -1;
-
   /**
    * The current position in the buffer.
    */
@@ -85,8 +79,6 @@ final class TextInput {
    */
   public int length = -1;
 
-  private boolean endFound = false;
-
   /**
    * Creates a new instance with the mandatory characters for handling newlines transparently.
    * lineSeparator the sequence of characters that represent a newline, as defined in {@link Format#getLineSeparator()}
@@ -135,19 +127,41 @@ final class TextInput {
   final void start() throws IOException {
     lineCount = 0;
     if(startPos > 0){
-      seekable.seek(startPos);
+      // start at the first byte of a line separator which would end right at the start of the split,
+      // otherwise the record following it, which the previous split does not read, would be skipped
+      seekable.seek(Math.max(0, startPos - (lineSeparator.length - 1)));
     }
 
     updateBuffer();
     if (length > 0) {
+      if (startPos > 0 && settings.isQuotedNewLines()) {
+        // move to the end of the record the split starts in, which may not be the end of the line
+        final int recordEnd = new RecordBoundaryScanner(settings.getQuote(), settings.getQuoteEscape(),
+            settings.getDelimiter(), lineSeparator).findRecordEnd(underlyingBuffer, 0, length);
+        if (recordEnd != -1) {
+          skipBytes(recordEnd + 1);
+          return;
+        }
+      }
       if(startPos > 0 || settings.isSkipFirstLine()){
 
         // move to next full record.
-        skipLines(1);
+        try {
+          skipLines(1);
+        } catch (StreamFinishedPseudoException e) {
+          // the split starts in the last line, which ends the file: it has no record to read
+        }
       }
     }
   }
 
+  private void skipBytes(int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      nextCharNoNewLineCheck();
+    }
+    lineCount++;
+  }
+
 
   /**
    * Helper method to get the most recent characters consumed since the last record started.
@@ -174,51 +188,25 @@ final class TextInput {
    */
   private void read() throws IOException {
     if(bufferReadable){
-
-      if(remByte != -1){
-        for (int i = 0; i <= remByte; i++) {
-          underlyingBuffer.put(lineSeparator[i]);
-        }
-        remByte = -1;
-      }
       length = inputFS.read(underlyingBuffer);
-
     }else{
-
       byte[] b = new byte[underlyingBuffer.capacity()];
-      if(remByte != -1){
-        int remBytesNum = remByte + 1;
-        System.arraycopy(lineSeparator, 0, b, 0, remBytesNum);
-        length = input.read(b, remBytesNum, b.length - remBytesNum);
-        remByte = -1;
-      }else{
-        length = input.read(b);
-      }
+      length = input.read(b);
       underlyingBuffer.put(b);
     }
   }
 
 
   /**
-   * Read more data into the buffer.  Will also manage split end conditions.
+   * Read more data into the buffer.
    * @throws IOException
    */
   private void updateBuffer() throws IOException {
     streamPos = seekable.getPos();
     underlyingBuffer.clear();
 
-    if(endFound){
-      length = -1;
-      return;
-    }
-
     read();
 
-    // check our data read allowance.
-    if(streamPos + length >= this.endPos){
-      updateLengthBasedOnConstraint();
-    }
-
     charCount += bufferPtr;
     bufferPtr = 1;
 
@@ -228,30 +216,14 @@ final class TextInput {
   }
 
   /**
-   * Checks to see if we can go over the end of our bytes constraint on the data.  If so,
-   * adjusts so that we can only read to the last character of the first line that crosses
-   * the split boundary.
+   * Whether the last byte read lies after the end of the split. A split reads the records
+   * which start up to its end, including the one starting right at its end, so that the
+   * record the next split starts in is read entirely by this split even when its quoted
+   * values contain line separators.
    */
-  private void updateLengthBasedOnConstraint() {
-    final long max = bStart + length;
-    for(long m = bStart + (endPos - streamPos); m < max; m++) {
-      for (int i = 0; i < lineSeparator.length; i++) {
-        long mPlus = m + i;
-        if (mPlus < max) {
-          // we found a line separator and don't need to consult the next byte.
-          if (lineSeparator[i] == PlatformDependent.getByte(mPlus) && i == lineSeparator.length - 1) {
-            length = (int) (mPlus - bStart) + 1;
-            endFound = true;
-            return;
-          }
-        } else {
-          // the last N characters of the read were remnant bytes. We'll hold off on dealing with these bytes until the next read.
-          remByte = i;
-          length = length - i;
-          return;
-        }
-      }
-    }
+  final boolean isPastSplitEnd() {
+    // the last byte read is at index bufferPtr - 2 of the buffer
+    return streamPos + bufferPtr - 2 > endPos;
   }
 
   /**
@@ -321,6 +293,58 @@ final class TextInput {
     return byteChar;
   }
 
+  /**
+   * Consumes the bytes of the current buffer which come before the next delimiter, normalized
+   * newline or start of a line separator, and appends them to the output in one go. The buffer
+   * is scanned a word at a time. The last byte of the buffer is left to {@link #nextChar()},
+   * which refills the buffer.
+   * @param output  output the bytes of the value are appended to
+   * @param delimiter  field delimiter
+   * @param newLine  normalized newline
+   */
+  final void appendValueBytes(TextOutput output, byte delimiter, byte newLine) {
+    if (length == -1) {
+      return;
+    }
+    final int start = bufferPtr - 1;
+    final int end = length - 1;
+    final long delimiterPattern = broadcast(delimiter);
+    final long newLinePattern = broadcast(newLine);
+    final long separatorPattern = broadcast(lineSeparator[0]);
+
+    int pos = start;
+    while (pos + 8 <= end) {
+      final long word = PlatformDependent.getLong(bStart + pos);
+      if (hasByte(word, delimiterPattern) || hasByte(word, newLinePattern) || hasByte(word, separatorPattern)) {
+        break;
+      }
+      pos += 8;
+    }
+    final byte separator = lineSeparator[0];
+    while (pos < end) {
+      final byte b = PlatformDependent.getByte(bStart + pos);
+      if (b == delimiter || b == newLine || b == separator) {
+        break;
+      }
+      pos++;
+    }
+
+    if (pos > start) {
+      output.append(buffer, start, pos - start);
+      bufferPtr += pos - start;
+    }
+  }
+
+  private static long broadcast(byte b) {
+    return (b & 0xFFL) * 0x0101010101010101L;
+  }
+
+  // whether any of the bytes of the word is the byte repeated in the pattern
+  private static boolean hasByte(long word, long pattern) {
+    final long x = word ^ pattern;
+    return ((x - 0x0101010101010101L) & ~x & 0x8080808080808080L) != 0;
+  }
+
   /**
    * Number of lines read since the start of this split.
    * @return
@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.store.easy.text.compliant;
 
+import io.netty.buffer.DrillBuf;
+
 /* Base class for producing output record batches while dealing with
  * Text files.
  */
@@ -59,6 +61,18 @@ abstract class TextOutput {
    */
   public abstract void append(byte data);
 
+  /**
+   * Appends a run of bytes of a field to the output character data buffer.
+   * @param buffer  buffer holding the bytes
+   * @param start  index of the first byte in the buffer
+   * @param length  number of bytes to append
+   */
+  public void append(DrillBuf buffer, int start, int length) {
+    for (int i = 0; i < length; i++) {
+      append(buffer.getByte(start + i));
+    }
+  }
+
   /**
    * Completes the processing of a given record. Also completes the processing of the
    * last field being read.
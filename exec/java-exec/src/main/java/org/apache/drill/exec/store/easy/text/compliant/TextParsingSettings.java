@@ -45,6 +45,9 @@ public class TextParsingSettings {
   private boolean headerExtractionEnabled = false;
   private boolean useRepeatedVarChar = true;
   private int numberOfRecordsToRead = -1;
+  private TextSchema schema = null;
+  private boolean nullInvalidValues = false;
+  private boolean quotedNewLines = false;
 
   public void set(TextFormatConfig config){
     this.quote = bSafe(config.getQuote(), "quote");
@@ -54,10 +57,36 @@ public class TextParsingSettings {
     this.comment = bSafe(config.getComment(), "comment");
     this.skipFirstLine = config.isSkipFirstLine();
     this.headerExtractionEnabled = config.isHeaderExtractionEnabled();
+    this.quotedNewLines = config.isQuotedNewLines();
     if (this.headerExtractionEnabled) {
       // In case of header TextRecordReader will use set of VarChar vectors vs RepeatedVarChar
       this.useRepeatedVarChar = false;
     }
+    if (config.getSchema() != null) {
+      // with a schema TextRecordReader will use a set of typed vectors
+      this.schema = TextSchema.parse(config.getSchema());
+      this.nullInvalidValues = config.isNullInvalidValues();
+      this.useRepeatedVarChar = false;
+    }
+  }
+
+  /**
+   * @return the declared columns of the fields, or null if the fields are read as varchar
+   */
+  public TextSchema getSchema() {
+    return schema;
+  }
+
+  public boolean isNullInvalidValues() {
+    return nullInvalidValues;
+  }
+
+  /**
+   * @return whether quoted values may contain line separators, so that a split does not
+   *         start at the first line separator after its start
+   */
+  public boolean isQuotedNewLines() {
+    return quotedNewLines;
   }
 
   public byte getComment(){
@@ -200,6 +200,8 @@ final class TextReader {
     byte ch = this.ch;
     while (ch != delimiter && ch != newLine) {
       output.append(ch);
+      // copy the rest of the value found in the input buffer at once
+      input.appendValueBytes(output, delimiter, newLine);
       ch = input.nextChar();
     }
     this.ch = ch;
@@ -360,6 +362,10 @@ final class TextReader {
     try {
       while (!context.stopped) {
         ch = input.nextChar();
+        if (input.isPastSplitEnd()) {
+          // the record is read by the next split
+          throw StreamFinishedPseudoException.INSTANCE;
+        }
         if (ch == comment) {
           input.skipLines(1);
           continue;
@@ -426,6 +432,11 @@ final class TextReader {
       throw (TextParsingException) ex;
     }
 
+    // errors raised by the output already describe the failure
+    if (ex instanceof UserException) {
+      throw (UserException) ex;
+    }
+
     if (ex instanceof ArrayIndexOutOfBoundsException) {
       ex = UserException
           .dataReadError(ex)
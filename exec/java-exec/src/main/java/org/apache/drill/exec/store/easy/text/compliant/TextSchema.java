@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+/**
+ * The columns declared for the fields of a text file, in the order of the fields, given as
+ * a comma separated list of column names followed by their type, for example
+ * <code>id INT, amount DOUBLE, created TIMESTAMP</code>.
+ */
+public class TextSchema {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TextSchema.class);
+
+  private static final Map<String, MinorType> TYPES = ImmutableMap.<String, MinorType>builder()
+      .put("INT", MinorType.INT)
+      .put("INTEGER", MinorType.INT)
+      .put("BIGINT", MinorType.BIGINT)
+      .put("FLOAT", MinorType.FLOAT4)
+      .put("FLOAT4", MinorType.FLOAT4)
+      .put("DOUBLE", MinorType.FLOAT8)
+      .put("FLOAT8", MinorType.FLOAT8)
+      .put("DATE", MinorType.DATE)
+      .put("TIME", MinorType.TIME)
+      .put("TIMESTAMP", MinorType.TIMESTAMP)
+      .put("VARCHAR", MinorType.VARCHAR)
+      .build();
+
+  private final List<String> names;
+  private final List<MinorType> types;
+
+  private TextSchema(List<String> names, List<MinorType> types) {
+    this.names = ImmutableList.copyOf(names);
+    this.types = ImmutableList.copyOf(types);
+  }
+
+  public static TextSchema parse(String schema) {
+    final List<String> names = Lists.newArrayList();
+    final List<MinorType> types = Lists.newArrayList();
+    for (String column : schema.split(",")) {
+      final String[] parts = column.trim().split("\\s+");
+      if (parts.length != 2) {
+        throw UserException.validationError()
+            .message("Invalid column '%s' in the schema of a text format. Expected a column name followed by its type.",
+                column.trim())
+            .build(logger);
+      }
+      final MinorType type = TYPES.get(parts[1].toUpperCase(Locale.ENGLISH));
+      if (type == null) {
+        throw UserException.validationError()
+            .message("Unsupported type '%s' of column '%s' in the schema of a text format. Supported types are %s.",
+                parts[1], parts[0], TYPES.keySet())
+            .build(logger);
+      }
+      names.add(parts[0]);
+      types.add(type);
+    }
+    return new TextSchema(names, types);
+  }
+
+  public int getColumnCount() {
+    return names.size();
+  }
+
+  public String getName(int index) {
+    return names.get(index);
+  }
+
+  public MinorType getType(int index) {
+    return types.get(index);
+  }
+
+  public List<String> getNames() {
+    return names;
+  }
+}
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import io.netty.buffer.DrillBuf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.expr.fn.impl.DateUtility;
+import org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.vector.NullableBigIntVector;
+import org.apache.drill.exec.vector.NullableDateVector;
+import org.apache.drill.exec.vector.NullableFloat4Vector;
+import org.apache.drill.exec.vector.NullableFloat8Vector;
+import org.apache.drill.exec.vector.NullableIntVector;
+import org.apache.drill.exec.vector.NullableTimeStampVector;
+import org.apache.drill.exec.vector.NullableTimeVector;
+import org.apache.drill.exec.vector.NullableVarCharVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Generates record batches of nullable typed vectors for text files with a declared
+ * {@link TextSchema}. The bytes of a field are parsed into the vector of its column as soon
+ * as the field ends, so values never go through an intermediate varchar vector and a cast.
+ * Empty fields, and fields missing at the end of a record, are null. A field which can not be
+ * parsed as the type of its column either fails the query or is read as null.
+ */
+class TypedFieldOutput extends TextOutput {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TypedFieldOutput.class);
+
+  private static final int MAX_FIELD_LENGTH = 1024 * 64;
+
+  private final TextSchema schema;
+  // writer of each field, null if the field is not selected
+  private final FieldWriter[] writers;
+  private final boolean nullOnInvalidValue;
+  // holds the bytes of the current field
+  private final DrillBuf fieldBuffer;
+
+  private FieldWriter currentWriter;
+  private int currentFieldIndex = -1;
+  private int currentDataPointer = 0;
+  private boolean fieldOpen = false;
+  private boolean rowHasData = false;
+  private int recordCount = 0;
+  private int maxField = -1;
+  private long invalidValueCount = 0;
+
+  /**
+   * @param outputMutator used to create the vectors of the columns
+   * @param schema the columns of the fields of the file
+   * @param columns the columns selected in the query
+   * @param isStarQuery whether all columns are selected
+   * @param nullOnInvalidValue whether values which can not be parsed are read as null, rather
+   *                           than failing the query
+   * @param fieldBuffer buffer of at least 64K bytes holding the bytes of a field
+   */
+  public TypedFieldOutput(OutputMutator outputMutator, TextSchema schema, Collection<SchemaPath> columns,
+      boolean isStarQuery, boolean nullOnInvalidValue, DrillBuf fieldBuffer) throws SchemaChangeException {
+    this.schema = schema;
+    this.nullOnInvalidValue = nullOnInvalidValue;
+    this.fieldBuffer = fieldBuffer;
+    this.writers = new FieldWriter[schema.getColumnCount()];
+
+    final boolean[] selectedFields = new boolean[schema.getColumnCount()];
+    final List<String> missingColumns = new ArrayList<>();
+    if (isStarQuery) {
+      for (int i = 0; i < selectedFields.length; i++) {
+        selectedFields[i] = true;
+      }
+    } else {
+      for (SchemaPath path : columns) {
+        final String name = path.getRootSegment().getPath();
+        if (name.equals(FieldVarCharOutput.COL_NAME) && path.getRootSegment().getChild() != null) {
+          throw UserException
+              .unsupportedError()
+              .message("With a declared schema, only the names of the schema are supported")
+              .addContext("column name", name)
+              .addContext("column index", path.getRootSegment().getChild())
+              .build(logger);
+        }
+        final int index = indexOf(name);
+        if (index < 0) {
+          // this column might be part of another scanner
+          missingColumns.add(name);
+        } else {
+          selectedFields[index] = true;
+        }
+      }
+    }
+
+    for (int i = 0; i < selectedFields.length; i++) {
+      if (selectedFields[i]) {
+        writers[i] = createWriter(outputMutator, i);
+        maxField = i;
+      }
+    }
+    for (String name : missingColumns) {
+      // left null
+      outputMutator.addField(MaterializedField.create(name, Types.optional(MinorType.VARCHAR)),
+          NullableVarCharVector.class);
+    }
+  }
+
+  private int indexOf(String name) {
+    for (int i = 0; i < schema.getColumnCount(); i++) {
+      if (schema.getName(i).equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private FieldWriter createWriter(OutputMutator outputMutator, int index) throws SchemaChangeException {
+    final MinorType type = schema.getType(index);
+    final MaterializedField field = MaterializedField.create(schema.getName(index), Types.optional(type));
+    final ValueVector vector = outputMutator.addField(field, TypeHelper.getValueVectorClass(type, DataMode.OPTIONAL));
+    switch (type) {
+      case INT:
+        return new IntWriter((NullableIntVector) vector);
+      case BIGINT:
+        return new BigIntWriter((NullableBigIntVector) vector);
+      case FLOAT4:
+        return new Float4Writer((NullableFloat4Vector) vector);
+      case FLOAT8:
+        return new Float8Writer((NullableFloat8Vector) vector);
+      case DATE:
+        return new DateWriter((NullableDateVector) vector);
+      case TIME:
+        return new TimeWriter((NullableTimeVector) vector);
+      case TIMESTAMP:
+        return new TimeStampWriter((NullableTimeStampVector) vector);
+      case VARCHAR:
+        return new VarCharWriter((NullableVarCharVector) vector);
+      default:
+        throw new UnsupportedOperationException("Unsupported type of a text column: " + type);
+    }
+  }
+
+  @Override
+  public void startBatch() {
+    this.recordCount = 0;
+    this.currentFieldIndex = -1;
+    this.fieldOpen = false;
+  }
+
+  @Override
+  public void startField(int index) {
+    currentFieldIndex = index;
+    currentDataPointer = 0;
+    fieldOpen = true;
+    // fields beyond the schema are ignored
+    currentWriter = index < writers.length ? writers[index] : null;
+  }
+
+  @Override
+  public void append(byte data) {
+    if (currentWriter == null) {
+      return;
+    }
+    checkFieldLength(1);
+    fieldBuffer.setByte(currentDataPointer++, data);
+  }
+
+  @Override
+  public void append(DrillBuf buffer, int start, int length) {
+    if (currentWriter == null) {
+      return;
+    }
+    checkFieldLength(length);
+    buffer.getBytes(start, fieldBuffer, currentDataPointer, length);
+    currentDataPointer += length;
+  }
+
+  private void checkFieldLength(int length) {
+    if (currentDataPointer + length > MAX_FIELD_LENGTH - 1) {
+      throw UserException
+          .unsupportedError()
+          .message("Trying to write something big in a column")
+          .addContext("columnIndex", currentFieldIndex)
+          .addContext("Limit", MAX_FIELD_LENGTH)
+          .build(logger);
+    }
+  }
+
+  @Override
+  public boolean endField() {
+    fieldOpen = false;
+
+    if (currentDataPointer > 0) {
+      rowHasData = true;
+      if (currentWriter != null) {
+        try {
+          currentWriter.write(recordCount, currentDataPointer);
+        } catch (IllegalArgumentException e) {
+          if (!nullOnInvalidValue) {
+            throw UserException
+                .dataReadError(e)
+                .message("Invalid value '%s' for column %s of type %s",
+                    fieldString(currentDataPointer),
+                    schema.getName(currentFieldIndex), schema.getType(currentFieldIndex))
+                .addContext("record", recordCount)
+                .build(logger);
+          }
+          invalidValueCount++;
+        }
+      }
+    }
+
+    return currentFieldIndex < maxField;
+  }
+
+  @Override
+  public boolean endEmptyField() {
+    return endField();
+  }
+
+  @Override
+  public void finishRecord() {
+    if (fieldOpen) {
+      endField();
+    }
+    recordCount++;
+  }
+
+  @Override
+  public void finishBatch() {
+    for (FieldWriter writer : writers) {
+      if (writer != null) {
+        writer.vector.getMutator().setValueCount(recordCount);
+      }
+    }
+    if (invalidValueCount > 0) {
+      logger.debug("Read {} invalid values as null.", invalidValueCount);
+      invalidValueCount = 0;
+    }
+  }
+
+  @Override
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public boolean rowHasData() {
+    return rowHasData;
+  }
+
+  private String fieldString(int length) {
+    return fieldBuffer.toString(0, length, Charsets.UTF_8);
+  }
+
+  /**
+   * Parses the bytes of a field into the vector of its column.
+   */
+  private abstract class FieldWriter {
+    final ValueVector vector;
+
+    FieldWriter(ValueVector vector) {
+      this.vector = vector;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a valid value of the column type
+     */
+    abstract void write(int index, int length);
+  }
+
+  private class IntWriter extends FieldWriter {
+    private final NullableIntVector.Mutator mutator;
+
+    IntWriter(NullableIntVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, StringFunctionHelpers.varTypesToInt(0, length, fieldBuffer));
+    }
+  }
+
+  private class BigIntWriter extends FieldWriter {
+    private final NullableBigIntVector.Mutator mutator;
+
+    BigIntWriter(NullableBigIntVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, StringFunctionHelpers.varTypesToLong(0, length, fieldBuffer));
+    }
+  }
+
+  private class Float4Writer extends FieldWriter {
+    private final NullableFloat4Vector.Mutator mutator;
+
+    Float4Writer(NullableFloat4Vector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, Float.parseFloat(fieldString(length)));
+    }
+  }
+
+  private class Float8Writer extends FieldWriter {
+    private final NullableFloat8Vector.Mutator mutator;
+
+    Float8Writer(NullableFloat8Vector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, Double.parseDouble(fieldString(length)));
+    }
+  }
+
+  private class DateWriter extends FieldWriter {
+    private final NullableDateVector.Mutator mutator;
+
+    DateWriter(NullableDateVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, StringFunctionHelpers.getDate(fieldBuffer, 0, length));
+    }
+  }
+
+  private class TimeWriter extends FieldWriter {
+    private final NullableTimeVector.Mutator mutator;
+
+    TimeWriter(NullableTimeVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, (int) DateUtility.getTimeFormatter().parseDateTime(fieldString(length))
+          .withZoneRetainFields(DateTimeZone.UTC).getMillis());
+    }
+  }
+
+  private class TimeStampWriter extends FieldWriter {
+    private final NullableTimeStampVector.Mutator mutator;
+
+    TimeStampWriter(NullableTimeStampVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, DateTime.parse(fieldString(length), DateUtility.getDateTimeFormatter())
+          .withZoneRetainFields(DateTimeZone.UTC).getMillis());
+    }
+  }
+
+  private class VarCharWriter extends FieldWriter {
+    private final NullableVarCharVector.Mutator mutator;
+
+    VarCharWriter(NullableVarCharVector vector) {
+      super(vector);
+      this.mutator = vector.getMutator();
+    }
+
+    @Override
+    void write(int index, int length) {
+      mutator.setSafe(index, 1, 0, length, fieldBuffer);
+    }
+  }
+}
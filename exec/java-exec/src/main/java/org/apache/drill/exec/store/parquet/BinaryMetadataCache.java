@@ -0,0 +1,503 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.drill.exec.store.parquet.Metadata.ColumnMetadata_v3;
+import org.apache.drill.exec.store.parquet.Metadata.ColumnTypeMetadata_v3;
+import org.apache.drill.exec.store.parquet.Metadata.ParquetFileMetadata_v3;
+import org.apache.drill.exec.store.parquet.Metadata.ParquetTableMetadata_v3;
+import org.apache.drill.exec.store.parquet.Metadata.RowGroupMetadata;
+import org.apache.drill.exec.store.parquet.Metadata.RowGroupMetadata_v3;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compact binary form of the Parquet metadata cache, written next to the JSON
+ * metadata file. All strings (file paths, column names, host names, binary
+ * min/max values) are stored once in a dictionary, and the row groups of each
+ * file are stored in their own block located through an offset, so that the
+ * planner decodes the row groups of a file only when it asks for them, i.e.
+ * only for the files that survive partition pruning.
+ * <p>
+ * Layout (big endian):
+ * <pre>
+ * int magic, int version
+ * int stringCount, int[stringCount + 1] string offsets, UTF-8 string data
+ * int drillVersion (string index, -1 for null)
+ * int directoryCount, int[directoryCount] directories (string indexes)
+ * int columnTypeCount, column types: name, primitive type, original type,
+ *     precision, scale, repetition level, definition level
+ * int fileCount, files: int path, long length, int row groups block offset
+ * row group blocks, per file: int rowGroupCount, row groups: long start,
+ *     long length, long rowCount, int hostCount, (int host, float affinity)*,
+ *     int columnCount, columns: name, long nulls, value min, value max
+ * </pre>
+ * Names are an int count followed by string indexes. Values are a tag byte
+ * followed by a long, a double, a byte or a string index; they decode to the
+ * same Java types as values read from the JSON file.
+ */
+final class BinaryMetadataCache {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BinaryMetadataCache.class);
+
+  public static final String BINARY_METADATA_FILENAME = Metadata.METADATA_FILENAME + ".bin";
+
+  private static final int MAGIC = 0x44504d43; // "DPMC"
+  private static final int VERSION = 1;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte INTEGRAL_VALUE = 1;
+  private static final byte DOUBLE_VALUE = 2;
+  private static final byte BOOLEAN_VALUE = 3;
+  private static final byte STRING_VALUE = 4;
+
+  private static final long NULL_NULLS = Long.MIN_VALUE;
+
+  private BinaryMetadataCache() { }
+
+  /**
+   * Thrown when the metadata holds a value the binary format cannot represent;
+   * only the JSON file is used for such tables.
+   */
+  static class UnsupportedValueException extends IOException {
+    UnsupportedValueException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Writes the given table metadata in the binary format.
+   *
+   * @throws UnsupportedValueException if some min/max value cannot be stored
+   */
+  static void write(ParquetTableMetadata_v3 table, OutputStream out) throws IOException {
+    final Dictionary dictionary = new Dictionary();
+    final List<Integer> blockSizes = Lists.newArrayList();
+    // first pass: collect the strings and the size of each file's row group block
+    dictionary.index(table.drillVersion);
+    for (String directory : table.directories) {
+      dictionary.index(directory);
+    }
+    for (ColumnTypeMetadata_v3 columnType : table.columnTypeInfo.values()) {
+      dictionary.index(columnType.name);
+    }
+    for (ParquetFileMetadata_v3 file : table.files) {
+      dictionary.index(file.path);
+      int size = 4;
+      for (RowGroupMetadata rowGroupMetadata : file.getRowGroups()) {
+        final RowGroupMetadata_v3 rowGroup = (RowGroupMetadata_v3) rowGroupMetadata;
+        size += 8 + 8 + 8 + 4 + 4;
+        for (String host : hostAffinity(rowGroup).keySet()) {
+          dictionary.index(host);
+          size += 4 + 4;
+        }
+        for (ColumnMetadata_v3 column : rowGroup.columns) {
+          dictionary.index(column.name);
+          final PrimitiveTypeName type = primitiveType(table, column.name);
+          size += 4 + 4 * column.name.length + 8
+              + valueSize(dictionary, column.minValue, type) + valueSize(dictionary, column.maxValue, type);
+        }
+      }
+      blockSizes.add(size);
+    }
+
+    final DataOutputStream os = new DataOutputStream(out);
+    os.writeInt(MAGIC);
+    os.writeInt(VERSION);
+    dictionary.write(os);
+    os.writeInt(dictionary.get(table.drillVersion));
+    os.writeInt(table.directories.size());
+    for (String directory : table.directories) {
+      os.writeInt(dictionary.get(directory));
+    }
+    os.writeInt(table.columnTypeInfo.size());
+    for (ColumnTypeMetadata_v3 columnType : table.columnTypeInfo.values()) {
+      writeName(os, dictionary, columnType.name);
+      os.writeInt(columnType.primitiveType.ordinal());
+      os.writeInt(columnType.originalType == null ? -1 : columnType.originalType.ordinal());
+      os.writeInt(columnType.precision);
+      os.writeInt(columnType.scale);
+      os.writeInt(columnType.repetitionLevel);
+      os.writeInt(columnType.definitionLevel);
+    }
+    os.writeInt(table.files.size());
+    int offset = 0;
+    for (int i = 0; i < table.files.size(); i++) {
+      final ParquetFileMetadata_v3 file = table.files.get(i);
+      os.writeInt(dictionary.get(file.path));
+      os.writeLong(file.length == null ? -1 : file.length);
+      os.writeInt(offset);
+      offset += blockSizes.get(i);
+    }
+    for (ParquetFileMetadata_v3 file : table.files) {
+      os.writeInt(file.getRowGroups().size());
+      for (RowGroupMetadata rowGroupMetadata : file.getRowGroups()) {
+        final RowGroupMetadata_v3 rowGroup = (RowGroupMetadata_v3) rowGroupMetadata;
+        os.writeLong(rowGroup.start);
+        os.writeLong(rowGroup.length);
+        os.writeLong(rowGroup.rowCount);
+        os.writeInt(hostAffinity(rowGroup).size());
+        for (Map.Entry<String, Float> host : hostAffinity(rowGroup).entrySet()) {
+          os.writeInt(dictionary.get(host.getKey()));
+          os.writeFloat(host.getValue());
+        }
+        os.writeInt(rowGroup.columns.size());
+        for (ColumnMetadata_v3 column : rowGroup.columns) {
+          final PrimitiveTypeName type = primitiveType(table, column.name);
+          writeName(os, dictionary, column.name);
+          os.writeLong(column.nulls == null ? NULL_NULLS : column.nulls);
+          writeValue(os, dictionary, column.minValue, type);
+          writeValue(os, dictionary, column.maxValue, type);
+        }
+      }
+    }
+    os.flush();
+  }
+
+  /**
+   * Reads the binary metadata file. Local files are memory-mapped, others are
+   * read into memory.
+   */
+  static ParquetTableMetadata_v3 read(FileSystem fs, Path path) throws IOException {
+    final long length = fs.getFileStatus(path).getLen();
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("Binary metadata file too large: " + path);
+    }
+    final ByteBuffer buffer;
+    if ("file".equals(fs.getUri().getScheme())) {
+      try (FileChannel channel = FileChannel.open(new File(path.toUri().getPath()).toPath(), StandardOpenOption.READ)) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      }
+    } else {
+      final byte[] bytes = new byte[(int) length];
+      try (FSDataInputStream is = fs.open(path)) {
+        is.readFully(0, bytes);
+      }
+      buffer = ByteBuffer.wrap(bytes);
+    }
+    return new Reader(buffer).read();
+  }
+
+  private static Map<String, Float> hostAffinity(RowGroupMetadata_v3 rowGroup) {
+    return rowGroup.hostAffinity == null ? Maps.<String, Float>newHashMap() : rowGroup.hostAffinity;
+  }
+
+  private static PrimitiveTypeName primitiveType(ParquetTableMetadata_v3 table, String[] name) {
+    final ColumnTypeMetadata_v3 columnType = table.getColumnTypeInfo(name);
+    return columnType == null ? null : columnType.primitiveType;
+  }
+
+  private static int valueSize(Dictionary dictionary, Object value, PrimitiveTypeName type)
+      throws UnsupportedValueException {
+    if (value == null) {
+      return 1;
+    } else if (value instanceof Boolean) {
+      return 2;
+    } else if (value instanceof String || value instanceof Binary) {
+      dictionary.index(toStringValue(value, type));
+      return 5;
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof Float || value instanceof Double) {
+      return 9;
+    }
+    throw new UnsupportedValueException("Unsupported value type " + value.getClass().getName());
+  }
+
+  private static String toStringValue(Object value, PrimitiveTypeName type) throws UnsupportedValueException {
+    if (value instanceof Binary) {
+      // as written to the JSON file, see ColumnMetadata_v3.Serializer
+      if (type != PrimitiveTypeName.BINARY) {
+        throw new UnsupportedValueException("Unsupported binary value of type " + type);
+      }
+      return new String(((Binary) value).getBytes());
+    }
+    return (String) value;
+  }
+
+  private static void writeValue(DataOutputStream os, Dictionary dictionary, Object value, PrimitiveTypeName type)
+      throws IOException {
+    if (value == null) {
+      os.writeByte(NULL_VALUE);
+    } else if (value instanceof Boolean) {
+      os.writeByte(BOOLEAN_VALUE);
+      os.writeByte((Boolean) value ? 1 : 0);
+    } else if (value instanceof Float || value instanceof Double) {
+      os.writeByte(DOUBLE_VALUE);
+      os.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof Number) {
+      os.writeByte(INTEGRAL_VALUE);
+      os.writeLong(((Number) value).longValue());
+    } else {
+      os.writeByte(STRING_VALUE);
+      os.writeInt(dictionary.get(toStringValue(value, type)));
+    }
+  }
+
+  private static void writeName(DataOutputStream os, Dictionary dictionary, String[] name) throws IOException {
+    os.writeInt(name.length);
+    for (String part : name) {
+      os.writeInt(dictionary.get(part));
+    }
+  }
+
+  /**
+   * The strings of the file, numbered in order of first use.
+   */
+  private static class Dictionary {
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+    private void index(String value) {
+      if (value != null && !indexes.containsKey(value)) {
+        indexes.put(value, indexes.size());
+      }
+    }
+
+    private void index(String[] name) {
+      for (String part : name) {
+        index(part);
+      }
+    }
+
+    private int get(String value) {
+      return value == null ? -1 : indexes.get(value);
+    }
+
+    private void write(DataOutputStream os) throws IOException {
+      final List<byte[]> encoded = new ArrayList<>(indexes.size());
+      for (String value : indexes.keySet()) {
+        encoded.add(value.getBytes(StandardCharsets.UTF_8));
+      }
+      os.writeInt(encoded.size());
+      int offset = 0;
+      for (byte[] bytes : encoded) {
+        os.writeInt(offset);
+        offset += bytes.length;
+      }
+      os.writeInt(offset);
+      for (byte[] bytes : encoded) {
+        os.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Decodes a binary metadata file. Strings are decoded when first used and the
+   * row groups of a file when first asked for.
+   */
+  private static class Reader {
+    private final ByteBuffer buffer;
+    private int stringOffsets;
+    private int stringData;
+    private String[] strings;
+    private int rowGroupBlocks;
+
+    private Reader(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    private ParquetTableMetadata_v3 read() throws IOException {
+      int position = 0;
+      if (buffer.getInt(position) != MAGIC || buffer.getInt(position + 4) != VERSION) {
+        throw new IOException("Not a binary Parquet metadata file of version " + VERSION);
+      }
+      position += 8;
+      final int stringCount = buffer.getInt(position);
+      strings = new String[stringCount];
+      stringOffsets = position + 4;
+      stringData = stringOffsets + 4 * (stringCount + 1);
+      position = stringData + buffer.getInt(stringOffsets + 4 * stringCount);
+
+      final ParquetTableMetadata_v3 table = new ParquetTableMetadata_v3();
+      table.drillVersion = string(buffer.getInt(position));
+      position += 4;
+
+      final int directoryCount = buffer.getInt(position);
+      position += 4;
+      table.directories = new ArrayList<>(directoryCount);
+      for (int i = 0; i < directoryCount; i++, position += 4) {
+        table.directories.add(string(buffer.getInt(position)));
+      }
+
+      final int columnTypeCount = buffer.getInt(position);
+      position += 4;
+      table.columnTypeInfo = new ConcurrentHashMap<>();
+      for (int i = 0; i < columnTypeCount; i++) {
+        final String[] name = name(position);
+        position += 4 + 4 * name.length;
+        final PrimitiveTypeName primitiveType = PrimitiveTypeName.values()[buffer.getInt(position)];
+        final int originalType = buffer.getInt(position + 4);
+        final ColumnTypeMetadata_v3 columnType = new ColumnTypeMetadata_v3(name, primitiveType,
+            originalType < 0 ? null : OriginalType.values()[originalType], buffer.getInt(position + 8),
+            buffer.getInt(position + 12), buffer.getInt(position + 16), buffer.getInt(position + 20));
+        position += 24;
+        table.columnTypeInfo.put(new ColumnTypeMetadata_v3.Key(name), columnType);
+      }
+
+      final int fileCount = buffer.getInt(position);
+      position += 4;
+      rowGroupBlocks = position + fileCount * (4 + 8 + 4);
+      table.files = new ArrayList<>(fileCount);
+      for (int i = 0; i < fileCount; i++, position += 16) {
+        final long length = buffer.getLong(position + 4);
+        table.files.add(new LazyFileMetadata(this, string(buffer.getInt(position)), length < 0 ? null : length,
+            rowGroupBlocks + buffer.getInt(position + 12)));
+      }
+      return table;
+    }
+
+    private synchronized String string(int index) {
+      if (index < 0) {
+        return null;
+      }
+      String value = strings[index];
+      if (value == null) {
+        final int start = buffer.getInt(stringOffsets + 4 * index);
+        final int end = buffer.getInt(stringOffsets + 4 * (index + 1));
+        final byte[] bytes = new byte[end - start];
+        final ByteBuffer data = buffer.duplicate();
+        data.position(stringData + start);
+        data.get(bytes);
+        value = new String(bytes, StandardCharsets.UTF_8);
+        strings[index] = value;
+      }
+      return value;
+    }
+
+    private String[] name(int position) {
+      final String[] name = new String[buffer.getInt(position)];
+      for (int i = 0; i < name.length; i++) {
+        name[i] = string(buffer.getInt(position + 4 + 4 * i));
+      }
+      return name;
+    }
+
+    private Object value(int position) {
+      switch (buffer.get(position)) {
+        case INTEGRAL_VALUE:
+          // as Jackson does for numbers read into an Object
+          final long value = buffer.getLong(position + 1);
+          return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+        case DOUBLE_VALUE:
+          return buffer.getDouble(position + 1);
+        case BOOLEAN_VALUE:
+          return buffer.get(position + 1) != 0;
+        case STRING_VALUE:
+          return string(buffer.getInt(position + 1));
+        default:
+          return null;
+      }
+    }
+
+    private static int valueSize(byte tag) {
+      switch (tag) {
+        case INTEGRAL_VALUE:
+        case DOUBLE_VALUE:
+          return 9;
+        case BOOLEAN_VALUE:
+          return 2;
+        case STRING_VALUE:
+          return 5;
+        default:
+          return 1;
+      }
+    }
+
+    private List<RowGroupMetadata_v3> rowGroups(int position) {
+      final int rowGroupCount = buffer.getInt(position);
+      position += 4;
+      final List<RowGroupMetadata_v3> rowGroups = new ArrayList<>(rowGroupCount);
+      for (int i = 0; i < rowGroupCount; i++) {
+        final long start = buffer.getLong(position);
+        final long length = buffer.getLong(position + 8);
+        final long rowCount = buffer.getLong(position + 16);
+        final int hostCount = buffer.getInt(position + 24);
+        position += 28;
+        final Map<String, Float> hostAffinity = Maps.newHashMapWithExpectedSize(hostCount);
+        for (int h = 0; h < hostCount; h++, position += 8) {
+          hostAffinity.put(string(buffer.getInt(position)), buffer.getFloat(position + 4));
+        }
+        final int columnCount = buffer.getInt(position);
+        position += 4;
+        final List<ColumnMetadata_v3> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+          final String[] name = name(position);
+          position += 4 + 4 * name.length;
+          final long nulls = buffer.getLong(position);
+          position += 8;
+          final Object min = value(position);
+          position += valueSize(buffer.get(position));
+          final Object max = value(position);
+          position += valueSize(buffer.get(position));
+          columns.add(new ColumnMetadata_v3(name, null, min, max, nulls == NULL_NULLS ? null : nulls));
+        }
+        rowGroups.add(new RowGroupMetadata_v3(start, length, rowCount, hostAffinity, columns));
+      }
+      return rowGroups;
+    }
+  }
+
+  /**
+   * File metadata whose row groups are decoded on first use.
+   */
+  static class LazyFileMetadata extends ParquetFileMetadata_v3 {
+    private final Reader reader;
+    private final int rowGroupsPosition;
+
+    private LazyFileMetadata(Reader reader, String path, Long length, int rowGroupsPosition) {
+      super(path, length, null);
+      this.reader = reader;
+      this.rowGroupsPosition = rowGroupsPosition;
+    }
+
+    @Override
+    public synchronized List<? extends RowGroupMetadata> getRowGroups() {
+      if (rowGroups == null) {
+        final List<RowGroupMetadata_v3> decoded = reader.rowGroups(rowGroupsPosition);
+        // DRILL-5009: skip empty row groups, as done for the JSON file
+        for (Iterator<RowGroupMetadata_v3> iter = decoded.iterator(); iter.hasNext(); ) {
+          if (iter.next().getRowCount() == 0) {
+            iter.remove();
+          }
+        }
+        rowGroups = decoded;
+      }
+      return rowGroups;
+    }
+  }
+}
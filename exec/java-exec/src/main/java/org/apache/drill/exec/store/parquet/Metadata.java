@@ -18,11 +18,14 @@
 package org.apache.drill.exec.store.parquet;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Iterator;
+import java.util.UUID;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -102,7 +105,7 @@ public class Metadata {
    */
   public static void createMeta(FileSystem fs, String path, ParquetFormatConfig formatConfig) throws IOException {
     Metadata metadata = new Metadata(fs, formatConfig);
-    metadata.createMetaFilesRecursively(path);
+    metadata.createMetaFilesRecursively(path, null);
   }
 
   /**
@@ -159,42 +162,93 @@ public class Metadata {
   }
 
   /**
-   * Create the parquet metadata file for the directory at the given path, and for any subdirectories
+   * Create the parquet metadata file for the directory at the given path, and for any subdirectories.
+   * The footers of the files already described by the existing metadata file of the directory (if any)
+   * are not read again, unless the files changed since the metadata file was written.
    *
    * @param path
+   * @param previous the metadata already read from the metadata file of the directory, or null to read it
    * @throws IOException
    */
   private Pair<ParquetTableMetadata_v3, ParquetTableMetadataDirs>
-  createMetaFilesRecursively(final String path) throws IOException {
+  createMetaFilesRecursively(final String path, ParquetTableMetadataBase previous) throws IOException {
     Stopwatch timer = Stopwatch.createStarted();
+    Path p = new Path(path);
+    Path metaFilePath = new Path(p, METADATA_FILENAME);
+    PreviousMetadata previousMetadata = null;
+    if (previous == null && fs.exists(metaFilePath)) {
+      previous = readBinaryFile(metaFilePath);
+    }
+    if (previous == null && fs.exists(metaFilePath)) {
+      try (FSDataInputStream is = fs.open(metaFilePath)) {
+        previous = createReadMapper().readValue(is, ParquetTableMetadataBase.class);
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Failure while reading metadata file {}, creating it from scratch", metaFilePath, e);
+      }
+    }
+    if (previous instanceof ParquetTableMetadata_v3) {
+      previousMetadata = new PreviousMetadata((ParquetTableMetadata_v3) previous,
+          fs.getFileStatus(metaFilePath).getModificationTime());
+    }
+    DirectoryMetadata result = createMetaFilesRecursively(p, previousMetadata);
+    logger.info("Creating metadata files recursively took {} ms, read {} footers",
+        timer.elapsed(TimeUnit.MILLISECONDS), result.footersRead);
+    timer.stop();
+    return Pair.of(result.tableMetadata, result.directories);
+  }
+
+  /**
+   * Create the parquet metadata files of a directory and its subdirectories, re-using the file metadata
+   * known from a previous run when possible. The metadata file of a directory is only rewritten when
+   * something changed in the directory or below it.
+   */
+  private DirectoryMetadata createMetaFilesRecursively(Path p, PreviousMetadata previous) throws IOException {
     List<ParquetFileMetadata_v3> metaDataList = Lists.newArrayList();
     List<String> directoryList = Lists.newArrayList();
     ConcurrentHashMap<ColumnTypeMetadata_v3.Key, ColumnTypeMetadata_v3> columnTypeInfoSet =
         new ConcurrentHashMap<>();
-    Path p = new Path(path);
     FileStatus fileStatus = fs.getFileStatus(p);
     assert fileStatus.isDirectory() : "Expected directory";
 
+    Path metaFilePath = new Path(p, METADATA_FILENAME);
+    boolean changed = previous == null || !fs.exists(metaFilePath)
+        || fileStatus.getModificationTime() > fs.getFileStatus(metaFilePath).getModificationTime();
+    int footersRead = 0;
+
     final List<FileStatus> childFiles = Lists.newArrayList();
 
     for (final FileStatus file : fs.listStatus(p, new DrillPathFilter())) {
       if (file.isDirectory()) {
-        ParquetTableMetadata_v3 subTableMetadata = (createMetaFilesRecursively(file.getPath().toString())).getLeft();
+        DirectoryMetadata subDirectory = createMetaFilesRecursively(file.getPath(), previous);
+        ParquetTableMetadata_v3 subTableMetadata = subDirectory.tableMetadata;
         metaDataList.addAll(subTableMetadata.files);
         directoryList.addAll(subTableMetadata.directories);
         directoryList.add(file.getPath().toString());
         // Merge the schema from the child level into the current level
         //TODO: We need a merge method that merges two colums with the same name but different types
         columnTypeInfoSet.putAll(subTableMetadata.columnTypeInfo);
+        changed |= subDirectory.changed;
+        footersRead += subDirectory.footersRead;
       } else {
         childFiles.add(file);
       }
     }
     ParquetTableMetadata_v3 parquetTableMetadata = new ParquetTableMetadata_v3(DrillVersionInfo.getVersion());
     if (childFiles.size() > 0) {
-      List<ParquetFileMetadata_v3 > childFilesMetadata =
-          getParquetFileMetadata_v3(parquetTableMetadata, childFiles);
-      metaDataList.addAll(childFilesMetadata);
+      final List<FileStatus> filesToRead = Lists.newArrayList();
+      for (FileStatus file : childFiles) {
+        ParquetFileMetadata_v3 fileMetadata = previous == null ? null : previous.reuse(file, parquetTableMetadata);
+        if (fileMetadata != null) {
+          metaDataList.add(fileMetadata);
+        } else {
+          filesToRead.add(file);
+        }
+      }
+      if (filesToRead.size() > 0) {
+        metaDataList.addAll(getParquetFileMetadata_v3(parquetTableMetadata, filesToRead));
+        footersRead += filesToRead.size();
+        changed = true;
+      }
       // Note that we do not need to merge the columnInfo at this point. The columnInfo is already added
       // to the parquetTableMetadata.
     }
@@ -207,22 +261,107 @@ public class Metadata {
     }
     parquetTableMetadata.columnTypeInfo.putAll(columnTypeInfoSet);
 
-    for (String oldname : OLD_METADATA_FILENAMES) {
-      fs.delete(new Path(p, oldname), false);
+    ParquetTableMetadataDirs parquetTableMetadataDirs = new ParquetTableMetadataDirs(
+        directoryList.size() > 0 && childFiles.size() == 0 ? directoryList : Lists.<String>newArrayList());
+    if (changed) {
+      for (String oldname : OLD_METADATA_FILENAMES) {
+        fs.delete(new Path(p, oldname), false);
+      }
+      writeFile(parquetTableMetadata, metaFilePath);
+      if (directoryList.size() > 0 && childFiles.size() == 0) {
+        writeFile(parquetTableMetadataDirs, new Path(p, METADATA_DIRECTORIES_FILENAME));
+      }
     }
-    writeFile(parquetTableMetadata, new Path(p, METADATA_FILENAME));
+    return new DirectoryMetadata(parquetTableMetadata, parquetTableMetadataDirs, changed, footersRead);
+  }
 
-    if (directoryList.size() > 0 && childFiles.size() == 0) {
-      ParquetTableMetadataDirs parquetTableMetadataDirs = new ParquetTableMetadataDirs(directoryList);
-      writeFile(parquetTableMetadataDirs, new Path(p, METADATA_DIRECTORIES_FILENAME));
-      logger.info("Creating metadata files recursively took {} ms", timer.elapsed(TimeUnit.MILLISECONDS));
-      timer.stop();
-      return Pair.of(parquetTableMetadata, parquetTableMetadataDirs);
+  /**
+   * Sets the modification time of the metadata files of a directory to the one of the directory, which the
+   * creation and rename of each file written moves past the time of the files written before it. Otherwise,
+   * the directory would look modified since the metadata files were written, and the table refreshed again
+   * on every query.
+   */
+  private void alignModificationTimes(Path p) throws IOException {
+    long modificationTime = fs.getFileStatus(p).getModificationTime();
+    for (String name : new String[] {METADATA_FILENAME, BinaryMetadataCache.BINARY_METADATA_FILENAME,
+        METADATA_DIRECTORIES_FILENAME}) {
+      Path file = new Path(p, name);
+      if (fs.exists(file)) {
+        fs.setTimes(file, modificationTime, -1);
+      }
+    }
+  }
+
+  /**
+   * The metadata of a directory and its subdirectories, as built by
+   * {@link #createMetaFilesRecursively(Path, PreviousMetadata)}.
+   */
+  private static class DirectoryMetadata {
+    private final ParquetTableMetadata_v3 tableMetadata;
+    private final ParquetTableMetadataDirs directories;
+    private final boolean changed;
+    private final int footersRead;
+
+    private DirectoryMetadata(ParquetTableMetadata_v3 tableMetadata, ParquetTableMetadataDirs directories,
+        boolean changed, int footersRead) {
+      this.tableMetadata = tableMetadata;
+      this.directories = directories;
+      this.changed = changed;
+      this.footersRead = footersRead;
+    }
+  }
+
+  /**
+   * The file metadata of an existing metadata file, looked up by file path when refreshing the metadata.
+   */
+  private static class PreviousMetadata {
+    private final Map<String, ParquetFileMetadata_v3> files = Maps.newHashMap();
+    private final ParquetTableMetadata_v3 tableMetadata;
+    private final long modificationTime;
+
+    private PreviousMetadata(ParquetTableMetadata_v3 tableMetadata, long modificationTime) {
+      this.tableMetadata = tableMetadata;
+      this.modificationTime = modificationTime;
+      for (ParquetFileMetadata_v3 file : tableMetadata.files) {
+        files.put(file.path, file);
+      }
+    }
+
+    /**
+     * Returns the previous metadata of the given file if the file did not change since, adding its column
+     * types to the given table metadata.
+     *
+     * @return the file metadata, or null if the footer of the file must be read
+     */
+    private ParquetFileMetadata_v3 reuse(FileStatus file, ParquetTableMetadata_v3 parquetTableMetadata) {
+      ParquetFileMetadata_v3 fileMetadata =
+          files.get(Path.getPathWithoutSchemeAndAuthority(file.getPath()).toString());
+      if (fileMetadata != null) {
+        // decodes the row groups of files read from the binary metadata file
+        fileMetadata.getRowGroups();
+      }
+      if (fileMetadata == null || fileMetadata.rowGroups == null || fileMetadata.rowGroups.isEmpty()
+          || fileMetadata.length == null || fileMetadata.length != file.getLen()
+          || file.getModificationTime() > modificationTime || tableMetadata.columnTypeInfo == null) {
+        return null;
+      }
+      Map<ColumnTypeMetadata_v3.Key, ColumnTypeMetadata_v3> columnTypes = Maps.newHashMap();
+      for (RowGroupMetadata_v3 rowGroup : fileMetadata.rowGroups) {
+        for (ColumnMetadata_v3 column : rowGroup.columns) {
+          ColumnTypeMetadata_v3.Key key = new ColumnTypeMetadata_v3.Key(column.name);
+          ColumnTypeMetadata_v3 columnType = tableMetadata.columnTypeInfo.get(key);
+          if (columnType == null) {
+            return null;
+          }
+          columnTypes.put(key, columnType);
+        }
+      }
+      if (parquetTableMetadata.columnTypeInfo == null) {
+        parquetTableMetadata.columnTypeInfo = new ConcurrentHashMap<>();
+      }
+      parquetTableMetadata.columnTypeInfo.putAll(columnTypes);
+      return fileMetadata;
     }
-    List<String> emptyDirList = Lists.newArrayList();
-    logger.info("Creating metadata files recursively took {} ms", timer.elapsed(TimeUnit.MILLISECONDS));
-    timer.stop();
-    return Pair.of(parquetTableMetadata, new ParquetTableMetadataDirs(emptyDirList));
   }
 
   /**
@@ -276,7 +415,8 @@ public class Metadata {
     }
 
     List<ParquetFileMetadata_v3> metaDataList = Lists.newArrayList();
-    metaDataList.addAll(TimedRunnable.run("Fetch parquet metadata", logger, gatherers, 16));
+    metaDataList.addAll(TimedRunnable.run("Fetch parquet metadata", logger, gatherers,
+        Math.max(1, formatConfig.metadataParallelism)));
     return metaDataList;
   }
 
@@ -506,10 +646,28 @@ public class Metadata {
     SimpleModule module = new SimpleModule();
     module.addSerializer(ColumnMetadata_v3.class, new ColumnMetadata_v3.Serializer());
     mapper.registerModule(module);
-    FSDataOutputStream os = fs.create(p);
-    mapper.writerWithDefaultPrettyPrinter().writeValue(os, parquetTableMetadata);
-    os.flush();
-    os.close();
+    writeAtomically(mapper, parquetTableMetadata, p);
+    writeBinaryFile(parquetTableMetadata, new Path(p.getParent(), BinaryMetadataCache.BINARY_METADATA_FILENAME));
+  }
+
+  /**
+   * Writes the binary form of the metadata next to the JSON file. The JSON file stays the reference: when the
+   * binary file cannot be written, any stale one is removed so that readers fall back to the JSON file.
+   */
+  private void writeBinaryFile(final ParquetTableMetadata_v3 parquetTableMetadata, Path p) throws IOException {
+    try {
+      writeAtomically(new StreamWriter() {
+        @Override
+        public void write(OutputStream os) throws IOException {
+          BinaryMetadataCache.write(parquetTableMetadata, os);
+        }
+      }, p);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failure while writing binary metadata file {}, only the JSON metadata file will be used", p, e);
+      if (fs.exists(p)) {
+        fs.delete(p, false);
+      }
+    }
   }
 
   private void writeFile(ParquetTableMetadataDirs parquetTableMetadataDirs, Path p) throws IOException {
@@ -519,25 +677,50 @@ public class Metadata {
     ObjectMapper mapper = new ObjectMapper(jsonFactory);
     SimpleModule module = new SimpleModule();
     mapper.registerModule(module);
-    FSDataOutputStream os = fs.create(p);
-    mapper.writerWithDefaultPrettyPrinter().writeValue(os, parquetTableMetadataDirs);
-    os.flush();
-    os.close();
+    writeAtomically(mapper, parquetTableMetadataDirs, p);
   }
 
   /**
-   * Read the parquet metadata from a file
-   *
-   * @param path
-   * @return
-   * @throws IOException
+   * Writes the given value to a hidden temporary file next to the target, then renames it to the target so
+   * that readers never see a partially written metadata file. The modification times of the metadata files
+   * of the directory are then aligned with the one of the directory, which the rename updated.
    */
-  private void readBlockMeta(String path,
-      boolean dirsOnly,
-      MetadataContext metaContext) throws IOException {
-    Stopwatch timer = Stopwatch.createStarted();
-    Path p = new Path(path);
-    Path parentDir = p.getParent(); // parent directory of the metadata file
+  private void writeAtomically(final ObjectMapper mapper, final Object value, Path p) throws IOException {
+    writeAtomically(new StreamWriter() {
+      @Override
+      public void write(OutputStream os) throws IOException {
+        mapper.writerWithDefaultPrettyPrinter().writeValue(os, value);
+      }
+    }, p);
+  }
+
+  private void writeAtomically(StreamWriter writer, Path p) throws IOException {
+    Path tmp = new Path(p.getParent(), p.getName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      try (FSDataOutputStream os = fs.create(tmp)) {
+        writer.write(os);
+        os.flush();
+      }
+      if (!fs.rename(tmp, p)) {
+        // the rename does not replace an existing file on all file systems
+        fs.delete(p, false);
+        if (!fs.rename(tmp, p)) {
+          throw new IOException(String.format("Failed to rename %s to %s", tmp, p));
+        }
+      }
+      alignModificationTimes(p.getParent());
+    } finally {
+      if (fs.exists(tmp)) {
+        fs.delete(tmp, false);
+      }
+    }
+  }
+
+  private interface StreamWriter {
+    void write(OutputStream os) throws IOException;
+  }
+
+  private ObjectMapper createReadMapper() {
     ObjectMapper mapper = new ObjectMapper();
 
     final SimpleModule serialModule = new SimpleModule();
@@ -551,7 +734,23 @@ public class Metadata {
     mapper.registerModule(serialModule);
     mapper.registerModule(module);
     mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    FSDataInputStream is = fs.open(p);
+    return mapper;
+  }
+
+  /**
+   * Read the parquet metadata from a file
+   *
+   * @param path
+   * @return
+   * @throws IOException
+   */
+  private void readBlockMeta(String path,
+      boolean dirsOnly,
+      MetadataContext metaContext) throws IOException {
+    Stopwatch timer = Stopwatch.createStarted();
+    Path p = new Path(path);
+    Path parentDir = p.getParent(); // parent directory of the metadata file
+    ObjectMapper mapper = createReadMapper();
 
     boolean alreadyCheckedModification = false;
     boolean newMetadata = false;
@@ -561,26 +760,37 @@ public class Metadata {
     }
 
     if (dirsOnly) {
-      parquetTableMetadataDirs = mapper.readValue(is, ParquetTableMetadataDirs.class);
+      try (FSDataInputStream is = fs.open(p)) {
+        parquetTableMetadataDirs = mapper.readValue(is, ParquetTableMetadataDirs.class);
+      }
       logger.info("Took {} ms to read directories from directory cache file", timer.elapsed(TimeUnit.MILLISECONDS));
       timer.stop();
       if (!alreadyCheckedModification && tableModified(parquetTableMetadataDirs.getDirectories(), p, parentDir, metaContext)) {
         parquetTableMetadataDirs =
-            (createMetaFilesRecursively(Path.getPathWithoutSchemeAndAuthority(p.getParent()).toString())).getRight();
+            (createMetaFilesRecursively(Path.getPathWithoutSchemeAndAuthority(p.getParent()).toString(), null)).getRight();
         newMetadata = true;
       }
     } else {
-      parquetTableMetadata = mapper.readValue(is, ParquetTableMetadataBase.class);
-      logger.info("Took {} ms to read metadata from cache file", timer.elapsed(TimeUnit.MILLISECONDS));
+      parquetTableMetadata = readBinaryFile(p);
+      final boolean binary = parquetTableMetadata != null;
+      if (!binary) {
+        try (FSDataInputStream is = fs.open(p)) {
+          parquetTableMetadata = mapper.readValue(is, ParquetTableMetadataBase.class);
+        }
+      }
+      logger.info("Took {} ms to read metadata from {} cache file", timer.elapsed(TimeUnit.MILLISECONDS),
+          binary ? "binary" : "JSON");
       timer.stop();
       if (!alreadyCheckedModification && tableModified(parquetTableMetadata.getDirectories(), p, parentDir, metaContext)) {
         parquetTableMetadata =
-            (createMetaFilesRecursively(Path.getPathWithoutSchemeAndAuthority(p.getParent()).toString())).getLeft();
+            (createMetaFilesRecursively(Path.getPathWithoutSchemeAndAuthority(p.getParent()).toString(),
+                parquetTableMetadata)).getLeft();
         newMetadata = true;
       }
 
-      // DRILL-5009: Remove the RowGroup if it is empty
-      List<? extends ParquetFileMetadata> files = parquetTableMetadata.getFiles();
+      // DRILL-5009: Remove the RowGroup if it is empty. Row groups of the binary file are filtered when decoded.
+      List<? extends ParquetFileMetadata> files =
+          binary && !newMetadata ? Collections.<ParquetFileMetadata>emptyList() : parquetTableMetadata.getFiles();
       for (ParquetFileMetadata file : files) {
         List<? extends RowGroupMetadata> rowGroups = file.getRowGroups();
         for (Iterator<? extends RowGroupMetadata> iter = rowGroups.iterator(); iter.hasNext(); ) {
@@ -600,6 +810,25 @@ public class Metadata {
 
   }
 
+  /**
+   * Reads the binary form of the given JSON metadata file, if present and not older than the JSON file.
+   *
+   * @return the metadata, or null if the JSON file must be read instead
+   */
+  private ParquetTableMetadata_v3 readBinaryFile(Path metaFilePath) {
+    Path binaryFilePath = new Path(metaFilePath.getParent(), BinaryMetadataCache.BINARY_METADATA_FILENAME);
+    try {
+      if (!fs.exists(binaryFilePath) || fs.getFileStatus(binaryFilePath).getModificationTime()
+          < fs.getFileStatus(metaFilePath).getModificationTime()) {
+        return null;
+      }
+      return BinaryMetadataCache.read(fs, binaryFilePath);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failure while reading binary metadata file {}, reading {} instead", binaryFilePath, metaFilePath, e);
+      return null;
+    }
+  }
+
   /**
    * Check if the parquet metadata needs to be updated by comparing the modification time of the directories with
    * the modification time of the metadata file
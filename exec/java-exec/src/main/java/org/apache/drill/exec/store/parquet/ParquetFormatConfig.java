@@ -28,6 +28,11 @@ public class ParquetFormatConfig implements FormatPluginConfig{
 
   public boolean autoCorrectCorruptDates = true;
 
+  /**
+   * Number of footers read in parallel when creating or refreshing the metadata cache.
+   */
+  public int metadataParallelism = 16;
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -39,12 +44,13 @@ public class ParquetFormatConfig implements FormatPluginConfig{
 
     ParquetFormatConfig that = (ParquetFormatConfig) o;
 
-    return autoCorrectCorruptDates == that.autoCorrectCorruptDates;
+    return autoCorrectCorruptDates == that.autoCorrectCorruptDates
+        && metadataParallelism == that.metadataParallelism;
 
   }
 
   @Override
   public int hashCode() {
-    return (autoCorrectCorruptDates ? 1231 : 1237);
+    return 31 * (autoCorrectCorruptDates ? 1231 : 1237) + metadataParallelism;
   }
 }
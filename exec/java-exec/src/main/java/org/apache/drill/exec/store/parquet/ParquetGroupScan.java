@@ -54,6 +54,7 @@ import org.apache.drill.exec.physical.base.GroupScan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.ScanStats;
 import org.apache.drill.exec.physical.base.ScanStats.GroupScanProperty;
+import org.apache.drill.exec.planner.cost.TableStatistics;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.server.options.OptionManager;
@@ -150,6 +151,12 @@ public class ParquetGroupScan extends AbstractFileGroupScan {
    */
   private Map<SchemaPath, Long> columnValueCounts;
 
+  /*
+   * statistics computed by ANALYZE TABLE, read on first use by the planner.
+   */
+  private TableStatistics tableStatistics;
+  private boolean tableStatisticsLoaded = false;
+
   @JsonCreator public ParquetGroupScan( //
       @JsonProperty("userName") String userName,
       @JsonProperty("entries") List<ReadEntryWithPath> entries,//
@@ -253,6 +260,8 @@ public class ParquetGroupScan extends AbstractFileGroupScan {
     this.parquetTableMetadata = that.parquetTableMetadata;
     this.filter = that.filter;
     this.cacheFileRoot = that.cacheFileRoot;
+    this.tableStatistics = that.tableStatistics;
+    this.tableStatisticsLoaded = that.tableStatisticsLoaded;
   }
 
   /**
@@ -297,6 +306,25 @@ public class ParquetGroupScan extends AbstractFileGroupScan {
     return selectionRoot;
   }
 
+  /**
+   * @return the statistics stored by ANALYZE TABLE in the selection root, or
+   * null if there are none
+   */
+  @JsonIgnore
+  public TableStatistics getTableStatistics() {
+    if (!tableStatisticsLoaded) {
+      tableStatisticsLoaded = true;
+      if (selectionRoot != null) {
+        try {
+          tableStatistics = TableStatistics.read(fs, new Path(selectionRoot));
+        } catch (IOException e) {
+          logger.warn("Failure while reading table statistics of {}", selectionRoot, e);
+        }
+      }
+    }
+    return tableStatistics;
+  }
+
   public Set<String> getFileSet() {
     return fileSet;
   }
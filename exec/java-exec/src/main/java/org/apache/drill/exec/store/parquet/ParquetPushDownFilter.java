@@ -26,11 +26,11 @@ import org.apache.calcite.rex.RexNode;
 import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.exec.ops.OptimizerRulesContext;
-import org.apache.drill.exec.physical.base.GroupScan;
 import org.apache.drill.exec.planner.logical.DrillOptiq;
 import org.apache.drill.exec.planner.logical.DrillParseContext;
 import org.apache.drill.exec.planner.logical.RelOptHelper;
 import org.apache.drill.exec.planner.physical.FilterPrel;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.physical.PrelUtil;
 import org.apache.drill.exec.planner.physical.ProjectPrel;
 import org.apache.drill.exec.planner.physical.ScanPrel;
@@ -119,10 +119,22 @@ public abstract class ParquetPushDownFilter extends StoragePluginOptimizerRule {
     LogicalExpression conditionExp = DrillOptiq.toDrill(
         new DrillParseContext(PrelUtil.getPlannerSettings(call.getPlanner())), scan, condition);
 
-    Stopwatch timer = Stopwatch.createStarted();
-    final GroupScan newGroupScan = groupScan.applyFilter(conditionExp,optimizerContext,
-        optimizerContext.getFunctionRegistry(), optimizerContext.getPlannerSettings().getOptions());
-    logger.info("Took {} ms to apply filter on parquet row groups. ", timer.elapsed(TimeUnit.MILLISECONDS));
+    final PlannerSettings plannerSettings = optimizerContext.getPlannerSettings();
+    ParquetGroupScan newGroupScan = null;
+    if (plannerSettings.isParquetRowGroupFilterPushdownPlanningEnabled()) {
+      Stopwatch timer = Stopwatch.createStarted();
+      newGroupScan = (ParquetGroupScan) groupScan.applyFilter(conditionExp, optimizerContext,
+          optimizerContext.getFunctionRegistry(), plannerSettings.getOptions());
+      logger.info("Took {} ms to apply filter on parquet row groups. ", timer.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    if (plannerSettings.isParquetRowGroupFilterPushdownExecutionEnabled()) {
+      // the scan evaluates the filter again against the footers of the row groups it reads
+      if (newGroupScan == null) {
+        newGroupScan = (ParquetGroupScan) groupScan.clone(groupScan.getColumns());
+      }
+      newGroupScan.setFilter(conditionExp);
+    }
 
     if (newGroupScan == null ) {
       return;
@@ -41,10 +41,14 @@ public class ParquetReaderStats {
 
   public AtomicLong timeDiskScanWait = new AtomicLong();
   public AtomicLong timeDiskScan = new AtomicLong();
+  public AtomicLong timeDiskScanQueue = new AtomicLong();
   public AtomicLong timeFixedColumnRead = new AtomicLong();
   public AtomicLong timeVarColumnRead = new AtomicLong();
   public AtomicLong timeProcess = new AtomicLong();
 
+  public AtomicLong numRecordsSkipped = new AtomicLong();
+  public AtomicLong numRecordsRuntimeFiltered = new AtomicLong();
+
   public ParquetReaderStats() {
   }
 
@@ -26,6 +26,9 @@ import com.google.common.base.Functions;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Maps;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.expression.ExpressionStringBuilder;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
@@ -93,10 +96,9 @@ public class ParquetScanBatchCreator implements BatchCreator<ParquetRowGroupScan
 
     // keep footers in a map to avoid re-reading them
     Map<String, ParquetMetadata> footers = Maps.newHashMap();
-    List<RecordReader> readers = Lists.newArrayList();
-    List<Map<String, String>> implicitColumns = Lists.newArrayList();
-    Map<String, String> mapWithMaxColumns = Maps.newLinkedHashMap();
-    for(RowGroupReadEntry e : rowGroupScan.getRowGroupReadEntries()){
+    List<RowGroupReadEntry> rowGroupsToRead = Lists.newArrayList();
+    int prunedRowGroups = 0;
+    for (RowGroupReadEntry e : rowGroupScan.getRowGroupReadEntries()) {
       /*
       Here we could store a map from file names to footers, to prevent re-reading the footer for each row group in a file
       TODO - to prevent reading the footer again in the parquet record reader (it is read earlier in the ParquetStorageEngine)
@@ -113,38 +115,56 @@ public class ParquetScanBatchCreator implements BatchCreator<ParquetRowGroupScan
           logger.trace("ParquetTrace,Read Footer,{},{},{},{},{},{},{}", "", e.getPath(), "", 0, 0, 0, timeToRead);
           footers.put(e.getPath(), footer );
         }
-        boolean autoCorrectCorruptDates = rowGroupScan.formatConfig.autoCorrectCorruptDates;
-        ParquetReaderUtility.DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footers.get(e.getPath()), rowGroupScan.getColumns(),
-                autoCorrectCorruptDates);
-        if (logger.isDebugEnabled()) {
-          logger.debug(containsCorruptDates.toString());
-        }
-        if (!context.getOptions().getOption(ExecConstants.PARQUET_NEW_RECORD_READER).bool_val && !isComplex(footers.get(e.getPath()))) {
-          readers.add(
-              new ParquetRecordReader(
-                  context, e.getPath(), e.getRowGroupIndex(), e.getNumRecordsToRead(), fs,
-                  CodecFactory.createDirectCodecFactory(
-                  fs.getConf(),
-                  new ParquetDirectByteBufferAllocator(oContext.getAllocator()), 0),
-                  footers.get(e.getPath()),
-                  rowGroupScan.getColumns(),
-                  containsCorruptDates
-              )
-          );
-        } else {
-          ParquetMetadata footer = footers.get(e.getPath());
-          readers.add(new DrillParquetReader(context, footer, e, columnExplorer.getTableColumns(), fs, containsCorruptDates));
-        }
-
-        Map<String, String> implicitValues = columnExplorer.populateImplicitColumns(e, rowGroupScan.getSelectionRoot());
-        implicitColumns.add(implicitValues);
-        if (implicitValues.size() > mapWithMaxColumns.size()) {
-          mapWithMaxColumns = implicitValues;
-        }
-
       } catch (IOException e1) {
         throw new ExecutionSetupException(e1);
       }
+      if (canDrop(context, rowGroupScan, columnExplorer, footers.get(e.getPath()), e)) {
+        prunedRowGroups++;
+      } else {
+        rowGroupsToRead.add(e);
+      }
+    }
+    if (rowGroupsToRead.isEmpty()) {
+      // keep one row group to get the schema from
+      rowGroupsToRead.add(rowGroupScan.getRowGroupReadEntries().get(0));
+      prunedRowGroups--;
+    }
+    oContext.getStats().addLongStat(ParquetRecordReader.Metric.NUM_ROW_GROUPS_PRUNED, prunedRowGroups);
+
+    List<RecordReader> readers = Lists.newArrayList();
+    List<Map<String, String>> implicitColumns = Lists.newArrayList();
+    Map<String, String> mapWithMaxColumns = Maps.newLinkedHashMap();
+    for (RowGroupReadEntry e : rowGroupsToRead) {
+      boolean autoCorrectCorruptDates = rowGroupScan.formatConfig.autoCorrectCorruptDates;
+      ParquetReaderUtility.DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footers.get(e.getPath()), rowGroupScan.getColumns(),
+              autoCorrectCorruptDates);
+      if (logger.isDebugEnabled()) {
+        logger.debug(containsCorruptDates.toString());
+      }
+      if (!context.getOptions().getOption(ExecConstants.PARQUET_NEW_RECORD_READER).bool_val && !isComplex(footers.get(e.getPath()))) {
+        ParquetRecordReader reader =
+            new ParquetRecordReader(
+                context, e.getPath(), e.getRowGroupIndex(), e.getNumRecordsToRead(), fs,
+                CodecFactory.createDirectCodecFactory(
+                fs.getConf(),
+                new ParquetDirectByteBufferAllocator(oContext.getAllocator()), 0),
+                footers.get(e.getPath()),
+                rowGroupScan.getColumns(),
+                containsCorruptDates,
+                rowGroupScan.getFilter()
+            );
+        reader.setRuntimeFilters(context.getRuntimeFilters(rowGroupScan.getOperatorId()));
+        readers.add(reader);
+      } else {
+        ParquetMetadata footer = footers.get(e.getPath());
+        readers.add(new DrillParquetReader(context, footer, e, columnExplorer.getTableColumns(), fs, containsCorruptDates));
+      }
+
+      Map<String, String> implicitValues = columnExplorer.populateImplicitColumns(e, rowGroupScan.getSelectionRoot());
+      implicitColumns.add(implicitValues);
+      if (implicitValues.size() > mapWithMaxColumns.size()) {
+        mapWithMaxColumns = implicitValues;
+      }
     }
 
     // all readers should have the same number of implicit columns, add missing ones with value null
@@ -156,6 +176,29 @@ public class ParquetScanBatchCreator implements BatchCreator<ParquetRowGroupScan
     return new ScanBatch(rowGroupScan, context, oContext, readers.iterator(), implicitColumns);
   }
 
+  /**
+   * Evaluates the filter pushed into the scan, if any, against the statistics of the given row group in the
+   * footer of its file. The planner may not have pruned the row group, as it only uses the metadata cache
+   * and skips tables with many row groups.
+   *
+   * @return true if no row of the row group can match the filter
+   */
+  private static boolean canDrop(FragmentContext context, ParquetRowGroupScan rowGroupScan,
+      ImplicitColumnExplorer columnExplorer, ParquetMetadata footer, RowGroupReadEntry e) {
+    final LogicalExpression filter = rowGroupScan.getFilter();
+    if (filter == null || filter.equals(ValueExpressions.BooleanExpression.TRUE)) {
+      return false;
+    }
+    try {
+      return ParquetRGFilterEvaluator.evalFilter(filter, footer, e.getRowGroupIndex(), context.getOptions(), context,
+          columnExplorer.populateImplicitColumns(e, rowGroupScan.getSelectionRoot()));
+    } catch (RuntimeException ex) {
+      logger.warn("Failure while evaluating filter {} on row group {} of {}",
+          ExpressionStringBuilder.toString(filter), e.getRowGroupIndex(), e.getPath(), ex);
+      return false;
+    }
+  }
+
   private static boolean isComplex(ParquetMetadata footer) {
     MessageType schema = footer.getFileMetaData().getSchema();
 
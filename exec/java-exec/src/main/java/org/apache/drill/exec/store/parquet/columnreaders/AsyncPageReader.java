@@ -30,6 +30,7 @@ import org.apache.parquet.hadoop.CodecFactory;
 import org.apache.parquet.hadoop.codec.SnappyCodec;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.drill.exec.util.filereader.DirectBufInputStream;
+import org.apache.drill.exec.util.filereader.ReadScheduler;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.column.page.DictionaryPage;
@@ -43,7 +44,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -54,6 +55,8 @@ import static org.apache.parquet.column.Encoding.valueOf;
  * first request to the page reader creates a Future Task (AsyncPageReaderTask) and submits it to the
  * scan thread pool. The result of the Future task (a page) is put into a (blocking) queue and the scan
  * thread starts processing the data as soon as the Future task is complete.
+ * The tasks are submitted through the {@link ReadScheduler} of the Drillbit, which caps the number of reads
+ * running at the same time and starts the read a scan thread is blocked on ahead of the read ahead tasks.
  * This is a simple producer-consumer queue, the AsyncPageReaderTask is the producer and the ParquetScan is
  * the consumer.
  * The AsyncPageReaderTask submits another Future task for reading the next page as soon as it is done,
@@ -81,7 +84,7 @@ import static org.apache.parquet.column.Encoding.valueOf;
 class AsyncPageReader extends PageReader {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AsyncPageReader.class);
 
-  private ExecutorService threadPool;
+  private ReadScheduler readScheduler;
   private long queueSize;
   private LinkedBlockingQueue<ReadStatus> pageQueue;
   private ConcurrentLinkedQueue<Future<Void>> asyncPageRead;
@@ -90,12 +93,12 @@ class AsyncPageReader extends PageReader {
   AsyncPageReader(ColumnReader<?> parentStatus, FileSystem fs, Path path,
       ColumnChunkMetaData columnChunkMetaData) throws ExecutionSetupException {
     super(parentStatus, fs, path, columnChunkMetaData);
-    if (threadPool == null && asyncPageRead == null) {
-      threadPool = parentColumnReader.parentReader.getOperatorContext().getScanExecutor();
+    if (readScheduler == null && asyncPageRead == null) {
+      readScheduler = parentColumnReader.parentReader.getOperatorContext().getScanReadScheduler();
       queueSize  = parentColumnReader.parentReader.readQueueSize;
       pageQueue = new LinkedBlockingQueue<>((int)queueSize);
       asyncPageRead = new ConcurrentLinkedQueue<>();
-      asyncPageRead.offer(threadPool.submit(new AsyncPageReaderTask(debugName, pageQueue)));
+      asyncPageRead.offer(readScheduler.submit(new AsyncPageReaderTask(debugName, pageQueue)));
     }
   }
 
@@ -110,13 +113,13 @@ class AsyncPageReader extends PageReader {
         handleAndThrowException(e, "Error Reading dictionary page.");
       }
       // parent constructor may call this method before the thread pool is set.
-      if (threadPool == null && asyncPageRead == null) {
-        threadPool = parentColumnReader.parentReader.getOperatorContext().getScanExecutor();
+      if (readScheduler == null && asyncPageRead == null) {
+        readScheduler = parentColumnReader.parentReader.getOperatorContext().getScanReadScheduler();
         queueSize  = parentColumnReader.parentReader.getFragmentContext().getOptions()
             .getOption(ExecConstants.PARQUET_PAGEREADER_QUEUE_SIZE).num_val;
         pageQueue = new LinkedBlockingQueue<ReadStatus>((int)queueSize);
         asyncPageRead = new ConcurrentLinkedQueue<>();
-        asyncPageRead.offer(threadPool.submit(new AsyncPageReaderTask(debugName, pageQueue)));
+        asyncPageRead.offer(readScheduler.submit(new AsyncPageReaderTask(debugName, pageQueue)));
       }
     }
   }
@@ -153,18 +156,19 @@ class AsyncPageReader extends PageReader {
       ReadStatus readStatus = null;
       synchronized(pageQueue) {
         boolean pageQueueFull = pageQueue.remainingCapacity() == 0;
-        asyncPageRead.poll().get(); // get the result of execution
+        waitForPageRead(); // get the result of execution
         readStatus = pageQueue.take(); // get the data if no exception has been thrown
         assert (readStatus.pageData != null);
         //if the queue was full before we took a page out, then there would
         // have been no new read tasks scheduled. In that case, schedule a new read.
         if (pageQueueFull) {
-          asyncPageRead.offer(threadPool.submit(new AsyncPageReaderTask(debugName, pageQueue)));
+          asyncPageRead.offer(readScheduler.submit(new AsyncPageReaderTask(debugName, pageQueue)));
         }
       }
       long timeBlocked = timer.elapsed(TimeUnit.NANOSECONDS);
       stats.timeDiskScanWait.addAndGet(timeBlocked);
       stats.timeDiskScan.addAndGet(readStatus.getDiskScanTime());
+      stats.timeDiskScanQueue.addAndGet(readStatus.getDiskQueueTime());
       stats.numDictPageLoads.incrementAndGet();
       stats.timeDictPageLoads.addAndGet(timeBlocked + readStatus.getDiskScanTime());
       readDictionaryPageData(readStatus, parentStatus);
@@ -226,6 +230,16 @@ class AsyncPageReader extends PageReader {
     return pageDataBuf;
   }
 
+  /**
+   * Waits for the oldest pending page read. The read is moved ahead of the reads which only fill read
+   * ahead queues, since the decoder of this column can not go on until it completes.
+   */
+  private void waitForPageRead() throws InterruptedException, ExecutionException {
+    Future<Void> pageRead = asyncPageRead.poll();
+    readScheduler.prioritize(pageRead);
+    pageRead.get();
+  }
+
   @Override
   protected void nextInternal() throws IOException {
     ReadStatus readStatus = null;
@@ -233,7 +247,7 @@ class AsyncPageReader extends PageReader {
     try {
       Stopwatch timer = Stopwatch.createStarted();
       parentColumnReader.parentReader.getOperatorContext().getStats().startWait();
-      asyncPageRead.poll().get(); // get the result of execution
+      waitForPageRead(); // get the result of execution
       synchronized(pageQueue) {
         boolean pageQueueFull = pageQueue.remainingCapacity() == 0;
         readStatus = pageQueue.take(); // get the data if no exception has been thrown
@@ -243,13 +257,14 @@ class AsyncPageReader extends PageReader {
         //if the queue was full before we took a page out, then there would
         // have been no new read tasks scheduled. In that case, schedule a new read.
         if (pageQueueFull) {
-          asyncPageRead.offer(threadPool.submit(new AsyncPageReaderTask(debugName, pageQueue)));
+          asyncPageRead.offer(readScheduler.submit(new AsyncPageReaderTask(debugName, pageQueue)));
         }
       }
       long timeBlocked = timer.elapsed(TimeUnit.NANOSECONDS);
       parentColumnReader.parentReader.getOperatorContext().getStats().stopWait();
       stats.timeDiskScanWait.addAndGet(timeBlocked);
       stats.timeDiskScan.addAndGet(readStatus.getDiskScanTime());
+      stats.timeDiskScanQueue.addAndGet(readStatus.getDiskQueueTime());
       if (readStatus.isDictionaryPage) {
         stats.numDictPageLoads.incrementAndGet();
         stats.timeDictPageLoads.addAndGet(timeBlocked + readStatus.getDiskScanTime());
@@ -265,7 +280,7 @@ class AsyncPageReader extends PageReader {
       do {
         if (pageHeader.getType() == PageType.DICTIONARY_PAGE) {
           readDictionaryPageData(readStatus, parentColumnReader);
-          asyncPageRead.poll().get(); // get the result of execution
+          waitForPageRead(); // get the result of execution
           synchronized (pageQueue) {
             boolean pageQueueFull = pageQueue.remainingCapacity() == 0;
             readStatus = pageQueue.take(); // get the data if no exception has been thrown
@@ -275,7 +290,7 @@ class AsyncPageReader extends PageReader {
             //if the queue was full before we took a page out, then there would
             // have been no new read tasks scheduled. In that case, schedule a new read.
             if (pageQueueFull) {
-              asyncPageRead.offer(threadPool.submit(new AsyncPageReaderTask(debugName, pageQueue)));
+              asyncPageRead.offer(readScheduler.submit(new AsyncPageReaderTask(debugName, pageQueue)));
             }
           }
           assert (readStatus.pageData != null);
@@ -336,6 +351,7 @@ class AsyncPageReader extends PageReader {
     private long bytesRead = 0;
     private long valuesRead = 0;
     private long diskScanTime = 0;
+    private long diskQueueTime = 0;
 
     public static final ReadStatus EMPTY = new ReadStatus();
 
@@ -387,6 +403,14 @@ class AsyncPageReader extends PageReader {
       this.diskScanTime = diskScanTime;
     }
 
+    public synchronized long getDiskQueueTime() {
+      return diskQueueTime;
+    }
+
+    public synchronized void setDiskQueueTime(long diskQueueTime) {
+      this.diskQueueTime = diskQueueTime;
+    }
+
   }
 
   private class AsyncPageReaderTask implements Callable<Void> {
@@ -394,14 +418,17 @@ class AsyncPageReader extends PageReader {
     private final AsyncPageReader parent = AsyncPageReader.this;
     private final LinkedBlockingQueue<ReadStatus> queue;
     private final String name;
+    private final long submitTime;
 
     public AsyncPageReaderTask(String name, LinkedBlockingQueue<ReadStatus> queue) {
       this.name = name;
       this.queue = queue;
+      this.submitTime = System.nanoTime();
     }
 
     @Override
     public Void call() throws IOException {
+      final long timeQueued = System.nanoTime() - submitTime;
       ReadStatus readStatus = new ReadStatus();
 
       long bytesRead = 0;
@@ -460,6 +487,7 @@ class AsyncPageReader extends PageReader {
           readStatus.setBytesRead(bytesRead);
           readStatus.setValuesRead(valuesRead);
           readStatus.setDiskScanTime(timeToRead);
+          readStatus.setDiskQueueTime(timeQueued);
           assert (totalValuesRead <= totalValuesCount);
         }
         synchronized (queue) {
@@ -467,7 +495,7 @@ class AsyncPageReader extends PageReader {
           // if the queue is not full, schedule another read task immediately. If it is then the consumer
           // will schedule a new read task as soon as it removes a page from the queue.
           if (queue.remainingCapacity() > 0) {
-            asyncPageRead.offer(parent.threadPool.submit(new AsyncPageReaderTask(debugName, queue)));
+            asyncPageRead.offer(parent.readScheduler.submit(new AsyncPageReaderTask(debugName, queue)));
           }
         }
         // Do nothing.
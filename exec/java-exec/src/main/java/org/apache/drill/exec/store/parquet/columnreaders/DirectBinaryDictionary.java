@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import io.netty.buffer.DrillBuf;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.parquet.column.Dictionary;
+
+/**
+ * The values of a binary dictionary of a column chunk, laid out back to back in
+ * a direct buffer. Dictionary encoded values are copied into the value vectors
+ * from this buffer by their id, rather than going through a heap
+ * {@link org.apache.parquet.io.api.Binary} and its {@link java.nio.ByteBuffer}
+ * for each value.
+ * <p>
+ * The values are still materialized into the VARCHAR and VARBINARY vectors:
+ * there is no vector type carrying the ids with the dictionary, so the
+ * operators above the scan see plain values.
+ */
+class DirectBinaryDictionary {
+  private final DrillBuf data;
+  // the start of the value of each id, followed by the end of the last one
+  private final int[] offsets;
+
+  private DirectBinaryDictionary(DrillBuf data, int[] offsets) {
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  static DirectBinaryDictionary create(Dictionary dictionary, BufferAllocator allocator) {
+    final int size = dictionary.getMaxId() + 1;
+    final int[] offsets = new int[size + 1];
+    for (int id = 0; id < size; id++) {
+      offsets[id + 1] = offsets[id] + dictionary.decodeToBinary(id).length();
+    }
+    final DrillBuf data = allocator.buffer(Math.max(offsets[size], 1));
+    for (int id = 0; id < size; id++) {
+      data.setBytes(offsets[id], dictionary.decodeToBinary(id).toByteBuffer());
+    }
+    return new DirectBinaryDictionary(data, offsets);
+  }
+
+  /**
+   * @return the buffer holding the values, released with the other dictionary buffers of the page reader
+   */
+  DrillBuf getData() {
+    return data;
+  }
+
+  int getStart(int id) {
+    return offsets[id];
+  }
+
+  int getEnd(int id) {
+    return offsets[id + 1];
+  }
+
+  int getLength(int id) {
+    return offsets[id + 1] - offsets[id];
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.drill.common.expression.BooleanOperator;
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.ExpressionStringBuilder;
+import org.apache.drill.common.expression.FunctionCallFactory;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.exception.ClassTransformationException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ClassGenerator;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.filter.Filterer;
+import org.apache.drill.exec.physical.impl.filter.ReturnValueExpression;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.SimpleRecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.store.parquet.ParquetRGFilterEvaluator;
+import org.apache.drill.exec.vector.ValueVector;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The conjuncts of the filter pushed into a Parquet scan which only reference
+ * fixed width columns, compiled and evaluated on the values of these columns
+ * before the variable width columns are read. The records which pass them are
+ * selected: the reader only copies the variable width values of these records
+ * into the vectors, and drops the other records. The filter above the scan is
+ * still evaluated on the records which are returned.
+ */
+class LateMaterializationFilter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LateMaterializationFilter.class);
+
+  private final VectorContainer container;
+  private final Filterer filterer;
+  private final SelectionVector2 sv2;
+
+  private LateMaterializationFilter(VectorContainer container, Filterer filterer, SelectionVector2 sv2) {
+    this.container = container;
+    this.filterer = filterer;
+    this.sv2 = sv2;
+  }
+
+  /**
+   * @param filter the filter pushed into the scan
+   * @param fixedWidthColumns the readers of the non-repeated fixed width columns
+   * @return the filter on the given columns, or null if no conjunct of the filter only references them
+   */
+  static LateMaterializationFilter create(FragmentContext context, BufferAllocator allocator,
+      LogicalExpression filter, List<ColumnReader<?>> fixedWidthColumns) {
+    final Map<String, ValueVector> vectors = Maps.newHashMap();
+    for (ColumnReader<?> column : fixedWidthColumns) {
+      final String[] path = column.getColumnDescriptor().getPath();
+      if (path.length == 1) {
+        vectors.put(path[0].toLowerCase(), column.valueVec);
+      }
+    }
+
+    final List<LogicalExpression> conjuncts = Lists.newArrayList();
+    final Map<String, ValueVector> referenced = Maps.newHashMap();
+    for (LogicalExpression conjunct : getConjuncts(filter)) {
+      final Set<SchemaPath> paths = conjunct.accept(new ParquetRGFilterEvaluator.FieldReferenceFinder(), null);
+      boolean fixedWidthOnly = true;
+      for (SchemaPath path : paths) {
+        fixedWidthOnly &= path.getRootSegment().isLastPath()
+            && vectors.containsKey(path.getRootSegment().getPath().toLowerCase());
+      }
+      if (fixedWidthOnly && !paths.isEmpty()) {
+        conjuncts.add(conjunct);
+        for (SchemaPath path : paths) {
+          final String name = path.getRootSegment().getPath().toLowerCase();
+          referenced.put(name, vectors.get(name));
+        }
+      }
+    }
+    if (conjuncts.isEmpty()) {
+      return null;
+    }
+
+    final LogicalExpression expr = conjuncts.size() == 1 ? conjuncts.get(0)
+        : FunctionCallFactory.createBooleanOperator("and", conjuncts);
+    final VectorContainer container = new VectorContainer();
+    for (ValueVector vector : referenced.values()) {
+      container.add(vector);
+    }
+    container.buildSchema(SelectionVectorMode.NONE);
+
+    final ErrorCollector errors = new ErrorCollectorImpl();
+    final LogicalExpression materializedExpr =
+        ExpressionTreeMaterializer.materialize(expr, container, errors, context.getFunctionRegistry());
+    if (errors.hasErrors() || materializedExpr.getMajorType().getMinorType() != MinorType.BIT) {
+      logger.debug("Not using late materialization for filter [{}]. Errors: {}",
+          ExpressionStringBuilder.toString(expr), errors);
+      return null;
+    }
+
+    final ClassGenerator<Filterer> cg =
+        CodeGenerator.getRoot(Filterer.TEMPLATE_DEFINITION2, context.getFunctionRegistry(), context.getOptions());
+    cg.addExpr(new ReturnValueExpression(materializedExpr), ClassGenerator.BlkCreateMode.FALSE);
+    final SelectionVector2 sv2 = new SelectionVector2(allocator);
+    // the filterer writes the indexes of the records passing the filter into the selection vector of its
+    // outgoing batch; with no transfer pair, the vectors themselves are left as they are
+    final SimpleRecordBatch incoming = new SimpleRecordBatch(container, null, context);
+    final SimpleRecordBatch outgoing = new SimpleRecordBatch(container, null, context) {
+      @Override
+      public SelectionVector2 getSelectionVector2() {
+        return sv2;
+      }
+    };
+    try {
+      final Filterer filterer = context.getImplementationClass(cg);
+      filterer.setup(context, incoming, outgoing, new TransferPair[0]);
+      return new LateMaterializationFilter(container, filterer, sv2);
+    } catch (ClassTransformationException | IOException | SchemaChangeException e) {
+      sv2.clear();
+      logger.debug("Not using late materialization for filter [{}].", ExpressionStringBuilder.toString(expr), e);
+      return null;
+    }
+  }
+
+  /**
+   * Selects the records which may pass the filter.
+   *
+   * @param recordCount the number of values read in the vectors of the fixed width columns
+   * @return the number of records selected
+   */
+  int select(int recordCount, RecordSelection selection) throws SchemaChangeException {
+    container.setRecordCount(recordCount);
+    filterer.filterBatch(recordCount);
+    selection.select(recordCount, sv2);
+    return selection.getSelectedCount();
+  }
+
+  void close() {
+    sv2.clear();
+  }
+
+  private static List<LogicalExpression> getConjuncts(LogicalExpression expr) {
+    final List<LogicalExpression> conjuncts = Lists.newArrayList();
+    if (expr instanceof BooleanOperator && ((BooleanOperator) expr).getName().equals("booleanAnd")) {
+      for (LogicalExpression arg : ((BooleanOperator) expr).args) {
+        conjuncts.addAll(getConjuncts(arg));
+      }
+    } else {
+      conjuncts.add(expr);
+    }
+    return conjuncts;
+  }
+}
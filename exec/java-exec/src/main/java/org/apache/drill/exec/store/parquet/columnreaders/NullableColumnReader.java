@@ -19,6 +19,7 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 
 import java.io.IOException;
 
+import org.apache.drill.common.exceptions.DrillRuntimeException;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.exec.vector.BaseDataValueVector;
 import org.apache.drill.exec.vector.NullableVectorDefinitionSetter;
@@ -79,29 +80,66 @@ abstract class NullableColumnReader<V extends ValueVector> extends ColumnReader<
       nullRunLength = 0;
       runLength = 0;
 
-      //
-      // Let's skip the next run of nulls if any ...
-      //
-
-      // If we are reentering this loop, the currentDefinitionLevel has already been read
-      if (currentDefinitionLevel < 0) {
-        currentDefinitionLevel = pageReader.definitionLevels.readInteger();
-      }
-      haveMoreData = readCount < recordsToReadInThisPass
-          && writeCount + nullRunLength < valueVec.getValueCapacity()
-          && definitionLevelsRead < pageReader.currentPageCount;
-      while (haveMoreData && currentDefinitionLevel < columnDescriptor
-          .getMaxDefinitionLevel()) {
-        readCount++;
-        nullRunLength++;
-        definitionLevelsRead++;
+      if (pageReader.definitionLevels instanceof RleBitPackedHybridReader) {
+        // the levels are decoded by Drill, which hands out the whole run of nulls and then of defined values
+        final RleBitPackedHybridReader definitionLevels = (RleBitPackedHybridReader) pageReader.definitionLevels;
+        final int maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+        final int limit = (int) Math.min(recordsToReadInThisPass - readCount,
+            Math.min(valueVec.getValueCapacity() - writeCount, pageReader.currentPageCount - definitionLevelsRead));
+        nullRunLength = definitionLevels.readLevelRun(false, maxDefinitionLevel, limit);
+        runLength = definitionLevels.readLevelRun(true, maxDefinitionLevel, limit - nullRunLength);
+        if (nullRunLength + runLength == 0) {
+          throw new DrillRuntimeException("Unexpected end of the definition levels of column "
+              + schemaElement.getName());
+        }
+        readCount += nullRunLength + runLength;
+        definitionLevelsRead += nullRunLength + runLength;
+      } else {
+        //
+        // Let's skip the next run of nulls if any ...
+        //
+
+        // If we are reentering this loop, the currentDefinitionLevel has already been read
+        if (currentDefinitionLevel < 0) {
+          currentDefinitionLevel = pageReader.definitionLevels.readInteger();
+        }
         haveMoreData = readCount < recordsToReadInThisPass
             && writeCount + nullRunLength < valueVec.getValueCapacity()
             && definitionLevelsRead < pageReader.currentPageCount;
-        if (haveMoreData) {
-          currentDefinitionLevel = pageReader.definitionLevels.readInteger();
+        while (haveMoreData && currentDefinitionLevel < columnDescriptor
+            .getMaxDefinitionLevel()) {
+          readCount++;
+          nullRunLength++;
+          definitionLevelsRead++;
+          haveMoreData = readCount < recordsToReadInThisPass
+              && writeCount + nullRunLength < valueVec.getValueCapacity()
+              && definitionLevelsRead < pageReader.currentPageCount;
+          if (haveMoreData) {
+            currentDefinitionLevel = pageReader.definitionLevels.readInteger();
+          }
+        }
+
+        //
+        // Handle the run of non-null values
+        //
+        haveMoreData = readCount < recordsToReadInThisPass
+            && writeCount + nullRunLength + runLength < valueVec.getValueCapacity()
+            // note: writeCount+nullRunLength+runLength
+            && definitionLevelsRead < pageReader.currentPageCount;
+        while (haveMoreData && currentDefinitionLevel >= columnDescriptor
+            .getMaxDefinitionLevel()) {
+          readCount++;
+          runLength++;
+          definitionLevelsRead++;
+          haveMoreData = readCount < recordsToReadInThisPass
+              && writeCount + nullRunLength + runLength < valueVec.getValueCapacity()
+              && definitionLevelsRead < pageReader.currentPageCount;
+          if (haveMoreData) {
+            currentDefinitionLevel = pageReader.definitionLevels.readInteger();
+          }
         }
       }
+
       //
       // Write the nulls if any
       //
@@ -115,32 +153,13 @@ abstract class NullableColumnReader<V extends ValueVector> extends ColumnReader<
         recordsReadInThisIteration += nullRunLength;
       }
 
-      //
-      // Handle the run of non-null values
-      //
-      haveMoreData = readCount < recordsToReadInThisPass
-          && writeCount + runLength < valueVec.getValueCapacity()
-          // note: writeCount+runLength
-          && definitionLevelsRead < pageReader.currentPageCount;
-      while (haveMoreData && currentDefinitionLevel >= columnDescriptor
-          .getMaxDefinitionLevel()) {
-        readCount++;
-        runLength++;
-        definitionLevelsRead++;
-        castedVectorMutator.setIndexDefined(writeCount + runLength
-            - 1); //set the nullable bit to indicate a non-null value
-        haveMoreData = readCount < recordsToReadInThisPass
-            && writeCount + runLength < valueVec.getValueCapacity()
-            && definitionLevelsRead < pageReader.currentPageCount;
-        if (haveMoreData) {
-          currentDefinitionLevel = pageReader.definitionLevels.readInteger();
-        }
-      }
-
       //
       // Write the non-null values
       //
       if (runLength > 0) {
+        // set the nullable bits to indicate non-null values
+        castedVectorMutator.setIndexDefined(writeCount, runLength);
+
         // set up metadata
 
         // This _must_ be set so that the call to readField works correctly for all datatypes
@@ -21,8 +21,10 @@ import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.exec.expr.holders.NullableBigIntHolder;
 import org.apache.drill.exec.expr.holders.NullableDecimal28SparseHolder;
 import org.apache.drill.exec.expr.holders.NullableDecimal38SparseHolder;
+import org.apache.drill.exec.expr.holders.NullableIntHolder;
 import org.apache.drill.exec.expr.holders.NullableTimeStampHolder;
 import org.apache.drill.exec.store.parquet.ParquetReaderUtility;
 import org.apache.drill.exec.util.DecimalUtility;
@@ -51,6 +53,9 @@ import static org.apache.drill.exec.store.parquet.ParquetReaderUtility.NanoTimeU
 
 public class NullableFixedByteAlignedReaders {
 
+  // the number of dictionary ids decoded at a time by the int and long dictionary readers
+  private static final int DICTIONARY_ID_BLOCK_SIZE = 1024;
+
   static class NullableFixedByteAlignedReader<V extends ValueVector> extends NullableColumnReader<V> {
     protected DrillBuf bytebuf;
 
@@ -139,6 +144,7 @@ public class NullableFixedByteAlignedReaders {
   }
 
   static class NullableDictionaryIntReader extends NullableColumnReader<NullableIntVector> {
+    private final int[] dictionaryIds = new int[DICTIONARY_ID_BLOCK_SIZE];
 
     NullableDictionaryIntReader(ParquetRecordReader parentReader, int allocateSize, ColumnDescriptor descriptor,
                                 ColumnChunkMetaData columnChunkMetaData, boolean fixedLength, NullableIntVector v,
@@ -150,8 +156,15 @@ public class NullableFixedByteAlignedReaders {
     @Override
     protected void readField(long recordsToReadInThisPass) {
       if (usingDictionary) {
-        for (int i = 0; i < recordsToReadInThisPass; i++){
-          valueVec.getMutator().setSafe(valuesReadInCurrentPass + i, pageReader.dictionaryValueReader.readInteger());
+        // the nullable bits are already set, and the vector has room for the values of the run
+        final int[] dictionaryValues = pageReader.getIntDictionary();
+        for (int i = 0; i < recordsToReadInThisPass; i += DICTIONARY_ID_BLOCK_SIZE) {
+          final int count = (int) Math.min(DICTIONARY_ID_BLOCK_SIZE, recordsToReadInThisPass - i);
+          pageReader.dictionaryIdReader.readIntegers(dictionaryIds, 0, count);
+          final int offset = (int) (valuesReadInCurrentPass + i) * NullableIntHolder.WIDTH;
+          for (int j = 0; j < count; j++) {
+            vectorData.setInt(offset + j * NullableIntHolder.WIDTH, dictionaryValues[dictionaryIds[j]]);
+          }
         }
         int writerIndex = castedBaseVector.getBuffer().writerIndex();
         castedBaseVector.getBuffer().setIndex(0, writerIndex + (int)readLength);
@@ -211,6 +224,7 @@ public class NullableFixedByteAlignedReaders {
   }
 
   static class NullableDictionaryBigIntReader extends NullableColumnReader<NullableBigIntVector> {
+    private final int[] dictionaryIds = new int[DICTIONARY_ID_BLOCK_SIZE];
 
     NullableDictionaryBigIntReader(ParquetRecordReader parentReader, int allocateSize, ColumnDescriptor descriptor,
                                    ColumnChunkMetaData columnChunkMetaData, boolean fixedLength, NullableBigIntVector v,
@@ -222,8 +236,15 @@ public class NullableFixedByteAlignedReaders {
     @Override
     protected void readField(long recordsToReadInThisPass) {
       if (usingDictionary) {
-        for (int i = 0; i < recordsToReadInThisPass; i++){
-          valueVec.getMutator().setSafe(valuesReadInCurrentPass + i, pageReader.dictionaryValueReader.readLong());
+        // the nullable bits are already set, and the vector has room for the values of the run
+        final long[] dictionaryValues = pageReader.getLongDictionary();
+        for (int i = 0; i < recordsToReadInThisPass; i += DICTIONARY_ID_BLOCK_SIZE) {
+          final int count = (int) Math.min(DICTIONARY_ID_BLOCK_SIZE, recordsToReadInThisPass - i);
+          pageReader.dictionaryIdReader.readIntegers(dictionaryIds, 0, count);
+          final int offset = (int) (valuesReadInCurrentPass + i) * NullableBigIntHolder.WIDTH;
+          for (int j = 0; j < count; j++) {
+            vectorData.setLong(offset + j * NullableBigIntHolder.WIDTH, dictionaryValues[dictionaryIds[j]]);
+          }
         }
       } else {
         for (int i = 0; i < recordsToReadInThisPass; i++){
@@ -22,6 +22,7 @@ import io.netty.buffer.DrillBuf;
 import java.io.IOException;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.exec.vector.NullableVectorDefinitionSetter;
 import org.apache.drill.exec.vector.ValueVector;
 
 import org.apache.parquet.column.ColumnDescriptor;
@@ -55,7 +56,7 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
 
   @Override
   protected void postPageRead() {
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
     pageReader.valuesReadyToRead = 0;
   }
 
@@ -79,17 +80,25 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
     }
 
     if (usingDictionary) {
-      if (currLengthDeterminingDictVal == null) {
-        currLengthDeterminingDictVal = pageReader.dictionaryLengthDeterminingReader.readBytes();
+      if (currLengthDeterminingDictId < 0) {
+        currLengthDeterminingDictId = pageReader.dictionaryLengthDeterminingReader.readValueDictionaryId();
       }
-      currDictValToWrite = currLengthDeterminingDictVal;
+      currDictIdToWrite = currLengthDeterminingDictId;
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
-      dataTypeLengthInBits = currLengthDeterminingDictVal.length();
+      dataTypeLengthInBits = pageReader.getDirectBinaryDictionary().getLength(currLengthDeterminingDictId);
     }
     else {
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
       dataTypeLengthInBits = pageReader.pageData.getInt((int) pageReader.readyToReadPosInBytes);
     }
+    if (skipValue(valuesReadInCurrentPass + pageReader.valuesReadyToRead)) {
+      // only keep the length and nullability, for readField to move past the value
+      variableWidthVector.getMutator().setValueLengthSafe(valuesReadInCurrentPass + pageReader.valuesReadyToRead,
+          dataTypeLengthInBits);
+      ((NullableVectorDefinitionSetter) valueVec.getMutator()).setIndexDefined(
+          valuesReadInCurrentPass + pageReader.valuesReadyToRead);
+      return false;
+    }
     // I think this also needs to happen if it is null for the random access
     return ! setSafe(valuesReadInCurrentPass + pageReader.valuesReadyToRead, pageReader.pageData,
         (int) pageReader.readyToReadPosInBytes + 4, dataTypeLengthInBits);
@@ -101,7 +110,7 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
       pageReader.readyToReadPosInBytes += dataTypeLengthInBits + 4;
     }
     pageReader.valuesReadyToRead++;
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
   }
 
   @Override
@@ -122,13 +131,15 @@ public abstract class NullableVarLengthValuesColumn<V extends ValueVector> exten
     // again, I am re-purposing the unused field here, it is a length n BYTES, not bits
     if (! currentValNull) {
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
       }
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
       dataTypeLengthInBits = variableWidthVector.getAccessor().getValueLength(valuesReadInCurrentPass);
-      boolean success = setSafe(valuesReadInCurrentPass, pageReader.pageData,
-          (int) pageReader.readPosInBytes + 4, dataTypeLengthInBits);
-      assert success;
+      if (!skipValue(valuesReadInCurrentPass)) {
+        boolean success = setSafe(valuesReadInCurrentPass, pageReader.pageData,
+            (int) pageReader.readPosInBytes + 4, dataTypeLengthInBits);
+        assert success;
+      }
     }
     updatePosition();
   }
@@ -92,7 +92,14 @@ class PageReader {
   ValuesReader valueReader;
   ValuesReader dictionaryLengthDeterminingReader;
   ValuesReader dictionaryValueReader;
+  // the ids of the values of a dictionary encoded page, decoded a run at a time
+  RleBitPackedHybridReader dictionaryIdReader;
   Dictionary dictionary;
+  // the values of a binary dictionary in direct memory, created on first use
+  private DirectBinaryDictionary directBinaryDictionary;
+  // the values of an int or a long dictionary, created on first use
+  private int[] intDictionary;
+  private long[] longDictionary;
   PageHeader pageHeader = null;
 
   int currentPageCount = -1;
@@ -313,7 +320,11 @@ class PageReader {
     }
     if (parentColumnReader.columnDescriptor.getMaxDefinitionLevel() != 0){
       parentColumnReader.currDefLevel = -1;
-      definitionLevels = dlEncoding.getValuesReader(parentColumnReader.columnDescriptor, ValuesType.DEFINITION_LEVEL);
+      if (dlEncoding == Encoding.RLE) {
+        definitionLevels = RleBitPackedHybridReader.forLevels(parentColumnReader.columnDescriptor.getMaxDefinitionLevel());
+      } else {
+        definitionLevels = dlEncoding.getValuesReader(parentColumnReader.columnDescriptor, ValuesType.DEFINITION_LEVEL);
+      }
       definitionLevels.initFromPage(currentPageCount, pageDataBuffer, (int) readPosInBytes);
       readPosInBytes = definitionLevels.getNextOffset();
       if (!valueEncoding.usesDictionary()) {
@@ -332,6 +343,8 @@ class PageReader {
       dictionaryLengthDeterminingReader.initFromPage(currentPageCount, pageDataBuffer, (int) readPosInBytes);
       dictionaryValueReader = new DictionaryValuesReader(dictionary);
       dictionaryValueReader.initFromPage(currentPageCount, pageDataBuffer, (int) readPosInBytes);
+      dictionaryIdReader = RleBitPackedHybridReader.forDictionaryIds();
+      dictionaryIdReader.initFromPage(currentPageCount, pageDataBuffer, (int) readPosInBytes);
       parentColumnReader.usingDictionary = true;
     } else {
       parentColumnReader.usingDictionary = false;
@@ -402,6 +415,47 @@ class PageReader {
       b.release();
     }
     allocatedDictionaryBuffers.clear();
+    directBinaryDictionary = null;
+    intDictionary = null;
+    longDictionary = null;
+  }
+
+  /**
+   * @return the dictionary of the column chunk, which must hold binary values, copied into direct memory
+   */
+  DirectBinaryDictionary getDirectBinaryDictionary() {
+    if (directBinaryDictionary == null) {
+      directBinaryDictionary = DirectBinaryDictionary.create(dictionary,
+          parentColumnReader.parentReader.getOperatorContext().getAllocator());
+      allocatedDictionaryBuffers.add(directBinaryDictionary.getData());
+    }
+    return directBinaryDictionary;
+  }
+
+  /**
+   * @return the values of the dictionary of the column chunk, which must hold int values, by id
+   */
+  int[] getIntDictionary() {
+    if (intDictionary == null) {
+      intDictionary = new int[dictionary.getMaxId() + 1];
+      for (int id = 0; id < intDictionary.length; id++) {
+        intDictionary[id] = dictionary.decodeToInt(id);
+      }
+    }
+    return intDictionary;
+  }
+
+  /**
+   * @return the values of the dictionary of the column chunk, which must hold long values, by id
+   */
+  long[] getLongDictionary() {
+    if (longDictionary == null) {
+      longDictionary = new long[dictionary.getMaxId() + 1];
+      for (int id = 0; id < longDictionary.length; id++) {
+        longDictionary[id] = dictionary.decodeToLong(id);
+      }
+    }
+    return longDictionary;
   }
 
   public void clear(){
@@ -20,6 +20,7 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.drill.common.exceptions.DrillRuntimeException;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.TypeProtos.DataMode;
@@ -35,11 +37,13 @@ import org.apache.drill.common.types.TypeProtos.MajorType;
 import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.physical.impl.join.RuntimeFilter;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.store.AbstractRecordReader;
 import org.apache.drill.exec.store.parquet.ParquetReaderStats;
@@ -123,6 +127,17 @@ public class ParquetRecordReader extends AbstractRecordReader {
   public boolean useFadvise;
   public boolean enforceTotalSize;
   public long readQueueSize;
+  public boolean useLateMaterialization;
+
+  // the filter pushed into the scan, if any
+  private LogicalExpression filter;
+  // the part of the filter evaluated before reading the variable width columns, if late materialization is used
+  private LateMaterializationFilter lateMaterializationFilter;
+  private final RecordSelection selection = new RecordSelection();
+  // the filters of the build side keys of the hash joins this scan feeds, see FragmentContext#getRuntimeFilters
+  private List<RuntimeFilter> runtimeFilters = Collections.emptyList();
+  // false if the vectors of a column, such as a repeated one, cannot be compacted to the records kept
+  private boolean canCompact = true;
 
   @SuppressWarnings("unused")
   private String name;
@@ -150,7 +165,11 @@ public class ParquetRecordReader extends AbstractRecordReader {
     TIME_DISK_SCAN,                // Time in nanos spent in reading data from disk.
     TIME_FIXEDCOLUMN_READ,         // Time in nanos spent in converting fixed width data to value vectors
     TIME_VARCOLUMN_READ,           // Time in nanos spent in converting varwidth data to value vectors
-    TIME_PROCESS;                  // Time in nanos spent in processing
+    TIME_PROCESS,                  // Time in nanos spent in processing
+    NUM_ROW_GROUPS_PRUNED,         // Number of row groups skipped by evaluating the filter against the footer
+    NUM_RECORDS_SKIPPED,           // Number of records dropped by late materialization
+    TIME_DISK_SCAN_QUEUE,          // Time in nanos async disk reads spent queued before they started
+    NUM_RECORDS_RUNTIME_FILTERED;  // Number of records dropped by the runtime filters of hash joins
 
     @Override public int metricId() {
       return ordinal();
@@ -170,6 +189,21 @@ public class ParquetRecordReader extends AbstractRecordReader {
          path, rowGroupIndex, fs, codecFactory, footer, columns, dateCorruptionStatus);
   }
 
+  public ParquetRecordReader(FragmentContext fragmentContext,
+      String path,
+      int rowGroupIndex,
+      long numRecordsToRead,
+      FileSystem fs,
+      CodecFactory codecFactory,
+      ParquetMetadata footer,
+      List<SchemaPath> columns,
+      ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus,
+      LogicalExpression filter) throws ExecutionSetupException {
+    this(fragmentContext, DEFAULT_BATCH_LENGTH_IN_BITS, numRecordsToRead,
+         path, rowGroupIndex, fs, codecFactory, footer, columns, dateCorruptionStatus);
+    this.filter = filter;
+  }
+
   public ParquetRecordReader(FragmentContext fragmentContext,
       String path,
       int rowGroupIndex,
@@ -224,6 +258,8 @@ public class ParquetRecordReader extends AbstractRecordReader {
         fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_QUEUE_SIZE).num_val;
     enforceTotalSize =
         fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_ENFORCETOTALSIZE).bool_val;
+    useLateMaterialization =
+        fragmentContext.getOptions().getOption(ExecConstants.PARQUET_READER_LATE_MATERIALIZATION).bool_val;
 
     setColumns(columns);
   }
@@ -436,6 +472,19 @@ public class ParquetRecordReader extends AbstractRecordReader {
         }
       }
       varLengthReader = new VarLenBinaryReader(this, varLengthColumns);
+      for (VarLengthColumn<?> varLengthColumn : varLengthColumns) {
+        canCompact &= !(varLengthColumn instanceof FixedWidthRepeatedReader);
+      }
+
+      if (useLateMaterialization && filter != null && !varLengthColumns.isEmpty() && canSkipValues(varLengthColumns)) {
+        lateMaterializationFilter = LateMaterializationFilter.create(fragmentContext, operatorContext.getAllocator(), filter,
+            columnStatuses);
+        if (lateMaterializationFilter != null) {
+          for (VarLengthColumn<?> varLengthColumn : varLengthColumns) {
+            ((VarLengthValuesColumn<?>) varLengthColumn).readAllRecords = true;
+          }
+        }
+      }
 
       if (!isStarQuery()) {
         List<SchemaPath> projectedColumns = Lists.newArrayList(getColumns());
@@ -456,6 +505,21 @@ public class ParquetRecordReader extends AbstractRecordReader {
     }
   }
 
+  /**
+   * @return true if the values of all the given columns can be read past without being copied
+   */
+  private static boolean canSkipValues(List<VarLengthColumn<? extends ValueVector>> varLengthColumns) {
+    for (VarLengthColumn<?> column : varLengthColumns) {
+      if (!(column instanceof VarLengthColumnReaders.VarCharColumn
+          || column instanceof VarLengthColumnReaders.NullableVarCharColumn
+          || column instanceof VarLengthColumnReaders.VarBinaryColumn
+          || column instanceof VarLengthColumnReaders.NullableVarBinaryColumn)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   protected void handleAndRaise(String s, Exception e) {
     String message = "Error in parquet record reader.\nMessage: " + s +
       "\nParquet Metadata: " + footer;
@@ -576,37 +640,50 @@ public class ParquetRecordReader extends AbstractRecordReader {
         return (int) recordsToRead;
       }
 
-      if (allFieldsFixedLength) {
-        recordsToRead = Math.min(recordsPerBatch, firstColumnStatus.columnChunkMetaData.getValueCount() - firstColumnStatus.totalValuesRead);
-      } else {
-        recordsToRead = DEFAULT_RECORDS_TO_READ_IF_VARIABLE_WIDTH;
+      int recordsReturned;
+      // read again as long as the runtime filters drop every record read
+      while (true) {
+        if (allFieldsFixedLength) {
+          recordsToRead = Math.min(recordsPerBatch, firstColumnStatus.columnChunkMetaData.getValueCount() - firstColumnStatus.totalValuesRead);
+        } else {
+          recordsToRead = DEFAULT_RECORDS_TO_READ_IF_VARIABLE_WIDTH;
 
-      }
+        }
 
-      // Pick the minimum of recordsToRead calculated above and numRecordsToRead (based on rowCount and limit)
-      recordsToRead = Math.min(recordsToRead, numRecordsToRead);
+        // Pick the minimum of recordsToRead calculated above and numRecordsToRead (based on rowCount and limit)
+        recordsToRead = Math.min(recordsToRead, numRecordsToRead);
 
-      if (allFieldsFixedLength) {
-        readAllFixedFields(recordsToRead);
-      } else { // variable length columns
-        long fixedRecordsToRead = varLengthReader.readFields(recordsToRead);
-        readAllFixedFields(fixedRecordsToRead);
+        if (allFieldsFixedLength) {
+          readAllFixedFields(recordsToRead);
+          recordsReturned = applyRuntimeFilters(firstColumnStatus.getRecordsReadInCurrentPass());
+        } else if (lateMaterializationFilter != null) {
+          recordsReturned = readFieldsLateMaterialized(recordsToRead);
+        } else { // variable length columns
+          long fixedRecordsToRead = varLengthReader.readFields(recordsToRead);
+          readAllFixedFields(fixedRecordsToRead);
+          recordsReturned = applyRuntimeFilters(firstColumnStatus.getRecordsReadInCurrentPass());
+        }
+
+        totalRecordsRead += firstColumnStatus.getRecordsReadInCurrentPass();
+        numRecordsToRead -= firstColumnStatus.getRecordsReadInCurrentPass();
+        if (recordsReturned > 0 || firstColumnStatus.getRecordsReadInCurrentPass() == 0) {
+          break;
+        }
+        resetVectors();
       }
 
       // if we have requested columns that were not found in the file fill their vectors with null
       // (by simply setting the value counts inside of them, as they start null filled)
       if (nullFilledVectors != null) {
         for (final ValueVector vv : nullFilledVectors ) {
-          vv.getMutator().setValueCount(firstColumnStatus.getRecordsReadInCurrentPass());
+          vv.getMutator().setValueCount(recordsReturned);
         }
       }
 
 //      logger.debug("So far read {} records out of row group({}) in file '{}'", totalRecordsRead, rowGroupIndex, hadoopPath.toUri().getPath());
-      totalRecordsRead += firstColumnStatus.getRecordsReadInCurrentPass();
-      numRecordsToRead -= firstColumnStatus.getRecordsReadInCurrentPass();
       parquetReaderStats.timeProcess.addAndGet(timer.elapsed(TimeUnit.NANOSECONDS));
 
-      return firstColumnStatus.getRecordsReadInCurrentPass();
+      return recordsReturned;
     } catch (Exception e) {
       handleAndRaise("\nHadoop path: " + hadoopPath.toUri().getPath() +
         "\nTotal records read: " + totalRecordsRead +
@@ -620,6 +697,129 @@ public class ParquetRecordReader extends AbstractRecordReader {
     return 0;
   }
 
+  /**
+   * Reads the fixed width columns first, and selects the records which pass the filter on them, and the
+   * runtime filters on these columns. The variable width values of the selected records only are then copied
+   * into the vectors, the runtime filters on the variable width columns are applied, and all the vectors are
+   * compacted to the records kept. As long as no record of the batch is selected, the variable width values
+   * are skipped over and the batch is read again from the next records.
+   *
+   * @return the number of records kept, 0 if the runtime filters on the variable width columns dropped them all
+   *         or no record is left to read
+   */
+  private int readFieldsLateMaterialized(long recordsToRead) throws IOException, SchemaChangeException {
+    final ColumnReader<?> firstColumnStatus = columnStatuses.get(0);
+    recordsToRead = varLengthReader.getRecordsToRead(recordsToRead);
+    while (true) {
+      readAllFixedFields(recordsToRead);
+      final int recordsRead = firstColumnStatus.getRecordsReadInCurrentPass();
+      if (recordsRead == 0) {
+        for (final VarLengthColumn<?> r : varLengthReader.columns) {
+          r.valueVec.getMutator().setValueCount(0);
+        }
+        return 0;
+      }
+      final int recordsSelected = lateMaterializationFilter.select(recordsRead, selection);
+      parquetReaderStats.numRecordsSkipped.addAndGet(recordsRead - recordsSelected);
+      applyRuntimeFilters(selection, columnStatuses);
+      if (selection.getSelectedCount() > 0) {
+        checkRecordsRead(recordsRead, varLengthReader.readFields(recordsRead, selection));
+        applyRuntimeFilters(selection, varLengthReader.columns);
+        if (selection.getSelectedCount() < recordsRead) {
+          compactVectors();
+        }
+        return selection.getSelectedCount();
+      }
+
+      Stopwatch timer = Stopwatch.createStarted();
+      checkRecordsRead(recordsRead, varLengthReader.skipFields(recordsRead));
+      parquetReaderStats.timeVarColumnRead.addAndGet(timer.elapsed(TimeUnit.NANOSECONDS));
+      totalRecordsRead += recordsRead;
+      numRecordsToRead -= recordsRead;
+      recordsToRead = Math.min(recordsToRead, numRecordsToRead);
+      resetVectors();
+    }
+  }
+
+  /**
+   * Applies the runtime filters to the records read by all the columns.
+   *
+   * @return the number of records kept
+   */
+  private int applyRuntimeFilters(int recordCount) {
+    if (runtimeFilters.isEmpty() || !canCompact || recordCount == 0) {
+      return recordCount;
+    }
+    selection.selectAll(recordCount);
+    applyRuntimeFilters(selection, columnStatuses);
+    applyRuntimeFilters(selection, varLengthReader.columns);
+    if (selection.getSelectedCount() < recordCount) {
+      compactVectors();
+    }
+    return selection.getSelectedCount();
+  }
+
+  /**
+   * Drops from the selection the records whose value, in a column of the given ones, cannot be among the
+   * build side keys of a runtime filter on this column.
+   */
+  private void applyRuntimeFilters(RecordSelection selection, List<? extends ColumnReader<?>> columns) {
+    for (final RuntimeFilter filter : runtimeFilters) {
+      for (final ColumnReader<?> column : columns) {
+        final String[] path = column.getColumnDescriptor().getPath();
+        final MajorType type = column.valueVec.getField().getType();
+        if (path.length != 1 || !path[0].equalsIgnoreCase(filter.getColumn())
+            || type.getMode() == DataMode.REPEATED || type.getMinorType() != filter.getType()) {
+          continue;
+        }
+        for (int i = 0; i < selection.getRecordCount(); i++) {
+          if (selection.isSelected(i) && !filter.mightContain(column.valueVec, i)) {
+            selection.deselect(i);
+            parquetReaderStats.numRecordsRuntimeFiltered.incrementAndGet();
+          }
+        }
+      }
+    }
+  }
+
+  private void compactVectors() {
+    for (final ColumnReader<?> column : columnStatuses) {
+      selection.compact(column.valueVec);
+    }
+    for (final VarLengthColumn<?> column : varLengthReader.columns) {
+      selection.compact(column.valueVec);
+    }
+  }
+
+  /**
+   * Makes the vectors ready to be read into again, from the next records, once all the records read were
+   * dropped; nullable vectors expect their values to be null.
+   */
+  private void resetVectors() {
+    resetBatch();
+    for (final ColumnReader<?> column : columnStatuses) {
+      AllocationHelper.allocate(column.valueVec, recordsPerBatch, 50, 10);
+    }
+    for (final VarLengthColumn<?> column : varLengthReader.columns) {
+      AllocationHelper.allocate(column.valueVec, recordsPerBatch, 50, 10);
+    }
+  }
+
+  /**
+   * Sets the runtime filters to apply to the records read, from the hash joins this scan feeds. The list may
+   * grow while the records are read, as the filters arrive.
+   */
+  public void setRuntimeFilters(List<RuntimeFilter> runtimeFilters) {
+    this.runtimeFilters = runtimeFilters;
+  }
+
+  private void checkRecordsRead(int fixedRecordsRead, long varRecordsRead) {
+    if (varRecordsRead != fixedRecordsRead) {
+      throw new DrillRuntimeException(String.format("Read %d records of the variable width columns instead of %d",
+          varRecordsRead, fixedRecordsRead));
+    }
+  }
+
   @Override
   public void close() {
     logger.debug("Read {} records out of row group({}) in file '{}'", totalRecordsRead, rowGroupIndex,
@@ -637,6 +837,11 @@ public class ParquetRecordReader extends AbstractRecordReader {
 
     codecFactory.release();
 
+    if (lateMaterializationFilter != null) {
+      lateMaterializationFilter.close();
+      lateMaterializationFilter = null;
+    }
+
     if (varLengthReader != null) {
       for (final VarLengthColumn<?> r : varLengthReader.columns) {
         r.clear();
@@ -712,6 +917,11 @@ public class ParquetRecordReader extends AbstractRecordReader {
     operatorContext.getStats().addLongStat(Metric.TIME_FIXEDCOLUMN_READ, parquetReaderStats.timeFixedColumnRead.longValue());
     operatorContext.getStats().addLongStat(Metric.TIME_VARCOLUMN_READ, parquetReaderStats.timeVarColumnRead.longValue());
     operatorContext.getStats().addLongStat(Metric.TIME_PROCESS, parquetReaderStats.timeProcess.longValue());
+    operatorContext.getStats().addLongStat(Metric.NUM_RECORDS_SKIPPED, parquetReaderStats.numRecordsSkipped.longValue());
+    operatorContext.getStats().addLongStat(Metric.TIME_DISK_SCAN_QUEUE,
+        parquetReaderStats.timeDiskScanQueue.longValue());
+    operatorContext.getStats().addLongStat(Metric.NUM_RECORDS_RUNTIME_FILTERED,
+        parquetReaderStats.numRecordsRuntimeFiltered.longValue());
 
   }
 
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import io.netty.buffer.DrillBuf;
+
+import java.util.Arrays;
+
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.BitVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.UInt4Vector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VarBinaryVector;
+import org.apache.drill.exec.vector.VarCharVector;
+
+/**
+ * The records of a batch which a Parquet reader keeps, when it drops the records that cannot pass the filter
+ * pushed into the scan, or the runtime filters of the hash joins the scan feeds. The variable width values of
+ * the other records are read past rather than copied into the vectors; once all the columns are read, the
+ * vectors are compacted, in place, to the records kept.
+ */
+class RecordSelection {
+
+  private int recordCount;
+  private int selectedCount;
+  // the indexes of the records kept, in increasing order; rebuilt once records are deselected
+  private int[] indexes = new int[0];
+  private boolean indexesStale;
+  // whether each record of the batch is kept
+  private boolean[] selected = new boolean[0];
+
+  private void reset(int recordCount, boolean select) {
+    this.recordCount = recordCount;
+    if (selected.length < recordCount) {
+      selected = new boolean[recordCount];
+      indexes = new int[recordCount];
+    }
+    Arrays.fill(selected, 0, recordCount, select);
+    indexesStale = false;
+  }
+
+  /**
+   * Keeps the records whose indexes are in the selection vector, out of the given number of records.
+   */
+  void select(int recordCount, SelectionVector2 sv2) {
+    reset(recordCount, false);
+    selectedCount = sv2.getCount();
+    for (int i = 0; i < selectedCount; i++) {
+      final int index = sv2.getIndex(i);
+      indexes[i] = index;
+      selected[index] = true;
+    }
+  }
+
+  /**
+   * Keeps all the given number of records.
+   */
+  void selectAll(int recordCount) {
+    reset(recordCount, true);
+    selectedCount = recordCount;
+    for (int i = 0; i < recordCount; i++) {
+      indexes[i] = i;
+    }
+  }
+
+  /**
+   * Drops a record which was kept.
+   */
+  void deselect(int index) {
+    if (selected[index]) {
+      selected[index] = false;
+      selectedCount--;
+      indexesStale = true;
+    }
+  }
+
+  int getRecordCount() {
+    return recordCount;
+  }
+
+  int getSelectedCount() {
+    return selectedCount;
+  }
+
+  boolean isSelected(int index) {
+    return selected[index];
+  }
+
+  /**
+   * Moves the values of the records kept to the start of the vector and sets its value count.
+   */
+  void compact(ValueVector vector) {
+    if (indexesStale) {
+      int j = 0;
+      for (int i = 0; i < recordCount; i++) {
+        if (selected[i]) {
+          indexes[j++] = i;
+        }
+      }
+      indexesStale = false;
+    }
+    if (selectedCount < recordCount) {
+      compactValues(vector);
+    }
+    vector.getMutator().setValueCount(selectedCount);
+  }
+
+  private void compactValues(ValueVector vector) {
+    if (vector instanceof NullableVector) {
+      // the buffer of the "bits" vector, one byte per value, comes first
+      compactFixedWidth(vector.getBuffers(false)[0], 1);
+      compactValues(((NullableVector) vector).getValuesVector());
+    } else if (vector instanceof VarCharVector) {
+      compactVariableWidth(((VarCharVector) vector).getOffsetVector(), ((VarCharVector) vector).getBuffer());
+    } else if (vector instanceof VarBinaryVector) {
+      compactVariableWidth(((VarBinaryVector) vector).getOffsetVector(), ((VarBinaryVector) vector).getBuffer());
+    } else if (vector instanceof BitVector) {
+      final BitVector.Accessor accessor = ((BitVector) vector).getAccessor();
+      final BitVector.Mutator mutator = ((BitVector) vector).getMutator();
+      for (int i = 0; i < selectedCount; i++) {
+        mutator.set(i, accessor.get(indexes[i]));
+      }
+    } else {
+      compactFixedWidth(((BaseDataValueVector) vector).getBuffer(), TypeHelper.getSize(vector.getField().getType()));
+    }
+  }
+
+  private void compactFixedWidth(DrillBuf buffer, int width) {
+    int i = 0;
+    while (i < selectedCount) {
+      // move runs of consecutive records at once
+      final int first = indexes[i];
+      int runLength = 1;
+      while (i + runLength < selectedCount && indexes[i + runLength] == first + runLength) {
+        runLength++;
+      }
+      if (first != i) {
+        buffer.setBytes(i * width, buffer, first * width, runLength * width);
+      }
+      i += runLength;
+    }
+  }
+
+  /**
+   * The values of the records dropped were not copied, so the values kept are moved over the gaps they left,
+   * and their offsets rewritten. An offset is only overwritten once it was read: the offsets of the next
+   * record kept only start at or after the current one when all the records before it were kept, in which
+   * case the offset written is the one already there.
+   */
+  private void compactVariableWidth(UInt4Vector offsetVector, DrillBuf data) {
+    final DrillBuf offsets = offsetVector.getBuffer();
+    int end = offsets.getInt(0);
+    for (int i = 0; i < selectedCount; i++) {
+      final int index = indexes[i];
+      final int start = offsets.getInt(index * 4);
+      final int length = offsets.getInt((index + 1) * 4) - start;
+      if (start != end) {
+        data.setBytes(end, data, start, length);
+      }
+      end += length;
+      offsets.setInt((i + 1) * 4, end);
+    }
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.values.ValuesReader;
+
+/**
+ * Reader of the RLE / bit-packing hybrid encoding of Parquet, used for the definition levels
+ * and for the ids of dictionary encoded values. Runs of repeated values are handed out as a
+ * whole, and bit-packed runs are unpacked a group of eight values at a time, so that callers
+ * can process the values of a page by runs rather than one value at a time.
+ */
+class RleBitPackedHybridReader extends ValuesReader {
+  private static final int GROUP_SIZE = 8;
+
+  // the levels of a data page are prefixed by their length, dictionary ids by their bit width
+  private final boolean lengthPrefixed;
+  private int bitWidth;
+  private long mask;
+  private int valueWidth;
+
+  private ByteBuffer page;
+  private int pos;
+  private int end;
+
+  private boolean rleRun;
+  // values left in the current run
+  private int remaining;
+  private int rleValue;
+  private int packedPos;
+  private final int[] unpacked = new int[GROUP_SIZE];
+  private int unpackedIndex = GROUP_SIZE;
+
+  private RleBitPackedHybridReader(boolean lengthPrefixed, int bitWidth) {
+    this.lengthPrefixed = lengthPrefixed;
+    setBitWidth(bitWidth);
+  }
+
+  /**
+   * @return a reader of the RLE encoded definition or repetition levels of a data page
+   */
+  static RleBitPackedHybridReader forLevels(int maxLevel) {
+    return new RleBitPackedHybridReader(true, BytesUtils.getWidthFromMaxInt(maxLevel));
+  }
+
+  /**
+   * @return a reader of the ids of the values of a dictionary encoded data page
+   */
+  static RleBitPackedHybridReader forDictionaryIds() {
+    return new RleBitPackedHybridReader(false, 0);
+  }
+
+  private void setBitWidth(int bitWidth) {
+    if (bitWidth < 0 || bitWidth > 32) {
+      throw new DrillRuntimeException("Invalid bit width for RLE / bit-packed values: " + bitWidth);
+    }
+    this.bitWidth = bitWidth;
+    this.mask = (1L << bitWidth) - 1;
+    this.valueWidth = (bitWidth + 7) / 8;
+  }
+
+  @Override
+  public void initFromPage(int valueCount, ByteBuffer page, int offset) {
+    this.page = page.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    if (lengthPrefixed) {
+      pos = offset + 4;
+      end = pos + this.page.getInt(offset);
+    } else {
+      setBitWidth(this.page.get(offset) & 0xFF);
+      pos = offset + 1;
+      end = this.page.limit();
+    }
+    remaining = 0;
+    unpackedIndex = GROUP_SIZE;
+  }
+
+  @Override
+  public int getNextOffset() {
+    return end;
+  }
+
+  @Override
+  public int readInteger() {
+    if (remaining == 0) {
+      readRunHeader();
+    }
+    remaining--;
+    if (rleRun) {
+      return rleValue;
+    }
+    if (unpackedIndex == GROUP_SIZE) {
+      unpackGroup();
+    }
+    return unpacked[unpackedIndex++];
+  }
+
+  @Override
+  public int readValueDictionaryId() {
+    return readInteger();
+  }
+
+  @Override
+  public void skip() {
+    readInteger();
+  }
+
+  /**
+   * Reads the values of the next run of defined, or of null, values.
+   *
+   * @param defined whether to read the run of defined values, rather than the run of nulls
+   * @param maxLevel the definition level of a defined value
+   * @param limit the maximum number of values to read
+   * @return the number of values read; zero if the next value does not belong to the run
+   */
+  int readLevelRun(boolean defined, int maxLevel, int limit) {
+    int count = 0;
+    while (count < limit) {
+      if (remaining == 0) {
+        if (pos >= end) {
+          break;
+        }
+        readRunHeader();
+      }
+      if (rleRun) {
+        if ((rleValue >= maxLevel) != defined) {
+          break;
+        }
+        final int n = Math.min(remaining, limit - count);
+        remaining -= n;
+        count += n;
+      } else {
+        if (unpackedIndex == GROUP_SIZE) {
+          unpackGroup();
+        }
+        if ((unpacked[unpackedIndex] >= maxLevel) != defined) {
+          break;
+        }
+        unpackedIndex++;
+        remaining--;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Reads the next values into the given array.
+   */
+  void readIntegers(int[] values, int offset, int count) {
+    int i = offset;
+    final int last = offset + count;
+    while (i < last) {
+      if (remaining == 0) {
+        readRunHeader();
+      }
+      if (rleRun) {
+        final int n = Math.min(remaining, last - i);
+        Arrays.fill(values, i, i + n, rleValue);
+        remaining -= n;
+        i += n;
+      } else {
+        if (unpackedIndex == GROUP_SIZE) {
+          unpackGroup();
+        }
+        final int n = Math.min(Math.min(remaining, GROUP_SIZE - unpackedIndex), last - i);
+        System.arraycopy(unpacked, unpackedIndex, values, i, n);
+        unpackedIndex += n;
+        remaining -= n;
+        i += n;
+      }
+    }
+  }
+
+  private void readRunHeader() {
+    if (pos >= end) {
+      throw new DrillRuntimeException("Read past the end of RLE / bit-packed values.");
+    }
+    final int header = readUnsignedVarInt();
+    if ((header & 1) == 0) {
+      rleRun = true;
+      remaining = header >>> 1;
+      int value = 0;
+      for (int i = 0; i < valueWidth; i++) {
+        value |= (page.get(pos++) & 0xFF) << (i * 8);
+      }
+      rleValue = value;
+    } else {
+      rleRun = false;
+      final int groups = header >>> 1;
+      remaining = groups * GROUP_SIZE;
+      packedPos = pos;
+      pos += groups * bitWidth;
+      unpackedIndex = GROUP_SIZE;
+    }
+  }
+
+  /**
+   * Unpacks the next eight values of the current bit-packed run. The values of a group take
+   * bitWidth bytes, starting with the least significant bits of the first byte.
+   */
+  private void unpackGroup() {
+    if (bitWidth <= 8 && packedPos + 8 <= page.limit()) {
+      // the whole group fits in one word
+      final long word = page.getLong(packedPos);
+      for (int i = 0; i < GROUP_SIZE; i++) {
+        unpacked[i] = (int) ((word >>> (i * bitWidth)) & mask);
+      }
+    } else {
+      long bits = 0;
+      int bitCount = 0;
+      int bytePos = packedPos;
+      for (int i = 0; i < GROUP_SIZE; i++) {
+        while (bitCount < bitWidth) {
+          bits |= (long) (page.get(bytePos++) & 0xFF) << bitCount;
+          bitCount += 8;
+        }
+        unpacked[i] = (int) (bits & mask);
+        bits >>>= bitWidth;
+        bitCount -= bitWidth;
+      }
+    }
+    packedPos += bitWidth;
+    unpackedIndex = 0;
+  }
+
+  private int readUnsignedVarInt() {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = page.get(pos++) & 0xFF;
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
@@ -34,6 +34,7 @@ public class VarLenBinaryReader {
   final List<VarLengthColumn<? extends ValueVector>> columns;
   final boolean useAsyncTasks;
   private final long targetRecordCount;
+  private boolean skipValues;
 
   public VarLenBinaryReader(ParquetRecordReader parentReader, List<VarLengthColumn<? extends ValueVector>> columns) {
     this.parentReader = parentReader;
@@ -68,11 +69,7 @@ public class VarLenBinaryReader {
     }
     Stopwatch timer = Stopwatch.createStarted();
 
-    // Can't read any more records than fixed width fields will fit.
-
-    if (targetRecordCount > 0) {
-      recordsToReadInThisPass = Math.min(recordsToReadInThisPass, targetRecordCount);
-    }
+    recordsToReadInThisPass = getRecordsToRead(recordsToReadInThisPass);
     long recordsReadInCurrentPass = determineSizesSerial(recordsToReadInThisPass);
 
     if(useAsyncTasks) {
@@ -86,6 +83,62 @@ public class VarLenBinaryReader {
     return recordsReadInCurrentPass;
   }
 
+  /**
+   * Reads past the given number of records without copying the values into the vectors, which are left
+   * empty.
+   *
+   * @return the number of records skipped
+   * @throws IOException
+   */
+  public long skipFields(long recordsToSkip) throws IOException {
+    setSkipValues(true);
+    try {
+      return readFields(recordsToSkip);
+    } finally {
+      setSkipValues(false);
+    }
+  }
+
+  /**
+   * Reads the given number of records, copying only the values of the selected records into the vectors. The
+   * values of the other records are read past, and left out of the vectors once they are compacted.
+   *
+   * @return the number of records read
+   * @throws IOException
+   */
+  public long readFields(long recordsToRead, RecordSelection selection) throws IOException {
+    setSelection(selection);
+    try {
+      return readFields(recordsToRead);
+    } finally {
+      setSelection(null);
+    }
+  }
+
+  /**
+   * @return the number of records to read in a pass, given the recommended one
+   */
+  public long getRecordsToRead(long recordsToReadInThisPass) {
+    // Can't read any more records than fixed width fields will fit.
+    if (targetRecordCount > 0) {
+      return Math.min(recordsToReadInThisPass, targetRecordCount);
+    }
+    return recordsToReadInThisPass;
+  }
+
+  private void setSkipValues(boolean skipValues) {
+    this.skipValues = skipValues;
+    for (VarLengthColumn<?> columnReader : columns) {
+      ((VarLengthValuesColumn<?>) columnReader).skipValues = skipValues;
+    }
+  }
+
+  private void setSelection(RecordSelection selection) {
+    for (VarLengthColumn<?> columnReader : columns) {
+      ((VarLengthValuesColumn<?>) columnReader).selection = selection;
+    }
+  }
+
   private long determineSizesSerial(long recordsToReadInThisPass) throws IOException {
 
     int recordsReadInCurrentPass = 0;
@@ -111,7 +164,7 @@ public class VarLenBinaryReader {
       columnReader.readRecords(columnReader.pageReader.valuesReadyToRead);
     }
     for (VarLengthColumn<?> columnReader : columns) {
-      columnReader.valueVec.getMutator().setValueCount((int)recordsReadInCurrentPass);
+      columnReader.valueVec.getMutator().setValueCount(skipValues ? 0 : (int)recordsReadInCurrentPass);
     }
   }
 
@@ -135,7 +188,7 @@ public class VarLenBinaryReader {
       }
     }
     for (VarLengthColumn<?> columnReader : columns) {
-      columnReader.valueVec.getMutator().setValueCount((int)recordsReadInCurrentPass);
+      columnReader.valueVec.getMutator().setValueCount(skipValues ? 0 : (int)recordsReadInCurrentPass);
     }
   }
 
@@ -20,7 +20,6 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 import io.netty.buffer.DrillBuf;
 
 import java.math.BigDecimal;
-import java.nio.ByteBuffer;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.exec.expr.holders.Decimal28SparseHolder;
@@ -186,9 +185,10 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
+        final DirectBinaryDictionary dictionary = pageReader.getDirectBinaryDictionary();
+        mutator.setSafe(index, dictionary.getStart(currDictIdToWrite), dictionary.getEnd(currDictIdToWrite),
+            dictionary.getData());
       } else {
         mutator.setSafe(index, start, start + length, bytebuf);
       }
@@ -224,8 +224,9 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        final DirectBinaryDictionary dictionary = pageReader.getDirectBinaryDictionary();
+        mutator.setSafe(index, 1, dictionary.getStart(currDictIdToWrite), dictionary.getEnd(currDictIdToWrite),
+            dictionary.getData());
       } else {
         mutator.setSafe(index, 1, start, start + length, value);
       }
@@ -259,9 +260,10 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        currDictValToWrite = pageReader.dictionaryValueReader.readBytes();
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        currDictIdToWrite = pageReader.dictionaryValueReader.readValueDictionaryId();
+        final DirectBinaryDictionary dictionary = pageReader.getDirectBinaryDictionary();
+        mutator.setSafe(index, dictionary.getStart(currDictIdToWrite), dictionary.getEnd(currDictIdToWrite),
+            dictionary.getData());
       } else {
         mutator.setSafe(index, start, start + length, value);
       }
@@ -298,8 +300,9 @@ public class VarLengthColumnReaders {
       }
 
       if (usingDictionary) {
-        ByteBuffer buf = currDictValToWrite.toByteBuffer();
-        mutator.setSafe(index, buf, buf.position(), currDictValToWrite.length());
+        final DirectBinaryDictionary dictionary = pageReader.getDirectBinaryDictionary();
+        mutator.setSafe(index, 1, dictionary.getStart(currDictIdToWrite), dictionary.getEnd(currDictIdToWrite),
+            dictionary.getData());
       } else {
         mutator.setSafe(index, 1, start, start + length, value);
       }
@@ -29,14 +29,21 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.format.Encoding;
 import org.apache.parquet.format.SchemaElement;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
-import org.apache.parquet.io.api.Binary;
 
 public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLengthColumn {
 
-  Binary currLengthDeterminingDictVal;
-  Binary currDictValToWrite;
+  // ids of the dictionary values, in the dictionary of the column chunk copied into direct memory
+  int currLengthDeterminingDictId = -1;
+  int currDictIdToWrite;
   VariableWidthVector variableWidthVector;
 
+  // set while the values are read past rather than copied into the vector, see LateMaterializationFilter
+  boolean skipValues;
+  // if set, only the values of the selected records are copied into the vector, the others are read past
+  RecordSelection selection;
+  // set when the fixed width columns are read first, the vector then has to hold as many values as they did
+  boolean readAllRecords;
+
   VarLengthValuesColumn(ParquetRecordReader parentReader, int allocateSize, ColumnDescriptor descriptor,
                         ColumnChunkMetaData columnChunkMetaData, boolean fixedLength, V v,
                         SchemaElement schemaElement) throws ExecutionSetupException {
@@ -52,21 +59,39 @@ public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLe
 
   public abstract boolean setSafe(int index, DrillBuf bytes, int start, int length);
 
+  /**
+   * @return true if the value of the record at the given index is read past rather than copied into the vector
+   */
+  boolean skipValue(int index) {
+    return skipValues || (selection != null && !selection.isSelected(index));
+  }
+
   @Override
   protected void readField(long recordToRead) {
     dataTypeLengthInBits = variableWidthVector.getAccessor().getValueLength(valuesReadInCurrentPass);
-    // again, I am re-purposing the unused field here, it is a length n BYTES, not bits
-    boolean success = setSafe((int) valuesReadInCurrentPass, pageReader.pageData,
-        (int) pageReader.readPosInBytes + 4, dataTypeLengthInBits);
-    assert success;
+    if (skipValue(valuesReadInCurrentPass)) {
+      if (usingDictionary) {
+        pageReader.dictionaryValueReader.skip();
+      }
+    } else {
+      // again, I am re-purposing the unused field here, it is a length n BYTES, not bits
+      boolean success = setSafe((int) valuesReadInCurrentPass, pageReader.pageData,
+          (int) pageReader.readPosInBytes + 4, dataTypeLengthInBits);
+      assert success;
+    }
     updatePosition();
   }
 
+  @Override
+  protected boolean checkVectorCapacityReached() {
+    return !readAllRecords && super.checkVectorCapacityReached();
+  }
+
   @Override
   public void updateReadyToReadPosition() {
     pageReader.readyToReadPosInBytes += dataTypeLengthInBits + 4;
     pageReader.valuesReadyToRead++;
-    currLengthDeterminingDictVal = null;
+    currLengthDeterminingDictId = -1;
   }
 
   @Override
@@ -85,12 +110,12 @@ public abstract class VarLengthValuesColumn<V extends ValueVector> extends VarLe
   protected boolean readAndStoreValueSizeInformation() throws IOException {
     // re-purposing this field here for length in BYTES to prevent repetitive multiplication/division
     if (usingDictionary) {
-      if (currLengthDeterminingDictVal == null) {
-        currLengthDeterminingDictVal = pageReader.dictionaryLengthDeterminingReader.readBytes();
+      if (currLengthDeterminingDictId < 0) {
+        currLengthDeterminingDictId = pageReader.dictionaryLengthDeterminingReader.readValueDictionaryId();
       }
-      currDictValToWrite = currLengthDeterminingDictVal;
+      currDictIdToWrite = currLengthDeterminingDictId;
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
-      dataTypeLengthInBits = currLengthDeterminingDictVal.length();
+      dataTypeLengthInBits = pageReader.getDirectBinaryDictionary().getLength(currLengthDeterminingDictId);
     } else {
       // re-purposing  this field here for length in BYTES to prevent repetitive multiplication/division
       dataTypeLengthInBits = pageReader.pageData.getInt((int) pageReader.readyToReadPosInBytes);
@@ -27,6 +27,8 @@ import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.PhysicalPlan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.config.ExternalSort;
+import org.apache.drill.exec.physical.config.HashAggregate;
+import org.apache.drill.exec.physical.config.HashJoinPOP;
 import org.apache.drill.exec.server.options.OptionManager;
 
 public class MemoryAllocationUtilities {
@@ -34,9 +36,10 @@ public class MemoryAllocationUtilities {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MemoryAllocationUtilities.class);
 
   /**
-   * Helper method to setup SortMemoryAllocations
-   * since this method can be used in multiple places adding it in this class
-   * rather than keeping it in Foreman
+   * Helper method to setup memory allocations for the buffered operators
+   * (external sorts, two-phase hash aggregates and hash joins) since this method can be
+   * used in multiple places adding it in this class rather than keeping it
+   * in Foreman
    * @param plan
    * @param queryContext
    */
@@ -48,32 +51,47 @@ public class MemoryAllocationUtilities {
     if (plan.getProperties().hasResourcePlan) {
       return;
     }
-    // look for external sorts
+    // look for external sorts, hash aggregates and hash joins that can spill
     final List<ExternalSort> sortList = new LinkedList<>();
+    final List<HashAggregate> hashAggList = new LinkedList<>();
+    final List<HashJoinPOP> hashJoinList = new LinkedList<>();
     for (final PhysicalOperator op : plan.getSortedOperators()) {
       if (op instanceof ExternalSort) {
         sortList.add((ExternalSort) op);
+      } else if (op instanceof HashAggregate && ((HashAggregate) op).isBufferedOperator()) {
+        hashAggList.add((HashAggregate) op);
+      } else if (op instanceof HashJoinPOP && ((HashJoinPOP) op).isBufferedOperator()) {
+        hashJoinList.add((HashJoinPOP) op);
       }
     }
 
-    // if there are any sorts, compute the maximum allocation, and set it on them
-    if (sortList.size() > 0) {
+    // if there are any buffered operators, compute the maximum allocation, and set it on them
+    final int bufferedOpCount = sortList.size() + hashAggList.size() + hashJoinList.size();
+    if (bufferedOpCount > 0) {
       final OptionManager optionManager = queryContext.getOptions();
       final long maxWidthPerNode = optionManager.getOption(ExecConstants.MAX_WIDTH_PER_NODE_KEY).num_val;
       long maxAllocPerNode = Math.min(DrillConfig.getMaxDirectMemory(),
           queryContext.getConfig().getLong(RootAllocatorFactory.TOP_LEVEL_MAX_ALLOC));
       maxAllocPerNode = Math.min(maxAllocPerNode,
           optionManager.getOption(ExecConstants.MAX_QUERY_MEMORY_PER_NODE_KEY).num_val);
-      final long maxSortAlloc = maxAllocPerNode / (sortList.size() * maxWidthPerNode);
-      logger.debug("Max sort alloc: {}", maxSortAlloc);
+      final long maxOpAlloc = maxAllocPerNode / (bufferedOpCount * maxWidthPerNode);
+      logger.debug("Max buffered operator alloc: {}", maxOpAlloc);
 
       for(final ExternalSort externalSort : sortList) {
         // Ensure that the sort receives the minimum memory needed to make progress.
         // Without this, the math might work out to allocate too little memory.
 
-        long alloc = Math.max(maxSortAlloc, externalSort.getInitialAllocation());
+        long alloc = Math.max(maxOpAlloc, externalSort.getInitialAllocation());
         externalSort.setMaxAllocation(alloc);
       }
+      for (final HashAggregate hashAgg : hashAggList) {
+        long alloc = Math.max(maxOpAlloc, hashAgg.getInitialAllocation());
+        hashAgg.setMaxAllocation(alloc);
+      }
+      for (final HashJoinPOP hashJoin : hashJoinList) {
+        long alloc = Math.max(maxOpAlloc, hashJoin.getInitialAllocation());
+        hashJoin.setMaxAllocation(alloc);
+      }
     }
     plan.getProperties().hasResourcePlan = true;
   }
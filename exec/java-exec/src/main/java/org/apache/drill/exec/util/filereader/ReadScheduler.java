@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.util.filereader;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Schedules the reads issued by the scans of a Drillbit on the scan thread pool. At most
+ * a fixed number of reads run at the same time, so that the reads of many concurrent
+ * scans do not all compete for the same disks. The pending reads are started in the
+ * order they were submitted, except for the reads a consumer is blocked on, which are
+ * started ahead of the reads submitted to fill read ahead queues.
+ */
+public class ReadScheduler {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ReadScheduler.class);
+
+  private final ExecutorService executor;
+  private final int maxConcurrentReads;
+  private final PriorityQueue<ScheduledRead<?>> pendingReads = new PriorityQueue<>();
+  private long sequence = 0;
+  private int runningWorkers = 0;
+
+  /**
+   * @param executor the thread pool running the reads
+   * @param maxConcurrentReads the number of reads which may run at the same time
+   */
+  public ReadScheduler(ExecutorService executor, int maxConcurrentReads) {
+    this.executor = executor;
+    this.maxConcurrentReads = Math.max(maxConcurrentReads, 1);
+  }
+
+  public <V> Future<V> submit(Callable<V> read) {
+    final ScheduledRead<V> scheduledRead;
+    final boolean startWorker;
+    synchronized (this) {
+      scheduledRead = new ScheduledRead<>(read, sequence++);
+      pendingReads.add(scheduledRead);
+      startWorker = runningWorkers < maxConcurrentReads;
+      if (startWorker) {
+        runningWorkers++;
+      }
+    }
+    if (startWorker) {
+      try {
+        executor.execute(new Worker());
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          runningWorkers--;
+          pendingReads.remove(scheduledRead);
+        }
+        throw e;
+      }
+    }
+    return scheduledRead;
+  }
+
+  /**
+   * Moves a read which has not started yet ahead of the reads which are not urgent.
+   * Called by a consumer before it blocks on the result of the read.
+   *
+   * @param read a read returned by {@link #submit(Callable)}
+   */
+  public synchronized void prioritize(Future<?> read) {
+    if (!(read instanceof ScheduledRead) || read.isDone()) {
+      return;
+    }
+    final ScheduledRead<?> scheduledRead = (ScheduledRead<?>) read;
+    if (!scheduledRead.urgent && pendingReads.remove(scheduledRead)) {
+      scheduledRead.urgent = true;
+      pendingReads.add(scheduledRead);
+    }
+  }
+
+  private synchronized ScheduledRead<?> nextRead() {
+    final ScheduledRead<?> read = pendingReads.poll();
+    if (read == null) {
+      runningWorkers--;
+    }
+    return read;
+  }
+
+  private synchronized void remove(ScheduledRead<?> read) {
+    pendingReads.remove(read);
+  }
+
+  /**
+   * Runs the pending reads until there are none left.
+   */
+  private class Worker implements Runnable {
+    @Override
+    public void run() {
+      ScheduledRead<?> read;
+      while ((read = nextRead()) != null) {
+        // clear the interrupt of a cancelled read so that it does not fail the next one
+        Thread.interrupted();
+        read.run();
+      }
+    }
+  }
+
+  private class ScheduledRead<V> extends FutureTask<V> implements Comparable<ScheduledRead<?>> {
+    private final long sequence;
+    // guarded by the scheduler
+    private boolean urgent = false;
+
+    ScheduledRead(Callable<V> read, long sequence) {
+      super(read);
+      this.sequence = sequence;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      final boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        remove(this);
+      }
+      return cancelled;
+    }
+
+    @Override
+    public int compareTo(ScheduledRead<?> other) {
+      if (urgent != other.urgent) {
+        return urgent ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
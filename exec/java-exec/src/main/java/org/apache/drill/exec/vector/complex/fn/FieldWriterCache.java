@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector.complex.fn;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.drill.exec.vector.complex.writer.BaseWriter.ListWriter;
+import org.apache.drill.exec.vector.complex.writer.BaseWriter.MapWriter;
+import org.apache.drill.exec.vector.complex.writer.BigIntWriter;
+import org.apache.drill.exec.vector.complex.writer.BitWriter;
+import org.apache.drill.exec.vector.complex.writer.Float8Writer;
+import org.apache.drill.exec.vector.complex.writer.VarCharWriter;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Caches, across the records of a JSON file, the writers resolved for the fields of a map.
+ * Looking up a writer by name in a map writer lower cases and hashes the name for every
+ * value. The fields of the records of a file usually come in the same order, so the cache
+ * keeps them in the order they were first seen and checks the next field name of a record
+ * against the field following the previous one, which is a reference comparison since the
+ * parser interns field names.
+ * <p>
+ * A field which has been seen with values of different types is not cached any more, as its
+ * writer may then be promoted to a union writer.
+ * <p>
+ * The values are still written through the writers of the map: records with scalar values
+ * only pay for positioning every field writer of the map at each record, and for the
+ * promotable writer wrapping each scalar writer. Writing such records straight into the
+ * vectors is not done.
+ */
+class FieldWriterCache {
+
+  enum Kind { NONE, BIT, BIGINT, FLOAT8, VARCHAR, MAP, LIST, MIXED }
+
+  private final MapWriter map;
+  private final FieldSelection selection;
+  private final Map<String, Field> fieldsByName = Maps.newHashMap();
+  private Field[] fields = new Field[8];
+  private int fieldCount = 0;
+  // index of the field expected next in the current record
+  private int next = 0;
+
+  FieldWriterCache(MapWriter map, FieldSelection selection) {
+    this.map = map;
+    this.selection = selection;
+  }
+
+  MapWriter getMap() {
+    return map;
+  }
+
+  /**
+   * Starts looking up the fields of a new record.
+   */
+  void startRecord() {
+    next = 0;
+  }
+
+  Field getField(String name) {
+    if (next < fieldCount) {
+      final Field field = fields[next];
+      if (field.name == name || field.name.equals(name)) {
+        next++;
+        return field;
+      }
+    }
+    Field field = fieldsByName.get(name);
+    if (field == null) {
+      field = new Field(name, fieldCount, selection.getChild(name));
+      if (fieldCount == fields.length) {
+        fields = Arrays.copyOf(fields, fieldCount * 2);
+      }
+      fields[fieldCount++] = field;
+      fieldsByName.put(name, field);
+    }
+    next = field.index + 1;
+    return field;
+  }
+
+  /**
+   * A field of the map, with the writer of the values seen so far.
+   */
+  class Field {
+    final String name;
+    final int index;
+    final FieldSelection selection;
+
+    private Kind kind = Kind.NONE;
+    private BitWriter bit;
+    private BigIntWriter bigInt;
+    private Float8Writer float8;
+    private VarCharWriter varChar;
+    private ListWriter list;
+    private FieldWriterCache child;
+
+    Field(String name, int index, FieldSelection selection) {
+      this.name = name;
+      this.index = index;
+      this.selection = selection;
+    }
+
+    /**
+     * @return whether the writer of values of the given kind may be cached
+     */
+    private boolean use(Kind valueKind) {
+      if (kind == valueKind) {
+        return true;
+      }
+      if (kind == Kind.NONE) {
+        kind = valueKind;
+        return true;
+      }
+      if (kind != Kind.MIXED) {
+        kind = Kind.MIXED;
+        bit = null;
+        bigInt = null;
+        float8 = null;
+        varChar = null;
+        list = null;
+        child = null;
+      }
+      return false;
+    }
+
+    BitWriter bit() {
+      if (!use(Kind.BIT)) {
+        return map.bit(name);
+      }
+      if (bit == null) {
+        bit = map.bit(name);
+      }
+      return bit;
+    }
+
+    BigIntWriter bigInt() {
+      if (!use(Kind.BIGINT)) {
+        return map.bigInt(name);
+      }
+      if (bigInt == null) {
+        bigInt = map.bigInt(name);
+      }
+      return bigInt;
+    }
+
+    Float8Writer float8() {
+      if (!use(Kind.FLOAT8)) {
+        return map.float8(name);
+      }
+      if (float8 == null) {
+        float8 = map.float8(name);
+      }
+      return float8;
+    }
+
+    VarCharWriter varChar() {
+      if (!use(Kind.VARCHAR)) {
+        return map.varChar(name);
+      }
+      if (varChar == null) {
+        varChar = map.varChar(name);
+      }
+      return varChar;
+    }
+
+    ListWriter list() {
+      if (!use(Kind.LIST)) {
+        return map.list(name);
+      }
+      if (list == null) {
+        list = map.list(name);
+      }
+      return list;
+    }
+
+    /**
+     * @return the cache of the fields of the map value of this field
+     */
+    FieldWriterCache map() {
+      if (!use(Kind.MAP)) {
+        return new FieldWriterCache(map.map(name), selection);
+      }
+      if (child == null) {
+        child = new FieldWriterCache(map.map(name), selection);
+      }
+      return child;
+    }
+  }
+}
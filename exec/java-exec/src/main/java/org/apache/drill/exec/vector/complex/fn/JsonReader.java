@@ -22,6 +22,7 @@ import io.netty.buffer.DrillBuf;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 import org.apache.drill.common.exceptions.UserException;
@@ -42,6 +43,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 public class JsonReader extends BaseJsonProcessor {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory
@@ -80,6 +82,13 @@ public class JsonReader extends BaseJsonProcessor {
 
   private FieldSelection selection;
 
+  /**
+   * Writers resolved for the fields of the maps of the writer of the last record,
+   * by map writer.
+   */
+  private final IdentityHashMap<MapWriter, FieldWriterCache> fieldWriterCaches = Maps.newIdentityHashMap();
+  private ComplexWriter cachedWriter;
+
   public JsonReader(DrillBuf managedBuf, boolean allTextMode,
       boolean skipOuterList, boolean readNumbersAsDouble) {
     this(managedBuf, GroupScan.ALL_COLUMNS, allTextMode, skipOuterList,
@@ -200,6 +209,10 @@ public class JsonReader extends BaseJsonProcessor {
   public ReadState write(ComplexWriter writer) throws IOException {
 
     ReadState readState = null;
+    if (writer != cachedWriter) {
+      fieldWriterCaches.clear();
+      cachedWriter = writer;
+    }
     try {
       JsonToken t = lastSeenJsonToken;
       if (t == null || t == JsonToken.END_OBJECT) {
@@ -316,10 +329,19 @@ public class JsonReader extends BaseJsonProcessor {
 
   private void writeDataSwitch(MapWriter w) throws IOException {
     if (this.allTextMode) {
-      writeDataAllText(w, this.selection, true);
+      writeDataAllText(getFieldWriterCache(w, this.selection), true);
     } else {
-      writeData(w, this.selection, true);
+      writeData(getFieldWriterCache(w, this.selection), true);
+    }
+  }
+
+  private FieldWriterCache getFieldWriterCache(MapWriter map, FieldSelection selection) {
+    FieldWriterCache cache = fieldWriterCaches.get(map);
+    if (cache == null) {
+      cache = new FieldWriterCache(map, selection);
+      fieldWriterCaches.put(map, cache);
     }
+    return cache;
   }
 
   private void writeDataSwitch(ListWriter w) throws IOException {
@@ -345,17 +367,17 @@ public class JsonReader extends BaseJsonProcessor {
 
   /**
    *
-   * @param map
-   * @param selection
+   * @param fields
+   *          the writers of the fields of the map to write
    * @param moveForward
    *          Whether or not we should start with using the current token or the
    *          next token. If moveForward = true, we should start with the next
    *          token and ignore the current one.
    * @throws IOException
    */
-  private void writeData(MapWriter map, FieldSelection selection,
-      boolean moveForward) throws IOException {
-    //
+  private void writeData(FieldWriterCache fields, boolean moveForward) throws IOException {
+    final MapWriter map = fields.getMap();
+    fields.startRecord();
     map.start();
     try {
       outside: while (true) {
@@ -376,47 +398,47 @@ public class JsonReader extends BaseJsonProcessor {
 
         final String fieldName = parser.getText();
         this.currentFieldName = fieldName;
-        FieldSelection childSelection = selection.getChild(fieldName);
-        if (childSelection.isNeverValid()) {
+        final FieldWriterCache.Field field = fields.getField(fieldName);
+        if (field.selection.isNeverValid()) {
           consumeEntireNextValue();
           continue outside;
         }
 
         switch (parser.nextToken()) {
         case START_ARRAY:
-          writeData(map.list(fieldName));
+          writeData(field.list());
           break;
         case START_OBJECT:
           if (!writeMapDataIfTyped(map, fieldName)) {
-            writeData(map.map(fieldName), childSelection, false);
+            writeData(field.map(), false);
           }
           break;
         case END_OBJECT:
           break outside;
 
         case VALUE_FALSE: {
-          map.bit(fieldName).writeBit(0);
+          field.bit().writeBit(0);
           break;
         }
         case VALUE_TRUE: {
-          map.bit(fieldName).writeBit(1);
+          field.bit().writeBit(1);
           break;
         }
         case VALUE_NULL:
           // do nothing as we don't have a type.
           break;
         case VALUE_NUMBER_FLOAT:
-          map.float8(fieldName).writeFloat8(parser.getDoubleValue());
+          field.float8().writeFloat8(parser.getDoubleValue());
           break;
         case VALUE_NUMBER_INT:
           if (this.readNumbersAsDouble) {
-            map.float8(fieldName).writeFloat8(parser.getDoubleValue());
+            field.float8().writeFloat8(parser.getDoubleValue());
           } else {
-            map.bigInt(fieldName).writeBigInt(parser.getLongValue());
+            field.bigInt().writeBigInt(parser.getLongValue());
           }
           break;
         case VALUE_STRING:
-          handleString(parser, map, fieldName);
+          handleString(parser, field);
           break;
 
         default:
@@ -432,9 +454,9 @@ public class JsonReader extends BaseJsonProcessor {
 
   }
 
-  private void writeDataAllText(MapWriter map, FieldSelection selection,
-      boolean moveForward) throws IOException {
-    //
+  private void writeDataAllText(FieldWriterCache fields, boolean moveForward) throws IOException {
+    final MapWriter map = fields.getMap();
+    fields.startRecord();
     map.start();
     outside: while (true) {
 
@@ -455,19 +477,19 @@ public class JsonReader extends BaseJsonProcessor {
 
       final String fieldName = parser.getText();
       this.currentFieldName = fieldName;
-      FieldSelection childSelection = selection.getChild(fieldName);
-      if (childSelection.isNeverValid()) {
+      final FieldWriterCache.Field field = fields.getField(fieldName);
+      if (field.selection.isNeverValid()) {
         consumeEntireNextValue();
         continue outside;
       }
 
       switch (parser.nextToken()) {
       case START_ARRAY:
-        writeDataAllText(map.list(fieldName));
+        writeDataAllText(field.list());
         break;
       case START_OBJECT:
         if (!writeMapDataIfTyped(map, fieldName)) {
-          writeDataAllText(map.map(fieldName), childSelection, false);
+          writeDataAllText(field.map(), false);
         }
         break;
       case END_OBJECT:
@@ -479,7 +501,7 @@ public class JsonReader extends BaseJsonProcessor {
       case VALUE_NUMBER_FLOAT:
       case VALUE_NUMBER_INT:
       case VALUE_STRING:
-        handleString(parser, map, fieldName);
+        handleString(parser, field);
         break;
       case VALUE_NULL:
         // do nothing as we don't have a type.
@@ -531,18 +553,27 @@ public class JsonReader extends BaseJsonProcessor {
     }
   }
 
-  private void handleString(JsonParser parser, MapWriter writer,
-      String fieldName) throws IOException {
-    writer.varChar(fieldName).writeVarChar(0,
-        workingBuffer.prepareVarCharHolder(parser.getText()),
-        workingBuffer.getBuf());
+  private void handleString(JsonParser parser, FieldWriterCache.Field field)
+      throws IOException {
+    field.varChar().writeVarChar(0, prepareText(parser), workingBuffer.getBuf());
   }
 
   private void handleString(JsonParser parser, ListWriter writer)
       throws IOException {
-    writer.varChar().writeVarChar(0,
-        workingBuffer.prepareVarCharHolder(parser.getText()),
-        workingBuffer.getBuf());
+    writer.varChar().writeVarChar(0, prepareText(parser), workingBuffer.getBuf());
+  }
+
+  /**
+   * Copies the text of the current token into the working buffer, from the parser's
+   * character buffer for strings.
+   * @return the length of the text in bytes
+   */
+  private int prepareText(JsonParser parser) throws IOException {
+    if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+      return workingBuffer.prepareVarCharHolder(parser.getText());
+    }
+    return workingBuffer.prepareVarCharHolder(parser.getTextCharacters(),
+        parser.getTextOffset(), parser.getTextLength());
   }
 
   private void writeData(ListWriter list) throws IOException {
@@ -555,7 +586,7 @@ public class JsonReader extends BaseJsonProcessor {
           break;
         case START_OBJECT:
           if (!writeListDataIfTyped(list)) {
-            writeData(list.map(), FieldSelection.ALL_VALID, false);
+            writeData(getFieldWriterCache(list.map(), FieldSelection.ALL_VALID), false);
           }
           break;
         case END_ARRAY:
@@ -627,7 +658,7 @@ public class JsonReader extends BaseJsonProcessor {
         break;
       case START_OBJECT:
         if (!writeListDataIfTyped(list)) {
-          writeDataAllText(list.map(), FieldSelection.ALL_VALID, false);
+          writeDataAllText(getFieldWriterCache(list.map(), FieldSelection.ALL_VALID), false);
         }
         break;
       case END_ARRAY:
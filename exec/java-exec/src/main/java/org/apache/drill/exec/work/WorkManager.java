@@ -43,6 +43,7 @@ import org.apache.drill.exec.server.BootStrapContext;
 import org.apache.drill.exec.server.DrillbitContext;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
 import org.apache.drill.exec.work.batch.ControlMessageHandler;
+import org.apache.drill.exec.work.filter.RuntimeFilterRouter;
 import org.apache.drill.exec.work.foreman.Foreman;
 import org.apache.drill.exec.work.foreman.QueryManager;
 import org.apache.drill.exec.work.fragment.FragmentExecutor;
@@ -104,6 +105,7 @@ public class WorkManager implements AutoCloseable {
       final ClusterCoordinator coord,
       final PersistentStoreProvider provider) {
     dContext = new DrillbitContext(endpoint, bContext, coord, controller, data, workBus, provider);
+    RuntimeFilterRouter.registerHandlers(controller, bee, workBus);
     statusThread.start();
 
     DrillMetrics.register("drill.fragments.running",
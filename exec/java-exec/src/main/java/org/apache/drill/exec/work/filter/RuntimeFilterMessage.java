@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.drill.exec.physical.impl.join.RuntimeFilter;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.rpc.control.Controller.CustomSerDe;
+
+/**
+ * A runtime filter sent between drillbits: either the filter one minor fragment of a hash join built, sent to the
+ * foreman, or the filter merged from those of all its minor fragments, sent to one minor fragment of the scan it
+ * applies to.
+ */
+public class RuntimeFilterMessage {
+
+  public static final CustomSerDe<RuntimeFilterMessage> SERDE = new CustomSerDe<RuntimeFilterMessage>() {
+    @Override
+    public byte[] serializeToSend(RuntimeFilterMessage send) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        send.write(out);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failure while serializing runtime filter message", e);
+      }
+      return bytes.toByteArray();
+    }
+
+    @Override
+    public RuntimeFilterMessage deserializeReceived(byte[] bytes) throws Exception {
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        return read(in);
+      }
+    }
+  };
+
+  private final QueryId queryId;
+  private final int joinMajorFragmentId;
+  private final int joinOperatorId;
+  private final int filterIndex;
+  private final int scanMajorFragmentId;
+  private final int scanMinorFragmentId;
+  private final int scanOperatorId;
+  private final RuntimeFilter filter;
+
+  /**
+   * @param filterIndex the index of the filter among those of the join
+   * @param scanMinorFragmentId the minor fragment the filter is sent to, -1 when it is sent to the foreman
+   * @param filter the filter, or null if the join could not build it
+   */
+  public RuntimeFilterMessage(QueryId queryId, int joinMajorFragmentId, int joinOperatorId, int filterIndex,
+                              int scanMajorFragmentId, int scanMinorFragmentId, int scanOperatorId,
+                              RuntimeFilter filter) {
+    this.queryId = queryId;
+    this.joinMajorFragmentId = joinMajorFragmentId;
+    this.joinOperatorId = joinOperatorId;
+    this.filterIndex = filterIndex;
+    this.scanMajorFragmentId = scanMajorFragmentId;
+    this.scanMinorFragmentId = scanMinorFragmentId;
+    this.scanOperatorId = scanOperatorId;
+    this.filter = filter;
+  }
+
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  public int getJoinMajorFragmentId() {
+    return joinMajorFragmentId;
+  }
+
+  public int getJoinOperatorId() {
+    return joinOperatorId;
+  }
+
+  public int getFilterIndex() {
+    return filterIndex;
+  }
+
+  public int getScanMajorFragmentId() {
+    return scanMajorFragmentId;
+  }
+
+  public int getScanMinorFragmentId() {
+    return scanMinorFragmentId;
+  }
+
+  public int getScanOperatorId() {
+    return scanOperatorId;
+  }
+
+  public RuntimeFilter getFilter() {
+    return filter;
+  }
+
+  /**
+   * @return the same filter, to be sent to the given minor fragment of the scan
+   */
+  public RuntimeFilterMessage forScanFragment(int minorFragmentId, RuntimeFilter filter) {
+    return new RuntimeFilterMessage(queryId, joinMajorFragmentId, joinOperatorId, filterIndex, scanMajorFragmentId,
+        minorFragmentId, scanOperatorId, filter);
+  }
+
+  private void write(DataOutputStream out) throws IOException {
+    out.writeLong(queryId.getPart1());
+    out.writeLong(queryId.getPart2());
+    out.writeInt(joinMajorFragmentId);
+    out.writeInt(joinOperatorId);
+    out.writeInt(filterIndex);
+    out.writeInt(scanMajorFragmentId);
+    out.writeInt(scanMinorFragmentId);
+    out.writeInt(scanOperatorId);
+    out.writeBoolean(filter != null);
+    if (filter != null) {
+      filter.write(out);
+    }
+  }
+
+  private static RuntimeFilterMessage read(DataInputStream in) throws IOException {
+    final QueryId queryId = QueryId.newBuilder()
+        .setPart1(in.readLong())
+        .setPart2(in.readLong())
+        .build();
+    final int joinMajorFragmentId = in.readInt();
+    final int joinOperatorId = in.readInt();
+    final int filterIndex = in.readInt();
+    final int scanMajorFragmentId = in.readInt();
+    final int scanMinorFragmentId = in.readInt();
+    final int scanOperatorId = in.readInt();
+    final RuntimeFilter filter = in.readBoolean() ? RuntimeFilter.read(in) : null;
+    return new RuntimeFilterMessage(queryId, joinMajorFragmentId, joinOperatorId, filterIndex, scanMajorFragmentId,
+        scanMinorFragmentId, scanOperatorId, filter);
+  }
+
+  @Override
+  public String toString() {
+    return "RuntimeFilterMessage [joinMajorFragmentId=" + joinMajorFragmentId + ", joinOperatorId=" + joinOperatorId +
+        ", filterIndex=" + filterIndex + ", scanMajorFragmentId=" + scanMajorFragmentId +
+        ", scanMinorFragmentId=" + scanMinorFragmentId + ", scanOperatorId=" + scanOperatorId + "]";
+  }
+}
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.join.RuntimeFilter;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.rpc.Acks;
+import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.rpc.RpcOutcomeListener;
+import org.apache.drill.exec.rpc.UserRpcException;
+import org.apache.drill.exec.rpc.control.Controller;
+import org.apache.drill.exec.rpc.control.Controller.CustomMessageHandler;
+import org.apache.drill.exec.rpc.control.Controller.CustomResponse;
+import org.apache.drill.exec.rpc.control.Controller.CustomSerDe;
+import org.apache.drill.exec.rpc.control.WorkEventBus;
+import org.apache.drill.exec.work.WorkManager.WorkerBee;
+import org.apache.drill.exec.work.foreman.Foreman;
+import org.apache.drill.exec.work.foreman.FragmentData;
+import org.apache.drill.exec.work.foreman.QueryManager;
+import org.apache.drill.exec.work.fragment.FragmentExecutor;
+import org.apache.drill.exec.work.fragment.FragmentManager;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Routes the runtime filters of the hash joins whose probe side scan runs in another major fragment, through the
+ * foreman of the query. With a hash-distributed join, each minor fragment of the join only holds part of the build
+ * side, so a scan can only drop the rows whose key is in none of the filters the minor fragments built. The router
+ * merges these filters, and sends the result to every minor fragment of the scan once all the minor fragments of the
+ * join sent theirs; if one of them could not build its filter, none is sent.
+ */
+public class RuntimeFilterRouter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RuntimeFilterRouter.class);
+
+  /** Type of the control messages carrying the filter of a minor fragment of a join, to the foreman */
+  public static final int CONTRIBUTION_MESSAGE_TYPE = 2001;
+  /** Type of the control messages carrying a merged filter, to a minor fragment of a scan */
+  public static final int FILTER_MESSAGE_TYPE = 2002;
+
+  private static final CustomSerDe<Ack> ACK_SERDE = new CustomSerDe<Ack>() {
+    @Override
+    public byte[] serializeToSend(Ack send) {
+      return send.toByteArray();
+    }
+
+    @Override
+    public Ack deserializeReceived(byte[] bytes) throws Exception {
+      return Ack.parseFrom(bytes);
+    }
+  };
+
+  private static final CustomResponse<Ack> OK = new CustomResponse<Ack>() {
+    @Override
+    public Ack getMessage() {
+      return Acks.OK;
+    }
+
+    @Override
+    public ByteBuf[] getBodies() {
+      return null;
+    }
+  };
+
+  private static final RpcOutcomeListener<Ack> LISTENER = new RpcOutcomeListener<Ack>() {
+    @Override
+    public void failed(RpcException ex) {
+      // the scan then runs without the filter
+      logger.warn("Failure while sending runtime filter", ex);
+    }
+
+    @Override
+    public void success(Ack value, ByteBuf buffer) {
+    }
+
+    @Override
+    public void interrupted(InterruptedException e) {
+      logger.warn("Interrupted while sending runtime filter", e);
+    }
+  };
+
+  private final QueryManager queryManager;
+  private final Controller controller;
+  // the filters being merged, by join major fragment, join operator id and filter index
+  private final Map<List<Integer>, PendingFilter> pendingFilters = Maps.newHashMap();
+
+  private static class PendingFilter {
+    private int remainingFragments;
+    private boolean valid = true;
+    private RuntimeFilter filter;
+
+    private PendingFilter(int fragmentCount) {
+      remainingFragments = fragmentCount;
+    }
+  }
+
+  public RuntimeFilterRouter(QueryManager queryManager, Controller controller) {
+    this.queryManager = queryManager;
+    this.controller = controller;
+  }
+
+  /**
+   * Registers the handlers of the runtime filter messages of this drillbit.
+   */
+  public static void registerHandlers(Controller controller, WorkerBee bee, WorkEventBus workBus) {
+    controller.registerCustomHandler(CONTRIBUTION_MESSAGE_TYPE, new ContributionHandler(bee),
+        RuntimeFilterMessage.SERDE, ACK_SERDE);
+    controller.registerCustomHandler(FILTER_MESSAGE_TYPE, new FilterHandler(bee, workBus),
+        RuntimeFilterMessage.SERDE, ACK_SERDE);
+  }
+
+  /**
+   * Sends the filter one minor fragment of a join built, or failed to build, to the foreman.
+   */
+  public static void sendContribution(FragmentContext context, RuntimeFilterMessage contribution) {
+    context.getControlTunnel(context.getForemanEndpoint())
+        .getCustomTunnel(CONTRIBUTION_MESSAGE_TYPE, RuntimeFilterMessage.SERDE, ACK_SERDE)
+        .send(LISTENER, contribution);
+  }
+
+  /**
+   * Merges the filter of one minor fragment of a join into those of the others, and sends the result to the scan
+   * once all of them arrived.
+   */
+  public void add(RuntimeFilterMessage contribution) {
+    final RuntimeFilter filter;
+    synchronized (this) {
+      final List<Integer> key = Arrays.asList(contribution.getJoinMajorFragmentId(),
+          contribution.getJoinOperatorId(), contribution.getFilterIndex());
+      PendingFilter pending = pendingFilters.get(key);
+      if (pending == null) {
+        pending = new PendingFilter(queryManager.getFragmentData(contribution.getJoinMajorFragmentId()).size());
+        pendingFilters.put(key, pending);
+      }
+      if (contribution.getFilter() == null) {
+        pending.valid = false;
+        pending.filter = null;
+      } else if (pending.valid) {
+        pending.filter = pending.filter == null ? contribution.getFilter()
+            : RuntimeFilter.merge(pending.filter, contribution.getFilter());
+      }
+      if (--pending.remainingFragments > 0) {
+        return;
+      }
+      pendingFilters.remove(key);
+      if (!pending.valid) {
+        logger.debug("No runtime filter for {}, a fragment of the join could not build it", contribution);
+        return;
+      }
+      filter = pending.filter;
+    }
+
+    for (final FragmentData fragment : queryManager.getFragmentData(contribution.getScanMajorFragmentId())) {
+      controller.getTunnel(fragment.getEndpoint())
+          .getCustomTunnel(FILTER_MESSAGE_TYPE, RuntimeFilterMessage.SERDE, ACK_SERDE)
+          .send(LISTENER, contribution.forScanFragment(fragment.getHandle().getMinorFragmentId(), filter));
+    }
+  }
+
+  /**
+   * Handles, on the drillbit of the foreman, the filters of the minor fragments of the joins.
+   */
+  private static class ContributionHandler implements CustomMessageHandler<RuntimeFilterMessage, Ack> {
+    private final WorkerBee bee;
+
+    private ContributionHandler(WorkerBee bee) {
+      this.bee = bee;
+    }
+
+    @Override
+    public CustomResponse<Ack> onMessage(RuntimeFilterMessage pBody, DrillBuf dBody) throws UserRpcException {
+      final Foreman foreman = bee.getForemanForQueryId(pBody.getQueryId());
+      if (foreman != null) {
+        foreman.getRuntimeFilterRouter().add(pBody);
+      }
+      return OK;
+    }
+  }
+
+  /**
+   * Handles, on the drillbits running the scans, the merged filters. A filter which arrives once the minor fragment
+   * of its scan is over is dropped.
+   */
+  private static class FilterHandler implements CustomMessageHandler<RuntimeFilterMessage, Ack> {
+    private final WorkerBee bee;
+    private final WorkEventBus workBus;
+
+    private FilterHandler(WorkerBee bee, WorkEventBus workBus) {
+      this.bee = bee;
+      this.workBus = workBus;
+    }
+
+    @Override
+    public CustomResponse<Ack> onMessage(RuntimeFilterMessage pBody, DrillBuf dBody) throws UserRpcException {
+      final FragmentHandle handle = FragmentHandle.newBuilder()
+          .setQueryId(pBody.getQueryId())
+          .setMajorFragmentId(pBody.getScanMajorFragmentId())
+          .setMinorFragmentId(pBody.getScanMinorFragmentId())
+          .build();
+      FragmentContext context = null;
+      final FragmentExecutor runner = bee.getFragmentRunner(handle);
+      if (runner != null) {
+        context = runner.getContext();
+      } else {
+        final FragmentManager manager = workBus.getFragmentManagerIfExists(handle);
+        if (manager != null) {
+          context = manager.getFragmentContext();
+        }
+      }
+      if (context != null) {
+        context.addRuntimeFilter(pBody.getScanOperatorId(), pBody.getFilter());
+      } else {
+        logger.debug("Dropping runtime filter for fragment {}, which is not running",
+            QueryIdHelper.getQueryIdentifier(handle));
+      }
+      return OK;
+    }
+  }
+}
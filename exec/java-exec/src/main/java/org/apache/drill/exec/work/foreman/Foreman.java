@@ -85,6 +85,7 @@ import org.apache.drill.exec.work.EndpointListener;
 import org.apache.drill.exec.work.QueryWorkUnit;
 import org.apache.drill.exec.work.WorkManager.WorkerBee;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.apache.drill.exec.work.filter.RuntimeFilterRouter;
 import org.apache.drill.exec.work.fragment.FragmentExecutor;
 import org.apache.drill.exec.work.fragment.FragmentStatusReporter;
 import org.apache.drill.exec.work.fragment.RootFragmentManager;
@@ -132,6 +133,7 @@ public class Foreman implements Runnable {
   private final RunQuery queryRequest;
   private final QueryContext queryContext;
   private final QueryManager queryManager; // handles lower-level details of query execution
+  private final RuntimeFilterRouter runtimeFilterRouter;
   private final WorkerBee bee; // provides an interface to submit tasks
   private final DrillbitContext drillbitContext;
   private final UserClientConnection initiatingClient; // used to send responses
@@ -175,6 +177,7 @@ public class Foreman implements Runnable {
     queryContext = new QueryContext(connection.getSession(), drillbitContext, queryId);
     queryManager = new QueryManager(queryId, queryRequest, drillbitContext.getStoreProvider(),
         drillbitContext.getClusterCoordinator(), this);
+    runtimeFilterRouter = new RuntimeFilterRouter(queryManager, drillbitContext.getController());
 
     final OptionManager optionManager = queryContext.getOptions();
     queuingEnabled = optionManager.getOption(ExecConstants.ENABLE_QUEUE);
@@ -222,6 +225,15 @@ public class Foreman implements Runnable {
     return queryManager;
   }
 
+  /**
+   * Get the RuntimeFilterRouter which sends the runtime filters of the hash joins to the scans of other fragments.
+   *
+   * @return the RuntimeFilterRouter
+   */
+  public RuntimeFilterRouter getRuntimeFilterRouter() {
+    return runtimeFilterRouter;
+  }
+
   /**
    * Cancel the query. Asynchronous -- it may take some time for all remote fragments to be
    * terminated.
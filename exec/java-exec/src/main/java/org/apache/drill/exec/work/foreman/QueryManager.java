@@ -180,6 +180,19 @@ public class QueryManager implements AutoCloseable {
     fragmentDataSet.add(fragmentData);
   }
 
+  /**
+   * @return the minor fragments of the given major fragment of the query
+   */
+  public List<FragmentData> getFragmentData(final int majorFragmentId) {
+    final List<FragmentData> fragments = Lists.newArrayList();
+    for (final FragmentData data : fragmentDataSet) {
+      if (data.getHandle().getMajorFragmentId() == majorFragmentId) {
+        fragments.add(data);
+      }
+    }
+    return fragments;
+  }
+
   public String getFragmentStatesAsString() {
     return fragmentDataMap.toString();
   }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.util.List;
+
+import org.apache.drill.BaseTestQuery;
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.expr.ClassGenerator;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.filter.Filterer;
+import org.apache.drill.exec.physical.impl.filter.InterpretedFilterer4;
+import org.apache.drill.exec.physical.impl.filter.ReturnValueExpression;
+import org.apache.drill.exec.proto.BitControl.PlanFragment;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.SimpleRecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TestAsyncCodeGeneration extends BaseTestQuery {
+
+  @Test
+  public void testInterpretedFilterAndProject() throws Exception {
+    final String query = "select n_nationkey * 2 + 1 as k, upper(n_name) as name, " +
+        "cast(n_regionkey as varchar(10)) as region, case when n_comment like '%ly%' then 1 else 0 end as ly " +
+        "from cp.`tpch/nation.parquet` where (n_regionkey in (1, 3) and n_name like 'A%') or n_nationkey > 20";
+
+    testAsync(query);
+  }
+
+  @Test
+  public void testSwitchToCompiledClasses() throws Exception {
+    // one batch per file: the first batches are evaluated by the interpreter, the later ones by the
+    // classes compiled meanwhile
+    final File dir = new File(BaseTestQuery.getTempDir("async-code-generation"));
+    dir.mkdirs();
+    for (int file = 0; file < 200; file++) {
+      final BufferedWriter writer = new BufferedWriter(new FileWriter(new File(dir, file + ".json")));
+      for (int i = file * 50; i < (file + 1) * 50; i++) {
+        writer.write(String.format("{ \"id\" : %d , \"name\" : \"name%d\" , \"region\" : %d }\n", i, i, i % 5));
+      }
+      writer.close();
+    }
+    final String query = String.format("select id * 3 - 1 as k, lower(name) as name, " +
+        "cast(region as varchar(10)) as region, case when name like '%%7%%' then 1 else 0 end as sevens " +
+        "from dfs_test.`%s` where (region in (1, 3) and name like 'name1%%') or id > 9000", dir.toPath().toString());
+
+    testAsync(query);
+  }
+
+  /**
+   * Filters a hyper batch with a four byte selection vector, as output by a sort, with the interpreter
+   * and with the compiled class. The planner removes such selection vectors below a filter, so no
+   * query covers this.
+   */
+  @Test
+  public void testInterpretedFiltererWithHyperBatch() throws Exception {
+    final FragmentContext context = new FragmentContext(getDrillbitContext(), PlanFragment.getDefaultInstance(),
+        null, getDrillbitContext().getFunctionImplementationRegistry());
+    final VectorContainer container = new VectorContainer();
+    container.addHyperList(Lists.<ValueVector>newArrayList(createIdVector(0), createIdVector(10)));
+    container.buildSchema(SelectionVectorMode.FOUR_BYTE);
+    // the ids in decreasing order
+    final SelectionVector4 incomingSv4 = new SelectionVector4(allocator.buffer(20 * 4), 20, Character.MAX_VALUE);
+    for (int i = 0; i < 20; i++) {
+      incomingSv4.set(i, (19 - i) / 10, (19 - i) % 10);
+    }
+    final SelectionVector4 outgoingSv4 = new SelectionVector4(allocator.buffer(20 * 4), 20, Character.MAX_VALUE);
+    final RecordBatch incoming = new SimpleRecordBatch(container, incomingSv4, context);
+    final RecordBatch outgoing = new SimpleRecordBatch(container, outgoingSv4, context);
+    try {
+      final ErrorCollector errors = new ErrorCollectorImpl();
+      final LogicalExpression expr = ExpressionTreeMaterializer.materialize(parseExpr("id > 15 or id < 3"), incoming,
+          errors, context.getFunctionRegistry());
+      assertEquals(errors.toErrorString(), 0, errors.getErrorCount());
+
+      final Filterer interpreted = new InterpretedFilterer4(expr);
+      interpreted.setup(context, incoming, outgoing, new TransferPair[0]);
+      interpreted.filterBatch(20);
+      assertIds(outgoingSv4, 19, 18, 17, 16, 2, 1, 0);
+
+      final ClassGenerator<Filterer> cg =
+          CodeGenerator.getRoot(Filterer.TEMPLATE_DEFINITION4, context.getFunctionRegistry(), context.getOptions());
+      cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlkCreateMode.FALSE);
+      final Filterer compiled = context.getImplementationClass(cg);
+      compiled.setup(context, incoming, outgoing, new TransferPair[0]);
+      compiled.filterBatch(20);
+      assertIds(outgoingSv4, 19, 18, 17, 16, 2, 1, 0);
+    } finally {
+      incomingSv4.clear();
+      outgoingSv4.clear();
+      container.clear();
+      context.close();
+    }
+  }
+
+  private static IntVector createIdVector(int firstId) {
+    final IntVector vector = (IntVector) TypeHelper.getNewVector(
+        MaterializedField.create("id", Types.required(MinorType.INT)), allocator);
+    vector.allocateNew(10);
+    for (int i = 0; i < 10; i++) {
+      vector.getMutator().set(i, firstId + i);
+    }
+    vector.getMutator().setValueCount(10);
+    return vector;
+  }
+
+  // the ids are those of the first batch, from 0, followed by those of the second, from 10
+  private static void assertIds(SelectionVector4 sv4, int... ids) {
+    final List<Integer> actual = Lists.newArrayList();
+    for (int i = 0; i < sv4.getCount(); i++) {
+      final int index = sv4.get(i);
+      actual.add((index >>> 16) * 10 + (index & 0xFFFF));
+    }
+    final List<Integer> expected = Lists.newArrayList();
+    for (int id : ids) {
+      expected.add(id);
+    }
+    assertEquals(expected, actual);
+  }
+
+  private void testAsync(String query) throws Exception {
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery("alter session set `%s` = true", ExecConstants.CODE_GEN_ASYNC)
+          .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.CODE_GEN_ASYNC)
+          .unOrdered()
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `%s`", ExecConstants.CODE_GEN_ASYNC);
+    }
+  }
+}
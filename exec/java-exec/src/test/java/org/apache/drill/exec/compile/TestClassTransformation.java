@@ -17,8 +17,10 @@
  */
 package org.apache.drill.exec.compile;
 
+import java.io.File;
 import java.io.IOException;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.drill.BaseTestQuery;
 import org.apache.drill.exec.compile.ClassTransformer.ClassSet;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
@@ -35,6 +37,8 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.google.common.io.Files;
+
 public class TestClassTransformation extends BaseTestQuery {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TestClassTransformation.class);
 
@@ -105,6 +109,33 @@ public class TestClassTransformation extends BaseTestQuery {
     logger.debug("Optimized code is {}% smaller than debug code.", (int)((sizeWithDebug - sizeWithoutDebug)/(double)sizeWithDebug*100));
   }
 
+  @Test
+  public void testPersistentCodeCache() throws Exception {
+    final File directory = Files.createTempDir();
+    try {
+      for (boolean asPoj : new boolean[] {false, true}) {
+        CodeGenerator<ExampleInner> cg = newCodeGenerator(ExampleInner.class, ExampleTemplateWithInner.class);
+        cg.preferPlainJava(asPoj);
+        cg.generate();
+
+        final PersistentCodeCache cache = new PersistentCodeCache(config, sessionOptions, directory.toURI().toString());
+        Assert.assertNull(cache.get(cg));
+        final long hits = PersistentCodeCache.getHitCount();
+        cache.put(cg, new CodeCompiler.CodeGenCompiler(config, sessionOptions).compile(cg));
+
+        // a new cache over the same directory, as after a restart
+        final Class<?> c = new PersistentCodeCache(config, sessionOptions, directory.toURI().toString()).get(cg);
+        Assert.assertNotNull(c);
+        Assert.assertEquals(hits + 1, PersistentCodeCache.getHitCount());
+        ExampleInner t = (ExampleInner) c.newInstance();
+        t.doOutside();
+        t.doInsideOutside();
+      }
+    } finally {
+      FileUtils.deleteQuietly(directory);
+    }
+  }
+
   /**
    * Do a test of a three level class to ensure that nested code generators works correctly.
    * @throws Exception
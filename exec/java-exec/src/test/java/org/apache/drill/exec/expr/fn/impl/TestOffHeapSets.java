@@ -0,0 +1,261 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+import io.netty.buffer.DrillBuf;
+
+public class TestOffHeapSets extends ExecTest {
+
+  private static BufferAllocator allocator;
+
+  @BeforeClass
+  public static void setUpAllocator() {
+    allocator = RootAllocatorFactory.newRoot(DrillConfig.create());
+  }
+
+  @AfterClass
+  public static void closeAllocator() throws Exception {
+    allocator.close();
+  }
+
+  private static OffHeapLongSet createLongSet(DrillBuf buffer, long... values) {
+    return new OffHeapLongSet(buffer, values);
+  }
+
+  /**
+   * @return non zero values whose hashes fall into the same slot of the smallest table
+   */
+  private static long[] findCollidingLongs(int count) {
+    final long[] values = new long[count];
+    int found = 0;
+    for (long value = 1; found < count; value++) {
+      if (((int) MurmurHash3.fmix64(value) & 15) == 0) {
+        values[found++] = value;
+      }
+    }
+    return values;
+  }
+
+  @Test
+  public void testLongSetCollisions() {
+    final long[] colliding = findCollidingLongs(6);
+    final long[] values = new long[5];
+    System.arraycopy(colliding, 0, values, 0, values.length);
+    final DrillBuf buffer = allocator.buffer(OffHeapLongSet.getBufferSize(values.length));
+    try {
+      final OffHeapLongSet set = createLongSet(buffer, values);
+      for (long value : values) {
+        assertTrue(set.contains(value));
+      }
+      // probes through the whole chain of colliding values
+      assertFalse(set.contains(colliding[5]));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void testLongSetDuplicatesAndZero() {
+    final long[] values = {7, 0, 7, -7, Long.MAX_VALUE, Long.MIN_VALUE, 0, 7};
+    final DrillBuf buffer = allocator.buffer(OffHeapLongSet.getBufferSize(values.length));
+    try {
+      final OffHeapLongSet set = createLongSet(buffer, values);
+      for (long value : values) {
+        assertTrue(set.contains(value));
+      }
+      assertFalse(set.contains(1));
+      assertFalse(set.contains(-1));
+      assertFalse(set.contains(Long.MAX_VALUE - 1));
+    } finally {
+      buffer.release();
+    }
+
+    // zero is only in the set when it was added, although it marks the empty slots
+    final DrillBuf other = allocator.buffer(OffHeapLongSet.getBufferSize(2));
+    try {
+      final OffHeapLongSet set = createLongSet(other, 1, 2);
+      assertFalse(set.contains(0));
+      assertFalse(createLongSet(other).contains(0));
+    } finally {
+      other.release();
+    }
+  }
+
+  @Test
+  public void testLargeLongSet() {
+    final long[] values = new long[100000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i * 3L;
+    }
+    final DrillBuf buffer = allocator.buffer(OffHeapLongSet.getBufferSize(values.length));
+    try {
+      final OffHeapLongSet set = createLongSet(buffer, values);
+      for (long value = -10; value < values.length * 3L + 10; value++) {
+        assertEquals(String.valueOf(value), value >= 0 && value < values.length * 3L && value % 3 == 0,
+            set.contains(value));
+      }
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private static List<byte[]> toBytes(List<String> values) {
+    final List<byte[]> bytes = Lists.newArrayList();
+    for (String value : values) {
+      bytes.add(value.getBytes(Charsets.UTF_8));
+    }
+    return bytes;
+  }
+
+  /**
+   * Looks a value up after writing it a few bytes into the input buffer, so that the set does not assume
+   * values start at 0.
+   */
+  private static boolean contains(OffHeapBytesSet set, DrillBuf input, String value) {
+    final byte[] bytes = value.getBytes(Charsets.UTF_8);
+    final int start = 3;
+    input.setBytes(start, bytes);
+    return set.contains(start, start + bytes.length, input);
+  }
+
+  private static OffHeapBytesSet createBytesSet(DrillBuf buffer, List<String> values) {
+    return new OffHeapBytesSet(buffer, toBytes(values));
+  }
+
+  @Test
+  public void testBytesSetCollisions() {
+    final DrillBuf input = allocator.buffer(64);
+    // strings whose hashes fall into the same slot of the smallest table
+    final List<String> colliding = Lists.newArrayList();
+    for (int i = 0; colliding.size() < 6; i++) {
+      final byte[] bytes = ("v" + i).getBytes(Charsets.UTF_8);
+      input.setBytes(0, bytes);
+      if ((XXHash.hash32(0, bytes.length, input, 0) & 15) == 0) {
+        colliding.add("v" + i);
+      }
+    }
+    final List<String> values = colliding.subList(0, 5);
+    final DrillBuf buffer = allocator.buffer(OffHeapBytesSet.getBufferSize(toBytes(values)));
+    try {
+      final OffHeapBytesSet set = createBytesSet(buffer, values);
+      for (String value : values) {
+        assertTrue(value, contains(set, input, value));
+      }
+      assertFalse(contains(set, input, colliding.get(5)));
+    } finally {
+      buffer.release();
+      input.release();
+    }
+  }
+
+  @Test
+  public void testBytesSetDuplicatesAndEmpty() {
+    final List<String> values = Lists.newArrayList("abc", "", "abc", "ab", "München", "", "abcd");
+    final DrillBuf input = allocator.buffer(64);
+    final DrillBuf buffer = allocator.buffer(OffHeapBytesSet.getBufferSize(toBytes(values)));
+    try {
+      final OffHeapBytesSet set = createBytesSet(buffer, values);
+      for (String value : values) {
+        assertTrue(value, contains(set, input, value));
+      }
+      assertFalse(contains(set, input, "a"));
+      assertFalse(contains(set, input, "abcde"));
+      assertFalse(contains(set, input, "Munchen"));
+
+      // the empty string is only in the set when it was added
+      final OffHeapBytesSet other = createBytesSet(buffer, Lists.newArrayList("a", "b"));
+      assertFalse(contains(other, input, ""));
+    } finally {
+      buffer.release();
+      input.release();
+    }
+  }
+
+  @Test
+  public void testLargeBytesSet() {
+    final List<String> values = Lists.newArrayList();
+    for (int i = 0; i < 20000; i += 2) {
+      values.add("id-" + i);
+    }
+    final DrillBuf input = allocator.buffer(64);
+    final DrillBuf buffer = allocator.buffer(OffHeapBytesSet.getBufferSize(toBytes(values)));
+    try {
+      final OffHeapBytesSet set = createBytesSet(buffer, values);
+      for (int i = 0; i < 20000; i++) {
+        assertEquals(i % 2 == 0, contains(set, input, "id-" + i));
+      }
+    } finally {
+      buffer.release();
+      input.release();
+    }
+  }
+
+  @Test
+  public void testNumbersSpanningChunks() {
+    final List<Long> values = Lists.newArrayList();
+    for (long i = 0; i < 10000; i++) {
+      values.add(i % 2 == 0 ? i * 1000003 : -i);
+    }
+    final List<String> chunks = InSetFunctionHelpers.encodeNumbers(values);
+    assertTrue(chunks.size() > 1);
+    final List<Long> decoded = Lists.newArrayList();
+    for (String chunk : chunks) {
+      assertTrue(chunk.length() <= InSetFunctionHelpers.MAX_ENCODED_LENGTH);
+      for (long value : InSetFunctionHelpers.decodeNumbers(chunk)) {
+        decoded.add(value);
+      }
+    }
+    assertEquals(values, decoded);
+  }
+
+  @Test
+  public void testStringsSpanningChunks() {
+    final List<String> values = Lists.newArrayList();
+    for (int i = 0; i < 5000; i++) {
+      // separators of the encoding within the values
+      values.add(i % 3 == 0 ? "" : i + ":a,b" + i);
+    }
+    final List<String> chunks = InSetFunctionHelpers.encodeStrings(values);
+    assertTrue(chunks.size() > 1);
+    final List<String> decoded = Lists.newArrayList();
+    for (String chunk : chunks) {
+      assertTrue(chunk.length() <= InSetFunctionHelpers.MAX_ENCODED_LENGTH);
+      for (byte[] value : InSetFunctionHelpers.decodeStrings(chunk)) {
+        decoded.add(new String(value, Charsets.UTF_8));
+      }
+    }
+    assertEquals(values, decoded);
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+import io.netty.buffer.DrillBuf;
+
+public class TestSqlPatternMatchers extends ExecTest {
+
+  private static final String[] VALUES = {
+      "", "a", "abc", "abcd", "xabc", "xabcx", "ab", "ABC", "abc\nabc", "x abc", "abc\r",
+      "München", "Münchenabc", "2017", "20a7", "a_b", "a-b", "a.b", "axb", "\\abc", "abc$", "abcabc"};
+
+  private static BufferAllocator allocator;
+  private static DrillBuf buffer;
+
+  @BeforeClass
+  public static void setUpBuffer() {
+    allocator = RootAllocatorFactory.newRoot(DrillConfig.create());
+    buffer = allocator.buffer(1024);
+  }
+
+  @AfterClass
+  public static void closeBuffer() throws Exception {
+    buffer.release();
+    allocator.close();
+  }
+
+  private static void check(String regex, Class<?> matcherClass) {
+    final SqlPatternMatcher matcher = SqlPatternMatchers.compile(regex);
+    assertTrue(regex, matcherClass.isInstance(matcher));
+    final Pattern pattern = Pattern.compile(regex);
+    // values are written after a few bytes, so that the matchers do not assume they start at 0
+    final int start = 3;
+    for (String value : VALUES) {
+      final byte[] bytes = value.getBytes(Charsets.UTF_8);
+      buffer.setBytes(start, bytes);
+      assertEquals(regex + " / " + value, pattern.matcher(value).matches(),
+          matcher.matches(start, start + bytes.length, buffer));
+    }
+  }
+
+  private static void checkLike(String sqlPattern, Class<?> matcherClass) {
+    check(RegexpUtil.sqlToRegexLike(sqlPattern), matcherClass);
+  }
+
+  @Test
+  public void testLike() {
+    checkLike("abc", SqlPatternMatchers.ExactMatcher.class);
+    checkLike("", SqlPatternMatchers.ExactMatcher.class);
+    checkLike("abc%", SqlPatternMatchers.StartsWithMatcher.class);
+    checkLike("%abc", SqlPatternMatchers.EndsWithMatcher.class);
+    checkLike("%abc%", SqlPatternMatchers.ContainsMatcher.class);
+    checkLike("%bcd%", SqlPatternMatchers.ContainsMatcher.class);
+    checkLike("%chen%", SqlPatternMatchers.ContainsMatcher.class);
+    checkLike("%ü%", SqlPatternMatchers.ContainsMatcher.class);
+    checkLike("%", SqlPatternMatchers.EndsWithMatcher.class);
+    checkLike("%\\abc", SqlPatternMatchers.EndsWithMatcher.class);
+    checkLike("a-b", SqlPatternMatchers.ExactMatcher.class);
+    checkLike("abc$", SqlPatternMatchers.ExactMatcher.class);
+    checkLike("a_b", SqlPatternMatchers.RegexMatcher.class);
+    checkLike("a%b%c", SqlPatternMatchers.RegexMatcher.class);
+  }
+
+  @Test
+  public void testLikeWithEscape() {
+    check(RegexpUtil.sqlToRegexLike("a#_b", '#'), SqlPatternMatchers.ExactMatcher.class);
+    check(RegexpUtil.sqlToRegexLike("%#%%", '#'), SqlPatternMatchers.ContainsMatcher.class);
+  }
+
+  @Test
+  public void testRegex() {
+    check("^abc.*", SqlPatternMatchers.StartsWithMatcher.class);
+    check(".*abc$", SqlPatternMatchers.EndsWithMatcher.class);
+    check("a\\.b", SqlPatternMatchers.ExactMatcher.class);
+    check("a.b", SqlPatternMatchers.RegexMatcher.class);
+    check(".*a.c.*", SqlPatternMatchers.RegexMatcher.class);
+    check("abc\\$", SqlPatternMatchers.ExactMatcher.class);
+    check("\\d+", SqlPatternMatchers.RepeatedClassMatcher.class);
+    check("[0-9a]*", SqlPatternMatchers.RepeatedClassMatcher.class);
+    check("[a-c\\-_]+", SqlPatternMatchers.RepeatedClassMatcher.class);
+    check("\\w+", SqlPatternMatchers.RepeatedClassMatcher.class);
+    check("[^a]+", SqlPatternMatchers.RegexMatcher.class);
+    check("[\\p{L}]+", SqlPatternMatchers.RegexMatcher.class);
+    check("(abc)+", SqlPatternMatchers.RegexMatcher.class);
+    check("\\Qabc\\E", SqlPatternMatchers.RegexMatcher.class);
+  }
+
+  @Test
+  public void testFlags() {
+    assertTrue(SqlPatternMatchers.compile("abc", Pattern.CASE_INSENSITIVE) instanceof SqlPatternMatchers.RegexMatcher);
+  }
+}
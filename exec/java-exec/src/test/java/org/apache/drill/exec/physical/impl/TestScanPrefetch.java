@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl;
+
+import org.apache.drill.BaseTestQuery;
+import org.apache.drill.common.util.TestTools;
+import org.apache.drill.exec.ExecConstants;
+import org.junit.Test;
+
+public class TestScanPrefetch extends BaseTestQuery {
+  private static final String TEST_RES_PATH = TestTools.getWorkingPath() + "/src/test/resources";
+
+  @Test
+  public void testJsonFullyPrefetched() throws Exception {
+    compareWithoutPrefetch(String.format("select dir0, dir1, o_orderkey, o_custkey, o_totalprice " +
+        "from dfs_test.`%s/multilevel/json`", TEST_RES_PATH), 16 * 1024 * 1024);
+  }
+
+  @Test
+  public void testJsonPartiallyPrefetched() throws Exception {
+    // a few hundred bytes per reader, the rest of each file being read after setup
+    compareWithoutPrefetch(String.format("select dir0, dir1, o_orderkey, o_custkey, o_totalprice " +
+        "from dfs_test.`%s/multilevel/json`", TEST_RES_PATH), 1024);
+  }
+
+  @Test
+  public void testTextPartiallyPrefetched() throws Exception {
+    compareWithoutPrefetch(String.format("select dir0, dir1, columns[0], columns[1] " +
+        "from dfs_test.`%s/multilevel/csv`", TEST_RES_PATH), 1024);
+  }
+
+  private void compareWithoutPrefetch(String query, long memory) throws Exception {
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery(String.format("alter session set `%s` = 3; alter session set `%s` = %d",
+              ExecConstants.SCAN_PREFETCH_READERS_KEY, ExecConstants.SCAN_PREFETCH_MEMORY_KEY, memory))
+          .unOrdered()
+          .sqlBaselineQuery(query)
+          .optionSettingQueriesForBaseline(String.format("alter session set `%s` = 0",
+              ExecConstants.SCAN_PREFETCH_READERS_KEY))
+          .go();
+    } finally {
+      test("alter session reset `%s`", ExecConstants.SCAN_PREFETCH_READERS_KEY);
+      test("alter session reset `%s`", ExecConstants.SCAN_PREFETCH_MEMORY_KEY);
+    }
+  }
+}
@@ -18,7 +18,18 @@
 
 package org.apache.drill.exec.physical.impl.agg;
 
+import static org.junit.Assert.assertTrue;
+
 import org.apache.drill.BaseTestQuery;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.impl.aggregate.HashAggTemplate;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.FixtureBuilder;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.ProfileParser.OperatorProfile;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -51,6 +62,47 @@ public class TestHashAggr extends BaseTestQuery{
     testPhysicalFromFile("agg/hashagg/q8_1.json");
   }
 
+  /**
+   * Forces a two-phase aggregate with a small memory limit, so that the
+   * second phase spills partitions (and the first outputs early), checks in
+   * the query profile that partitions were spilled, and checks the result
+   * against the one computed in memory.
+   */
+  @Test
+  public void testSpill() throws Exception {
+    final String query =
+        "select l_orderkey, l_partkey, sum(l_quantity) sq, count(*) cnt " +
+        "from cp.`tpch/lineitem.parquet` group by l_orderkey, l_partkey";
+    FixtureBuilder builder = ClusterFixture.builder()
+        .saveProfiles()
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption("planner.enable_streamagg", false)
+        .sessionOption(ExecConstants.HASHAGG_NUM_PARTITIONS_KEY, 4)
+        .sessionOption(ExecConstants.HASHAGG_MAX_MEMORY_KEY, 16000000);
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      final QuerySummary summary = client.queryBuilder().sql(query).run();
+      assertTrue(summary.succeeded());
+      long spilledPartitions = 0;
+      long spillCycle = 0;
+      final ProfileParser profile = client.parseProfile(summary);
+      for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_AGGREGATE_VALUE)) {
+        spilledPartitions += op.getMetric(HashAggTemplate.Metric.SPILLED_PARTITIONS.metricId());
+        spillCycle = Math.max(spillCycle, op.getMetric(HashAggTemplate.Metric.SPILL_CYCLE.metricId()));
+      }
+      assertTrue("No partition was spilled", spilledPartitions > 0);
+      assertTrue("No spill cycle was reached", spillCycle >= 1);
+
+      client.testBuilder()
+        .optionSettingQueriesForBaseline("alter session set `planner.enable_hashagg` = false")
+        .unOrdered()
+        .sqlQuery(query)
+        .sqlBaselineQuery(query)
+        .build()
+        .run();
+    }
+  }
+
   @Ignore // ignore temporarily since this shows memory leak in ParquetRecordReader (DRILL-443)
   @Test
   public void test8() throws Exception{
@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.PlanTestBase;
+import org.apache.drill.common.expression.BooleanOperator;
+import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.server.options.FragmentOptionManager;
+import org.apache.drill.exec.server.options.OptionList;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.drill.exec.server.options.OptionValue;
+import org.apache.drill.exec.server.options.OptionValue.OptionType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestInListSet extends PlanTestBase {
+  private static final String TYPED_TABLE = "in_list_set_typed";
+
+  @BeforeClass
+  public static void createTypedTable() throws Exception {
+    test("create table %s.%s as select cast(employee_id as int) as id, cast(birth_date as date) as birth_date, " +
+        "cast(hire_date as timestamp) as hire_ts, full_name from cp.`employee.json`", TEMP_SCHEMA, TYPED_TABLE);
+  }
+
+  @AfterClass
+  public static void dropTypedTable() throws Exception {
+    FileUtils.deleteQuietly(new File(getDfsTestTmpSchemaLocation(), TYPED_TABLE));
+  }
+
+  private void testInListSet(String query) throws Exception {
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery("alter session set `%s` = true", PlannerSettings.IN_LIST_SET_KEY)
+          .optionSettingQueriesForBaseline("alter session set `%s` = false", PlannerSettings.IN_LIST_SET_KEY)
+          .unOrdered()
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `%s`", PlannerSettings.IN_LIST_SET_KEY);
+    }
+  }
+
+  /**
+   * @return a list of the given number of values, of the form 1, 2, 4, 7, 11...
+   */
+  private static String numbers(int count) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0, value = 1; i < count; value += ++i) {
+      sb.append(i == 0 ? "" : ", ").append(value);
+    }
+    return sb.toString();
+  }
+
+  private static String quote(String values) {
+    return "'" + values.replace(", ", "', '") + "'";
+  }
+
+  /**
+   * Checks that the filter of an IN list too long to be converted into comparisons, which is planned as a join
+   * with the values of the list, is rewritten into a lookup when planning, and compares the results.
+   */
+  private void testLongInList(String query, String setFunction) throws Exception {
+    try {
+      test("alter session set `%s` = true", PlannerSettings.IN_LIST_SET_KEY);
+      testPlanMatchingPatterns(query, new String[] {setFunction + "\\("}, new String[] {"Join"});
+    } finally {
+      test("alter session reset `%s`", PlannerSettings.IN_LIST_SET_KEY);
+    }
+    testInListSet(query);
+  }
+
+  @Test
+  public void testNumbers() throws Exception {
+    testInListSet("select employee_id, full_name from cp.`employee.json` " +
+        "where employee_id in (1, 2, 4, 7, 11, 16, 22, 29, 37, 46, 56, 67, 79, 92, 106, 0)");
+  }
+
+  @Test
+  public void testNotInNumbers() throws Exception {
+    testInListSet("select employee_id from cp.`employee.json` " +
+        "where employee_id not in (1, 2, 4, 7, 11, 16, 22, 29, 37, 46, 56, 67, 79, 92, 106)");
+  }
+
+  @Test
+  public void testFloatingPointColumn() throws Exception {
+    testInListSet("select employee_id, salary from cp.`employee.json` " +
+        "where salary in (10000, 20000, 30000, 40000, 50000, 60000, 70000, 80000, 5000, 6000, 7000, 8000)");
+  }
+
+  @Test
+  public void testStrings() throws Exception {
+    testInListSet("select employee_id, position_title from cp.`employee.json` " +
+        "where position_title in ('President', 'VP Country Manager', 'Store Manager', 'Store Assistant Manager', " +
+        "'HQ Marketing', 'HQ Human Resources', 'HQ Information Systems', 'HQ Finance and Accounting', " +
+        "'Store Shift Supervisor', 'Store Information Systems', 'Nobody') or department_id = 11");
+  }
+
+  @Test
+  public void testNotInStrings() throws Exception {
+    testInListSet("select employee_id from cp.`employee.json` " +
+        "where position_title not in ('President', 'VP Country Manager', 'Store Manager', 'Store Assistant Manager', " +
+        "'HQ Marketing', 'HQ Human Resources', 'HQ Information Systems', 'HQ Finance and Accounting', " +
+        "'Store Shift Supervisor', 'Store Information Systems')");
+  }
+
+  @Test
+  public void testDateColumnWithStrings() throws Exception {
+    testInListSet(String.format("select id, birth_date from %s.%s " +
+        "where birth_date in ('1961-08-26', '1915-07-03', '1969-06-20', '1951-05-10', '1942-10-08', '1949-03-27', " +
+        "'1922-08-10', '1979-06-23', '1949-08-26', '1967-06-20')", TEMP_SCHEMA, TYPED_TABLE));
+  }
+
+  @Test
+  public void testTimestampColumnWithStrings() throws Exception {
+    testInListSet(String.format("select id, hire_ts from %s.%s " +
+        "where hire_ts in ('1994-12-01 00:00:00', '1998-01-01 00:00:00', '1996-01-01 00:00:00', " +
+        "'1997-01-01 00:00:00', '1995-01-01 00:00:00', '1993-01-01 00:00:00', '1992-01-01 00:00:00', " +
+        "'1991-01-01 00:00:00', '1990-01-01 00:00:00', '1989-01-01 00:00:00')", TEMP_SCHEMA, TYPED_TABLE));
+  }
+
+  @Test
+  public void testIntColumnWithStrings() throws Exception {
+    testInListSet(String.format("select id, full_name from %s.%s " +
+        "where id in ('01', '02', '04', '07', '11', '16', '22', '29', '37', '46', '56')", TEMP_SCHEMA, TYPED_TABLE));
+  }
+
+  @Test
+  public void testNotInIntColumnWithStrings() throws Exception {
+    testInListSet(String.format("select id from %s.%s " +
+        "where id not in ('01', '02', '04', '07', '11', '16', '22', '29', '37', '46', '56')", TEMP_SCHEMA, TYPED_TABLE));
+  }
+
+  @Test
+  public void testLongNumberList() throws Exception {
+    testLongInList("select employee_id, full_name from cp.`employee.json` " +
+        "where employee_id in (" + numbers(40) + ", 0)", "in_number_set");
+  }
+
+  @Test
+  public void testLongStringList() throws Exception {
+    testLongInList("select employee_id, position_title from cp.`employee.json` " +
+        "where position_title in ('President', 'VP Country Manager', 'Store Manager', 'Store Assistant Manager', " +
+        "'HQ Marketing', 'HQ Human Resources', 'HQ Information Systems', 'HQ Finance and Accounting', " +
+        "'Store Shift Supervisor', 'Store Information Systems', " + quote(numbers(20)) + ")", "in_string_set");
+  }
+
+  @Test
+  public void testLongListSpanningChunks() throws Exception {
+    // the values do not fit in a single literal of the generated code
+    testLongInList("select employee_id from cp.`employee.json` " +
+        "where employee_id in (" + numbers(3000) + ")", "in_number_set");
+  }
+
+  @Test
+  public void testIntColumnWithLongStringList() throws Exception {
+    // the column is compared with each value, cast to its type, instead
+    testLongInList(String.format("select id, full_name from %s.%s where id in (%s)", TEMP_SCHEMA, TYPED_TABLE,
+        quote(numbers(30)).replace("'1'", "'01'")), "in_string_set");
+  }
+
+  @Test
+  public void testDateColumnWithLongStringList() throws Exception {
+    testLongInList(String.format("select id, birth_date from %s.%s " +
+        "where birth_date in ('1961-08-26', '1915-07-03', '1969-06-20', '1951-05-10', '1942-10-08', '1949-03-27', " +
+        "'1922-08-10', '1979-06-23', '1949-08-26', '1967-06-20', '1961-08-27', '1915-07-04', '1969-06-21', " +
+        "'1951-05-11', '1942-10-09', '1949-03-28', '1922-08-11', '1979-06-24', '1949-08-27', '1967-06-21')",
+        TEMP_SCHEMA, TYPED_TABLE), "in_string_set");
+  }
+
+  /**
+   * Checks which comparisons the filters rewrite into lookups, against the types of the incoming batch.
+   */
+  @Test
+  public void testRewrite() throws Exception {
+    final OptionList list = new OptionList();
+    list.add(OptionValue.createBoolean(OptionType.SESSION, PlannerSettings.IN_LIST_SET_KEY, true));
+    final OptionManager options = new FragmentOptionManager(optionManager, list);
+    final VectorContainer container = new VectorContainer();
+    container.add(TypeHelper.getNewVector(MaterializedField.create("id", Types.optional(MinorType.INT)), allocator));
+    container.add(TypeHelper.getNewVector(MaterializedField.create("name", Types.optional(MinorType.VARCHAR)),
+        allocator));
+    container.add(TypeHelper.getNewVector(MaterializedField.create("hired", Types.optional(MinorType.DATE)),
+        allocator));
+    container.buildSchema(SelectionVectorMode.NONE);
+    try {
+      final String ids = "id = " + numbers(12).replace(", ", " or id = ");
+      LogicalExpression rewritten = InListRewriter.rewrite(parseExpr(ids), container, options);
+      assertTrue(rewritten.toString(), rewritten instanceof FunctionCall);
+      assertEquals("in_number_set", ((FunctionCall) rewritten).getName());
+
+      // the other comparisons are kept
+      rewritten = InListRewriter.rewrite(parseExpr(ids + " or name = 'x'"), container, options);
+      assertEquals("booleanOr", ((BooleanOperator) rewritten).getName());
+      assertEquals(2, ((BooleanOperator) rewritten).args.size());
+
+      final String names = "name = " + quote(numbers(12)).replace(", ", " or name = ");
+      rewritten = InListRewriter.rewrite(parseExpr(names), container, options);
+      assertEquals("in_string_set", ((FunctionCall) rewritten).getName());
+
+      // NOT IN
+      final String notNames = "name <> " + quote(numbers(12)).replace(", ", " and name <> ");
+      rewritten = InListRewriter.rewrite(parseExpr(notNames), container, options);
+      assertEquals("not", ((FunctionCall) rewritten).getName());
+      assertEquals("in_string_set", ((FunctionCall) ((FunctionCall) rewritten).args.get(0)).getName());
+
+      // a date column is not compared with strings as strings; nor are short lists or disabled lookups rewritten
+      final String hired = "hired = " + quote(numbers(12)).replace(", ", " or hired = ");
+      assertEquals(12, ((BooleanOperator) InListRewriter.rewrite(parseExpr(hired), container, options)).args.size());
+      final String shortIds = "id = " + numbers(9).replace(", ", " or id = ");
+      assertEquals(9, ((BooleanOperator) InListRewriter.rewrite(parseExpr(shortIds), container, options)).args.size());
+      assertEquals(12, ((BooleanOperator) InListRewriter.rewrite(parseExpr(ids), container, optionManager)).args.size());
+
+      // a lookup created when planning is turned back into comparisons when the types do not match
+      rewritten = InListRewriter.rewrite(parseExpr("in_string_set(hired, '10:1961-08-261:x')"), container,
+          optionManager);
+      assertEquals("booleanOr", ((BooleanOperator) rewritten).getName());
+      assertEquals(2, ((BooleanOperator) rewritten).args.size());
+      rewritten = InListRewriter.rewrite(parseExpr("in_number_set(id, '1,2,3')"), container, optionManager);
+      assertEquals("in_number_set", ((FunctionCall) rewritten).getName());
+    } finally {
+      container.clear();
+    }
+  }
+}
@@ -18,8 +18,18 @@
 
 package org.apache.drill.exec.physical.impl.join;
 
+import static org.junit.Assert.assertTrue;
 
 import org.apache.drill.BaseTestQuery;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.FixtureBuilder;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.ProfileParser.OperatorProfile;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
@@ -126,4 +136,139 @@ public class TestHashJoinAdvanced extends BaseTestQuery {
         .baselineValues(4l)
         .go();
   }
+
+  /**
+   * Joins with a small memory limit, so that the build side spills partitions, checks in the query
+   * profile that partitions were spilled, and checks the result against a merge join.
+   */
+  @Test
+  public void testSpill() throws Exception {
+    final String query =
+        "select l.l_orderkey, l.l_partkey, o.o_custkey, o.o_orderdate " +
+        "from cp.`tpch/lineitem.parquet` l, cp.`tpch/orders.parquet` o " +
+        "where l.l_orderkey = o.o_orderkey";
+    FixtureBuilder builder = ClusterFixture.builder()
+        .saveProfiles()
+        .sessionOption("planner.enable_mergejoin", false)
+        .sessionOption(ExecConstants.HASHJOIN_NUM_PARTITIONS_KEY, 8)
+        .sessionOption(ExecConstants.HASHJOIN_MAX_MEMORY_KEY, 4000000);
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      final QuerySummary summary = client.queryBuilder().sql(query).run();
+      assertTrue(summary.succeeded());
+      long spilledPartitions = 0;
+      final ProfileParser profile = client.parseProfile(summary);
+      for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_JOIN_VALUE)) {
+        spilledPartitions += op.getMetric(HashJoinBatch.Metric.SPILLED_PARTITIONS.metricId());
+      }
+      assertTrue("No partition was spilled", spilledPartitions > 0);
+
+      client.testBuilder()
+        .optionSettingQueriesForBaseline("alter session set `planner.enable_hashjoin` = false; " +
+            "alter session set `planner.enable_mergejoin` = true")
+        .unOrdered()
+        .sqlQuery(query)
+        .sqlBaselineQuery(query)
+        .build()
+        .run();
+    }
+  }
+
+  @Test
+  public void testRuntimeFilter() throws Exception {
+    final String query =
+        "select l.l_orderkey, l.l_partkey, o.o_custkey " +
+        "from cp.`tpch/lineitem.parquet` l, cp.`tpch/orders.parquet` o " +
+        "where l.l_orderkey = o.o_orderkey and o.o_custkey < 100";
+    try {
+      testBuilder()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true",
+            ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false",
+            ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY)
+        .unOrdered()
+        .sqlQuery(query)
+        .sqlBaselineQuery(query)
+        .build()
+        .run();
+    } finally {
+      test("alter session reset `%s`", ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY);
+    }
+
+    // in a single fragment, the join hands its filter directly to the scan, whose reader drops the
+    // probe side rows read after the build side is complete
+    FixtureBuilder builder = ClusterFixture.builder()
+        .saveProfiles()
+        .maxParallelization(1)
+        .sessionOption("planner.enable_mergejoin", false)
+        .sessionOption(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY, true);
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      final QuerySummary summary = client.queryBuilder().sql(query).run();
+      assertTrue(summary.succeeded());
+      final ProfileParser profile = client.parseProfile(summary);
+      long filteredRecords = 0;
+      for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_JOIN_VALUE)) {
+        filteredRecords += op.getMetric(HashJoinBatch.Metric.RUNTIME_FILTERED_RECORDS.metricId());
+      }
+      assertTrue("No record was dropped by the runtime filter", filteredRecords > 0);
+      assertTrue("No record was dropped by the Parquet reader", getRuntimeFilteredRecords(profile) > 0);
+    }
+  }
+
+  /**
+   * Joins two hash distributed sides: the filters of the minor fragments of the join are merged by the
+   * foreman and sent to the probe side scans, which run in another major fragment.
+   */
+  @Test
+  public void testRuntimeFilterHashDistributed() throws Exception {
+    FixtureBuilder builder = ClusterFixture.builder()
+        .saveProfiles()
+        .clusterSize(2)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption("planner.enable_broadcast_join", false)
+        .sessionOption("planner.enable_mergejoin", false)
+        .sessionOption(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY, true);
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      // a probe side large enough for its scans to be held back by the join until its build side is complete
+      final StringBuilder probe = new StringBuilder("create table dfs_test.tmp.`runtime_filter_probe` as ");
+      for (int i = 0; i < 16; i++) {
+        probe.append(i == 0 ? "" : " union all ")
+            .append("select l_orderkey, l_partkey from cp.`tpch/lineitem.parquet`");
+      }
+      assertTrue(client.queryBuilder().sql(probe.toString()).run().succeeded());
+
+      final String query =
+          "select l.l_orderkey, l.l_partkey, o.o_custkey " +
+          "from dfs_test.tmp.`runtime_filter_probe` l, cp.`tpch/orders.parquet` o " +
+          "where l.l_orderkey = o.o_orderkey and o.o_custkey < 100";
+      final QuerySummary summary = client.queryBuilder().sql(query).run();
+      assertTrue(summary.succeeded());
+      final ProfileParser profile = client.parseProfile(summary);
+      long filters = 0;
+      for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_JOIN_VALUE)) {
+        filters += op.getMetric(HashJoinBatch.Metric.RUNTIME_FILTERS.metricId());
+      }
+      assertTrue("No runtime filter was built", filters > 0);
+      assertTrue("No record was dropped by the Parquet reader", getRuntimeFilteredRecords(profile) > 0);
+
+      client.testBuilder()
+        .optionSettingQueriesForBaseline("alter session set `%s` = false",
+            ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY)
+        .unOrdered()
+        .sqlQuery(query)
+        .sqlBaselineQuery(query)
+        .build()
+        .run();
+    }
+  }
+
+  private static long getRuntimeFilteredRecords(ProfileParser profile) {
+    long filteredRecords = 0;
+    for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE)) {
+      filteredRecords += op.getMetric(ParquetRecordReader.Metric.NUM_RECORDS_RUNTIME_FILTERED.metricId());
+    }
+    return filteredRecords;
+  }
 }
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import org.apache.drill.PlanTestBase;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.junit.Test;
+
+public class TestFilterProjectFusion extends PlanTestBase {
+
+  private void testFusion(String query) throws Exception {
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery("alter session set `%s` = true", PlannerSettings.FILTER_PROJECT_FUSION_KEY)
+          .optionSettingQueriesForBaseline("alter session set `%s` = false", PlannerSettings.FILTER_PROJECT_FUSION_KEY)
+          .unOrdered()
+          .sqlBaselineQuery(query)
+          .go();
+    } finally {
+      test("alter session reset `%s`", PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+    }
+  }
+
+  @Test
+  public void testFusedPlan() throws Exception {
+    try {
+      test("alter session set `%s` = true", PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+      testPlanMatchingPatterns(
+          "select n_nationkey + 1 as k, upper(n_name) as name from cp.`tpch/nation.parquet` where n_regionkey = 1",
+          new String[] { "FilterProject" },
+          new String[] { "SelectionVectorRemover" });
+    } finally {
+      test("alter session reset `%s`", PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+    }
+  }
+
+  @Test
+  public void testFilterProject() throws Exception {
+    testFusion("select n_nationkey * 2 + 1 as k, upper(n_name) as name, n_comment " +
+        "from cp.`tpch/nation.parquet` where n_regionkey in (1, 3) or n_name like 'A%'");
+  }
+
+  @Test
+  public void testNoRecordPasses() throws Exception {
+    testFusion("select n_nationkey, n_name from cp.`tpch/nation.parquet` where n_nationkey < 0");
+  }
+
+  @Test
+  public void testNullableColumns() throws Exception {
+    testFusion("select t.id, t.`position_id` + 1 as pos, t.`education_level` from cp.`employee.json` t " +
+        "where t.salary > 20000 and t.gender = 'F'");
+  }
+}
@@ -225,6 +225,18 @@ public class TestParquetWriter extends BaseTestQuery {
     }
   }
 
+  @Test
+  public void testLowCardinalityVarCharDictionary() throws Exception {
+    String selection = "L_ORDERKEY, L_RETURNFLAG, L_LINESTATUS, L_SHIPINSTRUCT, L_SHIPMODE";
+    String inputTable = "cp.`tpch/lineitem.parquet`";
+    try {
+      test(String.format("alter session set %s = true", ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING));
+      runTestAndValidate(selection, selection, inputTable, "lineitem_dictionary");
+    } finally {
+      test(String.format("alter session set %s = false", ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING));
+    }
+  }
+
   @Test
   public void testComplex() throws Exception {
     String selection = "*";
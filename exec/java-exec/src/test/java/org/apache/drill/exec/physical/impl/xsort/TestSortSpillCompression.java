@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort;
+
+import java.util.Properties;
+
+import org.apache.drill.BaseTestQuery;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the managed external sort with compressed spill files. The sort memory
+ * is limited so that the sort spills; results must match those of a sort with
+ * uncompressed spill files.
+ */
+public class TestSortSpillCompression extends BaseTestQuery {
+
+  private static final String QUERY = "select l_orderkey, l_linenumber, l_partkey, l_comment " +
+      "from cp.`tpch/lineitem.parquet` order by l_partkey desc, l_orderkey, l_linenumber";
+
+  @BeforeClass
+  public static void initCluster() {
+    final Properties props = cloneDefaultTestConfigProperties();
+    props.put(ExecConstants.EXTERNAL_SORT_MAX_MEMORY, "5000000");
+    updateTestCluster(1, DrillConfig.create(props));
+  }
+
+  @Test
+  public void testSnappy() throws Exception {
+    runWithCompression("snappy");
+  }
+
+  @Test
+  public void testDeflate() throws Exception {
+    runWithCompression("deflate");
+  }
+
+  private void runWithCompression(String codec) throws Exception {
+    testBuilder()
+        .sqlQuery(QUERY)
+        .optionSettingQueriesForTestQuery("alter session set `%s` = '%s'",
+            ExecConstants.EXTERNAL_SORT_SPILL_COMPRESSION, codec)
+        .ordered()
+        .sqlBaselineQuery(QUERY)
+        .optionSettingQueriesForBaseline("alter session set `%s` = 'none'",
+            ExecConstants.EXTERNAL_SORT_SPILL_COMPRESSION)
+        .go();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.DrillTest;
+import org.apache.drill.test.FixtureBuilder;
+import org.junit.Test;
+
+/**
+ * Runs queries whose record batches cross hash exchanges with Snappy
+ * compression enabled on the data channel.
+ */
+public class TestBitBitCompression extends DrillTest {
+
+  @Test
+  public void testCompressedExchange() throws Exception {
+    FixtureBuilder builder = ClusterFixture.builder()
+        .clusterSize(2)
+        .configProperty(ExecConstants.BIT_DATA_COMPRESSION_ENABLED, true)
+        .configProperty(ExecConstants.BIT_DATA_COMPRESSION_THRESHOLD, 0)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1);
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      // each (l_orderkey, l_linenumber) pair is unique, so grouping keeps every row
+      client.testBuilder()
+          .sqlQuery("select count(*) as cnt from (select l_orderkey, l_linenumber, l_comment " +
+              "from cp.`tpch/lineitem.parquet` group by l_orderkey, l_linenumber, l_comment)")
+          .unOrdered()
+          .sqlBaselineQuery("select count(*) as cnt from cp.`tpch/lineitem.parquet`")
+          .go();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestLineSplitInputStream {
+
+  @Test
+  public void testSplitsReadEachLineOnce() throws Exception {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      content.append("{\"a\": ").append(i * 37).append("}\n");
+    }
+    content.append("\n{\"b\": 1}");
+    File file = File.createTempFile("lineSplit", ".json");
+    file.deleteOnExit();
+    Files.write(content.toString(), file, Charsets.UTF_8);
+
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    Path path = new Path(file.toURI());
+    long fileLength = file.length();
+    for (long splitLength = 1; splitLength <= fileLength; splitLength += 3) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      for (long start = 0; start < fileLength; start += splitLength) {
+        try (InputStream in = new LineSplitInputStream(fs.open(path), start, Math.min(start + splitLength, fileLength))) {
+          byte[] buffer = new byte[7];
+          int n;
+          while ((n = in.read(buffer)) != -1) {
+            output.write(buffer, 0, n);
+          }
+        }
+      }
+      assertEquals("split length " + splitLength, content.toString(), new String(output.toByteArray(), Charsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestRecordBoundaryScanner {
+
+  private static final RecordBoundaryScanner SCANNER =
+      new RecordBoundaryScanner((byte) '"', (byte) '"', (byte) ',', new byte[] {'\n'});
+
+  private static int recordEnd(String data, String splitStart) {
+    final byte[] bytes = data.getBytes(Charsets.UTF_8);
+    final int start = data.indexOf(splitStart);
+    return SCANNER.findRecordEnd(ByteBuffer.wrap(bytes), start, bytes.length);
+  }
+
+  @Test
+  public void testStartInQuotedValue() {
+    final String data = "1,\"a\nb\",x\n2,\"c\",y\n";
+    // the split starts at "a", inside the quoted value of the first record
+    assertEquals(data.indexOf(",x\n") + 2, recordEnd(data, "a\nb"));
+  }
+
+  @Test
+  public void testStartInUnquotedValue() {
+    final String data = "1,abc,x\n2,\"c\nd\",y\n";
+    assertEquals(data.indexOf("x\n") + 1, recordEnd(data, "bc"));
+  }
+
+  @Test
+  public void testEscapedQuotes() {
+    final String data = "1,\"a \"\"q\"\"\nb\",x\n2,\"c\",y\n";
+    assertEquals(data.indexOf(",x\n") + 2, recordEnd(data, "q\"\"\nb"));
+  }
+
+  @Test
+  public void testUndecidedWithoutQuotes() {
+    // the split may as well start in a quoted value which never ends in the buffer
+    assertEquals(-1, recordEnd("1,abc,x\n2,def,y\n", "bc"));
+  }
+}
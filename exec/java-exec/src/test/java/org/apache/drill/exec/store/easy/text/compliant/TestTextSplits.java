@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.text.compliant;
+
+import static org.junit.Assert.assertEquals;
+import io.netty.buffer.DrillBuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.store.easy.text.TextFormatPlugin.TextFormatConfig;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.io.Files;
+
+/**
+ * Reads text files as consecutive splits, starting and ending at every offset, and checks that
+ * each record is read by exactly one split.
+ */
+public class TestTextSplits extends ExecTest {
+
+  // "\n" stands for the line separator in the lines and the records
+  private static final String[] LINES = {
+      "1,\"a,b\",x",
+      "22,\"say \"\"hi\"\"\",yy",
+      "333,plain,\"q\",z",
+      "4,\"\",w",
+      "55,c,d"};
+  private static final String[] RECORDS = {
+      "1|a,b|x",
+      "22|say \"hi\"|yy",
+      "333|plain|q|z",
+      "4||w",
+      "55|c|d"};
+
+  private static final String[] QUOTED_NEW_LINES = {
+      "1,\"a\nb\",x",
+      "22,\"say \"\"hi\"\"\n\",yy",
+      "333,\"p,q\",z",
+      "4,\"\n\n\",w",
+      "55,\"c\",d"};
+  private static final String[] QUOTED_NEW_LINE_RECORDS = {
+      "1|a\nb|x",
+      "22|say \"hi\"\n|yy",
+      "333|p,q|z",
+      "4|\n\n|w",
+      "55|c|d"};
+
+  private static BufferAllocator allocator;
+  private static DrillBuf readBuffer;
+  private static DrillBuf workBuffer;
+  private static FileSystem fs;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    allocator = RootAllocatorFactory.newRoot(DrillConfig.create());
+    readBuffer = allocator.buffer(64 * 1024);
+    workBuffer = allocator.buffer(64 * 1024);
+    fs = FileSystem.getLocal(new Configuration());
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    readBuffer.release();
+    workBuffer.release();
+    allocator.close();
+  }
+
+  @Test
+  public void testSplits() throws IOException {
+    testSplits(LINES, RECORDS, "\n", false);
+  }
+
+  @Test
+  public void testSplitsWithCarriageReturns() throws IOException {
+    testSplits(LINES, RECORDS, "\r\n", false);
+  }
+
+  @Test
+  public void testSplitsWithQuotedNewLines() throws IOException {
+    testSplits(QUOTED_NEW_LINES, QUOTED_NEW_LINE_RECORDS, "\n", true);
+  }
+
+  @Test
+  public void testSplitsWithQuotedNewLinesAndCarriageReturns() throws IOException {
+    testSplits(QUOTED_NEW_LINES, QUOTED_NEW_LINE_RECORDS, "\r\n", true);
+  }
+
+  private void testSplits(String[] lines, String[] records, String lineSeparator, boolean quotedNewLines)
+      throws IOException {
+    final TextFormatConfig config = new TextFormatConfig();
+    config.fieldDelimiter = ',';
+    config.lineDelimiter = lineSeparator;
+    config.quotedNewLines = quotedNewLines;
+    final TextParsingSettings settings = new TextParsingSettings();
+    settings.set(config);
+
+    final List<String> expected = new ArrayList<>();
+    for (String record : records) {
+      expected.add(record.replace("\n", lineSeparator));
+    }
+    final String data = Joiner.on("\n").join(lines).replace("\n", lineSeparator);
+    // with and without a line separator at the end of the file
+    testSplits(settings, data, expected);
+    testSplits(settings, data + lineSeparator, expected);
+  }
+
+  private void testSplits(TextParsingSettings settings, String data, List<String> expected) throws IOException {
+    final File file = File.createTempFile("text-splits", ".csv");
+    file.deleteOnExit();
+    Files.write(data.getBytes(Charsets.UTF_8), file);
+    final Path path = new Path(file.toURI());
+    final long length = file.length();
+
+    assertEquals(expected, read(settings, path, 0, length));
+    for (long start = 1; start < length; start++) {
+      final List<String> records = read(settings, path, 0, start);
+      records.addAll(read(settings, path, start, length));
+      assertEquals("Split at " + start, expected, records);
+    }
+    for (long splitLength = 1; splitLength < length; splitLength++) {
+      final List<String> records = new ArrayList<>();
+      for (long start = 0; start < length; start += splitLength) {
+        records.addAll(read(settings, path, start, Math.min(start + splitLength, length)));
+      }
+      assertEquals("Splits of " + splitLength + " bytes", expected, records);
+    }
+  }
+
+  private static List<String> read(TextParsingSettings settings, Path path, long start, long end)
+      throws IOException {
+    final RecordCollector output = new RecordCollector();
+    final TextReader reader = new TextReader(settings, new TextInput(settings, fs.open(path), readBuffer, start, end),
+        output, workBuffer);
+    reader.start();
+    reader.resetForNextBatch();
+    while (reader.parseNext()) {
+    }
+    reader.finishBatch();
+    reader.close();
+    return output.records;
+  }
+
+  /**
+   * Collects the records read, as the values of their fields separated by '|'.
+   */
+  private static class RecordCollector extends TextOutput {
+    private final List<String> records = new ArrayList<>();
+    private final StringBuilder record = new StringBuilder();
+    private final ByteArrayOutputStream field = new ByteArrayOutputStream();
+    private boolean inField;
+    private boolean rowHasData;
+
+    @Override
+    public void startField(int index) {
+      if (index > 0) {
+        record.append('|');
+      }
+      field.reset();
+      inField = true;
+    }
+
+    @Override
+    public boolean endField() {
+      record.append(new String(field.toByteArray(), Charsets.UTF_8));
+      inField = false;
+      return true;
+    }
+
+    @Override
+    public boolean endEmptyField() {
+      return endField();
+    }
+
+    @Override
+    public void append(byte data) {
+      field.write(data);
+      rowHasData = true;
+    }
+
+    @Override
+    public void finishRecord() {
+      if (inField) {
+        endField();
+      }
+      records.add(record.toString());
+      record.setLength(0);
+      rowHasData = false;
+    }
+
+    @Override
+    public long getRecordCount() {
+      return records.size();
+    }
+
+    @Override
+    public void startBatch() {
+    }
+
+    @Override
+    public void finishBatch() {
+    }
+
+    @Override
+    public boolean rowHasData() {
+      return rowHasData;
+    }
+  }
+}
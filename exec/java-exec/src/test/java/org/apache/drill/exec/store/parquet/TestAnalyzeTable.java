@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.drill.PlanTestBase;
+import org.apache.drill.exec.planner.cost.TableStatistics;
+import org.apache.drill.exec.planner.cost.TableStatistics.ColumnStatistics;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestAnalyzeTable extends PlanTestBase {
+  private static final String TABLE = "analyze_nation";
+
+  @BeforeClass
+  public static void createTable() throws Exception {
+    test("alter session set `store.format` = 'parquet'");
+    test("create table dfs_test.tmp.`%s` as select * from cp.`tpch/nation.parquet`", TABLE);
+  }
+
+  @Test
+  public void testComputeStatistics() throws Exception {
+    test("analyze table dfs_test.tmp.`%s` compute statistics", TABLE);
+
+    final TableStatistics stats = readStatistics();
+    assertNotNull(stats);
+    assertEquals(25, stats.getRowCount(), 0);
+
+    final ColumnStatistics nationKey = stats.getColumn("N_NATIONKEY");
+    assertEquals(25, nationKey.getNonNullCount(), 0);
+    assertEquals(25, nationKey.getNdv(), 1);
+    assertEquals(0, nationKey.getMin(), 0);
+    assertEquals(24, nationKey.getMax(), 0);
+    assertEquals(0.5, nationKey.getFractionBelow(12), 0.1);
+
+    final ColumnStatistics regionKey = stats.getColumn("n_regionkey");
+    assertEquals(5, regionKey.getNdv(), 0.5);
+
+    final ColumnStatistics name = stats.getColumn("n_name");
+    assertEquals(25, name.getNdv(), 1);
+    assertNull(name.getMin());
+  }
+
+  @Test
+  public void testSelectedColumns() throws Exception {
+    test("analyze table dfs_test.tmp.`%s` compute statistics (n_regionkey)", TABLE);
+
+    final TableStatistics stats = readStatistics();
+    assertNotNull(stats.getColumn("n_regionkey"));
+    assertNull(stats.getColumn("n_nationkey"));
+  }
+
+  @Test
+  public void testFilterEstimateUsesStatistics() throws Exception {
+    test("analyze table dfs_test.tmp.`%s` compute statistics", TABLE);
+    // 5 distinct region keys in 25 rows, the estimate of 5 being approximate
+    testPlanMatchingPatterns(String.format("select * from dfs_test.tmp.`%s` where n_regionkey = 1", TABLE),
+        new String[] {"Filter.*rowcount = (4\\.9|5\\.0)"}, new String[] {});
+  }
+
+  private static TableStatistics readStatistics() throws Exception {
+    final FileSystem fs = FileSystem.getLocal(new Configuration());
+    return TableStatistics.read(fs, new Path(getDfsTestTmpSchemaLocation(), TABLE));
+  }
+}
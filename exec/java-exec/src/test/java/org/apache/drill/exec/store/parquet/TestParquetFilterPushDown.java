@@ -20,9 +20,17 @@ package org.apache.drill.exec.store.parquet;
 import org.apache.drill.PlanTestBase;
 import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.util.TestTools;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.proto.BitControl;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.ProfileParser.OperatorProfile;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -37,6 +45,7 @@ import java.io.IOException;
 
 import static org.apache.zookeeper.ZooDefs.OpCode.create;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestParquetFilterPushDown extends PlanTestBase {
 
@@ -321,6 +330,67 @@ public class TestParquetFilterPushDown extends PlanTestBase {
     }
   }
 
+  @Test
+  public void testParquetFilterPDExecution() throws Exception {
+    final String query = String.format("select o_orderdate from dfs_test.`%s/parquetFilterPush/dateTblCorrupted` " +
+        "where o_orderdate = date '1992-01-01'", TEST_RES_PATH);
+    try {
+      // without pruning at planning time, the scan reads the three files and skips the row groups of two
+      test("alter session set `" + PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_KEY + "` = false");
+      testParquetFilterPD(query, 9, 3, false);
+      testPlanMatchingPatterns(query, new String[] {"filter=.*o_orderdate"}, new String[] {});
+
+      test("alter session set `" + PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION_KEY + "` = false");
+      testParquetFilterPD(query, 9, 3, false);
+      testPlanMatchingPatterns(query, new String[] {}, new String[] {"filter="});
+    } finally {
+      test("alter session reset `" + PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_KEY + "`");
+      test("alter session reset `" + PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_EXECUTION_KEY + "`");
+    }
+  }
+
+  @Test
+  public void testLateMaterialization() throws Exception {
+    final String lateMaterialization = "alter session set `" + ExecConstants.PARQUET_READER_LATE_MATERIALIZATION + "` = %s";
+    // some records of the batch pass the filter on the fixed width column
+    final String query = "select o_orderkey, o_orderstatus, o_comment from cp.`tpch/orders.parquet` " +
+        "where o_orderkey between 100 and 200 and o_orderstatus <> 'F'";
+    try {
+      testBuilder()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery(String.format(lateMaterialization, true))
+          .unOrdered()
+          .sqlBaselineQuery(query)
+          .optionSettingQueriesForBaseline(String.format(lateMaterialization, false))
+          .go();
+
+      // no record does, the variable width columns are skipped
+      testBuilder()
+          .sqlQuery("select o_orderkey, o_comment from cp.`tpch/orders.parquet` where o_orderkey < 0")
+          .optionSettingQueriesForTestQuery(String.format(lateMaterialization, true))
+          .expectsEmptyResultSet()
+          .go();
+    } finally {
+      test(String.format(lateMaterialization, false));
+    }
+
+    // the records which do not pass the filter on the fixed width column are dropped by the reader
+    try (ClusterFixture cluster = ClusterFixture.builder()
+             .saveProfiles()
+             .sessionOption(ExecConstants.PARQUET_READER_LATE_MATERIALIZATION, true)
+             .build();
+         ClientFixture client = cluster.clientFixture()) {
+      final QuerySummary summary = client.queryBuilder().sql(query).run();
+      assertTrue(summary.succeeded());
+      long recordsSkipped = 0;
+      final ProfileParser profile = client.parseProfile(summary);
+      for (OperatorProfile op : profile.getOpsOfType(CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE)) {
+        recordsSkipped += op.getMetric(ParquetRecordReader.Metric.NUM_RECORDS_SKIPPED.metricId());
+      }
+      assertTrue("No record was dropped by late materialization", recordsSkipped > 0);
+    }
+  }
+
   @Test
   public void testDatePredicateAgainstCorruptedDateCol() throws Exception {
     // Table dateTblCorrupted is created by CTAS in drill 1.8.0. Per DRILL-4203, the date column is shifted by some value.
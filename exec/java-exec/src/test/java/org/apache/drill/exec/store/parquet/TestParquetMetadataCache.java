@@ -398,6 +398,76 @@ public class TestParquetMetadataCache extends PlanTestBase {
 
   }
 
+  @Test
+  public void testIncrementalRefresh() throws Exception {
+    final String tableName = "parquetTableIncremental";
+    final File tableDir = new File(getDfsTestTmpSchemaLocation(), tableName);
+    FileUtils.copyDirectory(new File(String.format("%s/multilevel/parquet", TEST_RES_PATH)), tableDir);
+    test(String.format("refresh table metadata dfs_test.`%s/%s`", getDfsTestTmpSchemaLocation(), tableName));
+
+    final File unchangedCacheFile = new File(tableDir, "1994/" + Metadata.METADATA_FILENAME);
+    final long unchangedModified = unchangedCacheFile.lastModified();
+
+    // let the modification times of the new file and its directory differ from the cache files'
+    Thread.sleep(1100);
+    FileUtils.copyFile(new File(tableDir, "1995/Q1/orders_95_q1.parquet"), new File(tableDir, "1995/Q1/orders_95_q1_copy.parquet"));
+    test(String.format("refresh table metadata dfs_test.`%s/%s`", getDfsTestTmpSchemaLocation(), tableName));
+
+    assertEquals("metadata file of an unchanged directory should not be rewritten",
+        unchangedModified, unchangedCacheFile.lastModified());
+    testBuilder()
+        .sqlQuery("select count(*) as cnt from dfs_test.`%s/%s`", getDfsTestTmpSchemaLocation(), tableName)
+        .unOrdered()
+        .baselineColumns("cnt")
+        .baselineValues(130L)
+        .go();
+    PlanTestBase.testPlanMatchingPatterns(String.format("select * from dfs_test.`%s/%s` where dir0 = 1995",
+        getDfsTestTmpSchemaLocation(), tableName), new String[] {"numFiles=5", "usedMetadataFile=true"}, new String[] {});
+  }
+
+  @Test
+  public void testMetadataFilesNotOlderThanDirectories() throws Exception {
+    final String tableName = "parquetTableModificationTimes";
+    final File tableDir = new File(getDfsTestTmpSchemaLocation(), tableName);
+    FileUtils.copyDirectory(new File(String.format("%s/multilevel/parquet", TEST_RES_PATH)), tableDir);
+    test(String.format("refresh table metadata dfs_test.`%s/%s`", getDfsTestTmpSchemaLocation(), tableName));
+
+    // the rename of each metadata file written updates the modification time of its directory; a metadata
+    // file older than its directory would make the table look modified, and be refreshed, on every query
+    for (File dir : new File[] {tableDir, new File(tableDir, "1994"), new File(tableDir, "1995/Q1")}) {
+      final File cacheFile = new File(dir, Metadata.METADATA_FILENAME);
+      Assert.assertTrue(cacheFile.exists());
+      Assert.assertTrue("metadata file older than its directory " + dir,
+          cacheFile.lastModified() >= dir.lastModified());
+    }
+
+    final File cacheFile = new File(tableDir, Metadata.METADATA_FILENAME);
+    final long modified = cacheFile.lastModified();
+    Thread.sleep(1100);
+    PlanTestBase.testPlanMatchingPatterns(String.format("select * from dfs_test.`%s/%s` where dir0 = 1995",
+        getDfsTestTmpSchemaLocation(), tableName), new String[] {"numFiles=4", "usedMetadataFile=true"}, new String[] {});
+    assertEquals("metadata file of an unchanged table should not be rewritten", modified, cacheFile.lastModified());
+  }
+
+  @Test
+  public void testBinaryMetadataFile() throws Exception {
+    final String tableName = "parquetTableBinary";
+    final File tableDir = new File(getDfsTestTmpSchemaLocation(), tableName);
+    FileUtils.copyDirectory(new File(String.format("%s/multilevel/parquet", TEST_RES_PATH)), tableDir);
+    test(String.format("refresh table metadata dfs_test.`%s/%s`", getDfsTestTmpSchemaLocation(), tableName));
+
+    final File binaryFile = new File(tableDir, BinaryMetadataCache.BINARY_METADATA_FILENAME);
+    Assert.assertTrue(binaryFile.exists());
+    final String query = String.format("select dir0, dir1, o_custkey, o_orderdate from dfs_test.`%s/%s` " +
+        " where dir0=1994 and dir1 in ('Q1', 'Q2')", getDfsTestTmpSchemaLocation(), tableName);
+    assertEquals(20, testSql(query));
+    PlanTestBase.testPlanMatchingPatterns(query, new String[] {"numFiles=2", "usedMetadataFile=true"}, new String[] {});
+
+    // a corrupt binary file falls back to the JSON file
+    FileUtils.writeStringToFile(binaryFile, "corrupt");
+    assertEquals(20, testSql(query));
+  }
+
   private void checkForMetadataFile(String table) throws Exception {
     String tmpDir = getDfsTestTmpSchemaLocation();
     String metaFile = Joiner.on("/").join(tmpDir, table, Metadata.METADATA_FILENAME);
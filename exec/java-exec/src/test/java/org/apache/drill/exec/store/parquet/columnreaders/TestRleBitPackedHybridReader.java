@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TestRleBitPackedHybridReader {
+
+  // an RLE run of 5 nulls, a bit-packed group of 8 levels and an RLE run of 3 defined values
+  private static final int[] LEVELS = {0, 0, 0, 0, 0, 1, 1, 1, 0, 1, 0, 0, 1, 1, 1, 1};
+
+  private static byte[] levelsPage() {
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    data.write(5 << 1);
+    data.write(0);
+    data.write((1 << 1) | 1);
+    data.write(pack(new int[] {1, 1, 1, 0, 1, 0, 0, 1}, 1), 0, 1);
+    data.write(3 << 1);
+    data.write(1);
+
+    ByteArrayOutputStream page = new ByteArrayOutputStream();
+    // two bytes before the levels, then the length of the levels
+    page.write(0x7F);
+    page.write(0x7F);
+    page.write(data.size());
+    page.write(0);
+    page.write(0);
+    page.write(0);
+    page.write(data.toByteArray(), 0, data.size());
+    // the values of the page
+    page.write(new byte[8], 0, 8);
+    return page.toByteArray();
+  }
+
+  @Test
+  public void testReadLevels() throws Exception {
+    RleBitPackedHybridReader reader = RleBitPackedHybridReader.forLevels(1);
+    reader.initFromPage(LEVELS.length, ByteBuffer.wrap(levelsPage()), 2);
+    assertEquals(2 + 4 + 6, reader.getNextOffset());
+    for (int level : LEVELS) {
+      assertEquals(level, reader.readInteger());
+    }
+  }
+
+  @Test
+  public void testReadLevelRuns() throws Exception {
+    RleBitPackedHybridReader reader = RleBitPackedHybridReader.forLevels(1);
+    reader.initFromPage(LEVELS.length, ByteBuffer.wrap(levelsPage()), 2);
+    assertEquals(0, reader.readLevelRun(true, 1, 100));
+    assertEquals(3, reader.readLevelRun(false, 1, 3));
+    assertEquals(2, reader.readLevelRun(false, 1, 100));
+    assertEquals(3, reader.readLevelRun(true, 1, 100));
+    assertEquals(1, reader.readLevelRun(false, 1, 100));
+    assertEquals(1, reader.readLevelRun(true, 1, 100));
+    assertEquals(2, reader.readLevelRun(false, 1, 100));
+    // the run of defined values goes on from the bit-packed group into the RLE run
+    assertEquals(4, reader.readLevelRun(true, 1, 100));
+    assertEquals(0, reader.readLevelRun(true, 1, 100));
+  }
+
+  @Test
+  public void testReadDictionaryIds() throws Exception {
+    checkDictionaryIds(3, new int[] {0, 1, 2, 3, 4, 5, 6, 7}, 5);
+    checkDictionaryIds(12, new int[] {100, 4095, 0, 7, 2048, 1, 300, 9}, 4000);
+    checkDictionaryIds(20, new int[] {1 << 19, 3, 0, 65536, 17, 1000000, 5, 2}, 123456);
+  }
+
+  private static void checkDictionaryIds(int bitWidth, int[] packed, int repeated) throws Exception {
+    ByteArrayOutputStream page = new ByteArrayOutputStream();
+    page.write(bitWidth);
+    page.write((1 << 1) | 1);
+    byte[] packedBytes = pack(packed, bitWidth);
+    page.write(packedBytes, 0, packedBytes.length);
+    page.write(10 << 1);
+    for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+      page.write(repeated >>> (i * 8));
+    }
+
+    int[] expected = new int[packed.length + 10];
+    System.arraycopy(packed, 0, expected, 0, packed.length);
+    for (int i = packed.length; i < expected.length; i++) {
+      expected[i] = repeated;
+    }
+
+    RleBitPackedHybridReader reader = RleBitPackedHybridReader.forDictionaryIds();
+    reader.initFromPage(expected.length, ByteBuffer.wrap(page.toByteArray()), 0);
+    int[] ids = new int[expected.length + 1];
+    reader.readIntegers(ids, 1, 5);
+    reader.readIntegers(ids, 6, expected.length - 5);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], ids[i + 1]);
+    }
+
+    reader.initFromPage(expected.length, ByteBuffer.wrap(page.toByteArray()), 0);
+    int[] values = new int[expected.length];
+    for (int i = 0; i < expected.length; i++) {
+      values[i] = reader.readValueDictionaryId();
+    }
+    assertArrayEquals(expected, values);
+  }
+
+  /**
+   * Packs the values the way Parquet does, the least significant bits first.
+   */
+  private static byte[] pack(int[] values, int bitWidth) {
+    byte[] bytes = new byte[values.length * bitWidth / 8];
+    int bit = 0;
+    for (int value : values) {
+      for (int i = 0; i < bitWidth; i++, bit++) {
+        if ((value >>> i & 1) != 0) {
+          bytes[bit / 8] |= 1 << (bit % 8);
+        }
+      }
+    }
+    return bytes;
+  }
+}
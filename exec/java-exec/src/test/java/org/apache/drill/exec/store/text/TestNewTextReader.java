@@ -21,13 +21,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
 import org.apache.drill.BaseTestQuery;
+import org.apache.drill.TestBuilder;
 import org.apache.drill.common.exceptions.UserRemoteException;
 import org.apache.drill.common.util.FileUtils;
 import org.apache.drill.exec.proto.UserBitShared.DrillPBError.ErrorType;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
+
 public class TestNewTextReader extends BaseTestQuery {
 
   @Test
@@ -131,4 +138,55 @@ public class TestNewTextReader extends BaseTestQuery {
         .build()
         .run();
   }
+
+  @Test
+  public void testLongUnquotedFields() throws Exception {
+    // values of many lengths, spread over more than one read buffer
+    File tableDir = new File(getDfsTestTmpSchemaLocation(), "longUnquotedFields");
+    tableDir.mkdir();
+    BufferedOutputStream os = new BufferedOutputStream(new FileOutputStream(new File(tableDir, "a.csv")));
+    for (int i = 0; i < 30000; i++) {
+      os.write(String.format("%s,%d,%s\n", Strings.repeat("x", i % 41), i, Strings.repeat("y", i % 17)).getBytes());
+    }
+    os.close();
+
+    TestBuilder builder = testBuilder()
+        .sqlQuery("select columns[0] as c0, columns[1] as c1, columns[2] as c2 from dfs_test.tmp.longUnquotedFields")
+        .unOrdered()
+        .baselineColumns("c0", "c1", "c2");
+    for (int i = 0; i < 30000; i++) {
+      builder.baselineValues(Strings.repeat("x", i % 41), String.valueOf(i), Strings.repeat("y", i % 17));
+    }
+    builder.go();
+  }
+
+  @Test
+  public void testDeclaredSchema() throws Exception {
+    File tableDir = new File(getDfsTestTmpSchemaLocation(), "declaredSchema");
+    tableDir.mkdir();
+    BufferedOutputStream os = new BufferedOutputStream(new FileOutputStream(new File(tableDir, "a.csv")));
+    os.write("id,price,name\n1,2.5,a\n2,,b\n3,x,c\n4,1e3\n".getBytes());
+    os.close();
+
+    final String table = "table(dfs_test.tmp.`declaredSchema`(type => 'text', fieldDelimiter => ',', extractHeader => true, " +
+        "schema => 'id INT, price DOUBLE, name VARCHAR'%s))";
+
+    testBuilder()
+        .sqlQuery("select id, price, name from " + String.format(table, ", nullInvalidValues => true"))
+        .unOrdered()
+        .baselineColumns("id", "price", "name")
+        .baselineValues(1, 2.5, "a")
+        .baselineValues(2, null, "b")
+        .baselineValues(3, null, "c")
+        .baselineValues(4, 1000.0, null)
+        .go();
+
+    try {
+      test("select id, price from " + String.format(table, ""));
+      fail("Expected exception not thrown.");
+    } catch (UserRemoteException e) {
+      assertEquals(ErrorType.DATA_READ, e.getErrorType());
+      assertTrue(e.getMessage(), e.getMessage().contains("Invalid value 'x' for column price"));
+    }
+  }
 }
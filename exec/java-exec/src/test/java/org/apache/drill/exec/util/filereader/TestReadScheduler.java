@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.util.filereader;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestReadScheduler {
+
+  @Test
+  public void testPrioritizedReadRunsFirst() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ReadScheduler scheduler = new ReadScheduler(executor, 1);
+      final CountDownLatch blocked = new CountDownLatch(1);
+      final List<Integer> order = Lists.newCopyOnWriteArrayList();
+
+      Future<Void> first = scheduler.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          blocked.await();
+          return null;
+        }
+      });
+      List<Future<Void>> reads = Lists.newArrayList();
+      for (int i = 0; i < 3; i++) {
+        final int read = i;
+        reads.add(scheduler.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            order.add(read);
+            return null;
+          }
+        }));
+      }
+      scheduler.prioritize(reads.get(2));
+      blocked.countDown();
+
+      first.get();
+      for (Future<Void> read : reads) {
+        read.get();
+      }
+      assertEquals(Lists.newArrayList(2, 0, 1), order);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentReadsAreCapped() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      ReadScheduler scheduler = new ReadScheduler(executor, 2);
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger maxRunning = new AtomicInteger();
+
+      List<Future<Void>> reads = Lists.newArrayList();
+      for (int i = 0; i < 20; i++) {
+        reads.add(scheduler.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            int current = running.incrementAndGet();
+            while (true) {
+              int max = maxRunning.get();
+              if (current <= max || maxRunning.compareAndSet(max, current)) {
+                break;
+              }
+            }
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> read : reads) {
+        read.get();
+      }
+      assertTrue(maxRunning.get() <= 2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -721,4 +721,28 @@ public class TestJsonReader extends BaseTestQuery {
       testNoResult("alter session reset `exec.enable_union_type`");
     }
   }
+
+  @Test
+  public void testFieldsInChangingOrder() throws Exception {
+    String dfs_temp = getDfsTestTmpSchemaLocation();
+    File table_dir = new File(dfs_temp, "changing_order");
+    table_dir.mkdir();
+    BufferedOutputStream os = new BufferedOutputStream(new FileOutputStream(new File(table_dir, "a.json")));
+    os.write("{\"a\": 1, \"b\": \"x\", \"m\": {\"c\": 1.5}}\n".getBytes(Charsets.UTF_8));
+    os.write("{\"b\": \"\u00e9t\u00e9\", \"m\": {\"c\": 2.5}, \"a\": 2}\n".getBytes(Charsets.UTF_8));
+    os.write("{\"m\": {}, \"a\": 3}\n".getBytes(Charsets.UTF_8));
+    os.write("{\"a\": 4, \"b\": \"y\", \"m\": {\"c\": 4.5}}\n".getBytes(Charsets.UTF_8));
+    os.flush();
+    os.close();
+
+    testBuilder()
+        .sqlQuery("select t.a, t.b, t.m.c c from dfs_test.tmp.changing_order t")
+        .ordered()
+        .baselineColumns("a", "b", "c")
+        .baselineValues(1L, "x", 1.5)
+        .baselineValues(2L, "\u00e9t\u00e9", 2.5)
+        .baselineValues(3L, null, null)
+        .baselineValues(4L, "y", 4.5)
+        .go();
+  }
 }
@@ -297,6 +297,25 @@ public class ProfileParser {
     return ops;
   }
 
+  /**
+   * @param type the operator type, one of the values of
+   * {@link org.apache.drill.exec.proto.UserBitShared.CoreOperatorType}
+   * @return the profiles of the operators of the type in all minor fragments
+   */
+  public List<OperatorProfile> getOpsOfType(int type) {
+    List<OperatorProfile> ops = new ArrayList<>();
+    for (FragInfo major : fragments.values()) {
+      for (MinorFragInfo minor : major.minors) {
+        for (OperatorProfile op : minor.ops) {
+          if (op.type == type) {
+            ops.add(op);
+          }
+        }
+      }
+    }
+    return ops;
+  }
+
   public JsonArray getFragmentProfile( ) {
     return profile.getJsonArray("fragmentProfile");
   }
@@ -21,6 +21,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.DrillBuf;
 import io.netty.buffer.UnsafeDirectLittleEndian;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -812,7 +813,14 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     byte[] buffer = getIOBuffer();
     for (int posn = 0; posn < length; posn += buffer.length) {
       int len = Math.min(buffer.length, length - posn);
-      in.read(buffer, 0, len);
+      // Streams such as decompressing ones may return fewer bytes than asked for.
+      for (int n = 0; n < len; ) {
+        int count = in.read(buffer, n, len - n);
+        if (count < 0) {
+          throw new EOFException("Unexpected end of stream after " + (posn + n) + " of " + length + " bytes");
+        }
+        n += count;
+      }
       buf.writeBytes(buffer, 0, len);
     }
   }
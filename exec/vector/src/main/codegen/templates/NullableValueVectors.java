@@ -465,6 +465,19 @@ public final class ${className} extends BaseDataValueVector implements <#if type
       bits.getMutator().set(index, 1);
     }
 
+    @Override
+    public void setIndexDefined(int index, int count){
+      // the bits are one byte per value, set eight of them at a time
+      final DrillBuf bitsBuffer = bits.getBuffer();
+      int i = 0;
+      for (; i + 8 <= count; i += 8) {
+        bitsBuffer.setLong(index + i, 0x0101010101010101L);
+      }
+      for (; i < count; i++) {
+        bitsBuffer.setByte(index + i, 1);
+      }
+    }
+
     /**
      * Set the variable length element at the specified index to the supplied byte array.
      *
@@ -20,4 +20,9 @@ package org.apache.drill.exec.vector;
 public interface NullableVectorDefinitionSetter {
 
   public void setIndexDefined(int index);
+
+  /**
+   * Marks the given number of consecutive values, starting at the given index, as defined.
+   */
+  public void setIndexDefined(int index, int count);
 }
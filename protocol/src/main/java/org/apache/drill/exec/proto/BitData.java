@@ -668,6 +668,16 @@ public final class BitData {
      */
     com.google.protobuf.ByteString
         getAuthenticationMechanismsBytes(int index);
+
+    // optional bool accept_compressed_batches = 3;
+    /**
+     * <code>optional bool accept_compressed_batches = 3;</code>
+     */
+    boolean hasAcceptCompressedBatches();
+    /**
+     * <code>optional bool accept_compressed_batches = 3;</code>
+     */
+    boolean getAcceptCompressedBatches();
   }
   /**
    * Protobuf type {@code exec.bit.data.BitServerHandshake}
@@ -733,6 +743,11 @@ public final class BitData {
               authenticationMechanisms_.add(input.readBytes());
               break;
             }
+            case 24: {
+              bitField0_ |= 0x00000002;
+              acceptCompressedBatches_ = input.readBool();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -822,9 +837,26 @@ public final class BitData {
       return authenticationMechanisms_.getByteString(index);
     }
 
+    // optional bool accept_compressed_batches = 3;
+    public static final int ACCEPT_COMPRESSED_BATCHES_FIELD_NUMBER = 3;
+    private boolean acceptCompressedBatches_;
+    /**
+     * <code>optional bool accept_compressed_batches = 3;</code>
+     */
+    public boolean hasAcceptCompressedBatches() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional bool accept_compressed_batches = 3;</code>
+     */
+    public boolean getAcceptCompressedBatches() {
+      return acceptCompressedBatches_;
+    }
+
     private void initFields() {
       rpcVersion_ = 0;
       authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      acceptCompressedBatches_ = false;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -844,6 +876,9 @@ public final class BitData {
       for (int i = 0; i < authenticationMechanisms_.size(); i++) {
         output.writeBytes(2, authenticationMechanisms_.getByteString(i));
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBool(3, acceptCompressedBatches_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -866,6 +901,10 @@ public final class BitData {
         size += dataSize;
         size += 1 * getAuthenticationMechanismsList().size();
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(3, acceptCompressedBatches_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -986,6 +1025,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000001);
         authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000002);
+        acceptCompressedBatches_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1024,6 +1065,10 @@ public final class BitData {
           bitField0_ = (bitField0_ & ~0x00000002);
         }
         result.authenticationMechanisms_ = authenticationMechanisms_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.acceptCompressedBatches_ = acceptCompressedBatches_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1053,6 +1098,9 @@ public final class BitData {
           }
           onChanged();
         }
+        if (other.hasAcceptCompressedBatches()) {
+          setAcceptCompressedBatches(other.getAcceptCompressedBatches());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -1206,6 +1254,39 @@ public final class BitData {
         return this;
       }
 
+      // optional bool accept_compressed_batches = 3;
+      private boolean acceptCompressedBatches_ ;
+      /**
+       * <code>optional bool accept_compressed_batches = 3;</code>
+       */
+      public boolean hasAcceptCompressedBatches() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional bool accept_compressed_batches = 3;</code>
+       */
+      public boolean getAcceptCompressedBatches() {
+        return acceptCompressedBatches_;
+      }
+      /**
+       * <code>optional bool accept_compressed_batches = 3;</code>
+       */
+      public Builder setAcceptCompressedBatches(boolean value) {
+        bitField0_ |= 0x00000004;
+        acceptCompressedBatches_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool accept_compressed_batches = 3;</code>
+       */
+      public Builder clearAcceptCompressedBatches() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        acceptCompressedBatches_ = false;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:exec.bit.data.BitServerHandshake)
     }
 
@@ -1301,6 +1382,16 @@ public final class BitData {
      * <code>optional bool isLastBatch = 7;</code>
      */
     boolean getIsLastBatch();
+
+    // optional int32 compressed_body_length = 8;
+    /**
+     * <code>optional int32 compressed_body_length = 8;</code>
+     */
+    boolean hasCompressedBodyLength();
+    /**
+     * <code>optional int32 compressed_body_length = 8;</code>
+     */
+    int getCompressedBodyLength();
   }
   /**
    * Protobuf type {@code exec.bit.data.FragmentRecordBatch}
@@ -1420,6 +1511,11 @@ public final class BitData {
               isLastBatch_ = input.readBool();
               break;
             }
+            case 64: {
+              bitField0_ |= 0x00000040;
+              compressedBodyLength_ = input.readInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1594,6 +1690,22 @@ public final class BitData {
       return isLastBatch_;
     }
 
+    // optional int32 compressed_body_length = 8;
+    public static final int COMPRESSED_BODY_LENGTH_FIELD_NUMBER = 8;
+    private int compressedBodyLength_;
+    /**
+     * <code>optional int32 compressed_body_length = 8;</code>
+     */
+    public boolean hasCompressedBodyLength() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional int32 compressed_body_length = 8;</code>
+     */
+    public int getCompressedBodyLength() {
+      return compressedBodyLength_;
+    }
+
     private void initFields() {
       queryId_ = org.apache.drill.exec.proto.UserBitShared.QueryId.getDefaultInstance();
       receivingMajorFragmentId_ = 0;
@@ -1602,6 +1714,7 @@ public final class BitData {
       sendingMinorFragmentId_ = 0;
       def_ = org.apache.drill.exec.proto.UserBitShared.RecordBatchDef.getDefaultInstance();
       isLastBatch_ = false;
+      compressedBodyLength_ = 0;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1636,6 +1749,9 @@ public final class BitData {
       if (((bitField0_ & 0x00000020) == 0x00000020)) {
         output.writeBool(7, isLastBatch_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeInt32(8, compressedBodyLength_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1678,6 +1794,10 @@ public final class BitData {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(7, isLastBatch_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(8, compressedBodyLength_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1818,6 +1938,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000020);
         isLastBatch_ = false;
         bitField0_ = (bitField0_ & ~0x00000040);
+        compressedBodyLength_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000080);
         return this;
       }
 
@@ -1883,6 +2005,10 @@ public final class BitData {
           to_bitField0_ |= 0x00000020;
         }
         result.isLastBatch_ = isLastBatch_;
+        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.compressedBodyLength_ = compressedBodyLength_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1927,6 +2053,9 @@ public final class BitData {
         if (other.hasIsLastBatch()) {
           setIsLastBatch(other.getIsLastBatch());
         }
+        if (other.hasCompressedBodyLength()) {
+          setCompressedBodyLength(other.getCompressedBodyLength());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -2386,6 +2515,39 @@ public final class BitData {
         return this;
       }
 
+      // optional int32 compressed_body_length = 8;
+      private int compressedBodyLength_ ;
+      /**
+       * <code>optional int32 compressed_body_length = 8;</code>
+       */
+      public boolean hasCompressedBodyLength() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <code>optional int32 compressed_body_length = 8;</code>
+       */
+      public int getCompressedBodyLength() {
+        return compressedBodyLength_;
+      }
+      /**
+       * <code>optional int32 compressed_body_length = 8;</code>
+       */
+      public Builder setCompressedBodyLength(int value) {
+        bitField0_ |= 0x00000080;
+        compressedBodyLength_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 compressed_body_length = 8;</code>
+       */
+      public Builder clearCompressedBodyLength() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        compressedBodyLength_ = 0;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:exec.bit.data.FragmentRecordBatch)
     }
 
@@ -2425,19 +2587,21 @@ public final class BitData {
       "nProtos.proto\032\022Coordination.proto\032\023UserB" +
       "itShared.proto\"]\n\022BitClientHandshake\022\023\n\013" +
       "rpc_version\030\001 \001(\005\0222\n\007channel\030\002 \001(\0162\027.exe" +
-      "c.shared.RpcChannel:\010BIT_DATA\"K\n\022BitServ" +
+      "c.shared.RpcChannel:\010BIT_DATA\"n\n\022BitServ" +
       "erHandshake\022\023\n\013rpc_version\030\001 \001(\005\022 \n\030auth" +
-      "enticationMechanisms\030\002 \003(\t\"\214\002\n\023FragmentR" +
-      "ecordBatch\022&\n\010query_id\030\001 \001(\0132\024.exec.shar" +
-      "ed.QueryId\022#\n\033receiving_major_fragment_i" +
-      "d\030\002 \001(\005\022#\n\033receiving_minor_fragment_id\030\003",
-      " \003(\005\022!\n\031sending_major_fragment_id\030\004 \001(\005\022" +
-      "!\n\031sending_minor_fragment_id\030\005 \001(\005\022(\n\003de" +
-      "f\030\006 \001(\0132\033.exec.shared.RecordBatchDef\022\023\n\013" +
-      "isLastBatch\030\007 \001(\010*V\n\007RpcType\022\r\n\tHANDSHAK" +
-      "E\020\000\022\007\n\003ACK\020\001\022\013\n\007GOODBYE\020\002\022\024\n\020REQ_RECORD_" +
-      "BATCH\020\003\022\020\n\014SASL_MESSAGE\020\004B(\n\033org.apache." +
-      "drill.exec.protoB\007BitDataH\001"
+      "enticationMechanisms\030\002 \003(\t\022!\n\031accept_com" +
+      "pressed_batches\030\003 \001(\010\"\254\002\n\023FragmentRecord" +
+      "Batch\022&\n\010query_id\030\001 \001(\0132\024.exec.shared.Qu" +
+      "eryId\022#\n\033receiving_major_fragment_id\030\002 \001",
+      "(\005\022#\n\033receiving_minor_fragment_id\030\003 \003(\005\022" +
+      "!\n\031sending_major_fragment_id\030\004 \001(\005\022!\n\031se" +
+      "nding_minor_fragment_id\030\005 \001(\005\022(\n\003def\030\006 \001" +
+      "(\0132\033.exec.shared.RecordBatchDef\022\023\n\013isLas" +
+      "tBatch\030\007 \001(\010\022\036\n\026compressed_body_length\030\010" +
+      " \001(\005*V\n\007RpcType\022\r\n\tHANDSHAKE\020\000\022\007\n\003ACK\020\001\022" +
+      "\013\n\007GOODBYE\020\002\022\024\n\020REQ_RECORD_BATCH\020\003\022\020\n\014SA" +
+      "SL_MESSAGE\020\004B(\n\033org.apache.drill.exec.pr" +
+      "otoB\007BitDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -2455,13 +2619,13 @@ public final class BitData {
           internal_static_exec_bit_data_BitServerHandshake_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_exec_bit_data_BitServerHandshake_descriptor,
-              new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", });
+              new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", "AcceptCompressedBatches", });
           internal_static_exec_bit_data_FragmentRecordBatch_descriptor =
             getDescriptor().getMessageTypes().get(2);
           internal_static_exec_bit_data_FragmentRecordBatch_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_exec_bit_data_FragmentRecordBatch_descriptor,
-              new java.lang.String[] { "QueryId", "ReceivingMajorFragmentId", "ReceivingMinorFragmentId", "SendingMajorFragmentId", "SendingMinorFragmentId", "Def", "IsLastBatch", });
+              new java.lang.String[] { "QueryId", "ReceivingMajorFragmentId", "ReceivingMinorFragmentId", "SendingMajorFragmentId", "SendingMinorFragmentId", "Def", "IsLastBatch", "CompressedBodyLength", });
           return null;
         }
       };
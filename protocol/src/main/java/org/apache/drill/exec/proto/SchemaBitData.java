@@ -157,6 +157,8 @@ public final class SchemaBitData
                     output.writeInt32(1, message.getRpcVersion(), false);
                 for(String authenticationMechanisms : message.getAuthenticationMechanismsList())
                     output.writeString(2, authenticationMechanisms, true);
+                if(message.hasAcceptCompressedBatches())
+                    output.writeBool(3, message.getAcceptCompressedBatches(), false);
             }
             public boolean isInitialized(org.apache.drill.exec.proto.BitData.BitServerHandshake message)
             {
@@ -202,6 +204,9 @@ public final class SchemaBitData
                         case 2:
                             builder.addAuthenticationMechanisms(input.readString());
                             break;
+                        case 3:
+                            builder.setAcceptCompressedBatches(input.readBool());
+                            break;
                         default:
                             input.handleUnknownField(number, this);
                     }
@@ -244,6 +249,7 @@ public final class SchemaBitData
             {
                 case 1: return "rpcVersion";
                 case 2: return "authenticationMechanisms";
+                case 3: return "acceptCompressedBatches";
                 default: return null;
             }
         }
@@ -257,6 +263,7 @@ public final class SchemaBitData
         {
             fieldMap.put("rpcVersion", 1);
             fieldMap.put("authenticationMechanisms", 2);
+            fieldMap.put("acceptCompressedBatches", 3);
         }
     }
 
@@ -287,6 +294,8 @@ public final class SchemaBitData
 
                 if(message.hasIsLastBatch())
                     output.writeBool(7, message.getIsLastBatch(), false);
+                if(message.hasCompressedBodyLength())
+                    output.writeInt32(8, message.getCompressedBodyLength(), false);
             }
             public boolean isInitialized(org.apache.drill.exec.proto.BitData.FragmentRecordBatch message)
             {
@@ -349,6 +358,9 @@ public final class SchemaBitData
                         case 7:
                             builder.setIsLastBatch(input.readBool());
                             break;
+                        case 8:
+                            builder.setCompressedBodyLength(input.readInt32());
+                            break;
                         default:
                             input.handleUnknownField(number, this);
                     }
@@ -396,6 +408,7 @@ public final class SchemaBitData
                 case 5: return "sendingMinorFragmentId";
                 case 6: return "def";
                 case 7: return "isLastBatch";
+                case 8: return "compressedBodyLength";
                 default: return null;
             }
         }
@@ -414,6 +427,7 @@ public final class SchemaBitData
             fieldMap.put("sendingMinorFragmentId", 5);
             fieldMap.put("def", 6);
             fieldMap.put("isLastBatch", 7);
+            fieldMap.put("compressedBodyLength", 8);
         }
     }
 
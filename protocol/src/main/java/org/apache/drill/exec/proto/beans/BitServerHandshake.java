@@ -51,6 +51,7 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
     
     private int rpcVersion;
     private List<String> authenticationMechanisms;
+    private Boolean acceptCompressedBatches;
 
     public BitServerHandshake()
     {
@@ -85,6 +86,19 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
         return this;
     }
 
+    // acceptCompressedBatches
+
+    public Boolean getAcceptCompressedBatches()
+    {
+        return acceptCompressedBatches;
+    }
+
+    public BitServerHandshake setAcceptCompressedBatches(Boolean acceptCompressedBatches)
+    {
+        this.acceptCompressedBatches = acceptCompressedBatches;
+        return this;
+    }
+
     // java serialization
 
     public void readExternal(ObjectInput in) throws IOException
@@ -147,6 +161,9 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
                         message.authenticationMechanisms = new ArrayList<String>();
                     message.authenticationMechanisms.add(input.readString());
                     break;
+                case 3:
+                    message.acceptCompressedBatches = input.readBool();
+                    break;
                 default:
                     input.handleUnknownField(number, this);
             }   
@@ -167,6 +184,9 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
                     output.writeString(2, authenticationMechanisms, true);
             }
         }
+
+        if(message.acceptCompressedBatches != null)
+            output.writeBool(3, message.acceptCompressedBatches, false);
     }
 
     public String getFieldName(int number)
@@ -175,6 +195,7 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
         {
             case 1: return "rpcVersion";
             case 2: return "authenticationMechanisms";
+            case 3: return "acceptCompressedBatches";
             default: return null;
         }
     }
@@ -190,6 +211,7 @@ public final class BitServerHandshake implements Externalizable, Message<BitServ
     {
         __fieldMap.put("rpcVersion", 1);
         __fieldMap.put("authenticationMechanisms", 2);
+        __fieldMap.put("acceptCompressedBatches", 3);
     }
     
 }
@@ -56,6 +56,7 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
     private int sendingMinorFragmentId;
     private RecordBatchDef def;
     private Boolean isLastBatch;
+    private int compressedBodyLength;
 
     public FragmentRecordBatch()
     {
@@ -155,6 +156,19 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
         return this;
     }
 
+    // compressedBodyLength
+
+    public int getCompressedBodyLength()
+    {
+        return compressedBodyLength;
+    }
+
+    public FragmentRecordBatch setCompressedBodyLength(int compressedBodyLength)
+    {
+        this.compressedBodyLength = compressedBodyLength;
+        return this;
+    }
+
     // java serialization
 
     public void readExternal(ObjectInput in) throws IOException
@@ -234,6 +248,9 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
                 case 7:
                     message.isLastBatch = input.readBool();
                     break;
+                case 8:
+                    message.compressedBodyLength = input.readInt32();
+                    break;
                 default:
                     input.handleUnknownField(number, this);
             }   
@@ -271,6 +288,9 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
 
         if(message.isLastBatch != null)
             output.writeBool(7, message.isLastBatch, false);
+
+        if(message.compressedBodyLength != 0)
+            output.writeInt32(8, message.compressedBodyLength, false);
     }
 
     public String getFieldName(int number)
@@ -284,6 +304,7 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
             case 5: return "sendingMinorFragmentId";
             case 6: return "def";
             case 7: return "isLastBatch";
+            case 8: return "compressedBodyLength";
             default: return null;
         }
     }
@@ -304,6 +325,7 @@ public final class FragmentRecordBatch implements Externalizable, Message<Fragme
         __fieldMap.put("sendingMinorFragmentId", 5);
         __fieldMap.put("def", 6);
         __fieldMap.put("isLastBatch", 7);
+        __fieldMap.put("compressedBodyLength", 8);
     }
     
 }